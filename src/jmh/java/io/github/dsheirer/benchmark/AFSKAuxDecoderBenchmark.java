@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.bits.IBinarySymbolProcessor;
+import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
+import io.github.dsheirer.dsp.afsk.SharedAFSK1200Decoder;
+import io.github.dsheirer.sample.buffer.ReusableBufferQueue;
+import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AFSK 1200 auxiliary decoding throughput for a channel with multiple AFSK-based auxiliary decoders (Fleetsync,
+ * MDC-1200, LJ-1200, Tait), comparing one AFSK1200Decoder per auxiliary decoder (separate) against a single shared
+ * decoder that distributes the symbol stream to each auxiliary decoder (shared).  Score is 8 kHz audio samples per
+ * second, so the ratio of the scores is the per-channel CPU saved by the shared decoder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(AFSKAuxDecoderBenchmark.SAMPLE_COUNT)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AFSKAuxDecoderBenchmark
+{
+    public static final int SAMPLE_COUNT = 1000;
+    private static final int SAMPLE_RATE = 8000;
+
+    @Param({"1", "2", "4"})
+    public int mDecoderCount;
+
+    @Param({"separate", "shared"})
+    public String mMode;
+
+    private AFSK1200Decoder[] mDecoders;
+    private SymbolCounter mSymbolCounter = new SymbolCounter();
+    private ReusableFloatBuffer mBuffer;
+
+    @Setup
+    public void setup()
+    {
+        if(mMode.equals("shared"))
+        {
+            SharedAFSK1200Decoder decoder = new SharedAFSK1200Decoder();
+
+            for(int x = 0; x < mDecoderCount; x++)
+            {
+                decoder.addSymbolProcessor(mSymbolCounter, x % 2 == 0 ? AFSK1200Decoder.Output.NORMAL :
+                    AFSK1200Decoder.Output.INVERTED);
+            }
+
+            mDecoders = new AFSK1200Decoder[]{decoder};
+        }
+        else
+        {
+            mDecoders = new AFSK1200Decoder[mDecoderCount];
+
+            for(int x = 0; x < mDecoderCount; x++)
+            {
+                mDecoders[x] = new AFSK1200Decoder(x % 2 == 0 ? AFSK1200Decoder.Output.NORMAL :
+                    AFSK1200Decoder.Output.INVERTED);
+                mDecoders[x].setSymbolProcessor(mSymbolCounter);
+            }
+        }
+
+        mBuffer = new ReusableBufferQueue("AFSKAuxDecoderBenchmark").getBuffer(SAMPLE_COUNT);
+        float[] samples = BenchmarkSignals.getRealSamples(SAMPLE_COUNT, SAMPLE_RATE, AFSK1200Decoder.MARK, 0.1);
+        System.arraycopy(samples, 0, mBuffer.getSamples(), 0, SAMPLE_COUNT);
+    }
+
+    @Benchmark
+    public long decode()
+    {
+        for(AFSK1200Decoder decoder : mDecoders)
+        {
+            //The decoder decrements the user count of the input buffer, so we increment it to retain the buffer
+            mBuffer.incrementUserCount();
+            decoder.receive(mBuffer);
+        }
+
+        return mSymbolCounter.mCount;
+    }
+
+    /**
+     * Symbol processor that counts symbols so that the decoded symbol stream is consumed
+     */
+    public static class SymbolCounter implements IBinarySymbolProcessor
+    {
+        private long mCount;
+
+        @Override
+        public void receive(boolean symbol)
+        {
+            if(symbol)
+            {
+                mCount++;
+            }
+        }
+    }
+}
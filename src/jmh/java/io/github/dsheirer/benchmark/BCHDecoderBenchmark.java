@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.edac.BCH_63_16_11;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * P25 NID BCH(63,16,11) decoder throughput for 0 - 11 bit errors, comparing the packed syndrome decoder used by
+ * correctNID() against the generic Berlekamp Massey decoder.  Score is decoded NIDs per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BCHDecoderBenchmark
+{
+    //Valid NID codeword (with status symbol bit)
+    private static final String VALID_NID = "0010011000000011010010100000000110000111110011101010001010110000";
+
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11"})
+    public int mBitErrors;
+
+    @Param({"packed", "berlekamp-massey"})
+    public String mDecoderType;
+
+    private BCH_63_16_11 mDecoder;
+    private BinaryMessage mNID;
+    private BinaryMessage mMessage = new BinaryMessage(64);
+
+    @Setup
+    public void setup()
+    {
+        mDecoder = new BCH_63_16_11();
+        mNID = BinaryMessage.load(VALID_NID);
+
+        //Flip distinct bit positions within the 63-bit codeword
+        Random random = BenchmarkSignals.getRandom();
+        BitSet errors = new BitSet();
+
+        while(errors.cardinality() < mBitErrors)
+        {
+            errors.set(random.nextInt(63));
+        }
+
+        mNID.xor(errors);
+    }
+
+    @Benchmark
+    public BinaryMessage decode()
+    {
+        mMessage.clear();
+        mMessage.or(mNID);
+
+        if(mDecoderType.equals("packed"))
+        {
+            return mDecoder.correctNID(mMessage);
+        }
+
+        return mDecoder.correctNIDBerlekampMassey(mMessage);
+    }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.mixer.LowPhaseNoiseOscillator;
+
+import java.util.Random;
+
+/**
+ * Synthetic sample generator for the JMH benchmarks.  Produces a tone (as produced by the tuner SampleGenerator) with
+ * additive white gaussian noise so that the benchmarks process realistic, non-constant sample values.
+ */
+public class BenchmarkSignals
+{
+    private static final long SEED = 0x5D57;
+
+    /**
+     * Generates interleaved complex samples containing a tone plus additive white gaussian noise.
+     *
+     * @param sampleCount number of complex samples
+     * @param sampleRate of the samples
+     * @param frequency of the tone
+     * @param noiseLevel standard deviation of the noise relative to the unity gain tone
+     * @return interleaved I/Q samples
+     */
+    public static float[] getComplexSamples(int sampleCount, double sampleRate, double frequency, double noiseLevel)
+    {
+        float[] samples = new LowPhaseNoiseOscillator(frequency, sampleRate).generateComplex(sampleCount);
+        addNoise(samples, noiseLevel);
+        return samples;
+    }
+
+    /**
+     * Generates real samples containing a tone plus additive white gaussian noise.
+     *
+     * @param sampleCount number of samples
+     * @param sampleRate of the samples
+     * @param frequency of the tone
+     * @param noiseLevel standard deviation of the noise relative to the unity gain tone
+     * @return real samples
+     */
+    public static float[] getRealSamples(int sampleCount, double sampleRate, double frequency, double noiseLevel)
+    {
+        float[] samples = new LowPhaseNoiseOscillator(frequency, sampleRate).generateReal(sampleCount);
+        addNoise(samples, noiseLevel);
+        return samples;
+    }
+
+    /**
+     * Random generator with a fixed seed so that each benchmark run processes the same data
+     */
+    public static Random getRandom()
+    {
+        return new Random(SEED);
+    }
+
+    private static void addNoise(float[] samples, double noiseLevel)
+    {
+        Random random = getRandom();
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] += (float)(random.nextGaussian() * noiseLevel);
+        }
+    }
+}
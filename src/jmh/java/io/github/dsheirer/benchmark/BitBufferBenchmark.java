@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.bits.BinaryMessageAdapter;
+import io.github.dsheirer.bits.PackedBitBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bit field extraction and sub-message cost for BinaryMessage versus PackedBitBuffer, using a 196-bit (TSBK/PDU
+ * block) sized message.  Score is operations per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitBufferBenchmark
+{
+    private static final int MESSAGE_LENGTH = 196;
+
+    /* Field start/end (inclusive) pairs, similar to a TSBK layout with byte and word fields */
+    private static final int[] FIELDS = {0, 7, 8, 15, 16, 39, 40, 63, 64, 79, 80, 95, 96, 111, 112, 127};
+
+    private BinaryMessage mBinaryMessage;
+    private PackedBitBuffer mPackedBitBuffer;
+
+    @Setup
+    public void setup()
+    {
+        Random random = BenchmarkSignals.getRandom();
+
+        mBinaryMessage = new BinaryMessage(MESSAGE_LENGTH);
+
+        for(int x = 0; x < MESSAGE_LENGTH; x++)
+        {
+            if(random.nextBoolean())
+            {
+                mBinaryMessage.set(x);
+            }
+        }
+
+        mPackedBitBuffer = BinaryMessageAdapter.toPackedBitBuffer(mBinaryMessage);
+    }
+
+    @Benchmark
+    public int binaryMessageFields()
+    {
+        int sum = 0;
+
+        for(int x = 0; x < FIELDS.length; x += 2)
+        {
+            sum += mBinaryMessage.getInt(FIELDS[x], FIELDS[x + 1]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public int packedBitBufferFields()
+    {
+        int sum = 0;
+
+        for(int x = 0; x < FIELDS.length; x += 2)
+        {
+            sum += mPackedBitBuffer.getInt(FIELDS[x], FIELDS[x + 1]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public BinaryMessage binaryMessageSubMessage()
+    {
+        return mBinaryMessage.getSubMessage(98, 196);
+    }
+
+    @Benchmark
+    public PackedBitBuffer packedBitBufferView()
+    {
+        return mPackedBitBuffer.getView(98, 196);
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.psk.pll.CostasLoop;
+import io.github.dsheirer.sample.complex.Complex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costas loop carrier tracking throughput on a mis-tuned (200 Hz offset) P25 channel at 48 kHz.  Each sample is
+ * mixed with the loop's current vector and the loop is adjusted with a QPSK phase error estimate.  Score is complex
+ * samples per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(CostasLoopBenchmark.SAMPLE_COUNT)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CostasLoopBenchmark
+{
+    public static final int SAMPLE_COUNT = 4096;
+    private static final int SAMPLE_RATE = 48000;
+    private static final int SYMBOL_RATE = 4800;
+
+    private CostasLoop mCostasLoop;
+    private Complex mSample = new Complex(0, 0);
+    private float[] mSamples;
+
+    @Setup
+    public void setup()
+    {
+        mCostasLoop = new CostasLoop(SAMPLE_RATE, SYMBOL_RATE);
+        mSamples = BenchmarkSignals.getComplexSamples(SAMPLE_COUNT, SAMPLE_RATE, 200, 0.1);
+    }
+
+    @Benchmark
+    public double track()
+    {
+        for(int x = 0; x < mSamples.length; x += 2)
+        {
+            mSample.setValues(mSamples[x], mSamples[x + 1]);
+            mSample.multiply(mCostasLoop.incrementAndGetCurrentVector());
+
+            //QPSK decision-directed phase error
+            float error = (Math.signum(mSample.inphase()) * mSample.quadrature()) -
+                (Math.signum(mSample.quadrature()) * mSample.inphase());
+
+            mCostasLoop.adjust(error);
+        }
+
+        return mCostasLoop.getLoopFrequency();
+    }
+}
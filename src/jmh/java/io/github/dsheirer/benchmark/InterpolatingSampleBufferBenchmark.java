@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.psk.InterpolatingSampleBuffer;
+import io.github.dsheirer.sample.complex.Complex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpolating sample buffer symbol timing throughput for a P25 channel at 48 kHz (10 samples per symbol).  Each
+ * sample is loaded into the buffer and at each symbol period the current and middle samples are interpolated and the
+ * timing is adjusted with a gardner timing error estimate.  Score is complex samples per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(InterpolatingSampleBufferBenchmark.SAMPLE_COUNT)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolatingSampleBufferBenchmark
+{
+    public static final int SAMPLE_COUNT = 4096;
+    private static final int SAMPLE_RATE = 48000;
+    private static final float SAMPLES_PER_SYMBOL = 10.0f;
+    private static final float SAMPLE_COUNTER_GAIN = 0.3f;
+
+    private InterpolatingSampleBuffer mInterpolatingSampleBuffer;
+    private Complex mSample = new Complex(0, 0);
+    private float[] mSamples;
+
+    @Setup
+    public void setup()
+    {
+        mInterpolatingSampleBuffer = new InterpolatingSampleBuffer(SAMPLES_PER_SYMBOL, SAMPLE_COUNTER_GAIN);
+        mSamples = BenchmarkSignals.getComplexSamples(SAMPLE_COUNT, SAMPLE_RATE, 1200, 0.1);
+    }
+
+    @Benchmark
+    public float interpolate()
+    {
+        float accumulator = 0.0f;
+
+        for(int x = 0; x < mSamples.length; x += 2)
+        {
+            mSample.setValues(mSamples[x], mSamples[x + 1]);
+            mInterpolatingSampleBuffer.receive(mSample);
+
+            if(mInterpolatingSampleBuffer.hasSymbol())
+            {
+                Complex preceding = mInterpolatingSampleBuffer.getPrecedingSample();
+                Complex middle = mInterpolatingSampleBuffer.getMiddleSample();
+                Complex current = mInterpolatingSampleBuffer.getCurrentSample();
+
+                //Gardner timing error on the inphase component, constrained to +/- 1 sample
+                float error = (current.inphase() - preceding.inphase()) * middle.inphase();
+                error = Math.max(-1.0f, Math.min(1.0f, error));
+
+                mInterpolatingSampleBuffer.resetAndAdjust(error);
+                accumulator += current.inphase();
+            }
+        }
+
+        return accumulator;
+    }
+}
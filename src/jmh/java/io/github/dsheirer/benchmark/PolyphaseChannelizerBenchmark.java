@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.filter.channelizer.ComplexPolyphaseChannelizerM2;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polyphase channelizer filter throughput on wideband tuner I/Q samples.  Score is tuner (complex) samples per
+ * second.
+ *
+ * The channel results are released immediately rather than enqueued for the IFFT and channel distribution, which
+ * run on a separate thread in the channelizer, so this measures the polyphase filtering stage only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(PolyphaseChannelizerBenchmark.SAMPLE_COUNT)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolyphaseChannelizerBenchmark
+{
+    public static final int SAMPLE_COUNT = 65536;
+
+    @Param({"2400000", "10000000"})
+    public int mSampleRate;
+
+    private ComplexPolyphaseChannelizerM2 mChannelizer;
+    private ReusableComplexBuffer mBuffer;
+
+    @Setup
+    public void setup() throws FilterDesignException
+    {
+        mChannelizer = new FilteringOnlyChannelizer(mSampleRate, 9);
+
+        mBuffer = new ReusableComplexBufferQueue("PolyphaseChannelizerBenchmark").getBuffer(SAMPLE_COUNT * 2);
+        float[] samples = BenchmarkSignals.getComplexSamples(SAMPLE_COUNT, mSampleRate, 120000, 0.1);
+        System.arraycopy(samples, 0, mBuffer.getSamples(), 0, samples.length);
+    }
+
+    @Benchmark
+    public void channelize()
+    {
+        //The channelizer decrements the user count of the input buffer, so we increment it to retain the buffer
+        mBuffer.incrementUserCount();
+        mChannelizer.receive(mBuffer);
+    }
+
+    /**
+     * Channelizer that releases each channel results buffer instead of enqueueing it for IFFT processing
+     */
+    public static class FilteringOnlyChannelizer extends ComplexPolyphaseChannelizerM2
+    {
+        public FilteringOnlyChannelizer(double sampleRate, int tapsPerChannel) throws FilterDesignException
+        {
+            super(sampleRate, tapsPerChannel);
+        }
+
+        @Override
+        protected void enqueue(ReusableChannelResultsBuffer channelResultsBuffer)
+        {
+            channelResultsBuffer.decrementUserCount();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.Window;
+import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.real.RealRingFIRFilter;
+import io.github.dsheirer.sample.buffer.ReusableBufferQueue;
+import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real FIR filter throughput on demodulated (real) channel samples for the shifting delay line filter (RealFIRFilter2)
+ * and the ring buffer filter (RealRingFIRFilter) with and without loop unrolling.  Score is samples per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(RealFIRFilterBenchmark.SAMPLE_COUNT)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RealFIRFilterBenchmark
+{
+    public static final int SAMPLE_COUNT = 4096;
+    private static final int SAMPLE_RATE = 48000;
+
+    @Param({"31", "63", "127"})
+    public int mTapCount;
+
+    @Param({"shift", "ring", "ring-unrolled"})
+    public String mFilterType;
+
+    private RealFIRFilter2 mFilter;
+    private RealRingFIRFilter mRingFilter;
+    private ReusableFloatBuffer mBuffer;
+
+    @Setup
+    public void setup()
+    {
+        float[] coefficients = FilterFactory.getLowPass(SAMPLE_RATE, 3000, mTapCount, Window.WindowType.HAMMING);
+
+        if(mFilterType.equals("shift"))
+        {
+            mFilter = new RealFIRFilter2(coefficients);
+        }
+        else
+        {
+            mRingFilter = new RealRingFIRFilter(coefficients, 1.0f, mFilterType.equals("ring-unrolled"));
+        }
+
+        mBuffer = new ReusableBufferQueue("RealFIRFilterBenchmark").getBuffer(SAMPLE_COUNT);
+        float[] samples = BenchmarkSignals.getRealSamples(SAMPLE_COUNT, SAMPLE_RATE, 1200, 0.1);
+        System.arraycopy(samples, 0, mBuffer.getSamples(), 0, SAMPLE_COUNT);
+    }
+
+    @Benchmark
+    public float filter()
+    {
+        //The filter decrements the user count of the input buffer, so we increment it to retain the buffer
+        mBuffer.incrementUserCount();
+        ReusableFloatBuffer filtered = mFilter != null ? mFilter.filter(mBuffer) : mRingFilter.filter(mBuffer);
+        float value = filtered.getSamples()[0];
+        filtered.decrementUserCount();
+        return value;
+    }
+}
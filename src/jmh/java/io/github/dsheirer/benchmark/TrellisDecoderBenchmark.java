@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.benchmark;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.module.decode.p25.ITrellisDecoder;
+import io.github.dsheirer.module.decode.p25.TrellisDecoderType;
+import io.github.dsheirer.module.decode.p25.Trellis_1_2_Rate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * P25 1/2 rate trellis decoder throughput for 196-bit (TSBK/PDU) blocks with a configurable number of bit errors.
+ * Score is decoded blocks per second for each of the trellis decoder implementations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrellisDecoderBenchmark
+{
+    private static final int BLOCK_LENGTH = 196;
+    private static final int DIBIT_COUNT = 49;
+
+    @Param({"0", "3"})
+    public int mBitErrors;
+
+    @Param({"LEGACY", "VITERBI"})
+    public TrellisDecoderType mDecoderType;
+
+    private ITrellisDecoder mDecoder;
+    private BinaryMessage mEncoded;
+    private BinaryMessage mMessage = new BinaryMessage(BLOCK_LENGTH);
+
+    @Setup
+    public void setup()
+    {
+        mDecoder = mDecoderType.createHalfRateDecoder();
+        mEncoded = encode(BenchmarkSignals.getRandom());
+
+        Random random = BenchmarkSignals.getRandom();
+
+        for(int x = 0; x < mBitErrors; x++)
+        {
+            mEncoded.flip(random.nextInt(BLOCK_LENGTH));
+        }
+    }
+
+    /**
+     * Encodes 48 random input dibits plus a flushing dibit into 49 trellis constellations, starting from state 0
+     */
+    public static BinaryMessage encode(Random random)
+    {
+        BinaryMessage encoded = new BinaryMessage(BLOCK_LENGTH);
+
+        Dibit state = Dibit.D00_PLUS_1;
+
+        for(int x = 0; x < DIBIT_COUNT; x++)
+        {
+            Dibit input = x < DIBIT_COUNT - 1 ? Dibit.values()[random.nextInt(4)] : Dibit.D00_PLUS_1;
+
+            int value = Trellis_1_2_Rate.Constellation.fromStateAndInputDibits(state, input).getTransmittedValue();
+
+            for(int bit = 0; bit < 4; bit++)
+            {
+                if((value & (1 << (3 - bit))) != 0)
+                {
+                    encoded.set(x * 4 + bit);
+                }
+            }
+
+            state = input;
+        }
+
+        return encoded;
+    }
+
+    @Benchmark
+    public boolean decode()
+    {
+        mMessage.clear();
+        mMessage.or(mEncoded);
+        return mDecoder.decode(mMessage, 0, BLOCK_LENGTH);
+    }
+}
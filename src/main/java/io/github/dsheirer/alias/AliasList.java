@@ -21,6 +21,7 @@ package io.github.dsheirer.alias;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import io.github.dsheirer.alias.id.AliasID;
 import io.github.dsheirer.alias.id.WildcardID;
+import io.github.dsheirer.alias.id.WildcardMatcher;
 import io.github.dsheirer.alias.id.esn.Esn;
 import io.github.dsheirer.alias.id.fleetsync.FleetsyncID;
 import io.github.dsheirer.alias.id.lojack.LoJackFunctionAndID;
@@ -36,10 +37,7 @@ import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class AliasList implements Listener<AliasEvent>
@@ -59,13 +57,13 @@ public class AliasList implements Listener<AliasEvent>
     private Map<String,Alias> mTalkgroup = new HashMap<>();
     private Map<Integer,Alias> mUniqueID = new HashMap<>();
 
-    private List<WildcardID> mESNWildcards = new ArrayList<>();
-    private List<WildcardID> mMobileIDWildcards = new ArrayList<>();
-    private List<WildcardID> mFleetsyncWildcards = new ArrayList<>();
-    private List<WildcardID> mMDC1200Wildcards = new ArrayList<>();
-    private List<WildcardID> mMPT1327Wildcards = new ArrayList<>();
-    private List<WildcardID> mSiteWildcards = new ArrayList<>();
-    private List<WildcardID> mTalkgroupWildcards = new ArrayList<>();
+    private WildcardMatcher mESNWildcards = new WildcardMatcher();
+    private WildcardMatcher mMobileIDWildcards = new WildcardMatcher();
+    private WildcardMatcher mFleetsyncWildcards = new WildcardMatcher();
+    private WildcardMatcher mMDC1200Wildcards = new WildcardMatcher();
+    private WildcardMatcher mMPT1327Wildcards = new WildcardMatcher();
+    private WildcardMatcher mSiteWildcards = new WildcardMatcher();
+    private WildcardMatcher mTalkgroupWildcards = new WildcardMatcher();
 
     private String mName;
 
@@ -113,7 +111,6 @@ public class AliasList implements Listener<AliasEvent>
                             if(esn.contains(WILDCARD))
                             {
                                 mESNWildcards.add(new WildcardID(esn));
-                                Collections.sort(mESNWildcards);
                             }
 
                             mESN.put(esn, alias);
@@ -127,7 +124,6 @@ public class AliasList implements Listener<AliasEvent>
                             if(fleetsync.contains(WILDCARD))
                             {
                                 mFleetsyncWildcards.add(new WildcardID(fleetsync));
-                                Collections.sort(mFleetsyncWildcards);
                             }
 
                             mFleetsync.put(fleetsync, alias);
@@ -144,7 +140,6 @@ public class AliasList implements Listener<AliasEvent>
                             if(mdc.contains(WILDCARD))
                             {
                                 mMDC1200Wildcards.add(new WildcardID(mdc));
-                                Collections.sort(mMDC1200Wildcards);
                             }
 
                             mMDC1200.put(mdc, alias);
@@ -158,7 +153,6 @@ public class AliasList implements Listener<AliasEvent>
                             if(mpt.contains(WILDCARD))
                             {
                                 mMPT1327Wildcards.add(new WildcardID(mpt));
-                                Collections.sort(mMPT1327Wildcards);
                             }
 
                             mMPT1327.put(mpt, alias);
@@ -172,7 +166,6 @@ public class AliasList implements Listener<AliasEvent>
                             if(min.contains(WILDCARD))
                             {
                                 mMobileIDWildcards.add(new WildcardID(min));
-                                Collections.sort(mMobileIDWildcards);
                             }
 
                             mMobileID.put(min, alias);
@@ -189,7 +182,6 @@ public class AliasList implements Listener<AliasEvent>
                             if(siteID.contains(WILDCARD))
                             {
                                 mSiteWildcards.add(new WildcardID(siteID));
-                                Collections.sort(mSiteWildcards);
                             }
 
                             mSiteID.put(siteID, alias);
@@ -206,7 +198,6 @@ public class AliasList implements Listener<AliasEvent>
                             if(tgid.contains(WILDCARD))
                             {
                                 mTalkgroupWildcards.add(new WildcardID(tgid));
-                                Collections.sort(mTalkgroupWildcards);
                             }
 
                             mTalkgroup.put(tgid, alias);
@@ -243,18 +234,9 @@ public class AliasList implements Listener<AliasEvent>
         }
     }
 
-    private void removeWildcard(String value, List<WildcardID> wildcards)
+    private void removeWildcard(String value, WildcardMatcher wildcards)
     {
-        if(value != null)
-        {
-            for(WildcardID wildcardID : wildcards)
-            {
-                if(wildcardID.value().equals(value))
-                {
-                    wildcards.remove(wildcardID);
-                }
-            }
-        }
+        wildcards.remove(value);
     }
 
     /**
@@ -369,27 +351,15 @@ public class AliasList implements Listener<AliasEvent>
     }
 
     /**
-     * Returns the first matching regex wildcard from the list of wildcards that matches the
-     * identifier.
+     * Returns the most specific wildcard from the wildcard matcher that matches the identifier.
      *
      * @param id to match
      * @param wildcards to match against
      * @return matching wildcard ID or null
      */
-    private String getWildcardMatch(String id, List<WildcardID> wildcards)
+    private String getWildcardMatch(String id, WildcardMatcher wildcards)
     {
-        if(id != null)
-        {
-            for(WildcardID wildcard : wildcards)
-            {
-                if(wildcard.matches(id))
-                {
-                    return wildcard.value();
-                }
-            }
-        }
-
-        return null;
+        return wildcards.getMatch(id);
     }
 
     /**
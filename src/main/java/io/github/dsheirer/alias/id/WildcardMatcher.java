@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.alias.id;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled matcher for a set of wildcard identifiers of a single alias ID type.
+ *
+ * Wildcard patterns are fixed length, so they are compiled into a character trie where each level corresponds to a
+ * character position and each node has literal character children and a single wildcard (*) child.  A lookup walks
+ * the literal and wildcard branches for each character of the identifier and selects the matching pattern with the
+ * lowest weight, preserving the most-specific-first precedence of WildcardID ordering.  Patterns with equal weight are
+ * resolved in the order that they were added.
+ *
+ * Lookup results, including misses, are cached in a bounded cache that is discarded whenever the set of wildcards
+ * changes.  Lookups are thread safe.  Changes to the wildcard set should be made from a single thread.
+ */
+public class WildcardMatcher
+{
+    private static final int MAX_CACHE_SIZE = 1000;
+    private static final String NO_MATCH = "";
+
+    private List<WildcardID> mWildcards = new ArrayList<>();
+    private volatile Trie mTrie;
+
+    public WildcardMatcher()
+    {
+    }
+
+    /**
+     * Adds the wildcard identifier to this matcher
+     */
+    public void add(WildcardID wildcardID)
+    {
+        mWildcards.add(wildcardID);
+        compile();
+    }
+
+    /**
+     * Removes all wildcard identifiers with the specified pattern value from this matcher
+     */
+    public void remove(String value)
+    {
+        if(value != null)
+        {
+            boolean removed = false;
+
+            Iterator<WildcardID> it = mWildcards.iterator();
+
+            while(it.hasNext())
+            {
+                if(it.next().value().equals(value))
+                {
+                    it.remove();
+                    removed = true;
+                }
+            }
+
+            if(removed)
+            {
+                compile();
+            }
+        }
+    }
+
+    /**
+     * Returns the pattern value of the most specific wildcard identifier that matches the identifier.
+     *
+     * @param id to match
+     * @return matching wildcard pattern value or null
+     */
+    public String getMatch(String id)
+    {
+        Trie trie = mTrie;
+
+        if(id == null || trie == null)
+        {
+            return null;
+        }
+
+        String cached = trie.mCache.get(id);
+
+        if(cached == null)
+        {
+            Node match = match(trie.mRoot, id, 0);
+
+            cached = match != null ? match.mWildcardID.value() : NO_MATCH;
+
+            if(trie.mCache.size() >= MAX_CACHE_SIZE)
+            {
+                trie.mCache.clear();
+            }
+
+            trie.mCache.put(id, cached);
+        }
+
+        return cached.isEmpty() ? null : cached;
+    }
+
+    /**
+     * Rebuilds the trie from the current wildcard set.  The cache belongs to the trie, so publishing the new trie
+     * discards the cached results of the previous trie.
+     */
+    private void compile()
+    {
+        if(mWildcards.isEmpty())
+        {
+            mTrie = null;
+        }
+        else
+        {
+            Node root = new Node();
+
+            for(int x = 0; x < mWildcards.size(); x++)
+            {
+                WildcardID wildcardID = mWildcards.get(x);
+                String value = wildcardID.value();
+                Node node = root;
+
+                for(int position = 0; position < value.length(); position++)
+                {
+                    node = node.getOrCreateChild(value.charAt(position));
+                }
+
+                if(node.mWildcardID == null || wildcardID.weight() < node.mWildcardID.weight())
+                {
+                    node.mWildcardID = wildcardID;
+                    node.mOrder = x;
+                }
+            }
+
+            mTrie = new Trie(root);
+        }
+    }
+
+    /**
+     * Recursively matches the identifier characters from the position onward against the node's subtree.
+     *
+     * @return terminal node of the best matching pattern or null
+     */
+    private static Node match(Node node, String id, int position)
+    {
+        if(position == id.length())
+        {
+            return node.mWildcardID != null ? node : null;
+        }
+
+        Node literal = node.mChildren != null ? node.mChildren.get(id.charAt(position)) : null;
+        Node literalMatch = literal != null ? match(literal, id, position + 1) : null;
+        Node wildcardMatch = node.mWildcard != null ? match(node.mWildcard, id, position + 1) : null;
+
+        if(literalMatch == null)
+        {
+            return wildcardMatch;
+        }
+
+        if(wildcardMatch == null)
+        {
+            return literalMatch;
+        }
+
+        return isPreferred(literalMatch, wildcardMatch) ? literalMatch : wildcardMatch;
+    }
+
+    /**
+     * Indicates if node a is preferred over node b by lowest weight and then earliest insertion order
+     */
+    private static boolean isPreferred(Node a, Node b)
+    {
+        int comparison = a.mWildcardID.compareTo(b.mWildcardID);
+
+        return comparison < 0 || (comparison == 0 && a.mOrder < b.mOrder);
+    }
+
+    /**
+     * Compiled trie and the lookup result cache for the trie
+     */
+    private static class Trie
+    {
+        private Node mRoot;
+        private Map<String,String> mCache = new ConcurrentHashMap<>();
+
+        private Trie(Node root)
+        {
+            mRoot = root;
+        }
+    }
+
+    /**
+     * Trie node.  Terminal nodes carry the wildcard identifier for the pattern that ends at the node.
+     */
+    private static class Node
+    {
+        private Map<Character,Node> mChildren;
+        private Node mWildcard;
+        private WildcardID mWildcardID;
+        private int mOrder;
+
+        private Node getOrCreateChild(char character)
+        {
+            if(WildcardID.WILDCARD.charAt(0) == character)
+            {
+                if(mWildcard == null)
+                {
+                    mWildcard = new Node();
+                }
+
+                return mWildcard;
+            }
+
+            if(mChildren == null)
+            {
+                mChildren = new HashMap<>();
+            }
+
+            Node child = mChildren.get(character);
+
+            if(child == null)
+            {
+                child = new Node();
+                mChildren.put(character, child);
+            }
+
+            return child;
+        }
+    }
+}
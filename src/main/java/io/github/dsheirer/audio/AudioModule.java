@@ -20,7 +20,7 @@ import io.github.dsheirer.audio.squelch.SquelchState;
 import io.github.dsheirer.channel.metadata.Metadata;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.real.RealRingFIRFilter;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.module.Module;
 import io.github.dsheirer.sample.Listener;
@@ -73,7 +73,7 @@ public class AudioModule extends Module implements IAudioPacketProvider, IReusab
         }
     }
 
-    private RealFIRFilter2 mHighPassFilter = new RealFIRFilter2(sHighPassFilterCoefficients);
+    private RealRingFIRFilter mHighPassFilter = new RealRingFIRFilter(sHighPassFilterCoefficients);
     private SquelchStateListener mSquelchStateListener = new SquelchStateListener();
     private SquelchState mSquelchState = SquelchState.SQUELCH;
     private Listener<ReusableAudioPacket> mAudioPacketListener;
@@ -114,7 +114,7 @@ public class AudioModule extends Module implements IAudioPacketProvider, IReusab
         if(mAudioPacketListener != null)
         {
             ReusableAudioPacket endAudioPacket = mAudioPacketQueue.getEndAudioBuffer();
-            endAudioPacket.setMetadata(mMetadata.copyOf());
+            endAudioPacket.setMetadata(mMetadata.getSnapshot());
             endAudioPacket.incrementUserCount();
             mAudioPacketListener.receive(endAudioPacket);
         }
@@ -147,7 +147,7 @@ public class AudioModule extends Module implements IAudioPacketProvider, IReusab
 
             ReusableAudioPacket audioPacket = mAudioPacketQueue.getBuffer(highPassFiltered.getSampleCount());
             audioPacket.loadAudioFrom(highPassFiltered);
-            audioPacket.setMetadata(mMetadata.copyOf());
+            audioPacket.setMetadata(mMetadata.getSnapshot());
 
             mAudioPacketListener.receive(audioPacket);
 
@@ -177,7 +177,7 @@ public class AudioModule extends Module implements IAudioPacketProvider, IReusab
             if(state == SquelchState.SQUELCH && mAudioPacketListener != null)
             {
                 ReusableAudioPacket endAudioPacket = mAudioPacketQueue.getEndAudioBuffer();
-                endAudioPacket.setMetadata(mMetadata.copyOf());
+                endAudioPacket.setMetadata(mMetadata.getSnapshot());
                 mAudioPacketListener.receive(endAudioPacket);
             }
 
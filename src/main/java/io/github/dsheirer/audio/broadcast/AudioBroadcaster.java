@@ -20,6 +20,7 @@ package io.github.dsheirer.audio.broadcast;
 
 import io.github.dsheirer.audio.convert.ISilenceGenerator;
 import io.github.dsheirer.channel.metadata.Metadata;
+import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
@@ -39,11 +40,13 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
     private final static Logger mLog = LoggerFactory.getLogger(AudioBroadcaster.class);
 
     public static final int PROCESSOR_RUN_INTERVAL_MS = 1000;
+    private static final int BYTES_PER_MILLISECOND = 2; //16 kbps
 
     private ScheduledFuture mRecordingQueueProcessorFuture;
 
     private RecordingQueueProcessor mRecordingQueueProcessor = new RecordingQueueProcessor();
     private Queue<AudioRecording> mAudioRecordingQueue = new LinkedTransferQueue<>();
+    private Queue<AudioFrameRing> mLiveStreamQueue = new LinkedTransferQueue<>();
 
     private ISilenceGenerator mSilenceGenerator;
 
@@ -55,6 +58,7 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
     private BroadcastConfiguration mBroadcastConfiguration;
     private long mDelay;
     private long mMaximumRecordingAge;
+    private long mLiveDelay;
     private AtomicBoolean mStreaming = new AtomicBoolean();
 
     /**
@@ -77,12 +81,19 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
      *
      * The last audio packet's metadata is automatically attached to the closed audio recording when it is enqueued for
      * broadcast.  That metadata will be updated on the remote server once the audio recording is opened for streaming.
+     *
+     * Live streams are nominated when each call starts and are streamed from the stream's in-memory frame ring while
+     * the call is in progress, once the live delay (system property 'broadcast.live.delay.ms') plus the configured
+     * delay has elapsed.  The completed audio recording for a live stream is only queued for streaming if this
+     * broadcaster didn't attach to the live stream, for example when the call ended before the delay elapsed, the
+     * frame ring was overrun before the delay elapsed, or another recording or stream was being broadcast.
      */
     public AudioBroadcaster(BroadcastConfiguration broadcastConfiguration)
     {
         mBroadcastConfiguration = broadcastConfiguration;
         mDelay = mBroadcastConfiguration.getDelay();
         mMaximumRecordingAge = mBroadcastConfiguration.getMaximumRecordingAge();
+        mLiveDelay = SystemProperties.getInstance().get(StreamManager.LIVE_DELAY_PROPERTY, 1000);
         mSilenceGenerator = BroadcastFactory.getSilenceGenerator(broadcastConfiguration.getBroadcastFormat());
     }
 
@@ -198,8 +209,31 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
     {
         if(connected())
         {
-            mAudioRecordingQueue.offer(recording);
-            broadcast(new BroadcastEvent(this, BroadcastEvent.Event.BROADCASTER_QUEUE_CHANGE));
+            AudioFrameRing frameRing = recording.getFrameRing();
+
+            if(frameRing != null && frameRing.isAttached(this))
+            {
+                //Recording was (or is being) streamed live
+                recording.removePendingReplay();
+            }
+            else
+            {
+                mAudioRecordingQueue.offer(recording);
+                broadcast(new BroadcastEvent(this, BroadcastEvent.Event.BROADCASTER_QUEUE_CHANGE));
+            }
+        }
+    }
+
+    /**
+     * Primary insert method for the stream manager to nominate live audio streams for broadcast when each stream starts.
+     *
+     * @param frameRing for the live stream
+     */
+    public void receive(AudioFrameRing frameRing)
+    {
+        if(connected())
+        {
+            mLiveStreamQueue.offer(frameRing);
         }
     }
 
@@ -274,6 +308,8 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
                         //Ignore
                     }
                 }
+
+                mLiveStreamQueue.clear();
             }
         }
     }
@@ -315,13 +351,15 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
 
 
     /**
-     * Audio recording queue processor.  Fetches recordings from the queue and chunks the recording byte content
-     * to subclass implementations for broadcast in the appropriate manner.
+     * Audio recording queue processor.  Fetches recordings from the queue, or live streams from the live stream queue,
+     * and chunks the recording byte content to subclass implementations for broadcast in the appropriate manner.
      */
     public class RecordingQueueProcessor implements Runnable
     {
         private AtomicBoolean mProcessing = new AtomicBoolean();
         private ByteArrayInputStream mInputStream;
+        private AudioFrameRing mFrameRing;
+        private long mFrameRingPosition;
         private long mFinalSilencePadding = 0;
         private int mBytesStreamedActual = 0;
         private int mBytesStreamedRequired = 0;
@@ -333,7 +371,7 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
             {
                 try
                 {
-                    if(mInputStream == null || mInputStream.available() <= 0)
+                    if(!isLiveStreaming() && (mInputStream == null || mInputStream.available() <= 0))
                     {
                         if(mFinalSilencePadding > 0)
                         {
@@ -344,7 +382,11 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
                         nextRecording();
                     }
 
-                    if(mInputStream != null)
+                    if(isLiveStreaming())
+                    {
+                        streamLiveAudio();
+                    }
+                    else if(mInputStream != null)
                     {
                         //We need to stream at 13.888 fps (144 byte frame) to achieve 2000 Bps or 16 kbps
                         mBytesStreamedRequired += 2000;  //2000 bytes per second for 16 kbps data rate
@@ -383,7 +425,97 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
         }
 
         /**
-         * Loads the next recording for broadcast
+         * Indicates if a live stream is attached and has audio that remains to be streamed
+         */
+        private boolean isLiveStreaming()
+        {
+            //Check the closed state before the write position so that we don't miss any final audio frames
+            return mFrameRing != null &&
+                (!mFrameRing.isClosed() || mFrameRingPosition < mFrameRing.getWritePosition());
+        }
+
+        /**
+         * Streams the live audio that is available from the attached live stream's frame ring
+         */
+        private void streamLiveAudio()
+        {
+            //We need to stream at 13.888 fps (144 byte frame) to achieve 2000 Bps or 16 kbps
+            mBytesStreamedRequired += 2000;  //2000 bytes per second for 16 kbps data rate
+            int bytesToStream = mBytesStreamedRequired - mBytesStreamedActual;
+
+            boolean closed = mFrameRing.isClosed();
+
+            //Trim length to whole-frame intervals (144 byte frame), unless we're streaming the end of the stream
+            if(!closed)
+            {
+                bytesToStream -= (bytesToStream % 144);
+            }
+
+            int length = (int)Math.min(bytesToStream, mFrameRing.getWritePosition() - mFrameRingPosition);
+
+            if(length > 0)
+            {
+                byte[] audio = new byte[length];
+
+                int count = mFrameRing.read(mFrameRingPosition, audio, 0, length);
+
+                if(count < 0)
+                {
+                    mLog.warn("Stream [" + getStreamName() + "] live audio stream overrun - skipping ahead");
+                    mFrameRingPosition = mFrameRing.getOldestPosition();
+                }
+                else
+                {
+                    mFrameRingPosition += count;
+                    mBytesStreamedActual += count;
+                    broadcastAudio(audio);
+                }
+            }
+
+            if(closed && mFrameRingPosition >= mFrameRing.getWritePosition())
+            {
+                long recordingLength = mFrameRingPosition / BYTES_PER_MILLISECOND;
+
+                mFinalSilencePadding = PROCESSOR_RUN_INTERVAL_MS - (recordingLength % PROCESSOR_RUN_INTERVAL_MS);
+
+                while(mFinalSilencePadding >= PROCESSOR_RUN_INTERVAL_MS)
+                {
+                    mFinalSilencePadding -= PROCESSOR_RUN_INTERVAL_MS;
+                }
+            }
+        }
+
+        /**
+         * Removes any live streams that can no longer be streamed live from the head of the live stream queue and
+         * returns the next live stream if its delay has elapsed.  Live streams are removed when they are closed or
+         * when more than half of the frame ring is filled, since the live stream would then lag too far behind to be
+         * streamed without risk of overrun.  The stream manager sizes each frame ring so that it is no more than half
+         * full once the live delay and the largest broadcaster delay have elapsed.  Removed live streams will be
+         * streamed from the completed audio recording instead.
+         *
+         * @return next live stream or null
+         */
+        private AudioFrameRing nextLiveStream()
+        {
+            AudioFrameRing frameRing = mLiveStreamQueue.peek();
+
+            while(frameRing != null && (frameRing.isClosed() ||
+                frameRing.getWritePosition() > frameRing.getCapacity() / 2))
+            {
+                mLiveStreamQueue.remove();
+                frameRing = mLiveStreamQueue.peek();
+            }
+
+            if(frameRing != null && frameRing.getStartTime() + mDelay + mLiveDelay <= System.currentTimeMillis())
+            {
+                return frameRing;
+            }
+
+            return null;
+        }
+
+        /**
+         * Loads the next recording or live stream for broadcast
          */
         private void nextRecording()
         {
@@ -392,7 +524,7 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
 
             boolean metadataUpdateRequired = false;
 
-            if(mInputStream != null)
+            if(mInputStream != null || mFrameRing != null)
             {
                 mStreamedAudioCount++;
                 broadcast(new BroadcastEvent(AudioBroadcaster.this,
@@ -402,6 +534,14 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
 
             mInputStream = null;
 
+            if(mFrameRing != null)
+            {
+                mFrameRing.release(AudioBroadcaster.this);
+                mFrameRing = null;
+            }
+
+            mFrameRingPosition = 0;
+
             //Peek at the next recording but don't remove it from the queue yet, so we can inspect the start time for
             //age limits and/or delay elapsed
             AudioRecording nextRecording = mAudioRecordingQueue.peek();
@@ -418,7 +558,30 @@ public abstract class AudioBroadcaster implements Listener<AudioRecording>
                 nextRecording = mAudioRecordingQueue.peek();
             }
 
-            if(nextRecording != null && nextRecording.getStartTime() + mDelay <= System.currentTimeMillis())
+            //Stream the next live stream, unless there is an older recording waiting to be streamed
+            AudioFrameRing nextLiveStream = nextLiveStream();
+
+            if(nextLiveStream != null &&
+                (nextRecording == null || nextLiveStream.getStartTime() <= nextRecording.getStartTime()))
+            {
+                mLiveStreamQueue.remove();
+
+                //Attaching fails if the stream closed in the meantime, and the recording will be queued instead
+                if(nextLiveStream.attach(AudioBroadcaster.this))
+                {
+                    mFrameRing = nextLiveStream;
+
+                    if(connected())
+                    {
+                        broadcastMetadata(nextLiveStream.getMetadata());
+                    }
+
+                    metadataUpdateRequired = false;
+                }
+            }
+
+            if(mFrameRing == null && nextRecording != null &&
+                nextRecording.getStartTime() + mDelay <= System.currentTimeMillis())
             {
                 nextRecording = mAudioRecordingQueue.remove();
 
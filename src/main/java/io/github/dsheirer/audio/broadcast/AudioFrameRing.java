@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.audio.broadcast;
+
+import io.github.dsheirer.channel.metadata.Metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded in-memory ring of encoded audio frame data for a single live audio stream (call).
+ *
+ * The ring has a single writer (the stream's audio recorder) that appends encoded audio as it is produced, and any
+ * number of readers (audio broadcasters) that each track their own absolute read position and read the stream
+ * independently.  Positions are absolute byte offsets from the start of the stream.  Once the writer has advanced more
+ * than the ring capacity beyond a reader's position, the data at that position is overwritten and the reader is
+ * overrun.
+ *
+ * Reads are validated like a sequence lock.  Before overwriting any data, the writer publishes the reserved position,
+ * which is the end of the region that it is about to write, and it publishes the write position once the data is
+ * written.  A reader only copies data below the write position and discards the copy if the reserved position shows
+ * that the writer started overwriting the copied region while the reader was copying it.
+ *
+ * Readers attach to the ring before reading.  A reader can only attach while the stream is open, so that a reader can
+ * determine whether it streamed the completed audio recording for this stream live, or whether it has to stream the
+ * recording from the file.
+ *
+ * The ring buffer is reference counted.  The writer holds a reference until the stream is closed and each attached
+ * reader holds a reference until it releases the ring.  The buffer is released once the stream is closed and all
+ * attached readers have released the ring, so that completed streams that are retained for their audio recordings
+ * don't retain their buffers.
+ */
+public class AudioFrameRing
+{
+    private volatile byte[] mBuffer;
+    private int mCapacity;
+    private int mReferenceCount = 1;
+    private volatile long mWritePosition;
+    private volatile long mReservedPosition;
+    private volatile boolean mClosed;
+    private volatile Metadata mMetadata;
+    private long mStartTime;
+    private List<Object> mReaders = new ArrayList<>();
+    private List<Object> mActiveReaders = new ArrayList<>();
+
+    /**
+     * Constructs an instance
+     *
+     * @param capacity in bytes
+     * @param metadata for the audio stream
+     * @param startTime of the audio stream
+     */
+    public AudioFrameRing(int capacity, Metadata metadata, long startTime)
+    {
+        mBuffer = new byte[capacity];
+        mCapacity = capacity;
+        mMetadata = metadata;
+        mStartTime = startTime;
+    }
+
+    /**
+     * Ring capacity in bytes
+     */
+    public int getCapacity()
+    {
+        return mCapacity;
+    }
+
+    /**
+     * Start time of the audio stream
+     */
+    public long getStartTime()
+    {
+        return mStartTime;
+    }
+
+    /**
+     * Latest metadata for the audio stream
+     */
+    public Metadata getMetadata()
+    {
+        return mMetadata;
+    }
+
+    /**
+     * Updates the metadata for the audio stream
+     */
+    public void setMetadata(Metadata metadata)
+    {
+        mMetadata = metadata;
+    }
+
+    /**
+     * Absolute position of the next byte to be written, or the total number of bytes written to the stream
+     */
+    public long getWritePosition()
+    {
+        return mWritePosition;
+    }
+
+    /**
+     * Absolute position of the oldest byte that is still available in the ring
+     */
+    public long getOldestPosition()
+    {
+        return Math.max(0, mReservedPosition - mCapacity);
+    }
+
+    /**
+     * Indicates if the audio stream is complete and no further data will be written
+     */
+    public boolean isClosed()
+    {
+        return mClosed;
+    }
+
+    /**
+     * Appends the encoded audio data to the ring.  This method is not thread-safe and must only be invoked by the
+     * single writer for the stream.
+     *
+     * @param data to append
+     * @param offset into the data array
+     * @param length of data to append
+     */
+    public void write(byte[] data, int offset, int length)
+    {
+        long start = mWritePosition;
+        long end = start + length;
+
+        //Volatile write reserves the region before it is overwritten so that readers can detect torn reads
+        mReservedPosition = end;
+
+        //If the data exceeds the ring capacity, only the final capacity bytes are retained
+        if(length > mBuffer.length)
+        {
+            offset += length - mBuffer.length;
+            start = end - mBuffer.length;
+            length = mBuffer.length;
+        }
+
+        int index = (int)(start % mBuffer.length);
+        int firstLength = Math.min(length, mBuffer.length - index);
+
+        System.arraycopy(data, offset, mBuffer, index, firstLength);
+
+        if(firstLength < length)
+        {
+            System.arraycopy(data, offset + firstLength, mBuffer, 0, length - firstLength);
+        }
+
+        //Volatile write publishes the appended data to the readers
+        mWritePosition = end;
+    }
+
+    /**
+     * Reads audio data from the ring.
+     *
+     * @param position absolute stream position to read from
+     * @param destination for the data
+     * @param offset into the destination array
+     * @param length maximum number of bytes to read
+     * @return number of bytes read, which can be zero when no data is available at the position, or -1 if the reader
+     * has been overrun or the ring has been released and the data at the position is no longer available
+     */
+    public int read(long position, byte[] destination, int offset, int length)
+    {
+        byte[] buffer = mBuffer;
+        long writePosition = mWritePosition;
+
+        if(buffer == null || position < mReservedPosition - buffer.length)
+        {
+            return -1;
+        }
+
+        int count = (int)Math.min(length, writePosition - position);
+
+        if(count <= 0)
+        {
+            return 0;
+        }
+
+        int index = (int)(position % buffer.length);
+        int firstLength = Math.min(count, buffer.length - index);
+
+        System.arraycopy(buffer, index, destination, offset, firstLength);
+
+        if(firstLength < count)
+        {
+            System.arraycopy(buffer, 0, destination, offset + firstLength, count - firstLength);
+        }
+
+        //Verify that the writer didn't reserve (and start overwriting) the copied region while we were copying it
+        if(position < mReservedPosition - buffer.length)
+        {
+            return -1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Attaches the reader to this stream and acquires a reference to the ring for the reader.
+     *
+     * @param reader to attach
+     * @return true if the reader is attached, or false if the stream is already closed
+     */
+    public synchronized boolean attach(Object reader)
+    {
+        if(mClosed)
+        {
+            return false;
+        }
+
+        if(!mReaders.contains(reader))
+        {
+            mReaders.add(reader);
+            mActiveReaders.add(reader);
+            mReferenceCount++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Releases the reader's reference to the ring.  The reader remains attached, but can no longer read from the ring.
+     */
+    public synchronized void release(Object reader)
+    {
+        if(mActiveReaders.remove(reader))
+        {
+            releaseReference();
+        }
+    }
+
+    /**
+     * Indicates if the reader attached to this stream while the stream was open
+     */
+    public synchronized boolean isAttached(Object reader)
+    {
+        return mReaders.contains(reader);
+    }
+
+    /**
+     * Closes the stream.  No further data can be written and no further readers can attach.
+     */
+    public synchronized void close()
+    {
+        if(!mClosed)
+        {
+            mClosed = true;
+            releaseReference();
+        }
+    }
+
+    /**
+     * Releases a reference and releases the buffer when no references remain
+     */
+    private void releaseReference()
+    {
+        mReferenceCount--;
+
+        if(mReferenceCount <= 0)
+        {
+            mBuffer = null;
+        }
+    }
+}
@@ -34,6 +34,7 @@ public class AudioRecording implements Comparable<AudioRecording>
     private long mRecordingLength;
     private AtomicInteger mPendingReplayCount = new AtomicInteger();
     private Metadata mMetadata;
+    private AudioFrameRing mFrameRing;
 
     /**
      * Audio recording that is ready to be streamed
@@ -51,6 +52,21 @@ public class AudioRecording implements Comparable<AudioRecording>
         mRecordingLength = recordingLength;
     }
 
+    /**
+     * Audio recording that is ready to be streamed and that was also available for live streaming
+     *
+     * @param path to the audio recording file
+     * @param metadata associated with the recording
+     * @param start time of recording in milliseconds since epoch
+     * @param recordingLength in milliseconds
+     * @param frameRing for the live stream
+     */
+    public AudioRecording(Path path, Metadata metadata, long start, long recordingLength, AudioFrameRing frameRing)
+    {
+        this(path, metadata, start, recordingLength);
+        mFrameRing = frameRing;
+    }
+
     /**
      * Path to the completed audio recording
      */
@@ -83,6 +99,14 @@ public class AudioRecording implements Comparable<AudioRecording>
         return mRecordingLength;
     }
 
+    /**
+     * Live stream frame ring for the recording, or null if the recording was not available for live streaming
+     */
+    public AudioFrameRing getFrameRing()
+    {
+        return mFrameRing;
+    }
+
 
     /**
      * Implements comparable for sorting recordings based on start time in ascending order
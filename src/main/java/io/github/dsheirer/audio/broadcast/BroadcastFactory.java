@@ -196,6 +196,24 @@ public class BroadcastFactory
         }
     }
 
+    /**
+     * Creates an audio recorder for live streaming in the specified broadcastAudio format using the specified path
+     * output file name.  The recorder incrementally encodes the audio into the frame ring and writes the encoded audio
+     * to the file.
+     *
+     * @return recorder or null if the broadcast format doesn't support live streaming
+     */
+    public static AudioRecorder getAudioRecorder(Path path, BroadcastFormat broadcastFormat, AudioFrameRing frameRing)
+    {
+        switch(broadcastFormat)
+        {
+            case MP3:
+                return new MP3Recorder(path, frameRing);
+            default:
+                return null;
+        }
+    }
+
     public static ISilenceGenerator getSilenceGenerator(BroadcastFormat format)
     {
         switch(format)
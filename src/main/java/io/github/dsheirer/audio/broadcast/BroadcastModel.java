@@ -82,6 +82,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
         mIconManager = iconManager;
         mStreamManager = new StreamManager(new CompletedRecordingListener(), BroadcastFormat.MP3,
             SystemProperties.getInstance().getApplicationFolder(TEMPORARY_STREAM_DIRECTORY));
+        mStreamManager.setLiveStreamListener(new LiveStreamListener());
         mStreamManager.start();
 
         //Monitor to remove temporary recording files that have been streamed by all audio broadcasters
@@ -318,6 +319,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
                 audioBroadcaster.start();
 
                 mBroadcasterMap.put(audioBroadcaster.getBroadcastConfiguration().getName(), audioBroadcaster);
+                updateMaximumBroadcastDelay();
 
                 int index = mBroadcastConfigurations.indexOf(audioBroadcaster.getBroadcastConfiguration());
 
@@ -331,6 +333,22 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
         }
     }
 
+    /**
+     * Updates the stream manager with the largest delay of the current broadcasters, so that live stream frame rings
+     * are sized to cover that delay
+     */
+    private void updateMaximumBroadcastDelay()
+    {
+        long delay = 0;
+
+        for(AudioBroadcaster audioBroadcaster: mBroadcasterMap.values())
+        {
+            delay = Math.max(delay, audioBroadcaster.getBroadcastConfiguration().getDelay());
+        }
+
+        mStreamManager.setMaximumBroadcastDelay(delay);
+    }
+
     /**
      * Shut down a broadcaster created from the configuration and remove it from this model
      */
@@ -339,6 +357,7 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
         if(name != null && mBroadcasterMap.containsKey(name))
         {
             AudioBroadcaster audioBroadcaster = mBroadcasterMap.remove(name);
+            updateMaximumBroadcastDelay();
 
             if(audioBroadcaster != null)
             {
@@ -731,6 +750,36 @@ public class BroadcastModel extends AbstractTableModel implements Listener<Reusa
         }
     }
 
+    /**
+     * Distributes live audio streams to the audio broadcasters when each stream starts
+     */
+    public class LiveStreamListener implements Listener<AudioFrameRing>
+    {
+        @Override
+        public void receive(AudioFrameRing frameRing)
+        {
+            Metadata metadata = frameRing.getMetadata();
+
+            if(metadata != null && metadata.isStreamable())
+            {
+                for(BroadcastChannel broadcastChannel : metadata.getBroadcastChannels())
+                {
+                    String channelName = broadcastChannel.getChannelName();
+
+                    if(channelName != null)
+                    {
+                        AudioBroadcaster audioBroadcaster = getBroadcaster(channelName);
+
+                        if(audioBroadcaster != null)
+                        {
+                            audioBroadcaster.receive(frameRing);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Monitors the recording queue and removes any recordings that have no pending replays by audio broadcasters
      */
@@ -18,7 +18,9 @@
  ******************************************************************************/
 package io.github.dsheirer.audio.broadcast;
 
+import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.record.AudioRecorder;
+import io.github.dsheirer.record.mp3.MP3Recorder;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableAudioPacket;
 import io.github.dsheirer.util.ThreadPool;
@@ -42,12 +44,24 @@ public class StreamManager implements Listener<ReusableAudioPacket>
     private final static Logger mLog = LoggerFactory.getLogger(StreamManager.class);
     private static final long MAXIMUM_RECORDER_LIFESPAN_MILLIS = 30000; //30 seconds
 
+    public static final String LIVE_STREAMING_PROPERTY = "broadcast.live.streaming.enabled";
+    public static final String LIVE_DELAY_PROPERTY = "broadcast.live.delay.ms";
+
+    //Encoded live audio bytes per second and the additional audio (beyond the delays) retained in each frame ring
+    private static final long LIVE_BYTES_PER_SECOND = MP3Recorder.MP3_BIT_RATE * 1000 / 8;
+    private static final long LIVE_HEADROOM_MILLIS = 2000;
+
     private static AtomicInteger sNextRecordingNumber = new AtomicInteger();
 
     private Listener<AudioRecording> mAudioRecordingListener;
     private BroadcastFormat mBroadcastFormat;
     private Path mTempDirectory;
     private Map<Integer,AudioRecorder> mStreamRecorders = new HashMap<>();
+    private Map<Integer,AudioFrameRing> mFrameRings = new HashMap<>();
+    private Listener<AudioFrameRing> mLiveStreamListener;
+    private boolean mLiveStreaming;
+    private long mLiveDelay;
+    private volatile long mMaximumBroadcastDelay;
     private Runnable mRecorderMonitor;
     private ScheduledFuture<?> mRecorderMonitorFuture;
     private AtomicBoolean mRunning = new AtomicBoolean();
@@ -60,6 +74,19 @@ public class StreamManager implements Listener<ReusableAudioPacket>
      *
      * Completed streamable audio recordings are nominated to the output listener (for broadcast) upon completion
      *
+     * When live streaming is enabled and a live stream listener is registered, each stream is also incrementally
+     * encoded into a bounded in-memory frame ring that is nominated to the live stream listener when the stream
+     * starts, so that broadcasters can stream the audio while the call is in progress.  The completed recording is
+     * still nominated upon completion, as a fallback for broadcasters that could not stream the audio live.
+     *
+     * Each frame ring is sized to hold twice the encoded audio that accumulates before the live stream is broadcast
+     * (the live delay plus the maximum broadcaster delay, plus headroom), so that a broadcaster can attach once its
+     * delay has elapsed while the ring is no more than half full.
+     *
+     * Configuration (system properties):
+     *   broadcast.live.streaming.enabled - live streaming enabled (default true)
+     *   broadcast.live.delay.ms - delay from stream start until the live audio is broadcast (default 1000)
+     *
      * @param listener to receive completed audio recordings
      * @param tempDirectory where to store temporary audio recordings
      */
@@ -70,6 +97,37 @@ public class StreamManager implements Listener<ReusableAudioPacket>
         mAudioRecordingListener = listener;
         mBroadcastFormat = broadcastFormat;
         mTempDirectory = tempDirectory;
+
+        SystemProperties properties = SystemProperties.getInstance();
+        mLiveStreaming = properties.get(LIVE_STREAMING_PROPERTY, true);
+        mLiveDelay = properties.get(LIVE_DELAY_PROPERTY, 1000);
+    }
+
+    /**
+     * Sets the largest delay configured for the audio broadcasters that receive the live streams, in milliseconds
+     */
+    public void setMaximumBroadcastDelay(long delay)
+    {
+        mMaximumBroadcastDelay = Math.max(0, delay);
+    }
+
+    /**
+     * Frame ring capacity for a new live stream.  Streams are closed once they reach the maximum recorder lifespan,
+     * so the delay covered by the ring never needs to exceed that lifespan.
+     */
+    private int getLiveBufferSize()
+    {
+        long delay = Math.min(mLiveDelay + mMaximumBroadcastDelay, MAXIMUM_RECORDER_LIFESPAN_MILLIS);
+
+        return (int)(2 * LIVE_BYTES_PER_SECOND * (delay + LIVE_HEADROOM_MILLIS) / 1000);
+    }
+
+    /**
+     * Registers the listener to receive the frame ring for each live stream when the stream starts
+     */
+    public void setLiveStreamListener(Listener<AudioFrameRing> listener)
+    {
+        mLiveStreamListener = listener;
     }
 
     /**
@@ -139,12 +197,33 @@ public class StreamManager implements Listener<ReusableAudioPacket>
                     }
                     else
                     {
-                        AudioRecorder recorder = BroadcastFactory.getAudioRecorder(getTemporaryRecordingPath(),
-                            mBroadcastFormat);
+                        Path path = getTemporaryRecordingPath();
+                        AudioFrameRing frameRing = null;
+                        AudioRecorder recorder = null;
+
+                        if(mLiveStreaming && mLiveStreamListener != null)
+                        {
+                            frameRing = new AudioFrameRing(getLiveBufferSize(), audioPacket.getMetadata(),
+                                System.currentTimeMillis());
+                            recorder = BroadcastFactory.getAudioRecorder(path, mBroadcastFormat, frameRing);
+                        }
+
+                        if(recorder == null)
+                        {
+                            frameRing = null;
+                            recorder = BroadcastFactory.getAudioRecorder(path, mBroadcastFormat);
+                        }
+
                         recorder.start();
                         audioPacket.incrementUserCount();
                         recorder.receive(audioPacket);
                         mStreamRecorders.put(channelMetadataID, recorder);
+
+                        if(frameRing != null)
+                        {
+                            mFrameRings.put(channelMetadataID, frameRing);
+                            mLiveStreamListener.receive(frameRing);
+                        }
                     }
                 }
                 else if(type == ReusableAudioPacket.Type.END)
@@ -174,15 +253,23 @@ public class StreamManager implements Listener<ReusableAudioPacket>
         if(mStreamRecorders.containsKey(sourceChannelID))
         {
             AudioRecorder recorder = mStreamRecorders.remove(sourceChannelID);
+            final AudioFrameRing frameRing = mFrameRings.remove(sourceChannelID);
 
             recorder.close(new Listener<AudioRecorder>()
             {
                 @Override
                 public void receive(AudioRecorder audioRecorder)
                 {
+                    //Close the live stream before nominating the recording so that broadcasters that didn't attach
+                    //to the live stream will stream the recording instead
+                    if(frameRing != null)
+                    {
+                        frameRing.close();
+                    }
+
                     AudioRecording audioRecording =
                         new AudioRecording(audioRecorder.getPath(), audioRecorder.getMetadata(),
-                            audioRecorder.getTimeRecordingStart(), audioRecorder.getRecordingLength());
+                            audioRecorder.getTimeRecordingStart(), audioRecorder.getRecordingLength(), frameRing);
 
                     if(mAudioRecordingListener != null)
                     {
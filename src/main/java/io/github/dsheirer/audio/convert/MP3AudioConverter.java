@@ -20,6 +20,7 @@ package io.github.dsheirer.audio.convert;
 
 import io.github.dsheirer.audio.AudioFormats;
 import io.github.dsheirer.audio.AudioUtils;
+import io.github.dsheirer.audio.broadcast.AudioFrameRing;
 import io.github.dsheirer.sample.buffer.ReusableAudioPacket;
 import net.sourceforge.lame.lowlevel.LameEncoder;
 import net.sourceforge.lame.mp3.Lame;
@@ -28,6 +29,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -38,6 +41,7 @@ public class MP3AudioConverter implements IAudioConverter
     private LameEncoder mEncoder;
     private ByteArrayOutputStream mMP3Stream = new ByteArrayOutputStream();
     private byte[] mMP3Buffer;
+    private byte[] mPCMBuffer = new byte[0];
 
     /**
      * Converts PCM 8kHz 16-bit Little Endian audio packets to Mono, Low Quality MP3 compressed audio.
@@ -84,6 +88,85 @@ public class MP3AudioConverter implements IAudioConverter
         }
     }
 
+    /**
+     * Incrementally converts the audio packets to MP3 and writes the encoded frame data directly to the output stream
+     * and appends a copy to the frame ring, without accumulating the converted audio in intermediate arrays.
+     *
+     * Note: unlike convert(List), this method does not decrement the user count of the audio packets.
+     *
+     * @param audioPackets to convert
+     * @param outputStream to receive the encoded MP3 frame data
+     * @param frameRing to receive a copy of the encoded MP3 frame data
+     * @throws IOException if there is an error writing to the output stream
+     */
+    public void convert(List<ReusableAudioPacket> audioPackets, OutputStream outputStream, AudioFrameRing frameRing)
+        throws IOException
+    {
+        try
+        {
+            for(ReusableAudioPacket audioPacket: audioPackets)
+            {
+                float[] samples = audioPacket.getAudioSamples();
+
+                if(samples != null && samples.length > 0)
+                {
+                    int pcmLength = samples.length * 2;
+
+                    if(mPCMBuffer.length < pcmLength)
+                    {
+                        mPCMBuffer = new byte[pcmLength];
+                    }
+
+                    //Converting from 32-bit floats to signed 16-bit little endian samples
+                    for(int x = 0; x < samples.length; x++)
+                    {
+                        short sample = (short)(samples[x] * Short.MAX_VALUE);
+                        mPCMBuffer[2 * x] = (byte)sample;
+                        mPCMBuffer[2 * x + 1] = (byte)(sample >> 8);
+                    }
+
+                    int pcmPosition = 0;
+
+                    while(pcmPosition < pcmLength)
+                    {
+                        int pcmBufferSize = Math.min(mMP3Buffer.length, pcmLength - pcmPosition);
+                        int mp3BufferSize = mEncoder.encodeBuffer(mPCMBuffer, pcmPosition, pcmBufferSize, mMP3Buffer);
+
+                        if(mp3BufferSize > 0)
+                        {
+                            outputStream.write(mMP3Buffer, 0, mp3BufferSize);
+                            frameRing.write(mMP3Buffer, 0, mp3BufferSize);
+                        }
+
+                        pcmPosition += pcmBufferSize;
+                    }
+                }
+            }
+        }
+        catch(RuntimeException e)
+        {
+            mLog.error("There was an error converting audio to MP3: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes the final partial frame data from the encoder to the output stream and to the frame ring
+     *
+     * @throws IOException if there is an error writing to the output stream
+     */
+    public void flush(OutputStream outputStream, AudioFrameRing frameRing) throws IOException
+    {
+        byte[] lastPartialFrame = new byte[mEncoder.getMP3BufferSize()];
+
+        int length = mEncoder.encodeFinish(lastPartialFrame);
+
+        if(length > 0)
+        {
+            outputStream.write(lastPartialFrame, 0, length);
+            frameRing.write(lastPartialFrame, 0, length);
+        }
+    }
+
     @Override
     public byte[] flush()
     {
@@ -24,6 +24,7 @@ import io.github.dsheirer.sample.buffer.ReusableAudioPacketQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -32,73 +33,88 @@ public class MP3SilenceGenerator implements ISilenceGenerator
 {
     private final static Logger mLog = LoggerFactory.getLogger(MP3SilenceGenerator.class);
 
-    private MP3AudioConverter mGenerator = new MP3AudioConverter(MP3Recorder.MP3_BIT_RATE, MP3Recorder.CONSTANT_BIT_RATE);
-    private byte[] mPreviousPartialFrameData;
-    private ReusableAudioPacketQueue mAudioPacketQueue = new ReusableAudioPacketQueue("MP3 Silence Generator");
+    private static final int FRAME_LENGTH = 144;
+    private static final int BYTES_PER_MILLISECOND = MP3Recorder.MP3_BIT_RATE / 8;
+    private static final long SILENCE_BLOCK_DURATION = 10000; //milliseconds
+
+    private static byte[] sSilenceFrames;
+
+    private int mPosition;
+    private long mRemainder;
 
     /**
-     * Generates MP3 audio silence frames
+     * Generates MP3 audio silence frames.
+     *
+     * Silence is encoded once into a block of whole silence frames that is shared by all generators, and each
+     * generator cycles through the shared block, so that broadcasters don't each encode silence while idle.
      */
     public MP3SilenceGenerator()
     {
     }
 
-    public byte[] generate(long duration)
+    /**
+     * Shared block of encoded MP3 silence frames.  Encodes the block on first access.
+     */
+    private static synchronized byte[] getSilenceFrames()
     {
-        int length = (int)(duration * 8);   //8000 Hz sample rate
-        ReusableAudioPacket silencePacket = mAudioPacketQueue.getBuffer(length);
-        Arrays.fill(silencePacket.getAudioSamples(), 0.0f);
+        if(sSilenceFrames == null)
+        {
+            MP3AudioConverter converter = new MP3AudioConverter(MP3Recorder.MP3_BIT_RATE,
+                MP3Recorder.CONSTANT_BIT_RATE);
 
-        List<ReusableAudioPacket> silencePackets = new ArrayList<>();
-        silencePackets.add(silencePacket);
+            ReusableAudioPacketQueue audioPacketQueue = new ReusableAudioPacketQueue("MP3 Silence Generator");
+            ReusableAudioPacket silencePacket = audioPacketQueue.getBuffer((int)(SILENCE_BLOCK_DURATION * 8));
+            Arrays.fill(silencePacket.getAudioSamples(), 0.0f);
 
-        byte[] frameData = mGenerator.convert(silencePackets);
+            List<ReusableAudioPacket> silencePackets = new ArrayList<>();
+            silencePackets.add(silencePacket);
 
-        frameData = merge(mPreviousPartialFrameData, frameData);
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            byte[] frameData = converter.convert(silencePackets);
+            stream.write(frameData, 0, frameData.length);
+            frameData = converter.flush();
+            stream.write(frameData, 0, frameData.length);
 
-        if(frameData != null && frameData.length > 0)
-        {
-            if(frameData.length < 144)
-            {
-                mPreviousPartialFrameData = frameData;
-                return null;
-            }
-            else if((frameData.length % 144) == 0)
-            {
-                mPreviousPartialFrameData = null;
-                return frameData;
-            }
-            else
-            {
-                int integralFrameLength = (int)(frameData.length / 144) * 144;
-                mPreviousPartialFrameData = Arrays.copyOfRange(frameData, integralFrameLength, frameData.length);
-                return Arrays.copyOf(frameData, integralFrameLength);
-            }
+            frameData = stream.toByteArray();
+
+            //Trim to whole frames so that the block can be cycled on frame boundaries
+            sSilenceFrames = Arrays.copyOf(frameData, (frameData.length / FRAME_LENGTH) * FRAME_LENGTH);
         }
 
-        return null;
+        return sSilenceFrames;
     }
 
-    private static byte[] merge(byte[] a, byte[] b)
+    public byte[] generate(long duration)
     {
-        if(a == null && b == null)
+        byte[] silenceFrames = getSilenceFrames();
+
+        if(silenceFrames.length == 0)
         {
             return null;
         }
-        else if(a == null)
+
+        //Carry the partial frame remainder forward to the next request
+        long length = (duration * BYTES_PER_MILLISECOND) + mRemainder;
+        int frameCount = (int)(length / FRAME_LENGTH);
+        mRemainder = length % FRAME_LENGTH;
+
+        if(frameCount == 0)
         {
-            return b;
+            return null;
         }
-        else if(b == null)
+
+        byte[] silence = new byte[frameCount * FRAME_LENGTH];
+        int copied = 0;
+
+        while(copied < silence.length)
         {
-            return a;
+            int count = Math.min(silence.length - copied, silenceFrames.length - mPosition);
+            System.arraycopy(silenceFrames, mPosition, silence, copied, count);
+            copied += count;
+            mPosition = (mPosition + count) % silenceFrames.length;
         }
 
-        byte[] c = new byte[a.length + b.length];
-        System.arraycopy(a,0,c,0,a.length);
-        System.arraycopy(b,0,c,a.length,b.length);
-
-        return c;
+        return silence;
     }
 
     public static void main(String[] args)
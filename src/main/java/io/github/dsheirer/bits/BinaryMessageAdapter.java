@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.bits;
+
+/**
+ * Converts binary messages to packed bit buffers.
+ *
+ * Conversion transfers 64 bits at a time: each little endian BitSet word is bit-reversed into the most significant
+ * bit first word order used by PackedBitBuffer rather than setting each bit individually.
+ */
+public class BinaryMessageAdapter
+{
+    private static final int WORD_BITS = 64;
+
+    /**
+     * Creates a packed buffer containing the bits and fill pointer of the binary message.
+     *
+     * @param message to convert
+     * @return new packed buffer with a size equal to the message size
+     */
+    public static PackedBitBuffer toPackedBitBuffer(BinaryMessage message)
+    {
+        PackedBitBuffer buffer = new PackedBitBuffer(message.size());
+        long[] words = message.toLongArray();
+        int size = message.size();
+
+        for(int x = 0; x < size; x += WORD_BITS)
+        {
+            int width = Math.min(WORD_BITS, size - x);
+            int index = x / WORD_BITS;
+            long word = index < words.length ? words[index] : 0;
+
+            buffer.setLong(x, width, Long.reverse(word) >>> (WORD_BITS - width));
+        }
+
+        buffer.setPointer(Math.min(message.pointer(), size));
+        return buffer;
+    }
+}
@@ -0,0 +1,417 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.bits;
+
+/**
+ * Compact, fixed capacity bit buffer backed by a packed long array.
+ *
+ * Bits are stored most significant bit first within each 64-bit word, so that contiguous fields can be extracted
+ * with one or two word reads and a shift instead of reading each bit individually.  Bit indexes and field ordering
+ * match BinaryMessage: index 0 is the first bit received and the start index of a field is its MSB.
+ *
+ * Views created with getView() share the backing words of the parent buffer, so that a sub-range (ie a trellis
+ * block or a TSBK) can be accessed without copying.  Writes to a view are visible in the parent buffer and vice versa.
+ *
+ * No framer or decoder uses this buffer yet; message parsing, CRC checks and the decoded messages all operate on (and
+ * retain) BinaryMessage instances.  Use BinaryMessageAdapter to create a packed buffer from a binary message.  This
+ * class is not thread safe.
+ */
+public class PackedBitBuffer
+{
+    private static final int WORD_BITS = 64;
+
+    private final long[] mWords;
+    private final int mOffset;
+    private final int mSize;
+    private int mPointer;
+
+    /**
+     * Constructs a cleared buffer with the specified capacity
+     *
+     * @param size in bits
+     */
+    public PackedBitBuffer(int size)
+    {
+        this(new long[getWordCount(size)], 0, size);
+    }
+
+    /**
+     * Constructs a view of a range of bits within the backing words
+     *
+     * @param words backing storage
+     * @param offset to the first bit of this buffer within the backing words
+     * @param size in bits
+     */
+    private PackedBitBuffer(long[] words, int offset, int size)
+    {
+        if(size < 0)
+        {
+            throw new IllegalArgumentException("Size must be positive: " + size);
+        }
+
+        mWords = words;
+        mOffset = offset;
+        mSize = size;
+    }
+
+    /**
+     * Number of 64-bit words required to store the bit count
+     */
+    static int getWordCount(int size)
+    {
+        return (size + WORD_BITS - 1) / WORD_BITS;
+    }
+
+    /**
+     * Capacity of this buffer in bits
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * Current fill pointer index
+     */
+    public int pointer()
+    {
+        return mPointer;
+    }
+
+    /**
+     * Sets the fill pointer to a specific index
+     */
+    public void setPointer(int index)
+    {
+        mPointer = index;
+    }
+
+    /**
+     * Indicates if the buffer has been filled to capacity by add()
+     */
+    public boolean isFull()
+    {
+        return mPointer >= mSize;
+    }
+
+    /**
+     * Adds the bit at the current pointer index and increments the pointer
+     *
+     * @param value of the bit
+     * @throws BitSetFullException if the buffer is already full
+     */
+    public void add(boolean value) throws BitSetFullException
+    {
+        if(isFull())
+        {
+            throw new BitSetFullException("bit buffer is full -- contains " + mSize + " bits");
+        }
+
+        if(value)
+        {
+            set(mPointer);
+        }
+
+        mPointer++;
+    }
+
+    /**
+     * Clears all bits and resets the fill pointer to zero
+     */
+    public void clear()
+    {
+        for(int x = 0; x < mSize; x += WORD_BITS)
+        {
+            setLong(x, Math.min(WORD_BITS, mSize - x), 0);
+        }
+
+        mPointer = 0;
+    }
+
+    /**
+     * Indicates if the bit at the index is set
+     */
+    public boolean get(int index)
+    {
+        int bit = absolute(index);
+        return (mWords[bit >>> 6] & (Long.MIN_VALUE >>> bit)) != 0;
+    }
+
+    /**
+     * Sets the bit at the index
+     */
+    public void set(int index)
+    {
+        int bit = absolute(index);
+        mWords[bit >>> 6] |= Long.MIN_VALUE >>> bit;
+    }
+
+    /**
+     * Sets the bit at the index to the value
+     */
+    public void set(int index, boolean value)
+    {
+        if(value)
+        {
+            set(index);
+        }
+        else
+        {
+            clear(index);
+        }
+    }
+
+    /**
+     * Clears the bit at the index
+     */
+    public void clear(int index)
+    {
+        int bit = absolute(index);
+        mWords[bit >>> 6] &= ~(Long.MIN_VALUE >>> bit);
+    }
+
+    /**
+     * Inverts the bit at the index
+     */
+    public void flip(int index)
+    {
+        int bit = absolute(index);
+        mWords[bit >>> 6] ^= Long.MIN_VALUE >>> bit;
+    }
+
+    /**
+     * Returns the value of the contiguous field from start (MSB) through end (LSB), inclusive.
+     *
+     * @param start index of the most significant bit
+     * @param end index of the least significant bit
+     * @return field value
+     * @throws IllegalArgumentException if the field is wider than 32 bits
+     */
+    public int getInt(int start, int end)
+    {
+        if(end - start >= 32)
+        {
+            throw new IllegalArgumentException("Overflow - must be 32 bits or less to fit into a primitive integer value");
+        }
+
+        return (int)getLong(start, end);
+    }
+
+    /**
+     * Returns the value of the contiguous field from start (MSB) through end (LSB), inclusive, using at most two word
+     * reads.
+     *
+     * @param start index of the most significant bit
+     * @param end index of the least significant bit
+     * @return field value
+     * @throws IllegalArgumentException if the field is wider than 64 bits
+     */
+    public long getLong(int start, int end)
+    {
+        int width = end - start + 1;
+
+        if(width < 1 || width > WORD_BITS)
+        {
+            throw new IllegalArgumentException("Field width must be 1 - 64 bits: " + start + "-" + end);
+        }
+
+        checkIndex(end);
+
+        int bit = absolute(start);
+        int word = bit >>> 6;
+        int shift = bit & 63;
+
+        long value = mWords[word] << shift;
+
+        if(shift + width > WORD_BITS)
+        {
+            value |= mWords[word + 1] >>> (WORD_BITS - shift);
+        }
+
+        return value >>> (WORD_BITS - width);
+    }
+
+    /**
+     * Returns the value represented by the (possibly non-contiguous) bit positions, with index 0 of the array being
+     * the MSB.  Equivalent to BinaryMessage.getInt(int[]).
+     */
+    public int getInt(int[] bits)
+    {
+        if(bits.length > 32)
+        {
+            throw new IllegalArgumentException("Overflow - must be 32 bits or less to fit into a primitive integer value");
+        }
+
+        int value = 0;
+
+        for(int index: bits)
+        {
+            value <<= 1;
+
+            if(get(index))
+            {
+                value |= 1;
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Writes the width least significant bits of the value into the buffer with the MSB at the start index, using at
+     * most two word writes.
+     *
+     * @param start index for the most significant bit of the value
+     * @param width of the field in bits (1 - 64)
+     * @param value to write
+     */
+    public void setLong(int start, int width, long value)
+    {
+        if(width < 1 || width > WORD_BITS)
+        {
+            throw new IllegalArgumentException("Field width must be 1 - 64 bits: " + width);
+        }
+
+        checkIndex(start + width - 1);
+
+        int bit = absolute(start);
+        int word = bit >>> 6;
+        int shift = bit & 63;
+
+        long mask = -1L << (WORD_BITS - width);
+        long aligned = (value << (WORD_BITS - width)) & mask;
+
+        mWords[word] = (mWords[word] & ~(mask >>> shift)) | (aligned >>> shift);
+
+        if(shift + width > WORD_BITS)
+        {
+            int remaining = WORD_BITS - shift;
+            mWords[word + 1] = (mWords[word + 1] & ~(mask << remaining)) | (aligned << remaining);
+        }
+    }
+
+    /**
+     * Writes the width least significant bits of the value into the buffer with the MSB at the start index
+     */
+    public void setInt(int start, int width, int value)
+    {
+        setLong(start, width, value);
+    }
+
+    /**
+     * Creates a view of the bits from start (inclusive) to end (exclusive) that shares this buffer's storage.  The
+     * view's fill pointer is positioned at the end of the view.
+     *
+     * @param start index of the first bit of the view
+     * @param end index, exclusive
+     * @return view of the range
+     */
+    public PackedBitBuffer getView(int start, int end)
+    {
+        if(start < 0 || end > mSize || start > end)
+        {
+            throw new IndexOutOfBoundsException("Invalid view range " + start + "-" + end + " for size " + mSize);
+        }
+
+        PackedBitBuffer view = new PackedBitBuffer(mWords, mOffset + start, end - start);
+        view.mPointer = view.mSize;
+        return view;
+    }
+
+    /**
+     * Creates a compact copy of this buffer (or view) with its own storage
+     */
+    public PackedBitBuffer copy()
+    {
+        PackedBitBuffer copy = new PackedBitBuffer(mSize);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this buffer's bits and fill pointer with the contents of the source buffer.
+     *
+     * @param source buffer with a size equal to this buffer
+     */
+    public void copyFrom(PackedBitBuffer source)
+    {
+        if(source.size() != mSize)
+        {
+            throw new IllegalArgumentException("Source size [" + source.size() + "] does not match size [" +
+                mSize + "]");
+        }
+
+        if(mOffset == 0 && source.mOffset == 0)
+        {
+            System.arraycopy(source.mWords, 0, mWords, 0, getWordCount(mSize));
+        }
+        else
+        {
+            for(int x = 0; x < mSize; x += WORD_BITS)
+            {
+                int width = Math.min(WORD_BITS, mSize - x);
+                setLong(x, width, source.getLong(x, x + width - 1));
+            }
+        }
+
+        mPointer = source.mPointer;
+    }
+
+    /**
+     * Number of set bits
+     */
+    public int cardinality()
+    {
+        int count = 0;
+
+        for(int x = 0; x < mSize; x += WORD_BITS)
+        {
+            count += Long.bitCount(getLong(x, Math.min(mSize, x + WORD_BITS) - 1));
+        }
+
+        return count;
+    }
+
+    /**
+     * Converts the buffer index to a bit index within the backing words
+     */
+    private int absolute(int index)
+    {
+        checkIndex(index);
+        return mOffset + index;
+    }
+
+    private void checkIndex(int index)
+    {
+        if(index < 0 || index >= mSize)
+        {
+            throw new IndexOutOfBoundsException("Index [" + index + "] size [" + mSize + "]");
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        for(int x = 0; x < mSize; x++)
+        {
+            sb.append(get(x) ? "1" : "0");
+        }
+
+        return sb.toString();
+    }
+}
@@ -101,10 +101,7 @@ public class AliasedIdentifier
 
         copy.setAlias(mAlias);
 
-        if(mIdentifier != null)
-        {
-            copy.setIdentifier(new String(mIdentifier));
-        }
+        copy.setIdentifier(mIdentifier);
 
         return copy;
     }
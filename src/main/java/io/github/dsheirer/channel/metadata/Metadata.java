@@ -63,6 +63,10 @@ public class Metadata
     protected Boolean mRecordable = false;
     protected Boolean mDoNotRecord;
     private Set<BroadcastChannel> mBroadcastChannels;
+    private String mUniqueIdentifier;
+
+    //Most recent snapshot of this metadata, shared across audio packets until this metadata is updated
+    private Metadata mSnapshot;
 
     private long mTimestamp = System.currentTimeMillis();
 
@@ -96,12 +100,21 @@ public class Metadata
     /**
      * Unique string identifier for this metadata that is comprised of the channel ID and the primary TO address.
      *
-     * This identifier can be used to uniquely identify a channel audio stream and the primary communicant.
+     * This identifier can be used to uniquely identify a channel audio stream and the primary communicant.  The
+     * identifier is computed once per metadata instance and shared by its snapshot, so that it can be used as a map
+     * key for every audio packet without further allocation.
+     *
+     * Note: the identifier is cached, so it should only be used with immutable metadata snapshots (see getSnapshot()).
      */
     public String getUniqueIdentifier()
     {
-        return "SRC:" + mMetadataID +
-            " ID:" + (mPrimaryAddressTo.hasIdentifier() ? mPrimaryAddressTo.getIdentifier() : "UNKNOWN");
+        if(mUniqueIdentifier == null)
+        {
+            mUniqueIdentifier = "SRC:" + mMetadataID +
+                " ID:" + (mPrimaryAddressTo.hasIdentifier() ? mPrimaryAddressTo.getIdentifier() : "UNKNOWN");
+        }
+
+        return mUniqueIdentifier;
     }
 
     /**
@@ -569,31 +582,11 @@ public class Metadata
      */
     private void determineRecordable()
     {
-        mDoNotRecord = false;
-
-        if(mPrimaryAddressTo.hasAlias() && !mPrimaryAddressTo.getAlias().isRecordable())
-        {
-            mDoNotRecord = true;
-            return;
-        }
-
-        if(mPrimaryAddressFrom.hasAlias() && !mPrimaryAddressFrom.getAlias().isRecordable())
-        {
-            mDoNotRecord = true;
-            return;
-        }
-
-        if(mSecondaryAddressTo.hasAlias() && !mSecondaryAddressTo.getAlias().isRecordable())
-        {
-            mDoNotRecord = true;
-            return;
-        }
-
-        if(mSecondaryAddressFrom.hasAlias() && !mSecondaryAddressFrom.getAlias().isRecordable())
-        {
-            mDoNotRecord = true;
-            return;
-        }
+        //Snapshots are shared across threads, so the value is only assigned once it is fully determined
+        mDoNotRecord = (mPrimaryAddressTo.hasAlias() && !mPrimaryAddressTo.getAlias().isRecordable()) ||
+            (mPrimaryAddressFrom.hasAlias() && !mPrimaryAddressFrom.getAlias().isRecordable()) ||
+            (mSecondaryAddressTo.hasAlias() && !mSecondaryAddressTo.getAlias().isRecordable()) ||
+            (mSecondaryAddressFrom.hasAlias() && !mSecondaryAddressFrom.getAlias().isRecordable());
     }
 
     /**
@@ -601,27 +594,88 @@ public class Metadata
      */
     private void determineBroadcastChannels()
     {
-        mBroadcastChannels = new TreeSet<>();
+        //Snapshots are shared across threads, so the set is only assigned once it is fully populated
+        Set<BroadcastChannel> broadcastChannels = new TreeSet<>();
 
         if(mPrimaryAddressTo.hasAlias() && mPrimaryAddressTo.getAlias().isStreamable())
         {
-            mBroadcastChannels.addAll(mPrimaryAddressTo.getAlias().getBroadcastChannels());
+            broadcastChannels.addAll(mPrimaryAddressTo.getAlias().getBroadcastChannels());
         }
 
         if(mPrimaryAddressFrom.hasAlias() && mPrimaryAddressFrom.getAlias().isStreamable())
         {
-            mBroadcastChannels.addAll(mPrimaryAddressFrom.getAlias().getBroadcastChannels());
+            broadcastChannels.addAll(mPrimaryAddressFrom.getAlias().getBroadcastChannels());
         }
 
         if(mSecondaryAddressTo.hasAlias() && mSecondaryAddressTo.getAlias().isStreamable())
         {
-            mBroadcastChannels.addAll(mSecondaryAddressTo.getAlias().getBroadcastChannels());
+            broadcastChannels.addAll(mSecondaryAddressTo.getAlias().getBroadcastChannels());
         }
 
         if(mSecondaryAddressFrom.hasAlias() && mSecondaryAddressFrom.getAlias().isStreamable())
         {
-            mBroadcastChannels.addAll(mSecondaryAddressFrom.getAlias().getBroadcastChannels());
+            broadcastChannels.addAll(mSecondaryAddressFrom.getAlias().getBroadcastChannels());
+        }
+
+        mBroadcastChannels = broadcastChannels;
+    }
+
+    /**
+     * Immutable snapshot of this metadata for attaching to audio packets.
+     *
+     * A new snapshot is only created when this metadata has been updated since the previous snapshot, otherwise the
+     * previous snapshot is shared.  The first snapshot after an update reports isUpdated() as true and is followed by
+     * a single shared copy that reports false, preserving the isUpdated() semantics of copyOf() for downstream
+     * consumers while limiting allocations to two per metadata change rather than one per audio packet.
+     *
+     * Snapshots must not be modified.  This method should only be invoked by the thread that produces audio packets.
+     */
+    public Metadata getSnapshot()
+    {
+        if(mSnapshot == null || mUpdated)
+        {
+            mSnapshot = copyOf();
         }
+        else if(mSnapshot.isUpdated())
+        {
+            mSnapshot = mSnapshot.share();
+        }
+
+        return mSnapshot;
+    }
+
+    /**
+     * Creates a copy of this (immutable snapshot) metadata that shares all attribute values and any lazily determined
+     * values, with the updated flag cleared.
+     */
+    private Metadata share()
+    {
+        Metadata copy = new Metadata(mMetadataID);
+
+        copy.mDoNotRecord = mDoNotRecord;
+        copy.mRecordable = mRecordable;
+        copy.mState = mState;
+        copy.mPrimaryDecoderType = mPrimaryDecoderType;
+        copy.mChannelFrequency = mChannelFrequency;
+        copy.mChannelConfigurationSystem = mChannelConfigurationSystem;
+        copy.mChannelConfigurationSite = mChannelConfigurationSite;
+        copy.mChannelConfigurationName = mChannelConfigurationName;
+        copy.mChannelFrequencyLabel = mChannelFrequencyLabel;
+        copy.mMessage = mMessage;
+        copy.mMessageType = mMessageType;
+        copy.mNetworkID1 = mNetworkID1;
+        copy.mNetworkID2 = mNetworkID2;
+        copy.mPrimaryAddressFrom = mPrimaryAddressFrom;
+        copy.mPrimaryAddressTo = mPrimaryAddressTo;
+        copy.mSecondaryAddressFrom = mSecondaryAddressFrom;
+        copy.mSecondaryAddressTo = mSecondaryAddressTo;
+
+        copy.mAudioPriority = mAudioPriority;
+        copy.mBroadcastChannels = mBroadcastChannels;
+        copy.mUniqueIdentifier = mUniqueIdentifier;
+        copy.mTimestamp = mTimestamp;
+
+        return copy;
     }
 
     /**
@@ -640,12 +694,13 @@ public class Metadata
         copy.mPrimaryDecoderType = mPrimaryDecoderType;
         copy.mChannelFrequency = mChannelFrequency;
 
-        copy.mChannelConfigurationSystem = hasChannelConfigurationSystem() ? new String(mChannelConfigurationSystem) : null;
-        copy.mChannelConfigurationSite = hasChannelConfigurationSite() ? new String(mChannelConfigurationSite) : null;
-        copy.mChannelConfigurationName = hasChannelConfigurationName() ? new String(mChannelConfigurationName) : null;
-        copy.mChannelFrequencyLabel = hasChannelFrequencyLabel() ? new String(mChannelFrequencyLabel) : null;
-        copy.mMessage = hasMessage() ? new String(mMessage) : null;
-        copy.mMessageType = hasMessageType() ? new String(mMessageType) : null;
+        //Strings are immutable and are shared with the copy
+        copy.mChannelConfigurationSystem = hasChannelConfigurationSystem() ? mChannelConfigurationSystem : null;
+        copy.mChannelConfigurationSite = hasChannelConfigurationSite() ? mChannelConfigurationSite : null;
+        copy.mChannelConfigurationName = hasChannelConfigurationName() ? mChannelConfigurationName : null;
+        copy.mChannelFrequencyLabel = hasChannelFrequencyLabel() ? mChannelFrequencyLabel : null;
+        copy.mMessage = hasMessage() ? mMessage : null;
+        copy.mMessageType = hasMessageType() ? mMessageType : null;
 
         copy.mNetworkID1 = mNetworkID1.copyOf();
         copy.mNetworkID2 = mNetworkID2.copyOf();
@@ -60,6 +60,7 @@ public class MutableMetadata extends Metadata implements Listener<AttributeChang
     public void setRecordable(boolean recordable)
     {
         mRecordable = recordable;
+        mUpdated = true;
     }
 
     /**
@@ -28,10 +28,12 @@ import io.github.dsheirer.module.decode.config.DecodeConfiguration;
 import io.github.dsheirer.module.decode.event.CallEvent;
 import io.github.dsheirer.module.decode.event.CallEvent.CallEventType;
 import io.github.dsheirer.module.decode.event.ICallEventProvider;
+import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.record.config.RecordConfiguration;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.config.SourceConfigTuner;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
+import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +41,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class TrafficChannelManager extends Module implements ICallEventProvider, IDecoderStateEventListener
 {
@@ -46,9 +49,11 @@ public class TrafficChannelManager extends Module implements ICallEventProvider,
     public static final String CHANNEL_START_REJECTED = "CHANNEL START REJECTED";
     public static final String NO_TUNER_AVAILABLE = "NO TUNER AVAILABLE";
     public static final String UNKNOWN_FREQUENCY = "UNKNOWN FREQUENCY";
+    public static final String PREWARM_ENABLED_PROPERTY = "traffic.channel.prewarm.enabled";
 
     private int mTrafficChannelPoolMaximumSize = DecodeConfiguration.TRAFFIC_CHANNEL_LIMIT_DEFAULT;
-    private List<Channel> mTrafficChannelPool = new ArrayList<Channel>();
+    private List<Channel> mTrafficChannelPool = new CopyOnWriteArrayList<>();
+    private volatile boolean mDisposed;
     private Map<String,Channel> mTrafficChannelsInUse = new ConcurrentHashMap<String,Channel>();
 
     private DecoderStateEventListener mEventListener = new DecoderStateEventListener();
@@ -66,6 +71,11 @@ public class TrafficChannelManager extends Module implements ICallEventProvider,
      * to traffic channel allocation call events.  Manages a pool of reusable
      * traffic channel allocations.
      *
+     * When started, each traffic channel pool slot is pre-warmed with an idle
+     * processing chain (decoder, filters and demodulator) so that a grant only
+     * has to obtain a channel source and start the chain.  Pre-warming can be
+     * disabled with the system property 'traffic.channel.prewarm.enabled'.
+     *
      * @param channelModel containing channels currently in use
      * @param decodeConfiguration - decoder configuration to use for each
      * traffic channel allocation.
@@ -96,9 +106,14 @@ public class TrafficChannelManager extends Module implements ICallEventProvider,
     @Override
     public void dispose()
     {
+        mDisposed = true;
+
         for(Channel trafficChannel : mTrafficChannelPool)
         {
             mChannelModel.broadcast(new ChannelEvent(trafficChannel, Event.REQUEST_DISABLE));
+
+            //Removing the channel disposes its idle processing chain
+            mChannelModel.removeChannel(trafficChannel);
         }
 
         mTrafficChannelPool.clear();
@@ -137,17 +152,7 @@ public class TrafficChannelManager extends Module implements ICallEventProvider,
 
             if(channel == null && mTrafficChannelPool.size() < mTrafficChannelPoolMaximumSize)
             {
-                channel = new Channel("Traffic", ChannelType.TRAFFIC);
-
-                channel.setDecodeConfiguration(mDecodeConfiguration);
-
-                channel.setRecordConfiguration(mRecordConfiguration);
-
-                channel.setAliasListName(mAliasListName);
-
-                mChannelModel.addChannel(channel);
-
-                mTrafficChannelPool.add(channel);
+                channel = createChannel();
             }
 
             /* If we have a configured channel, update metadata */
@@ -165,6 +170,86 @@ public class TrafficChannelManager extends Module implements ICallEventProvider,
         return channel;
     }
 
+    /**
+     * Creates a new traffic channel and adds it to the channel model and to the traffic channel pool.
+     *
+     * Note: you must enforce thread safety on the mTrafficChannelsInUse
+     * external to this method.
+     */
+    private Channel createChannel()
+    {
+        Channel channel = buildChannel();
+
+        mChannelModel.addChannel(channel);
+
+        mTrafficChannelPool.add(channel);
+
+        return channel;
+    }
+
+    /**
+     * Creates a new traffic channel configured with the decode, record and alias list settings for this manager.
+     */
+    private Channel buildChannel()
+    {
+        Channel channel = new Channel("Traffic", ChannelType.TRAFFIC);
+
+        channel.setDecodeConfiguration(mDecodeConfiguration);
+
+        channel.setRecordConfiguration(mRecordConfiguration);
+
+        channel.setAliasListName(mAliasListName);
+
+        return channel;
+    }
+
+    /**
+     * Fills the traffic channel pool with channels that each have an idle, pre-built processing chain.
+     *
+     * Each channel is created and reserved in the pool while holding the traffic channels in use lock, but the
+     * channel is added to the channel model and pre-warmed after the lock is released.  The channel processing
+     * manager's channel event handler is synchronized and it can stop a control channel (ie invoke callEnd() and
+     * acquire the traffic channels in use lock) while holding its monitor, so broadcasting a channel event while
+     * holding the lock could deadlock.  Releasing the lock also means that grants are only blocked while a channel is
+     * reserved, not while its processing chain is built.
+     */
+    private void prewarm()
+    {
+        while(true)
+        {
+            Channel channel;
+
+            synchronized(mTrafficChannelsInUse)
+            {
+                if(mDisposed || mTrafficChannelPool.size() >= mTrafficChannelPoolMaximumSize)
+                {
+                    return;
+                }
+
+                channel = buildChannel();
+                channel.setSystem(mSystem);
+                channel.setSite(mSite);
+
+                mTrafficChannelPool.add(channel);
+            }
+
+            mChannelModel.addChannel(channel);
+            mChannelModel.broadcast(new ChannelEvent(channel, Event.REQUEST_PREWARM));
+
+            //Cleanup if this manager was disposed while the channel was being pre-warmed
+            if(mDisposed)
+            {
+                synchronized(mTrafficChannelsInUse)
+                {
+                    mTrafficChannelPool.remove(channel);
+                }
+
+                mChannelModel.removeChannel(channel);
+                return;
+            }
+        }
+    }
+
     /**
      * Processes the event and creates a traffic channel is resources are
      * available
@@ -328,6 +413,25 @@ public class TrafficChannelManager extends Module implements ICallEventProvider,
     @Override
     public void start()
     {
+        if(mTrafficChannelPool.size() < mTrafficChannelPoolMaximumSize &&
+            SystemProperties.getInstance().get(PREWARM_ENABLED_PROPERTY, true))
+        {
+            ThreadPool.SCHEDULED.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        prewarm();
+                    }
+                    catch(Throwable t)
+                    {
+                        mLog.error("Error while pre-warming traffic channels", t);
+                    }
+                }
+            });
+        }
     }
 
     @Override
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.channel.traffic;
+
+import io.github.dsheirer.message.Message;
+import io.github.dsheirer.module.decode.p25.message.ldu.LDUMessage;
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects traffic channel start latency metrics, measured from the traffic channel grant to the start of the
+ * traffic channel processing chain and from the grant to the first decoded voice frame (LDU).
+ *
+ * Metrics are periodically logged when the system property 'traffic.channel.metrics.log.interval' is set to a
+ * logging interval in seconds.  Logging is disabled by default (0).
+ */
+public class TrafficChannelStartMonitor
+{
+    private final static Logger mLog = LoggerFactory.getLogger(TrafficChannelStartMonitor.class);
+
+    public static final String METRICS_LOG_INTERVAL_PROPERTY = "traffic.channel.metrics.log.interval";
+
+    private static TrafficChannelStartMonitor sInstance;
+
+    private LatencyMetric mStartLatency = new LatencyMetric("Grant to Start");
+    private LatencyMetric mFirstVoiceLatency = new LatencyMetric("Grant to First LDU");
+
+    /**
+     * Private constructor for singleton access
+     */
+    private TrafficChannelStartMonitor()
+    {
+        int interval = SystemProperties.getInstance().get(METRICS_LOG_INTERVAL_PROPERTY, 0);
+
+        if(interval > 0)
+        {
+            ThreadPool.SCHEDULED.scheduleAtFixedRate(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    logMetrics();
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Singleton instance of the traffic channel start monitor
+     */
+    public static synchronized TrafficChannelStartMonitor getInstance()
+    {
+        if(sInstance == null)
+        {
+            sInstance = new TrafficChannelStartMonitor();
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Records that a traffic channel processing chain has started for a grant
+     *
+     * @param grantTime System.nanoTime() when the grant was received
+     * @return message listener that records the latency to the first decoded voice frame.  Register the listener with
+     * the traffic channel's processing chain while the channel is processing.
+     */
+    public Listener<Message> started(long grantTime)
+    {
+        mStartLatency.add(System.nanoTime() - grantTime);
+
+        return new FirstVoiceFrameListener(grantTime);
+    }
+
+    /**
+     * Grant to processing chain start latency
+     */
+    public LatencyMetric getStartLatency()
+    {
+        return mStartLatency;
+    }
+
+    /**
+     * Grant to first decoded voice frame latency
+     */
+    public LatencyMetric getFirstVoiceLatency()
+    {
+        return mFirstVoiceLatency;
+    }
+
+    /**
+     * Logs the latency metrics and resets them
+     */
+    public void logMetrics()
+    {
+        mLog.info("Traffic Channel Start Metrics\n\t" + mStartLatency.toString() + "\n\t" +
+            mFirstVoiceLatency.toString());
+
+        mStartLatency.reset();
+        mFirstVoiceLatency.reset();
+    }
+
+    /**
+     * Records the latency of the first valid voice frame received after the grant
+     */
+    private class FirstVoiceFrameListener implements Listener<Message>
+    {
+        private long mGrantTime;
+        private volatile boolean mComplete;
+
+        private FirstVoiceFrameListener(long grantTime)
+        {
+            mGrantTime = grantTime;
+        }
+
+        @Override
+        public void receive(Message message)
+        {
+            if(!mComplete && message instanceof LDUMessage && message.isValid())
+            {
+                mComplete = true;
+                mFirstVoiceLatency.add(System.nanoTime() - mGrantTime);
+            }
+        }
+    }
+
+    /**
+     * Count, average and maximum of latency samples
+     */
+    public static class LatencyMetric
+    {
+        private String mLabel;
+        private long mCount;
+        private long mTotal;
+        private long mMaximum;
+
+        public LatencyMetric(String label)
+        {
+            mLabel = label;
+        }
+
+        public synchronized void add(long latencyNanos)
+        {
+            mCount++;
+            mTotal += latencyNanos;
+            mMaximum = Math.max(mMaximum, latencyNanos);
+        }
+
+        public synchronized long getCount()
+        {
+            return mCount;
+        }
+
+        /**
+         * Average latency in milliseconds
+         */
+        public synchronized double getAverageMilliseconds()
+        {
+            return mCount > 0 ? (double)mTotal / (double)mCount / 1E6 : 0.0;
+        }
+
+        /**
+         * Maximum latency in milliseconds
+         */
+        public synchronized double getMaximumMilliseconds()
+        {
+            return (double)mMaximum / 1E6;
+        }
+
+        public synchronized void reset()
+        {
+            mCount = 0;
+            mTotal = 0;
+            mMaximum = 0;
+        }
+
+        @Override
+        public synchronized String toString()
+        {
+            return String.format("%s - Count [%d] Average [%.1f ms] Maximum [%.1f ms]", mLabel, mCount,
+                getAverageMilliseconds(), getMaximumMilliseconds());
+        }
+    }
+}
@@ -44,6 +44,7 @@ public class ChannelAutoStartFrame extends JFrame
     private static final int COUNTDOWN_SECONDS = 10;
     private ChannelEventListener mChannelEventListener;
     private List<Channel> mChannels;
+    private Runnable mCompletionCallback;
 
     private JLabel mCountdownLabel;
     private JButton mStartButton;
@@ -62,9 +63,24 @@ public class ChannelAutoStartFrame extends JFrame
      * @param channels to auto-start
      */
     public ChannelAutoStartFrame(ChannelEventListener listener, List<Channel> channels)
+    {
+        this(listener, channels, null);
+    }
+
+    /**
+     * Creates and displays a channel auto-start gui for presenting the user with a list of channels that
+     * will be automatically started once the countdown timer reaches zero, or the user chooses to start
+     * now or cancel.
+     *
+     * @param listener to receive channel start/enable request(s)
+     * @param channels to auto-start
+     * @param completionCallback to run (optional) once the channels have been started or auto-start is canceled
+     */
+    public ChannelAutoStartFrame(ChannelEventListener listener, List<Channel> channels, Runnable completionCallback)
     {
         mChannelEventListener = listener;
         mChannels = channels;
+        mCompletionCallback = completionCallback;
         init();
 
         EventQueue.invokeLater(new Runnable()
@@ -200,7 +216,7 @@ public class ChannelAutoStartFrame extends JFrame
     }
 
     /**
-     * Stops the countdown timer and disposes this frame
+     * Stops the countdown timer, runs the completion callback and disposes this frame
      */
     private void stopTimer()
     {
@@ -210,6 +226,12 @@ public class ChannelAutoStartFrame extends JFrame
             mTimerFuture = null;
         }
 
+        if(mCompletionCallback != null)
+        {
+            mCompletionCallback.run();
+            mCompletionCallback = null;
+        }
+
         EventQueue.invokeLater(new Runnable()
         {
             @Override
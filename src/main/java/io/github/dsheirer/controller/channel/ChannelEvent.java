@@ -77,6 +77,8 @@ public class ChannelEvent
 		REQUEST_DISABLE,
 		//Request to enable a channel - response will be a PROCESSING_START_NOTIFICATION
 		REQUEST_ENABLE,
+		//Request to construct an idle processing chain for a channel so that a later enable request starts quickly
+		REQUEST_PREWARM,
 		//Request to select the channel
 		REQUEST_SELECT;
 	}
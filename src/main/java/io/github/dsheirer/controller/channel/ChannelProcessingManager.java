@@ -22,6 +22,7 @@ import io.github.dsheirer.alias.AliasModel;
 import io.github.dsheirer.channel.metadata.Attribute;
 import io.github.dsheirer.channel.metadata.AttributeChangeRequest;
 import io.github.dsheirer.channel.metadata.ChannelMetadataModel;
+import io.github.dsheirer.channel.traffic.TrafficChannelStartMonitor;
 import io.github.dsheirer.controller.channel.map.ChannelMapModel;
 import io.github.dsheirer.filter.FilterSet;
 import io.github.dsheirer.message.Message;
@@ -54,6 +55,7 @@ public class ChannelProcessingManager implements ChannelEventListener
     private final static Logger mLog = LoggerFactory.getLogger(ChannelProcessingManager.class);
 
     private Map<Integer,ProcessingChain> mProcessingChains = new HashMap<>();
+    private Map<Integer,Listener<Message>> mTrafficChannelStartListeners = new HashMap<>();
 
     private List<Listener<ReusableAudioPacket>> mAudioPacketListeners = new CopyOnWriteArrayList<>();
     private List<Listener<Message>> mMessageListeners = new CopyOnWriteArrayList<>();
@@ -176,11 +178,23 @@ public class ChannelProcessingManager implements ChannelEventListener
                             break;
                     }
                 }
+                break;
+            case REQUEST_PREWARM:
+                if(!mProcessingChains.containsKey(channel.getChannelID()))
+                {
+                    mProcessingChains.put(channel.getChannelID(), createProcessingChain(channel));
+                }
+                break;
             case NOTIFICATION_DELETE:
                 if(channel.isProcessing())
                 {
                     stopProcessing(channel, true);
                 }
+                else if(mProcessingChains.containsKey(channel.getChannelID()))
+                {
+                    //Dispose idle (reusable or pre-warmed) traffic channel processing chains
+                    mProcessingChains.remove(channel.getChannelID()).dispose();
+                }
                 break;
             case NOTIFICATION_CONFIGURATION_CHANGE:
                 if(isProcessing(channel))
@@ -230,34 +244,12 @@ public class ChannelProcessingManager implements ChannelEventListener
 
         if(processingChain == null)
         {
-            processingChain = new ProcessingChain(channel.getChannelType());
-
-			/* Register global listeners */
-            for(Listener<ReusableAudioPacket> listener : mAudioPacketListeners)
-            {
-                processingChain.addAudioPacketListener(listener);
-            }
-
-            for(Listener<Message> listener : mMessageListeners)
-            {
-                processingChain.addMessageListener(listener);
-            }
-
-            //Register channel to receive frequency correction events to show in the spectral display (hack!)
-            processingChain.addFrequencyChangeListener(channel);
-
-			/* Processing Modules */
-            List<Module> modules = DecoderFactory.getModules(mChannelModel, mChannelMapModel, this,
-                mAliasModel, channel, processingChain.getChannelState().getMutableMetadata());
-            processingChain.addModules(modules);
-
-			/* Setup message activity model with filtering */
-            FilterSet<Message> messageFilter = DecoderFactory.getMessageFilters(modules);
-            MessageActivityModel messageModel = new MessageActivityModel(messageFilter);
-            processingChain.setMessageActivityModel(messageModel);
-
+            processingChain = createProcessingChain(channel);
         }
 
+        //Register channel to receive frequency correction events to show in the spectral display (hack!)
+        processingChain.addFrequencyChangeListener(channel);
+
         //Set the recordable flag to true if the user has requested recording.  The metadata class can still
         //override recordability if any of the aliased values has 'Do Not Record' alias identifier.
         boolean recordable = channel.getRecordConfiguration() != null &&
@@ -343,6 +335,14 @@ public class ChannelProcessingManager implements ChannelEventListener
 
         processingChain.start();
 
+        if(event instanceof TrafficChannelEvent)
+        {
+            Listener<Message> startListener = TrafficChannelStartMonitor.getInstance()
+                .started(((TrafficChannelEvent)event).getGrantTime());
+            processingChain.addMessageListener(startListener);
+            mTrafficChannelStartListeners.put(channel.getChannelID(), startListener);
+        }
+
         getChannelMetadataModel().add(processingChain.getChannelState().getMutableMetadata(), channel);
 
         channel.setProcessing(true);
@@ -352,6 +352,38 @@ public class ChannelProcessingManager implements ChannelEventListener
         mChannelModel.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_START));
     }
 
+    /**
+     * Creates a processing chain with the decoder modules for the channel.  Sources, event loggers and recorders are
+     * added when the channel is started.
+     */
+    private ProcessingChain createProcessingChain(Channel channel)
+    {
+        ProcessingChain processingChain = new ProcessingChain(channel.getChannelType());
+
+        /* Register global listeners */
+        for(Listener<ReusableAudioPacket> listener : mAudioPacketListeners)
+        {
+            processingChain.addAudioPacketListener(listener);
+        }
+
+        for(Listener<Message> listener : mMessageListeners)
+        {
+            processingChain.addMessageListener(listener);
+        }
+
+        /* Processing Modules */
+        List<Module> modules = DecoderFactory.getModules(mChannelModel, mChannelMapModel, this,
+            mAliasModel, channel, processingChain.getChannelState().getMutableMetadata());
+        processingChain.addModules(modules);
+
+        /* Setup message activity model with filtering */
+        FilterSet<Message> messageFilter = DecoderFactory.getMessageFilters(modules);
+        MessageActivityModel messageModel = new MessageActivityModel(messageFilter);
+        processingChain.setMessageActivityModel(messageModel);
+
+        return processingChain;
+    }
+
     private void stopProcessing(Channel channel, boolean remove)
     {
         channel.setProcessing(false);
@@ -364,6 +396,13 @@ public class ChannelProcessingManager implements ChannelEventListener
 
             processingChain.stop();
 
+            Listener<Message> startListener = mTrafficChannelStartListeners.remove(channel.getChannelID());
+
+            if(startListener != null)
+            {
+                processingChain.removeMessageListener(startListener);
+            }
+
             processingChain.removeEventLoggingModules();
 
             processingChain.removeRecordingModules();
@@ -7,6 +7,7 @@ public class TrafficChannelEvent extends ChannelEvent
 {
 	private TrafficChannelManager mTrafficChannelManager;
 	private CallEvent mCallEvent;
+	private long mGrantTime = System.nanoTime();
 	
 	/**
 	 * Call event with traffic channel manager for call back, and original creation event.
@@ -31,4 +32,12 @@ public class TrafficChannelEvent extends ChannelEvent
 	{
 		return mCallEvent;
 	}
+
+	/**
+	 * System.nanoTime() when the traffic channel grant was processed (ie when this event was created)
+	 */
+	public long getGrantTime()
+	{
+		return mGrantTime;
+	}
 }
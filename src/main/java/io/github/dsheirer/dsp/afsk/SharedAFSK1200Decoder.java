@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.afsk;
+
+import io.github.dsheirer.bits.IBinarySymbolProcessor;
+
+import java.util.Arrays;
+
+/**
+ * AFSK 1200-baud decoder that resamples, correlates and recovers symbol timing once for an audio sample stream and
+ * dispatches each decoded symbol to multiple symbol processors, each with normal or inverted output.
+ *
+ * Symbol timing recovery only depends on the mark/space decisions, so every processor receives exactly the symbol
+ * stream that it would receive from its own AFSK1200Decoder.
+ */
+public class SharedAFSK1200Decoder extends AFSK1200Decoder
+{
+    private static final IBinarySymbolProcessor[] EMPTY = new IBinarySymbolProcessor[0];
+
+    //Copy-on-write arrays so that symbols are dispatched without iterator allocation or locking
+    private volatile IBinarySymbolProcessor[] mNormalProcessors = EMPTY;
+    private volatile IBinarySymbolProcessor[] mInvertedProcessors = EMPTY;
+
+    public SharedAFSK1200Decoder()
+    {
+        super(Output.NORMAL);
+    }
+
+    /**
+     * Registers the symbol processor to receive decoded symbols
+     *
+     * @param processor to receive symbols
+     * @param output NORMAL: 1200Hz = Mark(1) and 1800Hz = Space(0), or INVERTED (vice-versa)
+     */
+    public synchronized void addSymbolProcessor(IBinarySymbolProcessor processor, Output output)
+    {
+        if(output == Output.NORMAL)
+        {
+            mNormalProcessors = add(mNormalProcessors, processor);
+        }
+        else
+        {
+            mInvertedProcessors = add(mInvertedProcessors, processor);
+        }
+    }
+
+    /**
+     * Removes the symbol processor from receiving decoded symbols
+     */
+    public synchronized void removeSymbolProcessor(IBinarySymbolProcessor processor)
+    {
+        mNormalProcessors = remove(mNormalProcessors, processor);
+        mInvertedProcessors = remove(mInvertedProcessors, processor);
+    }
+
+    /**
+     * Number of registered symbol processors
+     */
+    public int getSymbolProcessorCount()
+    {
+        return mNormalProcessors.length + mInvertedProcessors.length;
+    }
+
+    /**
+     * Sets the symbol processor to be the only registered processor, with the output configured for this decoder.
+     */
+    @Override
+    public synchronized void setSymbolProcessor(IBinarySymbolProcessor binarySymbolProcessor)
+    {
+        mNormalProcessors = EMPTY;
+        mInvertedProcessors = EMPTY;
+
+        if(binarySymbolProcessor != null)
+        {
+            addSymbolProcessor(binarySymbolProcessor, mNormalOutput ? Output.NORMAL : Output.INVERTED);
+        }
+    }
+
+    /**
+     * Removes all symbol processors
+     */
+    @Override
+    public synchronized void removeListener()
+    {
+        mNormalProcessors = EMPTY;
+        mInvertedProcessors = EMPTY;
+    }
+
+    @Override
+    protected void dispatch(boolean symbol)
+    {
+        for(IBinarySymbolProcessor processor : mNormalProcessors)
+        {
+            processor.receive(symbol);
+        }
+
+        for(IBinarySymbolProcessor processor : mInvertedProcessors)
+        {
+            processor.receive(!symbol);
+        }
+    }
+
+    private static IBinarySymbolProcessor[] add(IBinarySymbolProcessor[] processors, IBinarySymbolProcessor processor)
+    {
+        IBinarySymbolProcessor[] updated = Arrays.copyOf(processors, processors.length + 1);
+        updated[processors.length] = processor;
+        return updated;
+    }
+
+    private static IBinarySymbolProcessor[] remove(IBinarySymbolProcessor[] processors,
+                                                   IBinarySymbolProcessor processor)
+    {
+        for(int x = 0; x < processors.length; x++)
+        {
+            if(processors[x] == processor)
+            {
+                IBinarySymbolProcessor[] updated = new IBinarySymbolProcessor[processors.length - 1];
+                System.arraycopy(processors, 0, updated, 0, x);
+                System.arraycopy(processors, x + 1, updated, x, processors.length - x - 1);
+                return updated;
+            }
+        }
+
+        return processors;
+    }
+}
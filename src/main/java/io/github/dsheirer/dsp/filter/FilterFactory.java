@@ -22,6 +22,7 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter;
 
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
@@ -667,22 +668,32 @@ public class FilterFactory
     }
 
     /**
-     * Creates a filter from the filter specification using the remez exchange design algorithm
+     * Creates a filter from the filter specification using the remez exchange design algorithm.  Designs are cached
+     * in the global filter design cache and reused for identical specifications.
      *
      * @param specification
      * @return filter coefficients
      * @throws FilterDesignException if the filter cannot be designed
      */
-    public static float[] getTaps(FIRFilterSpecification specification) throws FilterDesignException
+    public static float[] getTaps(final FIRFilterSpecification specification) throws FilterDesignException
     {
-        RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
+        String key = "remez:" + specification.getDesignKey();
 
-        if(designer.isValid())
+        return FilterDesignCache.getInstance().get(key, new FilterDesignCache.Designer()
         {
-            return designer.getImpulseResponse();
-        }
+            @Override
+            public float[] design() throws FilterDesignException
+            {
+                RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
+
+                if(designer.isValid())
+                {
+                    return designer.getImpulseResponse();
+                }
 
-        return null;
+                return null;
+            }
+        });
     }
 
     /**
@@ -748,7 +759,7 @@ public class FilterFactory
 
     /**
      * Polyphase M2 synthesizer sync filter.  Designed for multiple M2 oversampled channel inputs and
-     * an M*channel count output.
+     * an M*channel count output.  Designs are cached in the global filter design cache.
      *
      * @param channelSampleRate per input channel
      * @param channelBandwidth per input channel
@@ -757,8 +768,28 @@ public class FilterFactory
      * @return filter
      * @throws FilterDesignException
      */
-    public static float[] getSincM2Synthesizer(double channelSampleRate, double channelBandwidth, int channels,
-                                               int tapsPerChannel) throws FilterDesignException
+    public static float[] getSincM2Synthesizer(final double channelSampleRate, final double channelBandwidth,
+                                               final int channels, final int tapsPerChannel)
+        throws FilterDesignException
+    {
+        String key = "sincM2Synthesizer:" + Double.toHexString(channelSampleRate) + "," +
+            Double.toHexString(channelBandwidth) + "," + channels + "," + tapsPerChannel;
+
+        return FilterDesignCache.getInstance().get(key, new FilterDesignCache.Designer()
+        {
+            @Override
+            public float[] design() throws FilterDesignException
+            {
+                return designSincM2Synthesizer(channelSampleRate, channelBandwidth, channels, tapsPerChannel);
+            }
+        });
+    }
+
+    /**
+     * Designs the polyphase M2 synthesizer filter.  See getSincM2Synthesizer().
+     */
+    private static float[] designSincM2Synthesizer(double channelSampleRate, double channelBandwidth, int channels,
+                                                   int tapsPerChannel) throws FilterDesignException
     {
         int filterLength = (channels * tapsPerChannel) - 1;
 
@@ -801,7 +832,8 @@ public class FilterFactory
      */
 
     /**
-     * Polyphase M2 channelizer sync filter.  Designed for an M*channel input and an M2 channel output.
+     * Polyphase M2 channelizer sync filter.  Designed for an M*channel input and an M2 channel output.  Designs are
+     * cached in the global filter design cache and design results are only logged when the filter is designed.
      *
      * @param channelBandwidth per channel
      * @param channels count
@@ -810,8 +842,28 @@ public class FilterFactory
      * @return filter
      * @throws FilterDesignException if the filter cannot be designed with a band edge of -6.02dB
      */
-    public static float[] getSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
-                                               boolean logResults) throws FilterDesignException
+    public static float[] getSincM2Channelizer(final double channelBandwidth, final int channels,
+                                               final int tapsPerChannel, final boolean logResults)
+        throws FilterDesignException
+    {
+        String key = "sincM2Channelizer:" + Double.toHexString(channelBandwidth) + "," + channels + "," +
+            tapsPerChannel;
+
+        return FilterDesignCache.getInstance().get(key, new FilterDesignCache.Designer()
+        {
+            @Override
+            public float[] design() throws FilterDesignException
+            {
+                return designSincM2Channelizer(channelBandwidth, channels, tapsPerChannel, logResults);
+            }
+        });
+    }
+
+    /**
+     * Designs the polyphase M2 channelizer filter.  See getSincM2Channelizer().
+     */
+    private static float[] designSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
+                                                   boolean logResults) throws FilterDesignException
     {
         int currentTapsPerChannel = tapsPerChannel;
         int filterLength = (channels * currentTapsPerChannel) - 1;
@@ -19,15 +19,18 @@
 package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.sample.Broadcaster;
+import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBufferQueue;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.ISourceEventListener;
 import io.github.dsheirer.source.SourceEvent;
+import org.jtransforms.fft.FloatFFT_1D;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -37,6 +40,10 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
     private ReusableChannelResultsBufferQueue mBufferQueue = new ReusableChannelResultsBufferQueue("AbstractComplexPolyphaseChannelizer");
     private Broadcaster<SourceEvent> mSourceChangeBroadcaster = new Broadcaster();
     private List<PolyphaseChannelSource> mChannels = new CopyOnWriteArrayList<>();
+
+    //Sized at 152 buffers a second where max = 5 seconds and reset = 2 seconds worth of buffers
+    private IFFTProcessor mIFFTProcessor = new IFFTProcessor((5 * 152), (2 * 152));
+    private FloatFFT_1D mFFT;
     private double mSampleRate;
     private int mChannelCount;
     private int mSubChannelCount;
@@ -53,6 +60,23 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
         mSubChannelCount = channelCount * 2; //Number of I/Q channels
         mSampleRate = sampleRate;
         mChannelSampleRate = (double)mSampleRate / (double)mChannelCount;
+        mFFT = new FloatFFT_1D(mChannelCount);
+    }
+
+    /**
+     * Starts sample processing
+     */
+    public void start()
+    {
+        mIFFTProcessor.start();
+    }
+
+    /**
+     * Stops sample processing.
+     */
+    public void stop()
+    {
+        mIFFTProcessor.stop();
     }
 
     /**
@@ -72,7 +96,9 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
     {
         mSampleRate = sampleRate;
         mChannelCount = channelCount;
+        mSubChannelCount = channelCount * 2;
         mChannelSampleRate = mSampleRate / (double)mChannelCount;
+        mFFT = new FloatFFT_1D(mChannelCount);
     }
 
     /**
@@ -100,6 +126,17 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
         return mChannelSampleRate;
     }
 
+    /**
+     * Enqueues the filtered channel results buffer for IFFT processing and distribution to the registered channels on
+     * a separate thread.
+     *
+     * @param channelResultsBuffer containing an array of an array of filtered I/Q samples per channel
+     */
+    protected void enqueue(ReusableChannelResultsBuffer channelResultsBuffer)
+    {
+        mIFFTProcessor.receive(channelResultsBuffer);
+    }
+
     /**
      * Dispatches the processed channel samples to any registered polyphase channel outputs.
      *
@@ -144,6 +181,14 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
         }
     }
 
+    /**
+     * Polyphase channel sources registered to receive processed output channel samples
+     */
+    protected List<PolyphaseChannelSource> getChannels()
+    {
+        return mChannels;
+    }
+
     /**
      * Number of polyphase channels registered to receive sample streams
      */
@@ -167,4 +212,64 @@ public abstract class AbstractComplexPolyphaseChannelizer implements Listener<Re
     {
         return mSourceChangeBroadcaster;
     }
+
+    /**
+     * Separate threaded processor to receive and enqueue filtered channel results buffers, perform IFFT on each array
+     * as required to align the phase of each polyphase channel, and then dispatch the results to any registered
+     * sample consumer channels.
+     */
+    public class IFFTProcessor extends ContinuousBufferProcessor<ReusableChannelResultsBuffer>
+    {
+        public IFFTProcessor(int maximumSize, int resetThreshold)
+        {
+            super(maximumSize, resetThreshold);
+
+            //We create a listener interface to receive the buffers from the scheduled thread pool
+            //dispatcher thread that is part of this continuous buffer processor.  We perform an IFFT on each
+            //channel results array contained in each results buffer and then dispatch the buffer
+            //so that it can be distributed to each channel listener.
+            setListener(new Listener<List<ReusableChannelResultsBuffer>>()
+            {
+                @Override
+                public void receive(List<ReusableChannelResultsBuffer> buffers)
+                {
+                    for(ReusableChannelResultsBuffer buffer: buffers)
+                    {
+                        for(float[] channelResults: buffer.getChannelResults())
+                        {
+                            //Rotate each of the channels to the correct phase using the IFFT
+                            mFFT.complexInverse(channelResults, true);
+                        }
+
+                        dispatch(buffer);
+                    }
+                }
+            });
+
+            setOverflowListener(new IOverflowListener()
+            {
+                @Override
+                public void sourceOverflow(boolean overflow)
+                {
+                    mLog.debug("IFFTProcessor overflow changed - overflow:" + overflow);
+                }
+            });
+        }
+
+        /**
+         * Clears any buffers from the dispatch/processing queue.  Overrides the parent method so that we can set
+         * the user count to 0 to allow the buffer to be reclaimed.
+         */
+        protected Collection<ReusableChannelResultsBuffer> clearQueue()
+        {
+            Collection<ReusableChannelResultsBuffer> buffersToDispose = super.clearQueue();
+
+            for(ReusableChannelResultsBuffer buffer: buffersToDispose)
+            {
+                buffer.clearUserCount();
+            }
+
+            return buffersToDispose;
+        }
+    }
 }
@@ -506,6 +506,56 @@ public class ChannelCalculator
         }
     }
 
+    /**
+     * Extends an odd number (three or more) of contiguous channel indexes to an even number of indexes for use with
+     * the multi-channel synthesizer.  The next higher frequency index is added, unless that index is the wrap-around
+     * index, in which case the next lower frequency index is added.  Index lists of one or two indexes, or an even
+     * number of indexes are returned unmodified.
+     *
+     * @param indexes that are contiguous in the spectrum, ordered by increasing frequency
+     * @return indexes with an even index count
+     * @throws IllegalArgumentException if the indexes can't be extended without including the wrap-around index
+     */
+    public List<Integer> getSynthesisIndexes(List<Integer> indexes) throws IllegalArgumentException
+    {
+        if(indexes.size() < 3 || indexes.size() % 2 == 0)
+        {
+            return indexes;
+        }
+
+        List<Integer> synthesisIndexes = new ArrayList<>(indexes);
+
+        int higherIndex = indexes.get(indexes.size() - 1) + 1;
+
+        if(higherIndex >= getChannelCount())
+        {
+            higherIndex -= getChannelCount();
+        }
+
+        if(higherIndex != getWrapAroundIndex())
+        {
+            synthesisIndexes.add(higherIndex);
+            return synthesisIndexes;
+        }
+
+        int lowerIndex = indexes.get(0) - 1;
+
+        if(lowerIndex < 0)
+        {
+            lowerIndex += getChannelCount();
+        }
+
+        if(lowerIndex == getWrapAroundIndex())
+        {
+            throw new IllegalArgumentException("Unable to extend channel indexes " + indexes.toString() +
+                " to an even number of indexes without including the wrap-around index");
+        }
+
+        synthesisIndexes.add(0, lowerIndex);
+
+        return synthesisIndexes;
+    }
+
     /**
      * Calculates the center frequency for a channel that will be synthesized from the channel indexes.
      * @param indexes that are contiguous in the spectrum
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+/**
+ * Polyphase channelizer implementations that can be selected for use by the polyphase channel manager.  AUTOMATIC
+ * selects the parallel channelizer for wideband sample rates and the circular buffer channelizer otherwise.
+ */
+public enum ChannelizerType
+{
+    AUTOMATIC("Automatic"),
+    STANDARD("Standard"),
+    CIRCULAR_BUFFER("Circular Buffer"),
+    PARALLEL("Parallel");
+
+    private String mLabel;
+
+    ChannelizerType(String label)
+    {
+        mLabel = label;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mLabel;
+    }
+
+    /**
+     * Parses the channelizer type from the enum name, or returns the default value if the name is not recognized.
+     *
+     * @param name of the channelizer type
+     * @param defaultType to return if the name can't be parsed
+     * @return parsed type or the default type
+     */
+    public static ChannelizerType fromName(String name, ChannelizerType defaultType)
+    {
+        if(name != null)
+        {
+            for(ChannelizerType type: values())
+            {
+                if(type.name().equalsIgnoreCase(name))
+                {
+                    return type;
+                }
+            }
+        }
+
+        return defaultType;
+    }
+}
@@ -0,0 +1,341 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Non-Maximally Decimated Polyphase Filter Bank (NMDPFB) channelizer that divides the input baseband complex sample
+ * stream into equal bandwidth channels that are each oversampled by 2x for output.
+ *
+ * This channelizer produces the same output as the ComplexPolyphaseChannelizerM2, but stores the polyphase filter
+ * state in a double-length circular delay line instead of serpentine shifting the entire sample buffer after each
+ * block of samples.  Each new sample block is written twice, once into each half of the delay line, so that the
+ * current filter state is always available as a single contiguous span of the delay line that starts at the newest
+ * block.  This removes the per-block System.arrayCopy() of the full filter state.
+ *
+ * The sample/filter product and the per sub-channel accumulation are fused into a single pass over the aligned
+ * filter, which removes the interim product array and its second pass.
+ */
+public class CircularComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChannelizer
+{
+    private final static Logger mLog = LoggerFactory.getLogger(CircularComplexPolyphaseChannelizerM2.class);
+
+    private float[] mDelayLine;
+    private float[] mInlineFilter;
+    private float[] mFilterAccumulator;
+    private boolean mTopBlockIndicator = true;
+    private int[] mTopBlockMap;
+    private int[] mMiddleBlockMap;
+    private int mBlockCount;
+    private int mBlockIndex;
+    private int mBlockOffset;
+    private int mSampleBufferPointer;
+    private int mSamplesPerBlock;
+    private int mTapsPerChannel;
+
+    /**
+     * Creates a NMDPFB channelizer instance.
+     *
+     * @param taps of a low-pass filter designed for the inbound sample rate with a cutoff frequency
+     * equal to the channel bandwidth (sample rate / filters).
+     * @param sampleRate of the incoming sample stream
+     * @param channelCount - number of filters/channels to output.  Since this filter bank performs 2x oversampling for
+     * each channel output, this number must be even (divisible by 2).
+     */
+    public CircularComplexPolyphaseChannelizerM2(float[] taps, int sampleRate, int channelCount)
+    {
+        super(sampleRate, channelCount);
+
+        if(channelCount % 2 != 0)
+        {
+            throw new IllegalArgumentException("Channel count must be an even multiple of the over-sample rate (2x)");
+        }
+
+        mTapsPerChannel = (int)Math.ceil((double)taps.length / (double)channelCount);
+
+        init(taps);
+    }
+
+    /**
+     * Creates a NMDPFB channelizer instance and designs a Perfect Reconstruction prototype filter appropriate for
+     * the baseband sample rate and quantity of filter taps per polyphase sub-channel.
+     *
+     * @param sampleRate to be channelized.
+     * @param tapsPerChannel to use when designing the filter
+     */
+    public CircularComplexPolyphaseChannelizerM2(double sampleRate, int tapsPerChannel) throws FilterDesignException
+    {
+        super(sampleRate, ComplexPolyphaseChannelizerM2.getChannelCount(sampleRate));
+
+        mTapsPerChannel = tapsPerChannel;
+
+        float[] filterTaps = FilterFactory.getSincM2Channelizer(getChannelSampleRate(), getChannelCount(),
+            mTapsPerChannel, false);
+
+        init(filterTaps);
+    }
+
+    /**
+     * Updates this channelizer to use the new sample rate.  This method creates a new filter suitable for the
+     * sample rate and reinitializes all internal data structures to prepare for processing the new sample rate.
+     * @param sampleRate in hertz
+     */
+    @Override
+    public void setRates(double sampleRate, int channelCount)
+    {
+        try
+        {
+            super.setRates(sampleRate, channelCount);
+            float[] filterTaps = FilterFactory.getSincM2Channelizer(getChannelSampleRate(), getChannelCount(),
+                mTapsPerChannel, false);
+
+            init(filterTaps);
+        }
+        catch(FilterDesignException fde)
+        {
+            throw new IllegalArgumentException("Cannot create a channelizer filter for the specified sample rate [" +
+                sampleRate + "]");
+        }
+    }
+
+    /**
+     * Receives the complex sample buffer and processes the results through the channelizer.
+     */
+    @Override
+    public void receive(ReusableComplexBuffer reusableComplexBuffer)
+    {
+        ReusableChannelResultsBuffer channelResultsBuffer = getChannelResultsBuffer();
+        channelResultsBuffer.setTimestamp(reusableComplexBuffer.getTimestamp());
+
+        float[] samples = reusableComplexBuffer.getSamples();
+
+        int samplesPointer = 0;
+        int samplesToCopy;
+        int mirrorOffset = mBlockCount * mSamplesPerBlock;
+
+        while(samplesPointer < samples.length)
+        {
+            if(mSampleBufferPointer < mSamplesPerBlock)
+            {
+                samplesToCopy = mSamplesPerBlock - mSampleBufferPointer;
+
+                if((samples.length - samplesPointer) < samplesToCopy)
+                {
+                    samplesToCopy = (samples.length - samplesPointer);
+                }
+
+                //Load the samples into both halves of the delay line so that the filter state is always contiguous
+                System.arraycopy(samples, samplesPointer, mDelayLine, mBlockOffset + mSampleBufferPointer, samplesToCopy);
+                System.arraycopy(samples, samplesPointer, mDelayLine, mBlockOffset + mirrorOffset + mSampleBufferPointer,
+                    samplesToCopy);
+
+                mSampleBufferPointer += samplesToCopy;
+                samplesPointer += samplesToCopy;
+            }
+
+            if(mSampleBufferPointer >= mSamplesPerBlock)
+            {
+                //Filter buffered samples and produce a single sample across each of the polyphase channels
+                process(channelResultsBuffer);
+
+                //Move the write pointer back one block - the oldest block is overwritten by the next sample block
+                mBlockIndex--;
+
+                if(mBlockIndex < 0)
+                {
+                    mBlockIndex = mBlockCount - 1;
+                }
+
+                mBlockOffset = mBlockIndex * mSamplesPerBlock;
+                mSampleBufferPointer = 0;
+            }
+        }
+
+        //Enqueue the channel results buffer for IFFT processing and distribution on a different thread
+        enqueue(channelResultsBuffer);
+
+        //Decrement the user count to let the originator know we're done with their buffer
+        reusableComplexBuffer.decrementUserCount();
+    }
+
+    /**
+     * Processes the sample buffer for each new block of sample data that is loaded and distributes the results to any
+     * registered channel listeners.
+     *
+     * The filter state begins at the newest block in the delay line and spans the full filter length.  The first tap
+     * initializes the accumulator and each remaining tap is multiplied and accumulated in the same pass.
+     */
+    private void process(ReusableChannelResultsBuffer channelResultsBuffer)
+    {
+        int subChannelCount = getSubChannelCount();
+        int offset = mBlockOffset;
+        float[] delayLine = mDelayLine;
+        float[] filter = mInlineFilter;
+        float[] accumulator = mFilterAccumulator;
+
+        for(int channel = 0; channel < subChannelCount; channel++)
+        {
+            accumulator[channel] = delayLine[offset + channel] * filter[channel];
+        }
+
+        for(int tapOffset = subChannelCount; tapOffset < filter.length; tapOffset += subChannelCount)
+        {
+            int sampleOffset = offset + tapOffset;
+
+            for(int channel = 0; channel < subChannelCount; channel++)
+            {
+                accumulator[channel] += delayLine[sampleOffset + channel] * filter[tapOffset + channel];
+            }
+        }
+
+        float[] processed = channelResultsBuffer.getEmptyBuffer(subChannelCount);
+
+        int[] map = mTopBlockIndicator ? mTopBlockMap : mMiddleBlockMap;
+
+        for(int x = 0; x < subChannelCount; x++)
+        {
+            processed[x] = accumulator[map[x]];
+        }
+
+        channelResultsBuffer.addChannelResults(processed);
+
+        mTopBlockIndicator = !mTopBlockIndicator;
+    }
+
+    /**
+     * Initializes the channelizer filter structures.
+     *
+     * @param coefficients of the prototype filter for this channelizer
+     */
+    private void init(float[] coefficients)
+    {
+        int channelCount = getChannelCount();
+        int bufferLength = getSubChannelCount() * mTapsPerChannel;
+        mSamplesPerBlock = getChannelCount(); //Same as subChannelCount / 2
+        mBlockCount = bufferLength / mSamplesPerBlock;
+        mTopBlockMap = ComplexPolyphaseChannelizerM2.getTopBlockMap(channelCount);
+        mMiddleBlockMap = ComplexPolyphaseChannelizerM2.getMiddleBlockMap(channelCount);
+        mInlineFilter = ComplexPolyphaseChannelizerM2.getAlignedFilter(coefficients, channelCount, mTapsPerChannel);
+        mDelayLine = new float[bufferLength * 2];
+        mFilterAccumulator = new float[getSubChannelCount()];
+        mTopBlockIndicator = true;
+        mBlockIndex = 0;
+        mBlockOffset = 0;
+        mSampleBufferPointer = 0;
+    }
+
+    /**
+     * Throughput comparison of this channelizer against the ComplexPolyphaseChannelizerM2 at common tuner sample
+     * rates.  Only the filter stage is timed.  Both channelizers share the same IFFT processor, so the filtered
+     * channel results buffers are recycled immediately instead of being enqueued for IFFT and distribution.
+     */
+    public static void main(String[] args)
+    {
+        int[] sampleRates = {2400000, 6000000, 10000000};
+        int seconds = 10;
+        int bufferSize = 131072; //Complex sample floats per buffer (ie 65,536 I/Q samples)
+
+        Random random = new Random();
+        ReusableComplexBufferQueue bufferQueue = new ReusableComplexBufferQueue("Channelizer Benchmark");
+
+        float[] samples = new float[bufferSize];
+
+        for(int x = 0; x < samples.length; x++)
+        {
+            samples[x] = random.nextFloat() * 2.0f - 1.0f;
+        }
+
+        try
+        {
+            for(int sampleRate: sampleRates)
+            {
+                AbstractComplexPolyphaseChannelizer standard = new ComplexPolyphaseChannelizerM2(sampleRate, 9)
+                {
+                    @Override
+                    protected void enqueue(ReusableChannelResultsBuffer channelResultsBuffer)
+                    {
+                        channelResultsBuffer.decrementUserCount();
+                    }
+                };
+
+                AbstractComplexPolyphaseChannelizer circular = new CircularComplexPolyphaseChannelizerM2(sampleRate, 9)
+                {
+                    @Override
+                    protected void enqueue(ReusableChannelResultsBuffer channelResultsBuffer)
+                    {
+                        channelResultsBuffer.decrementUserCount();
+                    }
+                };
+
+                int buffers = (int)((long)sampleRate * 2 * seconds / bufferSize);
+
+                //Warm up the JIT compiler before timing each channelizer
+                run(standard, bufferQueue, samples, buffers / 2);
+                run(circular, bufferQueue, samples, buffers / 2);
+
+                long standardElapsed = 0;
+                long circularElapsed = 0;
+
+                //Alternate the channelizers across several rounds to even out any background activity
+                for(int round = 0; round < 5; round++)
+                {
+                    standardElapsed += run(standard, bufferQueue, samples, buffers / 5);
+                    circularElapsed += run(circular, bufferQueue, samples, buffers / 5);
+                }
+
+                double samplesProcessed = (double)(buffers / 5 * 5) * bufferSize / 2.0;
+
+                mLog.info("Sample Rate [" + sampleRate + "] Channels [" + standard.getChannelCount() + "] " +
+                    seconds + " seconds of samples - Standard: " + standardElapsed + " ms (" +
+                    (int)(samplesProcessed / standardElapsed * 1000.0) + " samples/sec) Circular: " + circularElapsed +
+                    " ms (" + (int)(samplesProcessed / circularElapsed * 1000.0) + " samples/sec) Speedup: " +
+                    String.format("%.2f", (double)standardElapsed / (double)circularElapsed));
+            }
+        }
+        catch(FilterDesignException fde)
+        {
+            mLog.error("Error designing channelizer filter", fde);
+        }
+    }
+
+    /**
+     * Feeds the sample array to the channelizer the specified number of times.
+     * @return elapsed time in milliseconds
+     */
+    private static long run(AbstractComplexPolyphaseChannelizer channelizer, ReusableComplexBufferQueue bufferQueue,
+                            float[] samples, int count)
+    {
+        long start = System.nanoTime();
+
+        for(int x = 0; x < count; x++)
+        {
+            ReusableComplexBuffer buffer = bufferQueue.getBuffer(samples.length);
+            System.arraycopy(samples, 0, buffer.getSamples(), 0, samples.length);
+            channelizer.receive(buffer);
+        }
+
+        return (System.nanoTime() - start) / 1000000;
+    }
+}
@@ -20,17 +20,12 @@ package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
-import io.github.dsheirer.sample.IOverflowListener;
-import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
-import org.jtransforms.fft.FloatFFT_1D;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
 
 /**
  * Non-Maximally Decimated Polyphase Filter Bank (NMDPFB) channelizer that divides the input baseband complex sample
@@ -65,9 +60,6 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
 
     private static final int DEFAULT_MINIMUM_CHANNEL_BANDWIDTH = 25000;
 
-    //Sized at 152 buffers a second where max = 5 seconds and reset = 2 seconds worth of buffers
-    private IFFTProcessor mIFFTProcessor = new IFFTProcessor((5 * 152), (2 * 152));
-    private FloatFFT_1D mFFT;
     private float[] mInlineSamples;
     private float[] mInlineFilter;
     private float[] mInlineInterimOutput;
@@ -123,22 +115,6 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         init(filterTaps);
     }
 
-    /**
-     * Starts sample processing
-     */
-    public void start()
-    {
-        mIFFTProcessor.start();
-    }
-
-    /**
-     * Stops sample processing.
-     */
-    public void stop()
-    {
-        mIFFTProcessor.stop();
-    }
-
     /**
      * Calculates the multiple of two number of channels that can be channelized from the specified sample rate so that
      * each channel has a minimum bandwidth of the default channel bandwidth (12.5 kHz).
@@ -225,7 +201,7 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         }
 
         //Enqueue the channel results buffer for IFFT processing and distribution on a different thread
-        mIFFTProcessor.receive(channelResultsBuffer);
+        enqueue(channelResultsBuffer);
 
         //Decrement the user count to let the originator know we're done with their buffer
         reusableComplexBuffer.decrementUserCount();
@@ -238,7 +214,7 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      * @param channelCount - number of channels
      * @return output index to filter accumulator index mapping
      */
-    private static int[] getTopBlockMap(int channelCount)
+    static int[] getTopBlockMap(int channelCount)
     {
         int[] newMap = new int[channelCount * 2];
 
@@ -267,7 +243,7 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      * @param channelCount - number of channels
      * @return output index to filter accumulator index mapping
      */
-    private static int[] getMiddleBlockMap(int channelCount)
+    static int[] getMiddleBlockMap(int channelCount)
     {
         int[] newMap = new int[channelCount * 2];
 
@@ -295,7 +271,7 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      * @param channelCount number of channels where each channel is an I/Q pair
      * @return filter rearranged for inline sample buffer processing
      */
-    private static float[] getAlignedFilter(float[] coefficients, int channelCount, int tapsPerChannel)
+    static float[] getAlignedFilter(float[] coefficients, int channelCount, int tapsPerChannel)
     {
         float[] filter = new float[channelCount * tapsPerChannel * 2];
         int blockSize = channelCount;
@@ -383,7 +359,6 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
      */
     private void init(float[] coefficients)
     {
-        mFFT = new FloatFFT_1D(getChannelCount());
         int channelCount = getChannelCount();
         int bufferLength = getSubChannelCount() * mTapsPerChannel;
         mSamplesPerBlock = getChannelCount(); //Same as subChannelCount / 2
@@ -394,64 +369,4 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
         mInlineInterimOutput = new float[bufferLength];
         mFilterAccumulator = new float[getSubChannelCount()];
     }
-
-    /**
-     * Separate threaded processor to receive and enqueue filtered channel results buffers, perform IFFT on each array
-     * as required to align the phase of each polyphase channel, and then dispatch the results to any registered
-     * sample consumer channels.
-     */
-    public class IFFTProcessor extends ContinuousBufferProcessor<ReusableChannelResultsBuffer>
-    {
-        public IFFTProcessor(int maximumSize, int resetThreshold)
-        {
-            super(maximumSize, resetThreshold);
-
-            //We create a listener interface to receive the buffers from the scheduled thread pool
-            //dispatcher thread that is part of this continuous buffer processor.  We perform an IFFT on each
-            //channel results array contained in each results buffer and then dispatch the buffer
-            //so that it can be distributed to each channel listener.
-            setListener(new Listener<List<ReusableChannelResultsBuffer>>()
-            {
-                @Override
-                public void receive(List<ReusableChannelResultsBuffer> buffers)
-                {
-                    for(ReusableChannelResultsBuffer buffer: buffers)
-                    {
-                        for(float[] channelResults: buffer.getChannelResults())
-                        {
-                            //Rotate each of the channels to the correct phase using the IFFT
-                            mFFT.complexInverse(channelResults, true);
-                        }
-
-                        dispatch(buffer);
-                    }
-                }
-            });
-
-            setOverflowListener(new IOverflowListener()
-            {
-                @Override
-                public void sourceOverflow(boolean overflow)
-                {
-                    mLog.debug("IFFTProcessor overflow changed - overflow:" + overflow);
-                }
-            });
-        }
-
-        /**
-         * Clears any buffers from the dispatch/processing queue.  Overrides the parent method so that we can set
-         * the user count to 0 to allow the buffer to be reclaimed.
-         */
-        protected Collection<ReusableChannelResultsBuffer> clearQueue()
-        {
-            Collection<ReusableChannelResultsBuffer> buffersToDispose = super.clearQueue();
-
-            for(ReusableChannelResultsBuffer buffer: buffersToDispose)
-            {
-                buffer.clearUserCount();
-            }
-
-            return buffersToDispose;
-        }
-    }
 }
@@ -17,51 +17,65 @@ package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
-import io.github.dsheirer.sample.OverflowableTransferQueue;
-import io.github.dsheirer.util.ThreadPool;
+import io.github.dsheirer.sample.AbstractOverflowableTransferQueue;
+import io.github.dsheirer.sample.OverflowableRingTransferQueue;
+import io.github.dsheirer.sample.pipeline.PipelineStage;
+import io.github.dsheirer.sample.pipeline.PipelineStageMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ContinuousBufferProcessor<E> implements Listener<E>
 {
     private final static Logger mLog = LoggerFactory.getLogger(ContinuousBufferProcessor.class);
 
-    private OverflowableTransferQueue<E> mQueue;
+    private AbstractOverflowableTransferQueue<E> mQueue;
     private Listener<List<E>> mListener;
-    private ScheduledFuture<?> mScheduledFuture;
+    private PipelineStage mPipelineStage;
+    private List<E> mBuffers = new ArrayList<>();
     private AtomicBoolean mRunning = new AtomicBoolean();
 
     /**
-     * Scheduled Buffer Processor combines an internal overflowable buffer with a scheduled runnable processing task
-     * for periodically distributing internally queued elements to the registered listener.  This processor provides
+     * Continuous Buffer Processor combines an internal overflowable buffer with an event-driven pipeline stage for
+     * distributing internally queued elements to the registered listener as they arrive.  This processor provides
      * a convenient way to create a thread-safe buffer for receiving elements from one thread/runnable and then
-     * distributing those elements to a registered listener where distribution occurs on a separate scheduled thread
+     * distributing those elements to a registered listener where distribution occurs on a separate pipeline thread
      * pool runnable thread.  This allows the calling input thread to quickly return without incurring any subsequent
      * processing workload.
      *
-     * The internal queue is an overflowable queue implementation that allows a listener to be registered to receive
-     * notifications of overflow and reset state.  Queue sizing parameters are specified in the constructor.
+     * The internal queue is an overflowable single-producer/single-consumer ring buffer implementation that allows a
+     * listener to be registered to receive notifications of overflow and reset state.  Queue sizing parameters are
+     * specified in the constructor.  Buffers must be received from a single producer thread at a time.
      *
      * @param maximumSize of the internal queue (overflow happens when this is exceeded)
      * @param resetThreshold of the internal queue (overflow reset happens once queue size falls below this threshold
      */
     public ContinuousBufferProcessor(int maximumSize, int resetThreshold)
     {
-        this(new OverflowableTransferQueue<>(maximumSize, resetThreshold));
+        this(new OverflowableRingTransferQueue<>(maximumSize, resetThreshold));
+    }
+
+    /**
+     * Constructs an instance with a name for pipeline stage metrics reporting
+     *
+     * @param name of the processor for pipeline metrics reporting
+     * @param maximumSize of the internal queue (overflow happens when this is exceeded)
+     * @param resetThreshold of the internal queue (overflow reset happens once queue size falls below this threshold
+     */
+    public ContinuousBufferProcessor(String name, int maximumSize, int resetThreshold)
+    {
+        this(name, new OverflowableRingTransferQueue<>(maximumSize, resetThreshold));
     }
 
     /**
-     * Scheduled Buffer Processor combines an internal overflowable buffer with a scheduled runnable processing task
-     * for periodically distributing internally queued elements to the registered listener.  This processor provides
+     * Continuous Buffer Processor combines an internal overflowable buffer with an event-driven pipeline stage for
+     * distributing internally queued elements to the registered listener as they arrive.  This processor provides
      * a convenient way to create a thread-safe buffer for receiving elements from one thread/runnable and then
-     * distributing those elements to a registered listener where distribution occurs on a separate scheduled thread
+     * distributing those elements to a registered listener where distribution occurs on a separate pipeline thread
      * pool runnable thread.  This allows the calling input thread to quickly return without incurring any subsequent
      * processing workload.
      *
@@ -70,9 +84,21 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
      *
      * @param queue implmentation of an overflowable transfer queue
      */
-    public ContinuousBufferProcessor(OverflowableTransferQueue<E> queue)
+    public ContinuousBufferProcessor(AbstractOverflowableTransferQueue<E> queue)
+    {
+        this("Continuous Buffer Processor", queue);
+    }
+
+    /**
+     * Constructs an instance with a name for pipeline stage metrics reporting
+     *
+     * @param name of the processor for pipeline metrics reporting
+     * @param queue implmentation of an overflowable transfer queue
+     */
+    public ContinuousBufferProcessor(String name, AbstractOverflowableTransferQueue<E> queue)
     {
         mQueue = queue;
+        mPipelineStage = new PipelineStage(name, new Processor());
     }
 
     /**
@@ -97,7 +123,8 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
 
     /**
      * Primary input method for adding buffers to this processor.  Note: incoming buffers will be ignored if this
-     * processor is in a stopped state.  You must invoke start() to allow incoming buffers and initiate buffer
+     * processor is in a stopped state.  Unless a multi-producer queue was provided in the constructor, this method
+     * must only be invoked by one producer thread at a time.  You must invoke start() to allow incoming buffers and initiate buffer
      * processing.
      *
      * @param e to enqueue for distribution to a registered listener
@@ -106,6 +133,7 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     public void receive(E e)
     {
         mQueue.offer(e);
+        mPipelineStage.signal();
     }
 
     /**
@@ -115,7 +143,7 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(false, true))
         {
-            mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new Processor(), 0, 5, TimeUnit.MILLISECONDS);
+            mPipelineStage.start();
         }
     }
 
@@ -126,11 +154,7 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(true, false))
         {
-            if(mScheduledFuture != null)
-            {
-                mScheduledFuture.cancel(true);
-                mScheduledFuture = null;
-            }
+            mPipelineStage.stop();
 
             clearQueue();
         }
@@ -144,11 +168,7 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
     {
         if(mRunning.compareAndSet(true, false))
         {
-            if(mScheduledFuture != null)
-            {
-                mScheduledFuture.cancel(true);
-                mScheduledFuture = null;
-            }
+            mPipelineStage.stop();
 
             process();
         }
@@ -159,20 +179,24 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
      */
     private void process()
     {
-        List<E> buffers = new ArrayList<>();
-
-        try
+        //Reuse the buffer list across invocations - listeners must not retain the list
+        synchronized(mBuffers)
         {
-            mQueue.drainTo(buffers);
+            try
+            {
+                mQueue.drainTo(mBuffers);
 
-            if(mListener != null)
+                if(mListener != null)
+                {
+                    mListener.receive(mBuffers);
+                }
+            }
+            catch(Throwable throwable)
             {
-                mListener.receive(buffers);
+                mLog.error("Error while dispatching buffers to listener", throwable);
             }
-        }
-        catch(Throwable throwable)
-        {
-            mLog.error("Error while dispatching buffers to listener", throwable);
+
+            mBuffers.clear();
         }
     }
 
@@ -194,6 +218,22 @@ public class ContinuousBufferProcessor<E> implements Listener<E>
         return mRunning.get();
     }
 
+    /**
+     * Number of buffers currently queued for distribution
+     */
+    public int getQueueDepth()
+    {
+        return mQueue.size();
+    }
+
+    /**
+     * Queue depth and latency metrics for the pipeline stage that distributes buffers for this processor
+     */
+    public PipelineStageMetrics getMetrics()
+    {
+        return mPipelineStage.getMetrics();
+    }
+
     /**
      * Processor to service the buffer queue and distribute the buffers to the registered listener
      */
@@ -16,7 +16,7 @@
 package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.sample.buffer.AbstractReusableBuffer;
-import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
+import io.github.dsheirer.sample.buffer.OverflowableReusableBufferRingQueue;
 
 public class ContinuousReusableBufferProcessor<T extends AbstractReusableBuffer> extends ContinuousBufferProcessor<T>
 {
@@ -36,6 +36,6 @@ public class ContinuousReusableBufferProcessor<T extends AbstractReusableBuffer>
      */
     public ContinuousReusableBufferProcessor(int maximumSize, int resetThreshold)
     {
-        super(new OverflowableReusableBufferTransferQueue<T>(maximumSize, resetThreshold));
+        super(new OverflowableReusableBufferRingQueue<T>(maximumSize, resetThreshold));
     }
 }
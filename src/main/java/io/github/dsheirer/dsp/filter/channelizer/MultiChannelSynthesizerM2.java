@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import org.jtransforms.fft.FloatFFT_1D;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Implements an N-channel polyphase filter synthesizer.  This class is intended to be used with an M2 polyphase
+ * channelizer in order to recover a signal that spans three or more channels.  This synthesizer rejoins N contiguous
+ * M2 channels, where N is an even number, producing N/2 output samples for each set of input channel samples, for
+ * an overall output sample rate of N/2 times the channel sample rate.
+ *
+ * For each set of channel samples, the N channel samples are rotated with an N-point IFFT and loaded into the
+ * serpentine data buffer, where the top and bottom halves of the IFFT output are swapped on alternating (bottom)
+ * blocks to account for the phase shift.  The synthesis filter is partitioned by the N/2 interpolation factor, so each
+ * block of N filter coefficients is applied to the top half of an even data block and to the bottom half of the
+ * following odd data block.  The accumulations for sub-filter n and sub-filter n + N/2 are then added to produce the
+ * N/2 output samples.
+ *
+ * The synthesized channel is centered at (N-1)/2N of the output sample rate.  The channel is mixed to baseband with
+ * a repeating 2N sample rotation sequence, as the FS4DownConverter does for the two-channel synthesizer.
+ */
+public class MultiChannelSynthesizerM2
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MultiChannelSynthesizerM2.class);
+
+    private ReusableComplexBufferQueue mReusableComplexBufferQueue =
+        new ReusableComplexBufferQueue("Multi Channel Synthesizer M2");
+    private float[] mSerpentineDataBuffer;
+    private float[] mIQInterleavedFilter;
+    private float[] mAccumulator;
+    private float[] mIFFTBuffer;
+    private float[] mDownConverterInphase;
+    private float[] mDownConverterQuadrature;
+    private int mDownConverterPointer;
+    private FloatFFT_1D mFFT;
+    private boolean mTopBlockFlag = true;
+    private int mChannelCount;
+
+    /**
+     * Polyphase synthesizer for joining N contiguous M2 oversampled channels into a composite channel using perfect
+     * reconstruction filters (-6db at band edge).  Output sample rate is N/2 times the input sample rate of one of the
+     * channels.
+     *
+     * @param channelCount of input channels.  Must be an even number of two or more channels.
+     * @param filter designed for polyphase synthesis of the channel count (see FilterFactory.getSincM2Synthesizer)
+     */
+    public MultiChannelSynthesizerM2(int channelCount, float[] filter)
+    {
+        if(channelCount < 2 || channelCount % 2 != 0)
+        {
+            throw new IllegalArgumentException("Channel count must be an even number of two or more channels");
+        }
+
+        mChannelCount = channelCount;
+        mFFT = new FloatFFT_1D(channelCount);
+        mIFFTBuffer = new float[channelCount * 2];
+        mAccumulator = new float[channelCount * 2];
+
+        //Down converter rotates by (N-1)/2N cycles per sample, which repeats every 2N samples
+        mDownConverterInphase = new float[channelCount * 2];
+        mDownConverterQuadrature = new float[channelCount * 2];
+
+        for(int x = 0; x < mDownConverterInphase.length; x++)
+        {
+            double angle = -Math.PI * (double)(channelCount - 1) * (double)x / (double)channelCount;
+            mDownConverterInphase[x] = (float)Math.cos(angle);
+            mDownConverterQuadrature[x] = (float)Math.sin(angle);
+        }
+
+        init(filter);
+    }
+
+    /**
+     * Initializes the synthesizer filter and data buffers for operation.
+     *
+     * @param filter to use for polyphase synthesis of the channels.
+     */
+    private void init(float[] filter)
+    {
+        int tapsPerChannel = (int)Math.ceil((double)filter.length / (double)mChannelCount);
+
+        mIQInterleavedFilter = getInterleavedFilter(filter, mChannelCount, tapsPerChannel);
+
+        //Each filter block spans two consecutive data blocks
+        mSerpentineDataBuffer = new float[mIQInterleavedFilter.length * 2];
+    }
+
+    /**
+     * Number of input channels for this synthesizer
+     */
+    public int getChannelCount()
+    {
+        return mChannelCount;
+    }
+
+    /**
+     * Synthesizes a new channel from the channels contained in each of the channel results arrays.
+     *
+     * @param channelResultsBuffer containing channel results arrays of I/Q sample pairs (I0,Q0,I1,Q1...In,Qn)
+     * @param channelOffsets to the inphase sample of each channel to synthesize, ordered by increasing frequency
+     * @return synthesized and baseband centered channel with N/2 complex samples per channel results array
+     */
+    public ReusableComplexBuffer process(ReusableChannelResultsBuffer channelResultsBuffer, int[] channelOffsets)
+    {
+        if(channelOffsets.length != mChannelCount)
+        {
+            throw new IllegalArgumentException("Expected [" + mChannelCount + "] channel offsets");
+        }
+
+        List<float[]> channelResultsList = channelResultsBuffer.getChannelResults();
+
+        int blockLength = mChannelCount * 2;
+        int halfBlockLength = mChannelCount;
+
+        ReusableComplexBuffer synthesizedComplexBuffer =
+            mReusableComplexBufferQueue.getBuffer(channelResultsList.size() * halfBlockLength);
+
+        float[] output = synthesizedComplexBuffer.getSamples();
+        float[] data = mSerpentineDataBuffer;
+        float[] filter = mIQInterleavedFilter;
+        float[] accumulator = mAccumulator;
+        int outputPointer = 0;
+
+        for(float[] channelResults: channelResultsList)
+        {
+            //Load samples from each channel into buffer for IFFT
+            for(int x = 0; x < mChannelCount; x++)
+            {
+                mIFFTBuffer[2 * x] = channelResults[channelOffsets[x]];
+                mIFFTBuffer[2 * x + 1] = channelResults[channelOffsets[x] + 1];
+            }
+
+            //Perform Inverse FFT (IFFT)
+            mFFT.complexInverse(mIFFTBuffer, true);
+
+            //Perform serpentine shift of data blocks in the data buffer - make room for N new samples
+            System.arraycopy(data, 0, data, blockLength, data.length - blockLength);
+
+            //Top Block - load samples into data buffer in normal order
+            if(mTopBlockFlag)
+            {
+                System.arraycopy(mIFFTBuffer, 0, data, 0, blockLength);
+            }
+            //Bottom Block - swap the top and bottom halves via data loading to account for phase shift
+            else
+            {
+                System.arraycopy(mIFFTBuffer, 0, data, halfBlockLength, halfBlockLength);
+                System.arraycopy(mIFFTBuffer, halfBlockLength, data, 0, halfBlockLength);
+            }
+
+            //Multiply and accumulate the sub-filters.  Each filter block is applied to the top half of an even
+            //data block and to the bottom half of the following odd data block
+            for(int x = 0; x < accumulator.length; x++)
+            {
+                accumulator[x] = 0.0f;
+            }
+
+            for(int filterOffset = 0; filterOffset < filter.length; filterOffset += blockLength)
+            {
+                int topOffset = filterOffset * 2;
+                int bottomOffset = topOffset + blockLength;
+
+                for(int x = 0; x < halfBlockLength; x++)
+                {
+                    accumulator[x] += data[topOffset + x] * filter[filterOffset + x];
+                }
+
+                for(int x = halfBlockLength; x < blockLength; x++)
+                {
+                    accumulator[x] += data[bottomOffset + x] * filter[filterOffset + x];
+                }
+            }
+
+            //Add the top and bottom half sub-filter accumulations and mix the output to baseband
+            for(int x = 0; x < halfBlockLength; x += 2)
+            {
+                float inphase = accumulator[x] + accumulator[halfBlockLength + x];
+                float quadrature = accumulator[x + 1] + accumulator[halfBlockLength + x + 1];
+
+                float cos = mDownConverterInphase[mDownConverterPointer];
+                float sin = mDownConverterQuadrature[mDownConverterPointer];
+
+                output[outputPointer++] = (inphase * cos) - (quadrature * sin);
+                output[outputPointer++] = (quadrature * cos) + (inphase * sin);
+
+                mDownConverterPointer++;
+
+                if(mDownConverterPointer >= mDownConverterInphase.length)
+                {
+                    mDownConverterPointer = 0;
+                }
+            }
+
+            mTopBlockFlag = !mTopBlockFlag;
+        }
+
+        return synthesizedComplexBuffer;
+    }
+
+    /**
+     * Creates an interleaved I/Q filter where each coefficient from the filter argument is duplicated and the returned
+     * filter is twice the length of the original filter.  Coefficients are scaled by the square of the interpolation
+     * factor (N/2) to compensate for the scaled IFFT and the interpolation, so that the synthesized channel gain
+     * does not vary with the channel count.
+     *
+     * Note: the returned filter array is sized to:  2 * channel count * taps per channel, which may be slightly more
+     * than twice the length of the original filter.  Any Added filter array elements will contain zero values.
+     *
+     * @param coefficients to create an interleaved filter
+     * @param channelCount of input channels
+     * @param tapsPerChannel count
+     * @return interleaved filter
+     */
+    private static float[] getInterleavedFilter(float[] coefficients, int channelCount, int tapsPerChannel)
+    {
+        float[] filter = new float[channelCount * tapsPerChannel * 2];
+
+        float gain = (float)((channelCount / 2) * (channelCount / 2));
+
+        int coefficientPointer = 0;
+        int filterPointer = 0;
+
+        //Create a new filter that duplicates each tap to produce an interleaved I/Q filter
+        while(coefficientPointer < coefficients.length)
+        {
+            filter[filterPointer++] = coefficients[coefficientPointer] * gain;
+            filter[filterPointer++] = coefficients[coefficientPointer++] * gain;
+        }
+
+        return filter;
+    }
+}
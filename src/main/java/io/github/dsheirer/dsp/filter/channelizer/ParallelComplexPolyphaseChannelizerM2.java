@@ -0,0 +1,568 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.util.ThreadPool;
+import org.jtransforms.fft.FloatFFT_1D;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Non-Maximally Decimated Polyphase Filter Bank (NMDPFB) channelizer that divides the input baseband complex sample
+ * stream into equal bandwidth channels that are each oversampled by 2x for output, and splits the processing workload
+ * across a pool of worker threads.
+ *
+ * This channelizer produces the same output as the ComplexPolyphaseChannelizerM2.  Each incoming sample buffer is
+ * staged into an array of sample blocks ordered newest to oldest, followed by the previous filter history, so that
+ * the filter state for every sample block in the buffer is a contiguous, read-only view of the staging array.  The
+ * buffer is then processed in three stages, where each stage waits for all workers to finish before the next starts:
+ *
+ *   -Filter: each worker multiplies and accumulates a contiguous sub-band of the I/Q sub-channels for every block
+ *   -IFFT: each worker performs the IFFT for a contiguous range of the channel results arrays
+ *   -Distribute: each worker delivers the channel results buffer to a subset of the registered channel sources
+ *
+ * Processing occurs on the thread that delivers the sample buffers, which blocks until each buffer is fully processed
+ * and distributed.  This preserves the ordering and timestamps of channel results buffers delivered to each channel.
+ */
+public class ParallelComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChannelizer
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ParallelComplexPolyphaseChannelizerM2.class);
+
+    private ExecutorService mExecutorService;
+    private int mPartitionCount;
+    private List<FilterTask> mFilterTasks = new ArrayList<>();
+    private List<IFFTTask> mIFFTTasks = new ArrayList<>();
+    private List<DispatchTask> mDispatchTasks = new ArrayList<>();
+    private List<float[]> mChannelResults = new ArrayList<>();
+
+    private float[] mInlineFilter;
+    private float[] mStaging = new float[0];
+    private float[] mHistory;
+    private float[] mPartialBlock;
+    private boolean mTopBlockIndicator = true;
+    private int[] mTopBlockInverseMap;
+    private int[] mMiddleBlockInverseMap;
+    private int mBlockCount;
+    private int mSampleBufferPointer;
+    private int mSamplesPerBlock;
+    private int mTapsPerChannel;
+
+    /**
+     * Creates a multi-threaded NMDPFB channelizer instance and designs a Perfect Reconstruction prototype filter
+     * appropriate for the baseband sample rate and quantity of filter taps per polyphase sub-channel.
+     *
+     * @param sampleRate to be channelized.
+     * @param tapsPerChannel to use when designing the filter
+     * @param executorService to execute the worker tasks
+     * @param partitionCount number of worker tasks to split the processing workload across
+     */
+    public ParallelComplexPolyphaseChannelizerM2(double sampleRate, int tapsPerChannel, ExecutorService executorService,
+                                                 int partitionCount) throws FilterDesignException
+    {
+        super(sampleRate, ComplexPolyphaseChannelizerM2.getChannelCount(sampleRate));
+
+        if(partitionCount < 1)
+        {
+            throw new IllegalArgumentException("Partition count must be a positive integer");
+        }
+
+        mExecutorService = executorService;
+        mPartitionCount = partitionCount;
+        mTapsPerChannel = tapsPerChannel;
+
+        float[] filterTaps = FilterFactory.getSincM2Channelizer(getChannelSampleRate(), getChannelCount(),
+            mTapsPerChannel, false);
+
+        init(filterTaps);
+    }
+
+    /**
+     * Creates a multi-threaded NMDPFB channelizer instance that uses the application channelizer thread pool.
+     *
+     * @param sampleRate to be channelized.
+     * @param tapsPerChannel to use when designing the filter
+     */
+    public ParallelComplexPolyphaseChannelizerM2(double sampleRate, int tapsPerChannel) throws FilterDesignException
+    {
+        this(sampleRate, tapsPerChannel, ThreadPool.CHANNELIZER, ThreadPool.getCoreCount());
+    }
+
+    /**
+     * Starts sample processing.  Overrides the parent method since the IFFT is performed by the worker tasks and the
+     * parent's separate IFFT processor is not used.
+     */
+    @Override
+    public void start()
+    {
+        //no-op
+    }
+
+    /**
+     * Stops sample processing.  Overrides the parent method since the parent's IFFT processor is not used.
+     */
+    @Override
+    public void stop()
+    {
+        //no-op
+    }
+
+    /**
+     * Updates this channelizer to use the new sample rate.  This method creates a new filter suitable for the
+     * sample rate and reinitializes all internal data structures to prepare for processing the new sample rate.
+     * @param sampleRate in hertz
+     */
+    @Override
+    public void setRates(double sampleRate, int channelCount)
+    {
+        try
+        {
+            super.setRates(sampleRate, channelCount);
+            float[] filterTaps = FilterFactory.getSincM2Channelizer(getChannelSampleRate(), getChannelCount(),
+                mTapsPerChannel, false);
+
+            init(filterTaps);
+        }
+        catch(FilterDesignException fde)
+        {
+            throw new IllegalArgumentException("Cannot create a channelizer filter for the specified sample rate [" +
+                sampleRate + "]");
+        }
+    }
+
+    /**
+     * Receives the complex sample buffer and processes the results through the channelizer.
+     */
+    @Override
+    public void receive(ReusableComplexBuffer reusableComplexBuffer)
+    {
+        float[] samples = reusableComplexBuffer.getSamples();
+
+        int blocks = (mSampleBufferPointer + samples.length) / mSamplesPerBlock;
+
+        //Not enough samples for a full block - hold the samples until the next buffer arrives
+        if(blocks == 0)
+        {
+            System.arraycopy(samples, 0, mPartialBlock, mSampleBufferPointer, samples.length);
+            mSampleBufferPointer += samples.length;
+            reusableComplexBuffer.decrementUserCount();
+            return;
+        }
+
+        ReusableChannelResultsBuffer channelResultsBuffer = getChannelResultsBuffer();
+        channelResultsBuffer.setTimestamp(reusableComplexBuffer.getTimestamp());
+
+        int samplesPointer = stage(samples, blocks);
+
+        //Hold any remaining samples as the start of the next block
+        mSampleBufferPointer = samples.length - samplesPointer;
+        System.arraycopy(samples, samplesPointer, mPartialBlock, 0, mSampleBufferPointer);
+
+        //Decrement the user count to let the originator know we're done with their buffer
+        reusableComplexBuffer.decrementUserCount();
+
+        for(int x = 0; x < blocks; x++)
+        {
+            mChannelResults.add(channelResultsBuffer.getEmptyBuffer(getSubChannelCount()));
+        }
+
+        try
+        {
+            for(FilterTask filterTask: mFilterTasks)
+            {
+                filterTask.setBlocks(blocks);
+            }
+
+            execute(mFilterTasks);
+
+            for(IFFTTask ifftTask: mIFFTTasks)
+            {
+                ifftTask.setBlocks(blocks);
+            }
+
+            execute(mIFFTTasks);
+
+            for(float[] channelResults: mChannelResults)
+            {
+                channelResultsBuffer.addChannelResults(channelResults);
+            }
+
+            //The block indicator alternates with each block processed
+            if(blocks % 2 != 0)
+            {
+                mTopBlockIndicator = !mTopBlockIndicator;
+            }
+
+            //Retain the newest blocks as the filter history for the next buffer
+            System.arraycopy(mStaging, 0, mHistory, 0, mHistory.length);
+
+            dispatchParallel(channelResultsBuffer);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error while processing channelizer sample buffer", e);
+            channelResultsBuffer.clearUserCount();
+        }
+
+        mChannelResults.clear();
+    }
+
+    /**
+     * Loads the sample blocks into the staging array in newest to oldest order, followed by the filter history so
+     * that the filter state for each block is a contiguous view of the staging array.
+     *
+     * @param samples to load
+     * @param blocks count of full blocks available from the partial block and the samples
+     * @return pointer to the first sample that was not loaded
+     */
+    private int stage(float[] samples, int blocks)
+    {
+        int stagingLength = (blocks + mBlockCount - 1) * mSamplesPerBlock;
+
+        if(mStaging.length < stagingLength)
+        {
+            mStaging = new float[stagingLength];
+        }
+
+        //The first block combines any samples held from the previous buffer with the start of this buffer
+        int offset = (blocks - 1) * mSamplesPerBlock;
+        System.arraycopy(mPartialBlock, 0, mStaging, offset, mSampleBufferPointer);
+        int samplesPointer = mSamplesPerBlock - mSampleBufferPointer;
+        System.arraycopy(samples, 0, mStaging, offset + mSampleBufferPointer, samplesPointer);
+
+        for(int block = 1; block < blocks; block++)
+        {
+            offset -= mSamplesPerBlock;
+            System.arraycopy(samples, samplesPointer, mStaging, offset, mSamplesPerBlock);
+            samplesPointer += mSamplesPerBlock;
+        }
+
+        System.arraycopy(mHistory, 0, mStaging, blocks * mSamplesPerBlock, mHistory.length);
+
+        return samplesPointer;
+    }
+
+    /**
+     * Executes the tasks on the worker pool and waits for all tasks to complete.  A single task is executed on the
+     * calling thread.
+     *
+     * @param tasks to execute
+     * @throws Exception if any task fails or the calling thread is interrupted while waiting
+     */
+    private void execute(List<? extends Callable<Void>> tasks) throws Exception
+    {
+        if(tasks.size() == 1)
+        {
+            tasks.get(0).call();
+            return;
+        }
+
+        try
+        {
+            for(Future<Void> future: mExecutorService.invokeAll(tasks))
+            {
+                future.get();
+            }
+        }
+        catch(ExecutionException ee)
+        {
+            throw new Exception("Channelizer worker task failed", ee.getCause());
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw ie;
+        }
+    }
+
+    /**
+     * Dispatches the processed channel samples to the registered polyphase channel outputs, splitting the channels
+     * across the worker pool when there are more channels than worker partitions.
+     *
+     * @param channelResultsBuffer containing an array of an array of I/Q samples per channel
+     */
+    private void dispatchParallel(ReusableChannelResultsBuffer channelResultsBuffer) throws Exception
+    {
+        List<PolyphaseChannelSource> channels = getChannels();
+
+        if(mPartitionCount == 1 || channels.size() <= mPartitionCount)
+        {
+            dispatch(channelResultsBuffer);
+            return;
+        }
+
+        PolyphaseChannelSource[] snapshot = channels.toArray(new PolyphaseChannelSource[0]);
+        channelResultsBuffer.incrementUserCount(snapshot.length);
+
+        int channelsPerTask = (int)Math.ceil((double)snapshot.length / (double)mDispatchTasks.size());
+
+        for(int x = 0; x < mDispatchTasks.size(); x++)
+        {
+            mDispatchTasks.get(x).set(snapshot, x * channelsPerTask,
+                Math.min(snapshot.length, (x + 1) * channelsPerTask), channelResultsBuffer);
+        }
+
+        try
+        {
+            execute(mDispatchTasks);
+        }
+        finally
+        {
+            for(DispatchTask dispatchTask: mDispatchTasks)
+            {
+                dispatchTask.clear();
+            }
+
+            channelResultsBuffer.decrementUserCount();
+        }
+    }
+
+    /**
+     * Creates an inverse of the block map so that each accumulated sub-channel can be written directly to its output
+     * index.
+     */
+    private static int[] getInverseMap(int[] map)
+    {
+        int[] inverse = new int[map.length];
+
+        for(int x = 0; x < map.length; x++)
+        {
+            inverse[map[x]] = x;
+        }
+
+        return inverse;
+    }
+
+    /**
+     * Initializes the channelizer filter structures and worker tasks.
+     *
+     * @param coefficients of the prototype filter for this channelizer
+     */
+    private void init(float[] coefficients)
+    {
+        int channelCount = getChannelCount();
+        int subChannelCount = getSubChannelCount();
+        int bufferLength = subChannelCount * mTapsPerChannel;
+        mSamplesPerBlock = channelCount; //Same as subChannelCount / 2
+        mBlockCount = bufferLength / mSamplesPerBlock;
+        mTopBlockInverseMap = getInverseMap(ComplexPolyphaseChannelizerM2.getTopBlockMap(channelCount));
+        mMiddleBlockInverseMap = getInverseMap(ComplexPolyphaseChannelizerM2.getMiddleBlockMap(channelCount));
+        mInlineFilter = ComplexPolyphaseChannelizerM2.getAlignedFilter(coefficients, channelCount, mTapsPerChannel);
+        mHistory = new float[(mBlockCount - 1) * mSamplesPerBlock];
+        mPartialBlock = new float[mSamplesPerBlock];
+        mSampleBufferPointer = 0;
+        mTopBlockIndicator = true;
+
+        //Split the sub-channels into contiguous sub-bands of I/Q pairs, one per worker
+        int partitions = Math.min(mPartitionCount, channelCount);
+        int pairsPerPartition = (int)Math.ceil((double)channelCount / (double)partitions);
+
+        mFilterTasks.clear();
+        mIFFTTasks.clear();
+        mDispatchTasks.clear();
+
+        for(int x = 0; x < partitions; x++)
+        {
+            int start = x * pairsPerPartition * 2;
+            int end = Math.min(subChannelCount, (x + 1) * pairsPerPartition * 2);
+
+            if(start < end)
+            {
+                mFilterTasks.add(new FilterTask(start, end));
+            }
+        }
+
+        for(int x = 0; x < mPartitionCount; x++)
+        {
+            mIFFTTasks.add(new IFFTTask(x, mPartitionCount, channelCount));
+            mDispatchTasks.add(new DispatchTask());
+        }
+    }
+
+    /**
+     * Worker task that filters a sub-band of the I/Q sub-channels for each sample block in the staging array.
+     */
+    public class FilterTask implements Callable<Void>
+    {
+        private int mStart;
+        private int mEnd;
+        private int mBlocks;
+        private float[] mAccumulator;
+
+        /**
+         * Constructs an instance
+         * @param start sub-channel index (inclusive)
+         * @param end sub-channel index (exclusive)
+         */
+        public FilterTask(int start, int end)
+        {
+            mStart = start;
+            mEnd = end;
+            mAccumulator = new float[end - start];
+        }
+
+        /**
+         * Sets the number of blocks to process from the staging array
+         */
+        public void setBlocks(int blocks)
+        {
+            mBlocks = blocks;
+        }
+
+        @Override
+        public Void call()
+        {
+            int subChannelCount = getSubChannelCount();
+            int length = mEnd - mStart;
+            float[] staging = mStaging;
+            float[] filter = mInlineFilter;
+            float[] accumulator = mAccumulator;
+            boolean top = mTopBlockIndicator;
+
+            for(int block = 0; block < mBlocks; block++)
+            {
+                //Blocks are staged newest first, so the oldest block in this buffer has the largest offset
+                int offset = (mBlocks - block - 1) * mSamplesPerBlock + mStart;
+
+                for(int x = 0; x < length; x++)
+                {
+                    accumulator[x] = staging[offset + x] * filter[mStart + x];
+                }
+
+                for(int tapOffset = subChannelCount; tapOffset < filter.length; tapOffset += subChannelCount)
+                {
+                    int sampleOffset = offset + tapOffset;
+                    int filterOffset = mStart + tapOffset;
+
+                    for(int x = 0; x < length; x++)
+                    {
+                        accumulator[x] += staging[sampleOffset + x] * filter[filterOffset + x];
+                    }
+                }
+
+                int[] inverseMap = top ? mTopBlockInverseMap : mMiddleBlockInverseMap;
+                float[] channelResults = mChannelResults.get(block);
+
+                for(int x = 0; x < length; x++)
+                {
+                    channelResults[inverseMap[mStart + x]] = accumulator[x];
+                }
+
+                top = !top;
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Worker task that performs the IFFT on an interleaved subset of the channel results arrays.
+     */
+    public class IFFTTask implements Callable<Void>
+    {
+        private FloatFFT_1D mFFT;
+        private int mIndex;
+        private int mStride;
+        private int mBlocks;
+
+        /**
+         * Constructs an instance
+         * @param index of the first channel results array to process
+         * @param stride between each channel results array to process
+         * @param channelCount for the IFFT size
+         */
+        public IFFTTask(int index, int stride, int channelCount)
+        {
+            mIndex = index;
+            mStride = stride;
+            mFFT = new FloatFFT_1D(channelCount);
+        }
+
+        /**
+         * Sets the number of channel results arrays to process
+         */
+        public void setBlocks(int blocks)
+        {
+            mBlocks = blocks;
+        }
+
+        @Override
+        public Void call()
+        {
+            for(int block = mIndex; block < mBlocks; block += mStride)
+            {
+                //Rotate each of the channels to the correct phase using the IFFT
+                mFFT.complexInverse(mChannelResults.get(block), true);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Worker task that delivers a channel results buffer to a subset of the registered channel sources.  The user
+     * count for each channel is established by the caller before the task executes.
+     */
+    public class DispatchTask implements Callable<Void>
+    {
+        private PolyphaseChannelSource[] mChannelSources;
+        private ReusableChannelResultsBuffer mChannelResultsBuffer;
+        private int mStart;
+        private int mEnd;
+
+        /**
+         * Sets the channel sources and the range of channel sources to deliver the buffer to
+         */
+        public void set(PolyphaseChannelSource[] channelSources, int start, int end,
+                        ReusableChannelResultsBuffer channelResultsBuffer)
+        {
+            mChannelSources = channelSources;
+            mStart = start;
+            mEnd = end;
+            mChannelResultsBuffer = channelResultsBuffer;
+        }
+
+        /**
+         * Clears references after dispatch completes
+         */
+        public void clear()
+        {
+            mChannelSources = null;
+            mChannelResultsBuffer = null;
+        }
+
+        @Override
+        public Void call()
+        {
+            for(int x = mStart; x < mEnd; x++)
+            {
+                mChannelSources[x].receiveChannelResults(mChannelResultsBuffer);
+            }
+
+            return null;
+        }
+    }
+}
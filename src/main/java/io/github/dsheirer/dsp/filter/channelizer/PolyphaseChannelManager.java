@@ -17,10 +17,13 @@ package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputProcessor;
+import io.github.dsheirer.dsp.filter.channelizer.output.MultiChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.channelizer.output.OneChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.channelizer.output.TwoChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.sample.Broadcaster;
+import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.IReusableComplexBufferProvider;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
@@ -35,9 +38,7 @@ import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -67,16 +68,21 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private static final double CHANNEL_OVERSAMPLING = 2.0;
     private static final int POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL = 9;
     private static final int POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL = 9;
+    public static final String CHANNELIZER_TYPE_PROPERTY = "polyphase.channelizer.type";
+    public static final String PARALLEL_CHANNEL_COUNT_THRESHOLD_PROPERTY = "polyphase.channelizer.parallel.channel.threshold";
+    //240 x 25 kHz channels = 6 MHz sample rate
+    private static final int DEFAULT_PARALLEL_CHANNEL_COUNT_THRESHOLD = 240;
 
     private Broadcaster<SourceEvent> mSourceEventBroadcaster = new Broadcaster<>();
     private IReusableComplexBufferProvider mReusableBufferProvider;
     private List<PolyphaseChannelSource> mChannelSources = new CopyOnWriteArrayList<>();
     private ChannelCalculator mChannelCalculator;
-    private ComplexPolyphaseChannelizerM2 mPolyphaseChannelizer;
+    private AbstractComplexPolyphaseChannelizer mPolyphaseChannelizer;
+    private ChannelizerType mChannelizerType;
+    private int mParallelChannelCountThreshold;
     private ChannelSourceEventListener mChannelSourceEventListener = new ChannelSourceEventListener();
     private BufferSourceEventMonitor mBufferSourceEventMonitor = new BufferSourceEventMonitor();
     private ContinuousBufferProcessor<ReusableComplexBuffer> mBufferProcessor;
-    private Map<Integer,float[]> mOutputProcessorFilters = new HashMap<>();
 
     /**
      * Creates a polyphase channel manager instance.
@@ -106,7 +112,12 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
         mChannelCalculator = new ChannelCalculator(sampleRate, channelCount, frequency, CHANNEL_OVERSAMPLING);
 
-        mBufferProcessor = new ContinuousBufferProcessor(200, 50);
+        mChannelizerType = ChannelizerType.fromName(SystemProperties.getInstance().get(CHANNELIZER_TYPE_PROPERTY,
+            ChannelizerType.AUTOMATIC.name()), ChannelizerType.AUTOMATIC);
+        mParallelChannelCountThreshold = SystemProperties.getInstance().get(PARALLEL_CHANNEL_COUNT_THRESHOLD_PROPERTY,
+            DEFAULT_PARALLEL_CHANNEL_COUNT_THRESHOLD);
+
+        mBufferProcessor = new ContinuousBufferProcessor("Polyphase Channelizer", 200, 50);
         mBufferProcessor.setListener(mBufferSourceEventMonitor);
     }
 
@@ -120,6 +131,15 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         this(tunerController, tunerController.getFrequency(), tunerController.getSampleRate());
     }
 
+    /**
+     * Sets the listener to receive overflow state changes for the inbound tuner sample buffer.  Use a null argument
+     * to clear the listener.
+     */
+    public void setOverflowListener(IOverflowListener listener)
+    {
+        mBufferProcessor.setOverflowListener(listener);
+    }
+
     /**
      * Current channel sample rate which is (2 * channel bandwidth).
      */
@@ -148,7 +168,8 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
         try
         {
-            List<Integer> polyphaseIndexes = mChannelCalculator.getChannelIndexes(tunerChannel);
+            List<Integer> polyphaseIndexes =
+                mChannelCalculator.getSynthesisIndexes(mChannelCalculator.getChannelIndexes(tunerChannel));
 
             IPolyphaseChannelOutputProcessor outputProcessor = getOutputProcessor(polyphaseIndexes);
 
@@ -159,7 +180,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
                 try
                 {
                     channelSource = new PolyphaseChannelSource(tunerChannel, outputProcessor, mChannelSourceEventListener,
-                        mChannelCalculator.getChannelSampleRate(), centerFrequency, channelSpecification);
+                        outputProcessor.getOutputSampleRate(), centerFrequency, channelSpecification);
 
                     mChannelSources.add(channelSource);
                 }
@@ -203,8 +224,23 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
                 {
                     mLog.error("Error designing 2 channel synthesis filter for output processor");
                 }
+                return null;
             default:
-                //TODO: create output processor for greater than 2 input channels
+                if(indexes.size() % 2 == 0)
+                {
+                    try
+                    {
+                        float[] filter = getOutputProcessorFilter(indexes.size());
+                        return new MultiChannelOutputProcessor(mChannelCalculator.getChannelSampleRate(), indexes,
+                            filter, mChannelCalculator.getChannelCount());
+                    }
+                    catch(FilterDesignException fde)
+                    {
+                        mLog.error("Error designing " + indexes.size() + " channel synthesis filter for output " +
+                            "processor");
+                    }
+                }
+
                 mLog.error("Request to create an output processor for unexpected channel index size:" + indexes.size());
                 mLog.info(mChannelCalculator.toString());
                 return null;
@@ -332,8 +368,7 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
             try
             {
-                mPolyphaseChannelizer = new ComplexPolyphaseChannelizerM2(tunerSampleRate,
-                    POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+                mPolyphaseChannelizer = createChannelizer(tunerSampleRate);
             }
             catch(IllegalArgumentException iae)
             {
@@ -343,9 +378,48 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
             {
                 mLog.error("Could not create filter for polyphase channelizer for sample rate [" + tunerSampleRate + "]", fde);
             }
+        }
+    }
+
+    /**
+     * Creates a polyphase channelizer of the configured channelizer type for the sample rate.  When the channelizer
+     * type is AUTOMATIC (default), a parallel channelizer is created when more than one processor is available and the
+     * channel count meets the configured parallel channelizer threshold, otherwise a circular buffer channelizer is
+     * created.  An explicitly configured channelizer type is always used.
+     *
+     * @param sampleRate of the baseband sample stream
+     * @return channelizer
+     * @throws FilterDesignException if the channelizer prototype filter cannot be designed
+     */
+    private AbstractComplexPolyphaseChannelizer createChannelizer(double sampleRate) throws FilterDesignException
+    {
+        ChannelizerType channelizerType = mChannelizerType;
+
+        if(channelizerType == ChannelizerType.AUTOMATIC)
+        {
+            int channelCount = ComplexPolyphaseChannelizerM2.getChannelCount(sampleRate);
+
+            if(Runtime.getRuntime().availableProcessors() > 1 && channelCount >= mParallelChannelCountThreshold)
+            {
+                mLog.info("Creating parallel polyphase channelizer for sample rate [" + sampleRate + "] with [" +
+                    channelCount + "] channels");
+                channelizerType = ChannelizerType.PARALLEL;
+            }
+            else
+            {
+                channelizerType = ChannelizerType.CIRCULAR_BUFFER;
+            }
+        }
 
-            //Clear any previous channel synthesis filters so they can be recreated for the new channel sample rate
-            mOutputProcessorFilters.clear();
+        switch(channelizerType)
+        {
+            case PARALLEL:
+                return new ParallelComplexPolyphaseChannelizerM2(sampleRate, POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+            case STANDARD:
+                return new ComplexPolyphaseChannelizerM2(sampleRate, POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
+            case CIRCULAR_BUFFER:
+            default:
+                return new CircularComplexPolyphaseChannelizerM2(sampleRate, POLYPHASE_CHANNELIZER_TAPS_PER_CHANNEL);
         }
     }
 
@@ -390,7 +464,8 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         {
             //If a change in sample rate or center frequency makes this channel no longer viable, then the channel
             //calculator will throw an IllegalArgException ... handled below
-            List<Integer> indexes = mChannelCalculator.getChannelIndexes(channelSource.getTunerChannel());
+            List<Integer> indexes = mChannelCalculator.getSynthesisIndexes(
+                mChannelCalculator.getChannelIndexes(channelSource.getTunerChannel()));
 
             long centerFrequency = mChannelCalculator.getCenterFrequencyForIndexes(indexes);
 
@@ -470,26 +545,16 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     }
 
     /**
-     * Generates (or reuses) an output processor filter for the specified number of channels.  Each
-     * filter is created only once and stored in a map for reuse.  This map is cleared anytime that the
-     * input sample rate changes, so that the filters can be recreated with the new channel sample rate.
+     * Generates (or reuses) an output processor filter for the specified number of channels.  Filters are cached by
+     * the filter factory for the current channel sample rate and bandwidth.
      * @param channels count
      * @return filter
      * @throws FilterDesignException if the filter cannot be designed to specification (-6 dB band edge)
      */
     private float[] getOutputProcessorFilter(int channels) throws FilterDesignException
     {
-        float[] taps = mOutputProcessorFilters.get(channels);
-
-        if(taps == null)
-        {
-            taps = FilterFactory.getSincM2Synthesizer(mChannelCalculator.getChannelSampleRate(),
-                mChannelCalculator.getChannelBandwidth(), channels, POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL);
-
-            mOutputProcessorFilters.put(channels, taps);
-        }
-
-        return taps;
+        return FilterFactory.getSincM2Synthesizer(mChannelCalculator.getChannelSampleRate(),
+            mChannelCalculator.getChannelBandwidth(), channels, POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL);
     }
 
     /**
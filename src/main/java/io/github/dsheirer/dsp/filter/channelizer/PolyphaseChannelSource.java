@@ -18,7 +18,7 @@ package io.github.dsheirer.dsp.filter.channelizer;
 import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexRingFIRFilter;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
@@ -42,7 +42,7 @@ public class PolyphaseChannelSource extends TunerChannelSource
     private IPolyphaseChannelOutputProcessor mPolyphaseChannelOutputProcessor;
     private IPolyphaseChannelOutputProcessor mReplacementPolyphaseChannelOutputProcessor;
     private long mReplacementFrequency;
-    private ComplexFIRFilter2 mLowPassFilter;
+    private ComplexRingFIRFilter mLowPassFilter;
     private static Map<Integer,float[]> sLowPassFilters = new HashMap();
 
     private double mChannelSampleRate;
@@ -51,8 +51,8 @@ public class PolyphaseChannelSource extends TunerChannelSource
 
     /**
      * Polyphase channelizer tuner channel source implementation.  Adapts the channel array output samples from the
-     * polyphase channelizer into a single channel, or a channel synthesized from two adjacent channels that is
-     * frequency translated and decimated to a single channel.
+     * polyphase channelizer into a single channel, or a channel synthesized from two or more adjacent channels that
+     * is frequency translated to a single channel.
      *
      * @param tunerChannel describing the desired channel frequency and bandwidth/minimum sample rate
      * @param outputProcessor - to process polyphase channelizer channel results into a channel stream
@@ -73,7 +73,7 @@ public class PolyphaseChannelSource extends TunerChannelSource
 
         float[] filterCoefficients = getLowPassFilter(channelSampleRate, channelSpecification.getPassFrequency(),
             channelSpecification.getStopFrequency());
-        mLowPassFilter = new ComplexFIRFilter2(filterCoefficients, 1.0f);
+        mLowPassFilter = new ComplexRingFIRFilter(filterCoefficients, 1.0f);
 
         setFrequency(centerFrequency);
     }
@@ -151,6 +151,13 @@ public class PolyphaseChannelSource extends TunerChannelSource
             //Finally, setup the frequency offset for the output processor.
             mIndexCenterFrequency = mReplacementFrequency;
             mPolyphaseChannelOutputProcessor.setFrequencyOffset(getFrequencyOffset());
+
+            //Notify the consumer when the new processor changes the output sample rate (ie synthesized channel count)
+            if(mPolyphaseChannelOutputProcessor.getOutputSampleRate() != mChannelSampleRate)
+            {
+                setSampleRate(mPolyphaseChannelOutputProcessor.getOutputSampleRate());
+                broadcastConsumerSourceEvent(SourceEvent.sampleRateChange(mChannelSampleRate));
+            }
         }
     }
 
@@ -170,6 +177,7 @@ public class PolyphaseChannelSource extends TunerChannelSource
 
         mReusableComplexBufferAssembler.updateTimestamp(channelResultsBuffer.getTimestamp());
         mPolyphaseChannelOutputProcessor.receiveChannelResults(channelResultsBuffer);
+        signalSamplesAvailable();
     }
 
     /**
@@ -191,6 +199,7 @@ public class PolyphaseChannelSource extends TunerChannelSource
     protected void setSampleRate(double sampleRate)
     {
         mChannelSampleRate = sampleRate;
+        mReusableComplexBufferAssembler.setSampleRate(sampleRate);
     }
 
     @Override
@@ -205,6 +214,11 @@ public class PolyphaseChannelSource extends TunerChannelSource
         {
             mPolyphaseChannelOutputProcessor.dispose();
         }
+
+        if(mLowPassFilter != null)
+        {
+            mLowPassFilter.dispose();
+        }
     }
 
     @Override
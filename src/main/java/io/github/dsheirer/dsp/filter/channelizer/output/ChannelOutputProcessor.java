@@ -43,6 +43,7 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
     private IOscillator mFrequencyCorrectionMixer;
     private boolean mFrequencyCorrectionEnabled;
     private double mGain = 1.0;
+    private double mOutputSampleRate;
 
     /**
      * Base class for polyphase channelizer output channel processing.  Provides built-in frequency translation
@@ -56,6 +57,7 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
     {
         mInputChannelCount = inputChannelCount;
         mGain = gain;
+        mOutputSampleRate = sampleRate;
 
 //TODO: swap this out and use the LowPhaseNoiseOscillator
         mFrequencyCorrectionMixer = new Oscillator(0, sampleRate);
@@ -158,6 +160,12 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         mChannelResultsQueue.setOverflowListener(null);
     }
 
+    @Override
+    public double getOutputSampleRate()
+    {
+        return mOutputSampleRate;
+    }
+
     @Override
     public int getInputChannelCount()
     {
@@ -53,6 +53,12 @@ public interface IPolyphaseChannelOutputProcessor
      */
     int getInputChannelCount();
 
+    /**
+     * Sample rate of the output sample stream produced by this output processor
+     * @return sample rate in hertz
+     */
+    double getOutputSampleRate();
+
     /**
      * Updates the input polyphase channel index(es) used by this output processor
      * @param indexes
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.channelizer.output;
+
+import io.github.dsheirer.dsp.filter.channelizer.MultiChannelSynthesizerM2;
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
+
+import java.util.List;
+
+public class MultiChannelOutputProcessor extends ChannelOutputProcessor
+{
+    private MultiChannelSynthesizerM2 mSynthesizer;
+    private int[] mChannelOffsets;
+
+    /**
+     * Processor to extract an even number (four or more) of contiguous channels from a polyphase channelizer,
+     * synthesize/recombine the channels, apply frequency correction and output an I/Q complex sample stream at a
+     * sample rate of N/2 times the polyphase channel sample rate, where N is the number of channels.
+     *
+     * @param channelSampleRate of each of the polyphase channelizer channels.
+     * @param channelIndexes containing an even number of contiguous channel indices, ordered by increasing frequency.
+     * @param filter for synthesizing the channels (see FilterFactory.getSincM2Synthesizer).
+     * @param gain to apply to output.  Typically this is equal to the channelizer's channel count.
+     */
+    public MultiChannelOutputProcessor(double channelSampleRate, List<Integer> channelIndexes, float[] filter,
+                                       double gain)
+    {
+        super(channelIndexes.size(), calculateOutputSampleRate(channelSampleRate, channelIndexes.size()), gain);
+        setPolyphaseChannelIndices(channelIndexes);
+        setSynthesisFilter(filter);
+    }
+
+    /**
+     * Calculates the output sample rate for a channel synthesized from the specified number of polyphase channels.
+     *
+     * @param channelSampleRate of each of the polyphase channelizer channels
+     * @param channelCount number of channels to synthesize
+     * @return output sample rate in hertz
+     */
+    public static double calculateOutputSampleRate(double channelSampleRate, int channelCount)
+    {
+        return channelSampleRate * (double)(channelCount / 2);
+    }
+
+    @Override
+    public void setSynthesisFilter(float[] filter)
+    {
+        mSynthesizer = new MultiChannelSynthesizerM2(getInputChannelCount(), filter);
+    }
+
+    /**
+     * Updates this processor to extract the specified channel indexes.
+     *
+     * @param indexes containing the same number of channel indexes as this processor was created with.
+     * @throws IllegalArgumentException if the number of indexes doesn't match the input channel count.
+     */
+    public void setPolyphaseChannelIndices(List<Integer> indexes)
+    {
+        if(indexes.size() != getInputChannelCount() || indexes.size() % 2 != 0)
+        {
+            throw new IllegalArgumentException("Multi channel output processor requires [" + getInputChannelCount() +
+                "] indexes to process - provided indexes " + indexes.toString());
+        }
+
+        //Set the channelized output results offsets to twice the channel index to account for each channel having
+        //an I/Q pair
+        int[] channelOffsets = new int[indexes.size()];
+
+        for(int x = 0; x < indexes.size(); x++)
+        {
+            channelOffsets[x] = indexes.get(x) * 2;
+        }
+
+        mChannelOffsets = channelOffsets;
+    }
+
+    /**
+     * Synthesizes the channel from the channel results arrays, apply frequency correction, and deliver the
+     * synthesized frequency-corrected channel I/Q sample set to the complex sample listener.
+     *
+     * @param channelResultsBuffers to process containing an array of channel I/Q sample pairs (I0,Q0,I1,Q1...In,Qn)
+     * @param reusableComplexBufferAssembler to receive the synthesized, frequency-translated channel results
+     */
+    @Override
+    public void process(List<ReusableChannelResultsBuffer> channelResultsBuffers,
+                        ReusableComplexBufferAssembler reusableComplexBufferAssembler)
+    {
+        for(ReusableChannelResultsBuffer buffer : channelResultsBuffers)
+        {
+            //Join the channels using the synthesizer.  Output is centered at baseband.
+            ReusableComplexBuffer synthesized = mSynthesizer.process(buffer, mChannelOffsets);
+
+            //Apply offset and frequency correction to center the signal of interest within the synthesized channel
+            getFrequencyCorrectionMixer().mixComplex(synthesized.getSamples());
+
+            synthesized.applyGain(getGain());
+
+            reusableComplexBufferAssembler.receive(synthesized);
+
+            buffer.decrementUserCount();
+        }
+    }
+}
@@ -17,7 +17,7 @@ package io.github.dsheirer.dsp.filter.cic;
 
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexRingFIRFilter;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
@@ -397,7 +397,7 @@ public class ComplexPrimeCICDecimate implements Listener<ReusableComplexBuffer>
     {
         /* Decimated output buffers will contain 1024 complex samples */
         private ReusableComplexBufferAssembler mBufferAssembler;
-        private ComplexFIRFilter2 mLowPassFilter;
+        private ComplexRingFIRFilter mLowPassFilter;
         private Listener<ReusableComplexBuffer> mReusableComplexBufferListener;
 
         public Output(double outputSampleRate, double passFrequency, double stopFrequency) throws FilterDesignException
@@ -406,7 +406,7 @@ public class ComplexPrimeCICDecimate implements Listener<ReusableComplexBuffer>
 
             //This may throw an exception if we can't design a filter for the sample rate and pass/stop frequencies
             float[] filterCoefficients = getLowPassFilter(outputSampleRate, passFrequency, stopFrequency);
-            mLowPassFilter = new ComplexFIRFilter2(filterCoefficients, 1.0f);
+            mLowPassFilter = new ComplexRingFIRFilter(filterCoefficients, 1.0f);
 
             mBufferAssembler.setListener(new Listener<ReusableComplexBuffer>()
             {
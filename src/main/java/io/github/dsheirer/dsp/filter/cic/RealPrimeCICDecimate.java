@@ -20,7 +20,7 @@ package io.github.dsheirer.dsp.filter.cic;
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.Filters;
 import io.github.dsheirer.dsp.filter.Window.WindowType;
-import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.real.RealRingFIRFilter;
 import io.github.dsheirer.dsp.filter.halfband.real.HalfBandFilter;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableBufferAssembler;
@@ -355,13 +355,13 @@ public class RealPrimeCICDecimate
         private ReusableBufferAssembler mAssembler;
         private Listener<ReusableFloatBuffer> mReusableBufferListener;
 
-        private RealFIRFilter2 mCleanupFilter;
+        private RealRingFIRFilter mCleanupFilter;
         private HalfBandFilter mHalfBandFilter = new HalfBandFilter(
             Filters.FIR_HALF_BAND_31T_ONE_EIGHTH_FCO.getCoefficients(), 0.4f, false);
 
         public Output(int outputSampleRate, int passFrequency, int attenuation, WindowType windowType, int outputBufferSize)
         {
-            mCleanupFilter = new RealFIRFilter2(FilterFactory.getCICCleanupFilter(outputSampleRate, passFrequency,
+            mCleanupFilter = new RealRingFIRFilter(FilterFactory.getCICCleanupFilter(outputSampleRate, passFrequency,
                 attenuation, windowType), 0.4f);
 
             mAssembler = new ReusableBufferAssembler(outputBufferSize);
@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.design;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache of designed filter coefficients.
+ *
+ * Filters are keyed by a canonical string that identifies the design method and every parameter that affects the
+ * resulting coefficients (see FIRFilterSpecification.getDesignKey()).  The cache retains the most recently used
+ * designs up to a maximum entry count.  Callers always receive a copy of the cached coefficients.
+ *
+ * The cache can optionally be persisted to a file so that designs survive an application restart.  The file is
+ * loaded when the cache is first used and is rewritten shortly after new designs are added.
+ *
+ * Configuration (system properties):
+ *   filter.design.cache.max.entries - maximum number of cached designs (default 256)
+ *   filter.design.cache.file - persistence file, relative to the application root directory (default none)
+ */
+public class FilterDesignCache
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FilterDesignCache.class);
+
+    public static final String MAX_ENTRIES_PROPERTY = "filter.design.cache.max.entries";
+    public static final String FILE_PROPERTY = "filter.design.cache.file";
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+    private static final int FILE_MAGIC = 0x46444331; //FDC1
+    private static final long SAVE_DELAY_SECONDS = 5;
+
+    private static FilterDesignCache sInstance;
+
+    private final Map<String,float[]> mFilters;
+    private Path mPath;
+    private AtomicBoolean mSaveScheduled = new AtomicBoolean();
+    private AtomicLong mHitCount = new AtomicLong();
+    private AtomicLong mMissCount = new AtomicLong();
+
+    /**
+     * Designs the coefficients for a filter on a cache miss
+     */
+    public interface Designer
+    {
+        float[] design() throws FilterDesignException;
+    }
+
+    /**
+     * Constructs an instance.
+     *
+     * @param maxEntries maximum number of designs to retain
+     * @param path of the persistence file or null for a memory-only cache
+     */
+    public FilterDesignCache(final int maxEntries, Path path)
+    {
+        mFilters = new LinkedHashMap<String,float[]>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,float[]> eldest)
+            {
+                return size() > maxEntries;
+            }
+        };
+
+        mPath = path;
+
+        if(mPath != null && Files.exists(mPath))
+        {
+            load();
+        }
+    }
+
+    /**
+     * Singleton instance of the global cache
+     */
+    public static synchronized FilterDesignCache getInstance()
+    {
+        if(sInstance == null)
+        {
+            SystemProperties properties = SystemProperties.getInstance();
+
+            String file = properties.get(FILE_PROPERTY, "");
+            Path path = file.isEmpty() ? null : properties.getApplicationRootPath().resolve(file);
+
+            sInstance = new FilterDesignCache(properties.get(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES), path);
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Returns a copy of the cached filter for the key, or designs, caches and returns the filter when it is not
+     * cached.  Designs that produce a null filter are not cached.
+     *
+     * @param key canonical design key
+     * @param designer to create the filter on a cache miss
+     * @return filter coefficients or null if the designer could not design the filter
+     * @throws FilterDesignException if the designer fails
+     */
+    public float[] get(String key, Designer designer) throws FilterDesignException
+    {
+        float[] filter;
+
+        synchronized(mFilters)
+        {
+            filter = mFilters.get(key);
+        }
+
+        if(filter != null)
+        {
+            mHitCount.incrementAndGet();
+            return filter.clone();
+        }
+
+        mMissCount.incrementAndGet();
+
+        //Design outside of the lock - concurrent misses for the same key produce identical filters
+        filter = designer.design();
+
+        if(filter != null)
+        {
+            synchronized(mFilters)
+            {
+                mFilters.put(key, filter.clone());
+            }
+
+            scheduleSave();
+        }
+
+        return filter;
+    }
+
+    /**
+     * Number of cached designs
+     */
+    public int size()
+    {
+        synchronized(mFilters)
+        {
+            return mFilters.size();
+        }
+    }
+
+    public long getHitCount()
+    {
+        return mHitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return mMissCount.get();
+    }
+
+    /**
+     * Removes all cached designs
+     */
+    public void clear()
+    {
+        synchronized(mFilters)
+        {
+            mFilters.clear();
+        }
+
+        scheduleSave();
+    }
+
+    /**
+     * Schedules a rewrite of the persistence file so that bursts of new designs are saved once
+     */
+    private void scheduleSave()
+    {
+        if(mPath != null && mSaveScheduled.compareAndSet(false, true))
+        {
+            ThreadPool.SCHEDULED.schedule(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    mSaveScheduled.set(false);
+                    save();
+                }
+            }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Writes the cached designs to the persistence file, oldest first, via a temporary file
+     */
+    private void save()
+    {
+        List<Map.Entry<String,float[]>> entries;
+
+        synchronized(mFilters)
+        {
+            entries = new ArrayList<>(mFilters.entrySet());
+        }
+
+        Path temp = mPath.resolveSibling(mPath.getFileName() + ".tmp");
+
+        try
+        {
+            if(mPath.getParent() != null)
+            {
+                Files.createDirectories(mPath.getParent());
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error creating filter design cache directory [" + mPath.getParent() + "]", ioe);
+            return;
+        }
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+        {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(entries.size());
+
+            for(Map.Entry<String,float[]> entry : entries)
+            {
+                out.writeUTF(entry.getKey());
+
+                float[] filter = entry.getValue();
+                out.writeInt(filter.length);
+
+                for(float coefficient : filter)
+                {
+                    out.writeFloat(coefficient);
+                }
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error writing filter design cache file [" + temp + "]", ioe);
+            return;
+        }
+
+        try
+        {
+            Files.move(temp, mPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error replacing filter design cache file [" + mPath + "]", ioe);
+        }
+    }
+
+    /**
+     * Loads the cached designs from the persistence file.  An unreadable file is ignored and is replaced on the next
+     * save.
+     */
+    private void load()
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(mPath))))
+        {
+            if(in.readInt() != FILE_MAGIC)
+            {
+                mLog.warn("Ignoring unrecognized filter design cache file [" + mPath + "]");
+                return;
+            }
+
+            int count = in.readInt();
+
+            for(int x = 0; x < count; x++)
+            {
+                String key = in.readUTF();
+                int length = in.readInt();
+
+                if(length < 0)
+                {
+                    throw new IOException("Invalid filter length [" + length + "]");
+                }
+
+                float[] filter = new float[length];
+
+                for(int y = 0; y < filter.length; y++)
+                {
+                    filter[y] = in.readFloat();
+                }
+
+                mFilters.put(key, filter);
+            }
+
+            mLog.info("Loaded [" + mFilters.size() + "] filter designs from [" + mPath + "]");
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error reading filter design cache file [" + mPath + "]", ioe);
+            mFilters.clear();
+        }
+    }
+}
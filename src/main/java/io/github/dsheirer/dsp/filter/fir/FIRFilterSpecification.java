@@ -60,6 +60,30 @@ public class FIRFilterSpecification
         return sb.toString();
     }
 
+    /**
+     * Canonical key that identifies this specification for filter design caching.  Two specifications with the same
+     * key produce the same filter coefficients.  Floating point values are encoded exactly.
+     */
+    public String getDesignKey()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(mRemezFilterType.name());
+        sb.append(",").append(mOrder);
+        sb.append(",").append(mGridDensity);
+
+        for(FrequencyBand band : mFrequencyBands)
+        {
+            sb.append(",[").append(Double.toHexString(band.getStart()));
+            sb.append(",").append(Double.toHexString(band.getEnd()));
+            sb.append(",").append(Double.toHexString(band.getAmplitude()));
+            sb.append(",").append(Double.toHexString(band.getRippleDB()));
+            sb.append(",").append(band.mWeight != null ? Double.toHexString(band.mWeight) : "-");
+            sb.append("]");
+        }
+
+        return sb.toString();
+    }
+
     public void addFrequencyBand(FrequencyBand band)
     {
         mFrequencyBands.add(band);
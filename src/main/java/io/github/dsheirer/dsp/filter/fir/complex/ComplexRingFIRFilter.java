@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir.complex;
+
+import io.github.dsheirer.dsp.filter.fir.FIRFilter;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+
+/**
+ * Complex sample Finite Impulse Response (FIR) filter that uses mirrored (double-length) ring buffers for the
+ * inphase and quadrature delay lines, avoiding the per-sample delay line shift performed by ComplexFIRFilter2.
+ *
+ * The block filter methods process an entire interleaved complex sample array without per-sample method dispatch
+ * and filter the inphase and quadrature delay lines in a single pass over the coefficients.  See RealRingFIRFilter
+ * for a description of the ring buffer and the unrolling option.
+ */
+public class ComplexRingFIRFilter extends FIRFilter
+{
+    private ReusableComplexBufferQueue mReusableComplexBufferQueue =
+        new ReusableComplexBufferQueue("ComplexRingFIRFilter");
+
+    private float[] mInphaseBuffer;
+    private float[] mQuadratureBuffer;
+    private float[] mCoefficients;
+    private int mLength;
+    private int mPointer;
+    private boolean mUnrolled;
+
+    /**
+     * Constructs an instance.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     * @param gain value to apply to the filtered output.  Use 1.0f for no gain
+     * @param unrolled to use a 4x unrolled dot product
+     */
+    public ComplexRingFIRFilter(float[] coefficients, float gain, boolean unrolled)
+    {
+        mUnrolled = unrolled;
+        mLength = unrolled ? (coefficients.length + 3) & ~3 : coefficients.length;
+
+        //Pre-apply the gain to the coefficients, zero-padded to the filter length
+        mCoefficients = new float[mLength];
+
+        for(int x = 0; x < coefficients.length; x++)
+        {
+            mCoefficients[x] = coefficients[x] * gain;
+        }
+
+        mInphaseBuffer = new float[mLength * 2];
+        mQuadratureBuffer = new float[mLength * 2];
+    }
+
+    /**
+     * Constructs an instance without loop unrolling.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     * @param gain value to apply to the filtered output.  Use 1.0f for no gain
+     */
+    public ComplexRingFIRFilter(float[] coefficients, float gain)
+    {
+        this(coefficients, gain, false);
+    }
+
+    /**
+     * Constructs an instance with unity gain and without loop unrolling.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     */
+    public ComplexRingFIRFilter(float[] coefficients)
+    {
+        this(coefficients, 1.0f);
+    }
+
+    /**
+     * Indicates if this filter uses an unrolled dot product
+     */
+    public boolean isUnrolled()
+    {
+        return mUnrolled;
+    }
+
+    /**
+     * Filters the interleaved complex input samples into the output array.  The input and output arrays can be the
+     * same array.
+     *
+     * @param input interleaved complex samples to filter
+     * @param output array to receive the filtered samples, at least as long as the input array
+     */
+    public void filter(float[] input, float[] output)
+    {
+        float[] inphaseBuffer = mInphaseBuffer;
+        float[] quadratureBuffer = mQuadratureBuffer;
+        float[] coefficients = mCoefficients;
+        int length = mLength;
+        int pointer = mPointer;
+
+        for(int x = 0; x < input.length; x += 2)
+        {
+            pointer--;
+
+            if(pointer < 0)
+            {
+                pointer += length;
+            }
+
+            inphaseBuffer[pointer] = input[x];
+            inphaseBuffer[pointer + length] = input[x];
+            quadratureBuffer[pointer] = input[x + 1];
+            quadratureBuffer[pointer + length] = input[x + 1];
+
+            if(mUnrolled)
+            {
+                float inphase0 = 0.0f;
+                float inphase1 = 0.0f;
+                float quadrature0 = 0.0f;
+                float quadrature1 = 0.0f;
+
+                for(int y = 0; y < length; y += 4)
+                {
+                    int index = pointer + y;
+                    inphase0 += inphaseBuffer[index] * coefficients[y] +
+                        inphaseBuffer[index + 2] * coefficients[y + 2];
+                    inphase1 += inphaseBuffer[index + 1] * coefficients[y + 1] +
+                        inphaseBuffer[index + 3] * coefficients[y + 3];
+                    quadrature0 += quadratureBuffer[index] * coefficients[y] +
+                        quadratureBuffer[index + 2] * coefficients[y + 2];
+                    quadrature1 += quadratureBuffer[index + 1] * coefficients[y + 1] +
+                        quadratureBuffer[index + 3] * coefficients[y + 3];
+                }
+
+                output[x] = inphase0 + inphase1;
+                output[x + 1] = quadrature0 + quadrature1;
+            }
+            else
+            {
+                float inphase = 0.0f;
+                float quadrature = 0.0f;
+
+                for(int y = 0; y < length; y++)
+                {
+                    inphase += inphaseBuffer[pointer + y] * coefficients[y];
+                    quadrature += quadratureBuffer[pointer + y] * coefficients[y];
+                }
+
+                output[x] = inphase;
+                output[x + 1] = quadrature;
+            }
+        }
+
+        mPointer = pointer;
+    }
+
+    /**
+     * Filters the complex samples contained in the original buffer and returns a new reusable buffer with the
+     * filtered samples.
+     *
+     * Note: the original reusable buffer user count is decremented and a new reusable buffer is returned
+     * with the user count already incremented to one.
+     *
+     * @param originalBuffer with complex samples to filter
+     * @return new buffer containing filtered complex samples
+     */
+    public ReusableComplexBuffer filter(ReusableComplexBuffer originalBuffer)
+    {
+        float[] samples = originalBuffer.getSamples();
+
+        ReusableComplexBuffer filteredBuffer = mReusableComplexBufferQueue.getBuffer(samples.length);
+        filteredBuffer.setTimestamp(originalBuffer.getTimestamp());
+
+        filter(samples, filteredBuffer.getSamples());
+
+        originalBuffer.decrementUserCount();
+
+        return filteredBuffer;
+    }
+
+    @Override
+    public void dispose()
+    {
+        mInphaseBuffer = null;
+        mQuadratureBuffer = null;
+        mCoefficients = null;
+        mReusableComplexBufferQueue.dispose();
+    }
+}
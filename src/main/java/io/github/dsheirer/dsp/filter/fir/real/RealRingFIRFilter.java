@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.dsp.filter.fir.real;
+
+import io.github.dsheirer.dsp.filter.fir.FIRFilter;
+import io.github.dsheirer.sample.buffer.ReusableBufferQueue;
+import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
+
+/**
+ * Finite Impulse Response (FIR) filter that uses a mirrored (double-length) ring buffer for the sample delay line.
+ *
+ * Each sample is written twice into the ring buffer, at the current pointer and at the pointer plus the filter
+ * length, so that the most recent filter-length samples are always contiguous in the buffer starting at the pointer.
+ * This avoids shifting the entire delay line for each sample (see RealFIRFilter2) and reduces the per-sample work to
+ * two stores and the dot product against the filter coefficients.
+ *
+ * The block filter methods process an entire sample array without per-sample method dispatch.  When unrolling is
+ * enabled, the coefficients are zero-padded to a multiple of 4 and the dot product uses four independent
+ * accumulators so that the JIT compiler can pipeline (and vectorise) the multiply-accumulate operations.  Unrolling
+ * changes the floating point summation order and can produce results that differ in the least significant bits.
+ */
+public class RealRingFIRFilter extends FIRFilter
+{
+    private ReusableBufferQueue mReusableBufferQueue = new ReusableBufferQueue("RealRingFIRFilter");
+
+    private float[] mBuffer;
+    private float[] mCoefficients;
+    private int mLength;
+    private int mPointer;
+    private boolean mUnrolled;
+    private float mAccumulator;
+
+    /**
+     * Constructs an instance.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     * @param gain value to apply to the filtered output.  Use 1.0f for no gain
+     * @param unrolled to use a 4x unrolled dot product
+     */
+    public RealRingFIRFilter(float[] coefficients, float gain, boolean unrolled)
+    {
+        mUnrolled = unrolled;
+        mLength = unrolled ? (coefficients.length + 3) & ~3 : coefficients.length;
+
+        //Pre-apply the gain to the coefficients, zero-padded to the filter length
+        mCoefficients = new float[mLength];
+
+        for(int x = 0; x < coefficients.length; x++)
+        {
+            mCoefficients[x] = coefficients[x] * gain;
+        }
+
+        mBuffer = new float[mLength * 2];
+    }
+
+    /**
+     * Constructs an instance without loop unrolling.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     * @param gain value to apply to the filtered output.  Use 1.0f for no gain
+     */
+    public RealRingFIRFilter(float[] coefficients, float gain)
+    {
+        this(coefficients, gain, false);
+    }
+
+    /**
+     * Constructs an instance with unity gain and without loop unrolling.
+     *
+     * @param coefficients - filter coefficients in normal order.
+     */
+    public RealRingFIRFilter(float[] coefficients)
+    {
+        this(coefficients, 1.0f);
+    }
+
+    /**
+     * Disposes this filter to prepare for garbage collection.
+     */
+    @Override
+    public void dispose()
+    {
+        mCoefficients = null;
+        mBuffer = null;
+        mReusableBufferQueue.dispose();
+    }
+
+    /**
+     * Indicates if this filter uses an unrolled dot product
+     */
+    public boolean isUnrolled()
+    {
+        return mUnrolled;
+    }
+
+    /**
+     * Filters the sample argument.
+     *
+     * @param sample to load
+     * @return filtered value
+     */
+    public float filter(float sample)
+    {
+        mPointer--;
+
+        if(mPointer < 0)
+        {
+            mPointer += mLength;
+        }
+
+        mBuffer[mPointer] = sample;
+        mBuffer[mPointer + mLength] = sample;
+
+        mAccumulator = mUnrolled ? dotProductUnrolled(mBuffer, mPointer, mCoefficients) :
+            dotProduct(mBuffer, mPointer, mCoefficients);
+
+        return mAccumulator;
+    }
+
+    /**
+     * Current filtered output value for the filter after the filter() method has been invoked.
+     */
+    public float currentValue()
+    {
+        return mAccumulator;
+    }
+
+    /**
+     * Filters the input samples into the output array.  The input and output arrays can be the same array.
+     *
+     * @param input samples to filter
+     * @param output array to receive the filtered samples, at least as long as the input array
+     */
+    public void filter(float[] input, float[] output)
+    {
+        float[] buffer = mBuffer;
+        float[] coefficients = mCoefficients;
+        int length = mLength;
+        int pointer = mPointer;
+        float accumulator = mAccumulator;
+
+        for(int x = 0; x < input.length; x++)
+        {
+            pointer--;
+
+            if(pointer < 0)
+            {
+                pointer += length;
+            }
+
+            buffer[pointer] = input[x];
+            buffer[pointer + length] = input[x];
+
+            accumulator = mUnrolled ? dotProductUnrolled(buffer, pointer, coefficients) :
+                dotProduct(buffer, pointer, coefficients);
+
+            output[x] = accumulator;
+        }
+
+        mPointer = pointer;
+        mAccumulator = accumulator;
+    }
+
+    /**
+     * Filters the samples contained in the unfilteredBuffer and returns a new reusable buffer with the
+     * filtered samples.
+     *
+     * Note: user count on the returned (new) buffer is set to one and the user count is decremented on
+     * the unfiltered buffer argument.
+     *
+     * @param unfilteredBuffer containing a sample array to be filtered
+     * @return a new reusable buffer with the filtered samples.
+     */
+    public ReusableFloatBuffer filter(ReusableFloatBuffer unfilteredBuffer)
+    {
+        float[] unfilteredSamples = unfilteredBuffer.getSamples();
+
+        ReusableFloatBuffer filteredBuffer = mReusableBufferQueue.getBuffer(unfilteredSamples.length);
+        filteredBuffer.setTimestamp(unfilteredBuffer.getTimestamp());
+
+        filter(unfilteredSamples, filteredBuffer.getSamples());
+
+        unfilteredBuffer.decrementUserCount();
+
+        return filteredBuffer;
+    }
+
+    /**
+     * Dot product of the coefficients and the contiguous samples starting at the offset
+     */
+    static float dotProduct(float[] samples, int offset, float[] coefficients)
+    {
+        float accumulator = 0.0f;
+
+        for(int x = 0; x < coefficients.length; x++)
+        {
+            accumulator += samples[offset + x] * coefficients[x];
+        }
+
+        return accumulator;
+    }
+
+    /**
+     * Dot product of the coefficients and the contiguous samples starting at the offset using four accumulators.
+     * Coefficients array length must be a multiple of 4.
+     */
+    static float dotProductUnrolled(float[] samples, int offset, float[] coefficients)
+    {
+        float accumulator0 = 0.0f;
+        float accumulator1 = 0.0f;
+        float accumulator2 = 0.0f;
+        float accumulator3 = 0.0f;
+
+        for(int x = 0; x < coefficients.length; x += 4)
+        {
+            accumulator0 += samples[offset + x] * coefficients[x];
+            accumulator1 += samples[offset + x + 1] * coefficients[x + 1];
+            accumulator2 += samples[offset + x + 2] * coefficients[x + 2];
+            accumulator3 += samples[offset + x + 3] * coefficients[x + 3];
+        }
+
+        return (accumulator0 + accumulator1) + (accumulator2 + accumulator3);
+    }
+}
@@ -19,7 +19,7 @@ import io.github.dsheirer.bits.MessageFramer;
 import io.github.dsheirer.dsp.filter.dc.IIRSinglePoleDCRemovalFilter;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.real.RealRingFIRFilter;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
 import io.github.dsheirer.sample.Listener;
@@ -89,7 +89,7 @@ public class LTRDecoder implements Listener<ReusableFloatBuffer>, ISyncDetectLis
     protected ZeroCrossingErrorDetector mTimingErrorDetector = new ZeroCrossingErrorDetector(SAMPLES_PER_SYMBOL);
     protected SynchronizationMonitor mSynchronizationMonitor;
     private IIRSinglePoleDCRemovalFilter mDCFilter = new IIRSinglePoleDCRemovalFilter(0.99999f);
-    private RealFIRFilter2 mLowPassFilter = new RealFIRFilter2(sLowPassFilterCoefficients);
+    private RealRingFIRFilter mLowPassFilter = new RealRingFIRFilter(sLowPassFilterCoefficients);
     private MessageFramer mMessageFramer;
 
     private boolean mSampleDecision;
@@ -26,6 +26,8 @@ public class BCH_63_16_11 extends BerlekempMassey_63
 {
 	private final static Logger mLog = LoggerFactory.getLogger( BCH_63_16_11.class );
 
+	private PackedBCH_63_16_11 mPackedDecoder = new PackedBCH_63_16_11();
+
 	/**
 	 * BCH( 63,16,11) decoder
 	 */
@@ -40,9 +42,50 @@ public class BCH_63_16_11 extends BerlekempMassey_63
 	 * message argument.  If the message is correctable, only the first 16 bits
 	 * (information bits) are corrected.
 	 * 
-	 * @return - true = success, false = failure
+	 * Uses the packed (long) syndrome decoder, which returns error-free NIDs
+	 * without further processing and corrects one or two bit errors from a
+	 * lookup table.
+	 * 
+	 * @return - message with CRC set to PASSED, CORRECTED or FAILED_CRC
 	 */
 	public BinaryMessage correctNID( BinaryMessage message )
+	{
+		long received = message.getLong( 0, 62 );
+
+		long corrected = mPackedDecoder.decode( received );
+
+		if( corrected == PackedBCH_63_16_11.UNCORRECTABLE )
+		{
+			message.setCRC( CRC.FAILED_CRC );
+
+			return message;
+		}
+
+		int receivedInfo = (int)( received >>> 47 );
+		int correctedInfo = (int)( corrected >>> 47 );
+
+		if( receivedInfo != correctedInfo )
+		{
+			message.load( 0, 16, correctedInfo );
+			message.setCRC( CRC.CORRECTED );
+		}
+		else
+		{
+			message.setCRC( CRC.PASSED );
+		}
+
+		return message;
+	}
+
+	/**
+	 * Performs error detection and correction on the first 63 bits of the
+	 * message argument using the generic Berlekamp Massey decoder.  If the
+	 * message is correctable, only the first 16 bits (information bits) are
+	 * corrected.
+	 * 
+	 * @return - message with CRC set to PASSED, CORRECTED or FAILED_CRC
+	 */
+	public BinaryMessage correctNIDBerlekampMassey( BinaryMessage message )
 	{
 		CRC status = CRC.PASSED;
 		
@@ -0,0 +1,428 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.edac;
+
+import java.util.Arrays;
+
+/**
+ * BCH(63,16,11) decoder operating on a 63-bit codeword packed into a long, where bit n of the long is the coefficient
+ * of x^n in the received polynomial.
+ *
+ * Decoding steps:
+ * 1. The received word is reduced modulo the binary generator polynomial with 16 shift/xor steps.  A zero remainder
+ *    is an error-free codeword and is returned immediately.
+ * 2. Single and double bit errors are corrected by looking up the remainder in a precomputed syndrome table.
+ * 3. Other errors (up to 11) are located with a binary Berlekamp-Massey solver and a Chien search over GF(64), using
+ *    working arrays that are allocated once per decoder instance.
+ *
+ * Within the error correction capacity of the code, the results are identical to the BerlekempMassey_63 decoder.
+ * This class is not thread safe.
+ */
+public class PackedBCH_63_16_11
+{
+    public static final int CODEWORD_LENGTH = 63;
+    public static final int MESSAGE_LENGTH = 16;
+    public static final int MAX_CORRECTABLE_ERRORS = 11;
+
+    /* Returned when the codeword cannot be corrected.  Valid codewords never have bit 63 set. */
+    public static final long UNCORRECTABLE = -1L;
+
+    private static final int PARITY_LENGTH = CODEWORD_LENGTH - MESSAGE_LENGTH;
+    private static final int SYNDROME_COUNT = 2 * MAX_CORRECTABLE_ERRORS;
+    private static final int FIELD_SIZE = 63;
+
+    /* GF(2^6) primitive polynomial x^6 + x + 1 used by the P25 NID code */
+    private static final int PRIMITIVE_POLYNOMIAL = 0x43;
+
+    /* GF(64) antilog table, doubled in length so that exponent sums don't require a modulo */
+    private static final int[] EXP = new int[2 * FIELD_SIZE];
+    private static final int[] LOG = new int[FIELD_SIZE + 1];
+
+    /* Binary generator polynomial (degree 47) with bit n as the coefficient of x^n */
+    private static final long GENERATOR;
+
+    /* Open addressing hash table of remainder -> error pattern for all single and double bit error patterns */
+    private static final int TABLE_BITS = 12;
+    private static final long[] TABLE_REMAINDERS = new long[1 << TABLE_BITS];
+    private static final long[] TABLE_ERRORS = new long[1 << TABLE_BITS];
+
+    static
+    {
+        int value = 1;
+
+        for(int x = 0; x < FIELD_SIZE; x++)
+        {
+            EXP[x] = value;
+            EXP[x + FIELD_SIZE] = value;
+            LOG[value] = x;
+
+            value <<= 1;
+
+            if((value & 0x40) != 0)
+            {
+                value ^= PRIMITIVE_POLYNOMIAL;
+            }
+        }
+
+        LOG[0] = -1;
+
+        GENERATOR = createGenerator();
+
+        for(int a = 0; a < CODEWORD_LENGTH; a++)
+        {
+            addTableEntry(1L << a);
+
+            for(int b = a + 1; b < CODEWORD_LENGTH; b++)
+            {
+                addTableEntry((1L << a) | (1L << b));
+            }
+        }
+    }
+
+    private final int[] mSyndromes = new int[SYNDROME_COUNT + 1];
+    private final int[] mLocator = new int[SYNDROME_COUNT + 1];
+    private final int[] mPreviousLocator = new int[SYNDROME_COUNT + 1];
+    private final int[] mTemp = new int[SYNDROME_COUNT + 1];
+    private final int[] mRegister = new int[SYNDROME_COUNT + 1];
+    private int mCorrectedBitCount;
+
+    /**
+     * Creates the binary generator polynomial as the product of (x + a^i) for every power of alpha in the cyclotomic
+     * cosets of a^1 through a^22.
+     */
+    private static long createGenerator()
+    {
+        boolean[] roots = new boolean[FIELD_SIZE];
+
+        for(int x = 1; x <= SYNDROME_COUNT; x++)
+        {
+            int power = x;
+
+            do
+            {
+                roots[power] = true;
+                power = (power * 2) % FIELD_SIZE;
+            }
+            while(power != x);
+        }
+
+        //Polynomial coefficients over GF(64), lowest degree first
+        int[] polynomial = new int[CODEWORD_LENGTH + 1];
+        polynomial[0] = 1;
+        int degree = 0;
+
+        for(int root = 0; root < FIELD_SIZE; root++)
+        {
+            if(roots[root])
+            {
+                degree++;
+
+                for(int x = degree; x > 0; x--)
+                {
+                    polynomial[x] = polynomial[x - 1] ^ multiply(polynomial[x], EXP[root]);
+                }
+
+                polynomial[0] = multiply(polynomial[0], EXP[root]);
+            }
+        }
+
+        if(degree != PARITY_LENGTH)
+        {
+            throw new IllegalStateException("Unexpected BCH generator polynomial degree: " + degree);
+        }
+
+        long generator = 0;
+
+        for(int x = 0; x <= degree; x++)
+        {
+            if(polynomial[x] > 1)
+            {
+                throw new IllegalStateException("BCH generator polynomial is not binary");
+            }
+
+            if(polynomial[x] == 1)
+            {
+                generator |= 1L << x;
+            }
+        }
+
+        return generator;
+    }
+
+    private static void addTableEntry(long errors)
+    {
+        long remainder = getRemainder(errors);
+        int index = getTableIndex(remainder);
+
+        while(TABLE_REMAINDERS[index] != 0)
+        {
+            index = (index + 1) & ((1 << TABLE_BITS) - 1);
+        }
+
+        TABLE_REMAINDERS[index] = remainder;
+        TABLE_ERRORS[index] = errors;
+    }
+
+    /**
+     * Looks up the error pattern for a single or double bit error remainder
+     *
+     * @return error pattern or 0 if the remainder is not in the table
+     */
+    private static long lookup(long remainder)
+    {
+        int index = getTableIndex(remainder);
+
+        while(TABLE_REMAINDERS[index] != 0)
+        {
+            if(TABLE_REMAINDERS[index] == remainder)
+            {
+                return TABLE_ERRORS[index];
+            }
+
+            index = (index + 1) & ((1 << TABLE_BITS) - 1);
+        }
+
+        return 0;
+    }
+
+    private static int getTableIndex(long remainder)
+    {
+        return (int)((remainder * 0x9E3779B97F4A7C15L) >>> (64 - TABLE_BITS));
+    }
+
+    private static int multiply(int a, int b)
+    {
+        if(a == 0 || b == 0)
+        {
+            return 0;
+        }
+
+        return EXP[LOG[a] + LOG[b]];
+    }
+
+    /**
+     * Remainder of the received polynomial modulo the generator polynomial.  The remainder is zero for valid
+     * codewords and, within the correction capacity, uniquely identifies the error pattern.
+     *
+     * @param codeword with bit n as the coefficient of x^n
+     * @return remainder (47 bits)
+     */
+    public static long getRemainder(long codeword)
+    {
+        long remainder = codeword & ((1L << CODEWORD_LENGTH) - 1);
+
+        for(int bit = CODEWORD_LENGTH - 1; bit >= PARITY_LENGTH; bit--)
+        {
+            if((remainder & (1L << bit)) != 0)
+            {
+                remainder ^= GENERATOR << (bit - PARITY_LENGTH);
+            }
+        }
+
+        return remainder;
+    }
+
+    /**
+     * Creates a codeword from the 16-bit message value, placing the message in the high order coefficients
+     * (x^47 - x^62) followed by the parity remainder.
+     *
+     * @param message value (16 bits)
+     * @return codeword with bit n as the coefficient of x^n
+     */
+    public static long encode(int message)
+    {
+        long shifted = ((long)(message & 0xFFFF)) << PARITY_LENGTH;
+        return shifted | getRemainder(shifted);
+    }
+
+    /**
+     * Number of bit errors corrected in the most recently decoded codeword
+     */
+    public int getCorrectedBitCount()
+    {
+        return mCorrectedBitCount;
+    }
+
+    /**
+     * Decodes the received codeword.
+     *
+     * @param codeword with bit n as the coefficient of x^n
+     * @return corrected codeword or UNCORRECTABLE if there are more errors than the code can correct
+     */
+    public long decode(long codeword)
+    {
+        mCorrectedBitCount = 0;
+
+        long remainder = getRemainder(codeword);
+
+        if(remainder == 0)
+        {
+            return codeword;
+        }
+
+        long errors = lookup(remainder);
+
+        if(errors == 0)
+        {
+            errors = locateErrors(remainder);
+
+            if(errors == 0)
+            {
+                return UNCORRECTABLE;
+            }
+        }
+
+        mCorrectedBitCount = Long.bitCount(errors);
+
+        return codeword ^ errors;
+    }
+
+    /**
+     * Locates the error positions using the syndromes of the remainder, a Berlekamp-Massey solver for the error
+     * locator polynomial and a Chien search for its roots.
+     *
+     * @param remainder of the received codeword
+     * @return error pattern or 0 if the errors can't be located
+     */
+    private long locateErrors(long remainder)
+    {
+        int[] syndromes = mSyndromes;
+
+        //Odd syndromes S(j) = r(a^j) evaluated from the remainder, since g(a^j) = 0.  Even syndromes of a binary code
+        //are the squares of the odd syndromes: S(2j) = S(j)^2
+        for(int j = 1; j <= SYNDROME_COUNT; j += 2)
+        {
+            int syndrome = 0;
+            long bits = remainder;
+
+            while(bits != 0)
+            {
+                int position = Long.numberOfTrailingZeros(bits);
+                syndrome ^= EXP[(j * position) % FIELD_SIZE];
+                bits &= bits - 1;
+            }
+
+            syndromes[j] = syndrome;
+        }
+
+        for(int j = 2; j <= SYNDROME_COUNT; j += 2)
+        {
+            syndromes[j] = multiply(syndromes[j / 2], syndromes[j / 2]);
+        }
+
+        int[] locator = mLocator;
+        int[] previous = mPreviousLocator;
+
+        Arrays.fill(locator, 0);
+        Arrays.fill(previous, 0);
+        locator[0] = 1;
+        previous[0] = 1;
+
+        int length = 0;
+        int shift = 1;
+        int previousDiscrepancy = 1;
+
+        for(int n = 0; n < SYNDROME_COUNT; n++)
+        {
+            int discrepancy = syndromes[n + 1];
+
+            for(int x = 1; x <= length; x++)
+            {
+                discrepancy ^= multiply(locator[x], syndromes[n + 1 - x]);
+            }
+
+            if(discrepancy == 0)
+            {
+                shift++;
+            }
+            else
+            {
+                int scale = EXP[LOG[discrepancy] - LOG[previousDiscrepancy] + FIELD_SIZE];
+
+                if(2 * length <= n)
+                {
+                    System.arraycopy(locator, 0, mTemp, 0, locator.length);
+                    adjust(locator, previous, scale, shift);
+                    length = n + 1 - length;
+                    System.arraycopy(mTemp, 0, previous, 0, previous.length);
+                    previousDiscrepancy = discrepancy;
+                    shift = 1;
+                }
+                else
+                {
+                    adjust(locator, previous, scale, shift);
+                    shift++;
+                }
+            }
+        }
+
+        if(length > MAX_CORRECTABLE_ERRORS)
+        {
+            return 0;
+        }
+
+        //Chien search: the locator polynomial has a root at a^-p for each error position p
+        int[] register = mRegister;
+
+        for(int x = 1; x <= length; x++)
+        {
+            register[x] = LOG[locator[x]];
+        }
+
+        long errors = 0;
+        int found = 0;
+
+        for(int i = 0; i < FIELD_SIZE && found < length; i++)
+        {
+            int sum = 1;
+
+            for(int x = 1; x <= length; x++)
+            {
+                if(register[x] >= 0)
+                {
+                    sum ^= EXP[(register[x] + x * i) % FIELD_SIZE];
+                }
+            }
+
+            if(sum == 0)
+            {
+                errors |= 1L << ((FIELD_SIZE - i) % FIELD_SIZE);
+                found++;
+            }
+        }
+
+        if(found != length)
+        {
+            return 0;
+        }
+
+        return errors;
+    }
+
+    /**
+     * Subtracts the scaled and shifted previous locator polynomial from the locator polynomial
+     */
+    private static void adjust(int[] locator, int[] previous, int scale, int shift)
+    {
+        for(int x = 0; x + shift < locator.length; x++)
+        {
+            if(previous[x] != 0)
+            {
+                locator[x + shift] ^= multiply(scale, previous[x]);
+            }
+        }
+    }
+}
@@ -40,10 +40,12 @@ import io.github.dsheirer.record.RecorderManager;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.settings.SettingsManager;
 import io.github.dsheirer.source.SourceManager;
+import io.github.dsheirer.source.config.SourceConfigTuner;
 import io.github.dsheirer.source.tuner.Tuner;
 import io.github.dsheirer.source.tuner.TunerEvent;
 import io.github.dsheirer.source.tuner.TunerModel;
 import io.github.dsheirer.source.tuner.TunerSpectralDisplayManager;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.configuration.TunerConfigurationModel;
 import io.github.dsheirer.spectrum.ClearTunerMenuItem;
 import io.github.dsheirer.spectrum.ShowTunerMenuItem;
@@ -79,6 +81,7 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 public class SDRTrunk implements Listener<TunerEvent>
@@ -218,6 +221,10 @@ public class SDRTrunk implements Listener<TunerEvent>
      * Shows a dialog that lists the channels that have been designated for auto-start, sorted by auto-start order and
      * allows the user to start now, cancel, or allow the timer to expire and then start the channels.  The dialog will
      * only show if there are one ore more channels designated for auto-start.
+     *
+     * Tuner allocations are planned for the auto-start tuner channels that don't specify a preferred tuner, before
+     * the channels are started, and the remaining plan is discarded once the channels are started or auto-start is
+     * canceled.
      */
     private void autoStartChannels()
     {
@@ -225,7 +232,30 @@ public class SDRTrunk implements Listener<TunerEvent>
 
         if(channels.size() > 0)
         {
-            ChannelAutoStartFrame autoStartFrame = new ChannelAutoStartFrame(mChannelProcessingManager, channels);
+            List<TunerChannel> tunerChannels = new ArrayList<>();
+
+            for(Channel channel: channels)
+            {
+                if(channel.getSourceConfiguration() instanceof SourceConfigTuner &&
+                    !((SourceConfigTuner)channel.getSourceConfiguration()).hasPreferredTuner())
+                {
+                    TunerChannel tunerChannel = ((SourceConfigTuner)channel.getSourceConfiguration()).getTunerChannel();
+                    tunerChannel.setBandwidth(channel.getDecodeConfiguration().getChannelSpecification().getBandwidth());
+                    tunerChannels.add(tunerChannel);
+                }
+            }
+
+            mSourceManager.getTunerModel().planAllocation(tunerChannels);
+
+            ChannelAutoStartFrame autoStartFrame = new ChannelAutoStartFrame(mChannelProcessingManager, channels,
+                new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        mSourceManager.getTunerModel().clearAllocationPlan();
+                    }
+                });
         }
     }
 
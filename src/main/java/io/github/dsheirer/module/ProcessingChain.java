@@ -325,7 +325,12 @@ public class ProcessingChain implements IChannelEventListener
 
         if(module instanceof IReusableBufferListener)
         {
-            mDemodulatedAudioBufferBroadcaster.addListener(((IReusableBufferListener)module).getReusableBufferListener());
+            Listener<ReusableFloatBuffer> listener = ((IReusableBufferListener)module).getReusableBufferListener();
+
+            if(listener != null)
+            {
+                mDemodulatedAudioBufferBroadcaster.addListener(listener);
+            }
         }
 
         if(module instanceof IReusableByteBufferListener)
@@ -392,7 +397,12 @@ public class ProcessingChain implements IChannelEventListener
 
         if(module instanceof IReusableBufferListener)
         {
-            mDemodulatedAudioBufferBroadcaster.removeListener(((IReusableBufferListener)module).getReusableBufferListener());
+            Listener<ReusableFloatBuffer> listener = ((IReusableBufferListener)module).getReusableBufferListener();
+
+            if(listener != null)
+            {
+                mDemodulatedAudioBufferBroadcaster.removeListener(listener);
+            }
         }
 
         if(module instanceof IReusableByteBufferListener)
@@ -38,6 +38,7 @@ import io.github.dsheirer.gui.editor.ValidatingEditor;
 import io.github.dsheirer.message.Message;
 import io.github.dsheirer.message.MessageDirection;
 import io.github.dsheirer.module.Module;
+import io.github.dsheirer.module.decode.afsk.AFSK1200DemodulatorModule;
 import io.github.dsheirer.module.decode.am.AMDecoder;
 import io.github.dsheirer.module.decode.am.AMDecoderEditor;
 import io.github.dsheirer.module.decode.am.DecodeConfigAM;
@@ -263,24 +264,33 @@ public class DecoderFactory
 
         if(config != null)
         {
+            //AFSK 1200 decoders share a single demodulator so that the audio is only resampled and correlated once
+            AFSK1200DemodulatorModule afskDemodulator = null;
+
             for(DecoderType auxDecoder : config.getAuxDecoders())
             {
+                if(afskDemodulator == null && isAFSK1200(auxDecoder))
+                {
+                    afskDemodulator = new AFSK1200DemodulatorModule();
+                    modules.add(afskDemodulator);
+                }
+
                 switch(auxDecoder)
                 {
                     case FLEETSYNC2:
-                        modules.add(new Fleetsync2Decoder(aliasList));
+                        modules.add(new Fleetsync2Decoder(afskDemodulator, aliasList));
                         modules.add(new Fleetsync2DecoderState(aliasList));
                         break;
                     case MDC1200:
-                        modules.add(new MDCDecoder(aliasList));
+                        modules.add(new MDCDecoder(afskDemodulator, aliasList));
                         modules.add(new MDCDecoderState(aliasList));
                         break;
                     case LJ_1200:
-                        modules.add(new LJ1200Decoder(aliasList));
+                        modules.add(new LJ1200Decoder(afskDemodulator, aliasList));
                         modules.add(new LJ1200DecoderState(aliasList));
                         break;
                     case TAIT_1200:
-                        modules.add(new Tait1200Decoder(aliasList));
+                        modules.add(new Tait1200Decoder(afskDemodulator, aliasList));
                         modules.add(new Tait1200DecoderState(aliasList));
                         break;
                     default:
@@ -293,6 +303,23 @@ public class DecoderFactory
         return modules;
     }
 
+    /**
+     * Indicates if the auxiliary decoder type is an AFSK 1200 baud decoder that uses the shared AFSK demodulator
+     */
+    private static boolean isAFSK1200(DecoderType decoderType)
+    {
+        switch(decoderType)
+        {
+            case FLEETSYNC2:
+            case MDC1200:
+            case LJ_1200:
+            case TAIT_1200:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Assembles a filter set containing filters for the primary channel
      * decoder and each of the auxiliary decoders
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.afsk;
+
+import io.github.dsheirer.dsp.afsk.SharedAFSK1200Decoder;
+import io.github.dsheirer.module.Module;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.IReusableBufferListener;
+import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
+
+/**
+ * Shared AFSK 1200-baud demodulation stage for a processing chain.  Resamples and correlates the demodulated audio
+ * sample stream once and distributes the decoded symbol streams to each of the AFSK-based auxiliary decoders that
+ * are constructed with this module.
+ */
+public class AFSK1200DemodulatorModule extends Module implements IReusableBufferListener, Listener<ReusableFloatBuffer>
+{
+    private SharedAFSK1200Decoder mDecoder = new SharedAFSK1200Decoder();
+
+    public AFSK1200DemodulatorModule()
+    {
+    }
+
+    /**
+     * Shared AFSK 1200 decoder for registering symbol processors
+     */
+    public SharedAFSK1200Decoder getDecoder()
+    {
+        return mDecoder;
+    }
+
+    @Override
+    public void receive(ReusableFloatBuffer reusableFloatBuffer)
+    {
+        mDecoder.receive(reusableFloatBuffer);
+    }
+
+    @Override
+    public Listener<ReusableFloatBuffer> getReusableBufferListener()
+    {
+        return this;
+    }
+
+    @Override
+    public void reset()
+    {
+        //no-op
+    }
+
+    @Override
+    public void start()
+    {
+        //no-op
+    }
+
+    @Override
+    public void stop()
+    {
+        //no-op
+    }
+
+    @Override
+    public void dispose()
+    {
+        mDecoder.dispose();
+    }
+}
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package io.github.dsheirer.module.decode.afsk;
 
+import io.github.dsheirer.bits.IBinarySymbolProcessor;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.module.decode.Decoder;
 import io.github.dsheirer.sample.Listener;
@@ -26,11 +27,18 @@ import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
  *
  * This class handles the AFSK 1200 decoder and incoming sample stream buffer management.
  *
- * Sub-class implementations should invoke getDecoder().setListener() to receive decoded symbol stream.
+ * Sub-class implementations should invoke setSymbolProcessor() to receive decoded symbol stream.
+ *
+ * When constructed with a shared AFSK1200DemodulatorModule, the decoder registers its symbol processor with the shared
+ * demodulator and doesn't subscribe to the sample stream, so that resampling and correlation are only performed once
+ * per processing chain regardless of the number of AFSK-based decoders.
  */
 public abstract class AbstractAFSKDecoder extends Decoder implements IReusableBufferListener, Listener<ReusableFloatBuffer>
 {
     private AFSK1200Decoder mAFSK1200Decoder;
+    private AFSK1200DemodulatorModule mDemodulator;
+    private AFSK1200Decoder.Output mOutput;
+    private IBinarySymbolProcessor mSymbolProcessor;
 
     public AbstractAFSKDecoder(AFSK1200Decoder decoder)
     {
@@ -42,20 +50,71 @@ public abstract class AbstractAFSKDecoder extends Decoder implements IReusableBu
         mAFSK1200Decoder = new AFSK1200Decoder(output);
     }
 
+    /**
+     * Constructs a decoder that receives decoded symbols from the shared demodulator.
+     *
+     * @param demodulator shared AFSK 1200 demodulator for the processing chain
+     * @param output NORMAL or INVERTED symbol output for this decoder
+     */
+    public AbstractAFSKDecoder(AFSK1200DemodulatorModule demodulator, AFSK1200Decoder.Output output)
+    {
+        mDemodulator = demodulator;
+        mOutput = output;
+        mAFSK1200Decoder = demodulator.getDecoder();
+    }
+
     protected AFSK1200Decoder getDecoder()
     {
         return mAFSK1200Decoder;
     }
 
+    /**
+     * Registers the symbol processor to receive the decoded symbol stream
+     */
+    protected void setSymbolProcessor(IBinarySymbolProcessor symbolProcessor)
+    {
+        if(mDemodulator != null)
+        {
+            if(mSymbolProcessor != null)
+            {
+                mDemodulator.getDecoder().removeSymbolProcessor(mSymbolProcessor);
+            }
+
+            mDemodulator.getDecoder().addSymbolProcessor(symbolProcessor, mOutput);
+        }
+        else
+        {
+            mAFSK1200Decoder.setSymbolProcessor(symbolProcessor);
+        }
+
+        mSymbolProcessor = symbolProcessor;
+    }
+
     @Override
     public void receive(ReusableFloatBuffer reusableFloatBuffer)
     {
         mAFSK1200Decoder.receive(reusableFloatBuffer);
     }
 
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+
+        if(mDemodulator != null && mSymbolProcessor != null)
+        {
+            mDemodulator.getDecoder().removeSymbolProcessor(mSymbolProcessor);
+        }
+
+        mSymbolProcessor = null;
+    }
+
+    /**
+     * Sample stream listener, or null when the shared demodulator receives and decodes the sample stream
+     */
     @Override
     public Listener<ReusableFloatBuffer> getReusableBufferListener()
     {
-        return this;
+        return mDemodulator == null ? this : null;
     }
 }
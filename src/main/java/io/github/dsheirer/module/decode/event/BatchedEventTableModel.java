@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.event;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+
+import javax.swing.table.AbstractTableModel;
+import java.awt.EventQueue;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Table model base class for event history tables that are fed by decoder threads.
+ *
+ * Producer threads enqueue events on a lock-free queue and never touch the table model state.  Queued events are
+ * applied to a bounded ring buffer on the Swing event dispatch thread in batches, no more often than the refresh
+ * interval, and each batch is announced to the table with a minimal set of table model events.
+ *
+ * Re-sending an event instance that is already in the model updates its row.  Events that subclasses identify as
+ * removals are deleted from the model.
+ *
+ * Configuration (system properties):
+ *   event.table.refresh.interval.ms - minimum interval between table updates in milliseconds (default 100)
+ */
+public abstract class BatchedEventTableModel<T> extends AbstractTableModel
+{
+    private static final long serialVersionUID = 1L;
+
+    public static final String REFRESH_INTERVAL_PROPERTY = "event.table.refresh.interval.ms";
+    private static final int DEFAULT_REFRESH_INTERVAL_MS = 100;
+    public static final int DEFAULT_MAX_MESSAGES = 500;
+
+    /* Accessed only on the event dispatch thread */
+    protected EventRingBuffer<T> mEvents = new EventRingBuffer<>(DEFAULT_MAX_MESSAGES);
+    private Set<T> mUpdated = Collections.newSetFromMap(new IdentityHashMap<T,Boolean>());
+    private long mLastUpdate;
+
+    private Queue<T> mPending = new ConcurrentLinkedQueue<>();
+    private AtomicBoolean mUpdateScheduled = new AtomicBoolean();
+    private volatile int mMaxMessages = DEFAULT_MAX_MESSAGES;
+    private long mRefreshInterval;
+
+    private Runnable mUpdateTask = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            update();
+        }
+    };
+
+    private Runnable mScheduledUpdateTask = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            EventQueue.invokeLater(mUpdateTask);
+        }
+    };
+
+    public BatchedEventTableModel()
+    {
+        mRefreshInterval = SystemProperties.getInstance().get(REFRESH_INTERVAL_PROPERTY, DEFAULT_REFRESH_INTERVAL_MS);
+    }
+
+    /**
+     * Indicates if the event should be removed from the model instead of added or updated
+     */
+    protected boolean isRemoval(T event)
+    {
+        return false;
+    }
+
+    /**
+     * Queues the event for addition, update or removal on the next table update.  Safe to invoke from any thread.
+     */
+    protected void enqueue(T event)
+    {
+        mPending.offer(event);
+
+        if(mUpdateScheduled.compareAndSet(false, true))
+        {
+            long delay = mRefreshInterval - (System.currentTimeMillis() - mLastUpdate);
+
+            if(delay > 0)
+            {
+                ThreadPool.SCHEDULED.schedule(mScheduledUpdateTask, delay, TimeUnit.MILLISECONDS);
+            }
+            else
+            {
+                EventQueue.invokeLater(mUpdateTask);
+            }
+        }
+    }
+
+    /**
+     * Applies all queued events to the model and fires the table model events for the batch.  Invoked on the event
+     * dispatch thread.
+     */
+    private void update()
+    {
+        mUpdateScheduled.set(false);
+        mLastUpdate = System.currentTimeMillis();
+
+        int startSize = mEvents.size();
+        int inserted = 0;
+        boolean removed = false;
+
+        T event = mPending.poll();
+
+        while(event != null)
+        {
+            if(isRemoval(event))
+            {
+                removed |= mEvents.remove(event) >= 0;
+            }
+            else if(mEvents.contains(event))
+            {
+                mUpdated.add(event);
+            }
+            else
+            {
+                mEvents.add(event);
+                inserted++;
+            }
+
+            event = mPending.poll();
+        }
+
+        if(removed)
+        {
+            mUpdated.clear();
+            fireTableDataChanged();
+            return;
+        }
+
+        //Without removals, surviving new events occupy the top rows and evictions truncate the old rows
+        int size = mEvents.size();
+        int insertedRows = Math.min(inserted, size);
+        int retainedRows = size - insertedRows;
+
+        if(startSize > retainedRows)
+        {
+            fireTableRowsDeleted(retainedRows, startSize - 1);
+        }
+
+        if(insertedRows > 0)
+        {
+            fireTableRowsInserted(0, insertedRows - 1);
+        }
+
+        if(!mUpdated.isEmpty())
+        {
+            int first = Integer.MAX_VALUE;
+            int last = -1;
+
+            for(T updated : mUpdated)
+            {
+                int row = mEvents.indexOf(updated);
+
+                if(row >= insertedRows)
+                {
+                    first = Math.min(first, row);
+                    last = Math.max(last, row);
+                }
+            }
+
+            mUpdated.clear();
+
+            if(last >= 0)
+            {
+                fireTableRowsUpdated(first, last);
+            }
+        }
+    }
+
+    /**
+     * Event at the specified table row or null if the row is out of range.  Invoke on the event dispatch thread.
+     */
+    protected T getEvent(int row)
+    {
+        if(0 <= row && row < mEvents.size())
+        {
+            return mEvents.get(row);
+        }
+
+        return null;
+    }
+
+    @Override
+    public int getRowCount()
+    {
+        return mEvents.size();
+    }
+
+    /**
+     * Clears all events from history
+     */
+    public void clear()
+    {
+        EventQueue.invokeLater(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                int count = mEvents.size();
+
+                mEvents.clear();
+
+                if(count > 0)
+                {
+                    fireTableRowsDeleted(0, count - 1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Discards all queued and retained events
+     */
+    public void dispose()
+    {
+        mPending.clear();
+        clear();
+    }
+
+    public int getMaxMessageCount()
+    {
+        return mMaxMessages;
+    }
+
+    /**
+     * Sets the maximum number of events retained in history.  The oldest events are removed when the history exceeds
+     * the new maximum.
+     */
+    public void setMaxMessageCount(final int count)
+    {
+        mMaxMessages = count;
+
+        EventQueue.invokeLater(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                int size = mEvents.size();
+                int removed = mEvents.setCapacity(count);
+
+                if(removed > 0)
+                {
+                    fireTableRowsDeleted(size - removed, size - 1);
+                }
+            }
+        });
+    }
+}
@@ -20,13 +20,10 @@ package io.github.dsheirer.module.decode.event;
 import io.github.dsheirer.alias.Alias;
 import io.github.dsheirer.sample.Listener;
 
-import javax.swing.table.AbstractTableModel;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.List;
 
-public class CallEventModel extends AbstractTableModel implements Listener<CallEvent>
+public class CallEventModel extends BatchedEventTableModel<CallEvent> implements Listener<CallEvent>
 {
     private static final long serialVersionUID = 1L;
 
@@ -42,10 +39,6 @@ public class CallEventModel extends AbstractTableModel implements Listener<CallE
     public static final int FREQUENCY = 7;
     public static final int DETAILS = 8;
 
-    protected int mMaxMessages = 500;
-
-    protected List<CallEvent> mEvents = new ArrayList<CallEvent>();
-
     protected String[] mHeaders = new String[]{"Time",
         "Event",
         "From",
@@ -62,26 +55,9 @@ public class CallEventModel extends AbstractTableModel implements Listener<CallE
     {
     }
 
-    public void dispose()
-    {
-        mEvents.clear();
-    }
-
     public void reset()
     {
-        mEvents.clear();
-
-        fireTableDataChanged();
-    }
-
-    public int getMaxMessageCount()
-    {
-        return mMaxMessages;
-    }
-
-    public void setMaxMessageCount(int count)
-    {
-        mMaxMessages = count;
+        clear();
     }
 
     /**
@@ -89,54 +65,19 @@ public class CallEventModel extends AbstractTableModel implements Listener<CallE
      * the same call event multiple times to indicate that information in the
      * event is updated.  Producers can also mark the event as invalid and the
      * event will be removed from the model.
+     *
+     * Events are queued and applied to the model on the Swing event thread so
+     * that the producer is never blocked by the table.
      */
     public void receive(final CallEvent event)
     {
-        if(event.isValid())
-        {
-            if(!mEvents.contains(event))
-            {
-                mEvents.add(0, event);
-
-                fireTableRowsInserted(0, 0);
-
-                prune();
-            }
-            else
-            {
-                int row = mEvents.indexOf(event);
-
-                fireTableRowsUpdated(row, row);
-            }
-        }
-        else
-        {
-            if(mEvents.contains(event))
-            {
-                int row = mEvents.indexOf(event);
-
-                mEvents.remove(event);
-
-                fireTableRowsDeleted(row, row);
-            }
-        }
-    }
-
-    private void prune()
-    {
-        while(mEvents.size() > mMaxMessages)
-        {
-            int index = mEvents.size() - 1;
-            mEvents.remove(index);
-
-            fireTableRowsDeleted(index, index);
-        }
+        enqueue(event);
     }
 
     @Override
-    public int getRowCount()
+    protected boolean isRemoval(CallEvent event)
     {
-        return mEvents.size();
+        return !event.isValid();
     }
 
     @Override
@@ -153,43 +94,42 @@ public class CallEventModel extends AbstractTableModel implements Listener<CallE
     @Override
     public Object getValueAt(int rowIndex, int columnIndex)
     {
-        synchronized(mEvents)
+        CallEvent event = getEvent(rowIndex);
+
+        if(event != null)
         {
             switch(columnIndex)
             {
                 case TIME:
                     StringBuilder sb = new StringBuilder();
 
-                    sb.append(mSDFTime.format(
-                        mEvents.get(rowIndex).getEventStartTime()));
+                    sb.append(mSDFTime.format(event.getEventStartTime()));
 
-                    if(mEvents.get(rowIndex).getEventEndTime() != 0)
+                    if(event.getEventEndTime() != 0)
                     {
                         sb.append(" - ");
-                        sb.append(mSDFTime.format(
-                            mEvents.get(rowIndex).getEventEndTime()));
+                        sb.append(mSDFTime.format(event.getEventEndTime()));
                     }
-                    else if(mEvents.get(rowIndex)
-                        .getCallEventType() == CallEvent.CallEventType.CALL)
+                    else if(event.getCallEventType() == CallEvent.CallEventType.CALL)
                     {
                         sb.append(" - In Progress");
                     }
 
                     return sb.toString();
                 case EVENT:
-                    return mEvents.get(rowIndex).getCallEventType();
+                    return event.getCallEventType();
                 case FROM_ID:
-                    return mEvents.get(rowIndex).getFromID();
+                    return event.getFromID();
                 case FROM_ALIAS:
-                    return mEvents.get(rowIndex).getFromIDAlias();
+                    return event.getFromIDAlias();
                 case TO_ID:
-                    return mEvents.get(rowIndex).getToID();
+                    return event.getToID();
                 case TO_ALIAS:
-                    return mEvents.get(rowIndex).getToIDAlias();
+                    return event.getToIDAlias();
                 case CHANNEL:
-                    return mEvents.get(rowIndex).getChannel();
+                    return event.getChannel();
                 case FREQUENCY:
-                    long frequency = mEvents.get(rowIndex).getFrequency();
+                    long frequency = event.getFrequency();
 
                     if(frequency != 0)
                     {
@@ -200,7 +140,7 @@ public class CallEventModel extends AbstractTableModel implements Listener<CallE
                         return null;
                     }
                 case DETAILS:
-                    return mEvents.get(rowIndex).getDetails();
+                    return event.getDetails();
             }
         }
 
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.event;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Bounded ring buffer of events ordered newest first.  Row 0 is the most recently added event.  Adding an event to a
+ * full buffer evicts the oldest event.
+ *
+ * Events are indexed by identity so that contains, row lookup and removal of the most recent events are constant time
+ * operations.  Each event is assigned an increasing sequence number when added and its row is the distance from the
+ * newest sequence number.  Removing an event from the middle of the buffer shifts the older events by one slot.
+ *
+ * This class is not thread safe.
+ */
+public class EventRingBuffer<T>
+{
+    private Object[] mEvents;
+    private Map<T,Long> mSequences = new IdentityHashMap<>();
+    private long mNewestSequence = -1;
+    private int mSize;
+
+    /**
+     * Constructs an instance.
+     *
+     * @param capacity maximum number of events retained
+     */
+    public EventRingBuffer(int capacity)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+
+        mEvents = new Object[capacity];
+    }
+
+    /**
+     * Maximum number of events retained
+     */
+    public int getCapacity()
+    {
+        return mEvents.length;
+    }
+
+    /**
+     * Changes the capacity, retaining the newest events that fit within the new capacity
+     *
+     * @param capacity maximum number of events retained
+     * @return number of (oldest) events removed to fit the new capacity
+     */
+    public int setCapacity(int capacity)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+
+        if(capacity == mEvents.length)
+        {
+            return 0;
+        }
+
+        int removed = 0;
+
+        while(mSize > capacity)
+        {
+            removeOldest();
+            removed++;
+        }
+
+        Object[] events = new Object[capacity];
+
+        for(long sequence = mNewestSequence - mSize + 1; sequence <= mNewestSequence; sequence++)
+        {
+            events[(int)(sequence % capacity)] = mEvents[getSlot(sequence)];
+        }
+
+        mEvents = events;
+
+        return removed;
+    }
+
+    /**
+     * Number of events in the buffer
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    public boolean isEmpty()
+    {
+        return mSize == 0;
+    }
+
+    /**
+     * Adds the event as the newest event (row 0), evicting the oldest event if the buffer is full.
+     *
+     * @param event to add
+     * @return evicted event or null
+     */
+    public T add(T event)
+    {
+        T evicted = null;
+
+        if(mSize == mEvents.length)
+        {
+            evicted = removeOldest();
+        }
+
+        mNewestSequence++;
+        mEvents[getSlot(mNewestSequence)] = event;
+        mSequences.put(event, mNewestSequence);
+        mSize++;
+
+        return evicted;
+    }
+
+    /**
+     * Event at the specified row where row 0 is the newest event
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int row)
+    {
+        if(row < 0 || row >= mSize)
+        {
+            throw new IndexOutOfBoundsException("Row [" + row + "] size [" + mSize + "]");
+        }
+
+        return (T)mEvents[getSlot(mNewestSequence - row)];
+    }
+
+    /**
+     * Indicates if the buffer contains the event instance
+     */
+    public boolean contains(T event)
+    {
+        return mSequences.containsKey(event);
+    }
+
+    /**
+     * Row of the event instance
+     *
+     * @return row or -1 if the buffer does not contain the event
+     */
+    public int indexOf(T event)
+    {
+        Long sequence = mSequences.get(event);
+
+        return sequence != null ? (int)(mNewestSequence - sequence) : -1;
+    }
+
+    /**
+     * Removes the event instance from the buffer
+     *
+     * @return row that the event occupied before removal, or -1 if the buffer does not contain the event
+     */
+    public int remove(T event)
+    {
+        Long removed = mSequences.remove(event);
+
+        if(removed == null)
+        {
+            return -1;
+        }
+
+        long oldest = mNewestSequence - mSize + 1;
+
+        //Shift the older events up by one slot to close the gap
+        for(long sequence = removed - 1; sequence >= oldest; sequence--)
+        {
+            @SuppressWarnings("unchecked")
+            T shifted = (T)mEvents[getSlot(sequence)];
+            mEvents[getSlot(sequence + 1)] = shifted;
+            mSequences.put(shifted, sequence + 1);
+        }
+
+        mEvents[getSlot(oldest)] = null;
+        mSize--;
+
+        return (int)(mNewestSequence - removed);
+    }
+
+    /**
+     * Removes the oldest event
+     *
+     * @return removed event or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T removeOldest()
+    {
+        if(mSize == 0)
+        {
+            return null;
+        }
+
+        int slot = getSlot(mNewestSequence - mSize + 1);
+        T oldest = (T)mEvents[slot];
+        mEvents[slot] = null;
+        mSequences.remove(oldest);
+        mSize--;
+
+        return oldest;
+    }
+
+    /**
+     * Removes all events
+     */
+    public void clear()
+    {
+        while(mSize > 0)
+        {
+            removeOldest();
+        }
+    }
+
+    private int getSlot(long sequence)
+    {
+        return (int)(sequence % mEvents.length);
+    }
+}
@@ -21,13 +21,10 @@ import io.github.dsheirer.filter.FilterSet;
 import io.github.dsheirer.message.Message;
 import io.github.dsheirer.sample.Listener;
 
-import javax.swing.table.AbstractTableModel;
-import java.awt.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.LinkedList;
 
-public class MessageActivityModel extends AbstractTableModel
+public class MessageActivityModel extends BatchedEventTableModel<Message>
 								  implements Listener<Message>
 {
     private static final long serialVersionUID = 1L;
@@ -37,9 +34,6 @@ public class MessageActivityModel extends AbstractTableModel
     private static final int MESSAGE = 3;
     private static final int MESSAGE_BITS = 4;
 
-	protected int mMaxMessages = 500;
-	protected LinkedList<Message> mMessages = new LinkedList<Message>();
-
 	protected int[] mColumnWidths = { 110, 110, 110, -1, -1 };
 
 	protected String[] mHeaders = new String[] { "Time",
@@ -50,8 +44,6 @@ public class MessageActivityModel extends AbstractTableModel
 
 	private SimpleDateFormat mSDFTime = new SimpleDateFormat( "HH:mm:ss" );
 	
-	private boolean mNewMessagesFirst = true;
-	
 	private FilterSet<Message> mMessageFilter;
 	
 	public MessageActivityModel( FilterSet<Message> messageFilter )
@@ -63,35 +55,11 @@ public class MessageActivityModel extends AbstractTableModel
 	{
 	}
 	
-	/**
-	 * Clears all messages from history
-	 */
-	public void clear()
-	{
-		EventQueue.invokeLater( new Runnable()
-		{
-			@Override
-            public void run()
-            {
-				int messageCount = mMessages.size();
-				
-				mMessages.clear();
-
-				fireTableRowsDeleted( 0, messageCount - 1 );
-            }
-		});
-	}
-	
 	public FilterSet<Message> getMessageFilter()
 	{
 		return mMessageFilter;
 	}
 	
-	public void dispose()
-	{
-		mMessages.clear();
-	}
-	
 	public int[] getColumnWidths()
 	{
 		return mColumnWidths;
@@ -110,51 +78,18 @@ public class MessageActivityModel extends AbstractTableModel
 		}
 	}
 	
-	public int getMaxMessageCount()
-	{
-		return mMaxMessages;
-	}
-
-	public void setMaxMessageCount( int count )
-	{
-		mMaxMessages = count;
-	}
-	
+	/**
+	 * Queues the message for display.  Messages are applied to the model on the
+	 * Swing event thread in batches so that the decoder is never blocked.
+	 */
 	public void receive( final Message message )
 	{
 		if( message.isValid() && mMessageFilter.passes( message ) )
 		{
-			EventQueue.invokeLater( new Runnable() 
-			{
-				@Override
-	            public void run()
-	            {
-					mMessages.addFirst( message );
-
-					MessageActivityModel.this.fireTableRowsInserted( 0, 0 );
-
-					prune();
-	            }
-			} );
-		}
-	}
-	
-	private void prune()
-	{
-		while( mMessages.size() > mMaxMessages )
-		{
-			mMessages.removeLast();
-			
-			super.fireTableRowsDeleted( mMessages.size() - 1, mMessages.size() - 1 );
+			enqueue( message );
 		}
 	}
 
-	@Override
-    public int getRowCount()
-    {
-		return mMessages.size();
-    }
-
 	@Override
     public int getColumnCount()
     {
@@ -169,10 +104,10 @@ public class MessageActivityModel extends AbstractTableModel
 	@Override
     public Object getValueAt( int rowIndex, int columnIndex )
     {
-		if( 0 <= rowIndex && rowIndex < mMessages.size() )
+		Message message = getEvent( rowIndex );
+
+		if( message != null )
 		{
-			Message message = mMessages.get( rowIndex );
-			
 			switch( columnIndex )
 			{
 				case TIME:
@@ -22,6 +22,7 @@ import io.github.dsheirer.bits.MessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.module.decode.afsk.AFSK1200DemodulatorModule;
 import io.github.dsheirer.module.decode.afsk.AbstractAFSKDecoder;
 
 /**
@@ -55,6 +56,17 @@ public class Fleetsync2Decoder extends AbstractAFSKDecoder
         init(aliasList);
     }
 
+    /**
+     * Constructs a decoder that receives decoded symbols from the processing chain's shared AFSK 1200 demodulator
+     * @param demodulator shared AFSK 1200 demodulator
+     * @param aliasList to assign aliases to decoded values
+     */
+    public Fleetsync2Decoder(AFSK1200DemodulatorModule demodulator, AliasList aliasList)
+    {
+        super(demodulator, AFSK1200Decoder.Output.NORMAL);
+        init(aliasList);
+    }
+
     /**
      * Initializes the decoding chain.
      * @param aliasList to assign to the message processor
@@ -62,7 +74,7 @@ public class Fleetsync2Decoder extends AbstractAFSKDecoder
     private void init(AliasList aliasList)
     {
         mMessageFramer = new MessageFramer(SyncPattern.FLEETSYNC2.getPattern(), MESSAGE_LENGTH);
-        getDecoder().setSymbolProcessor(mMessageFramer);
+        setSymbolProcessor(mMessageFramer);
         mMessageProcessor = new Fleetsync2MessageProcessor(aliasList);
         mMessageFramer.addMessageListener(mMessageProcessor);
         mMessageProcessor.setMessageListener(getMessageListener());
@@ -21,6 +21,7 @@ import io.github.dsheirer.bits.MessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.module.decode.afsk.AFSK1200DemodulatorModule;
 import io.github.dsheirer.module.decode.afsk.AbstractAFSKDecoder;
 
 /**
@@ -47,10 +48,21 @@ public class LJ1200Decoder extends AbstractAFSKDecoder implements IBinarySymbolP
         init(aliasList);
     }
 
+    /**
+     * Constructs a decoder that receives decoded symbols from the processing chain's shared AFSK 1200 demodulator
+     * @param demodulator shared AFSK 1200 demodulator
+     * @param aliasList to assign aliases to decoded values
+     */
+    public LJ1200Decoder(AFSK1200DemodulatorModule demodulator, AliasList aliasList)
+    {
+        super(demodulator, AFSK1200Decoder.Output.NORMAL);
+        init(aliasList);
+    }
+
 
     private void init(AliasList aliasList)
     {
-        getDecoder().setSymbolProcessor(this);
+        setSymbolProcessor(this);
 
         mTowerMessageFramer = new MessageFramer(SyncPattern.LJ1200.getPattern(), MESSAGE_LENGTH);
         mTransponderMessageFramer = new MessageFramer(SyncPattern.LJ1200_TRANSPONDER.getPattern(), MESSAGE_LENGTH);
@@ -21,6 +21,7 @@ import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.NRZDecoder;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.module.decode.afsk.AFSK1200DemodulatorModule;
 import io.github.dsheirer.module.decode.afsk.AbstractAFSKDecoder;
 
 /**
@@ -40,6 +41,17 @@ public class MDCDecoder extends AbstractAFSKDecoder
         init(aliasList);
     }
 
+    /**
+     * Constructs a decoder that receives decoded symbols from the processing chain's shared AFSK 1200 demodulator
+     * @param demodulator shared AFSK 1200 demodulator
+     * @param aliasList to assign aliases to decoded values
+     */
+    public MDCDecoder(AFSK1200DemodulatorModule demodulator, AliasList aliasList)
+    {
+        super(demodulator, AFSK1200Decoder.Output.INVERTED);
+        init(aliasList);
+    }
+
     protected MDCDecoder(AFSK1200Decoder decoder, AliasList aliasList)
     {
         super(decoder);
@@ -49,7 +61,7 @@ public class MDCDecoder extends AbstractAFSKDecoder
     private void init(AliasList aliasList)
     {
         mNRZDecoder = new NRZDecoder(NRZDecoder.MODE_INVERTED);
-        getDecoder().setSymbolProcessor(mNRZDecoder);
+        setSymbolProcessor(mNRZDecoder);
         mMessageFramer = new MessageFramer(SyncPattern.MDC1200.getPattern(), MESSAGE_LENGTH);
         mNRZDecoder.setListener(mMessageFramer);
         mMessageProcessor = new MDCMessageProcessor(aliasList);
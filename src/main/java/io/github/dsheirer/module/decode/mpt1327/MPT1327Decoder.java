@@ -53,7 +53,7 @@ public class MPT1327Decoder extends AbstractAFSKDecoder implements IBinarySymbol
 
     private void init(AliasList aliasList, Sync sync)
     {
-        getDecoder().setSymbolProcessor(this);
+        setSymbolProcessor(this);
 
         //Message framer for control channel messages
         mControlMessageFramer = new MessageFramer(sync.getControlSyncPattern().getPattern(), MESSAGE_LENGTH);
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.p25;
+
+import io.github.dsheirer.bits.BinaryMessage;
+
+/**
+ * P25 trellis coded modulation decoder for 196-bit (49 constellation) data blocks.
+ */
+public interface ITrellisDecoder
+{
+    /**
+     * Decodes the de-interleaved trellis encoded block located between the start and end indexes and overlays the
+     * decoded bits onto the message starting at the start index, with the remaining bits of the block cleared.
+     *
+     * @param message containing the encoded block
+     * @param start index of the encoded block
+     * @param end index of the encoded block
+     * @return true if the block was decoded, or false if the block could not be decoded due to excessive errors, in
+     * which case the message is not modified.
+     */
+    boolean decode(BinaryMessage message, int start, int end);
+
+    /**
+     * Prepares the decoder for disposal
+     */
+    void dispose();
+}
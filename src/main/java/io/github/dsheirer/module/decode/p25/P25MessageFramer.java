@@ -31,6 +31,7 @@ import io.github.dsheirer.module.decode.p25.message.tsbk.TSBKMessageFactory;
 import io.github.dsheirer.module.decode.p25.message.vselp.VSELP1Message;
 import io.github.dsheirer.module.decode.p25.message.vselp.VSELP2Message;
 import io.github.dsheirer.module.decode.p25.reference.DataUnitID;
+import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,6 +67,11 @@ public class P25MessageFramer implements Listener<Dibit>
     public static final int PDU3_END = 548;
     public static final int PDU3_DECODED_END = 448;
 
+    /**
+     * System property that selects the trellis decoder implementation (LEGACY or VITERBI)
+     */
+    public static final String TRELLIS_DECODER_PROPERTY = "p25.trellis.decoder";
+
     private SoftSyncDetector mPrimarySyncDetector = new SoftSyncDetector(
         FrameSync.P25_PHASE1_NORMAL.getSync(), SYNC_MATCH_THRESHOLD);
 
@@ -79,8 +85,8 @@ public class P25MessageFramer implements Listener<Dibit>
     private Listener<Message> mListener;
     private AliasList mAliasList;
 
-    private Trellis_1_2_Rate mHalfRate = new Trellis_1_2_Rate();
-    private Trellis_3_4_Rate mThreeQuarterRate = new Trellis_3_4_Rate();
+    private ITrellisDecoder mHalfRate;
+    private ITrellisDecoder mThreeQuarterRate;
     private BCH_63_16_11 mNIDDecoder = new BCH_63_16_11();
 
     /**
@@ -93,6 +99,11 @@ public class P25MessageFramer implements Listener<Dibit>
     {
         mAliasList = aliasList;
 
+        TrellisDecoderType trellisDecoderType = TrellisDecoderType.fromName(SystemProperties.getInstance()
+            .get(TRELLIS_DECODER_PROPERTY, TrellisDecoderType.VITERBI.name()), TrellisDecoderType.VITERBI);
+        mHalfRate = trellisDecoderType.createHalfRateDecoder();
+        mThreeQuarterRate = trellisDecoderType.createThreeQuarterRateDecoder();
+
         //Assign the sync detect listener to the matcher with a sync loss threshold equal to the longest message length
         mMatcher = new MultiSyncPatternMatcher(syncDetectListener, DataUnitID.LDU1.getMessageLength(), 48);
 
@@ -655,6 +666,7 @@ public class P25MessageFramer implements Listener<Dibit>
         {
             mMessage = null;
             mHalfRate.dispose();
+            mThreeQuarterRate.dispose();
         }
 
         /**
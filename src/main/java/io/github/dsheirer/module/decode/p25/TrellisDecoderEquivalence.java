@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.p25;
+
+import io.github.dsheirer.bits.BinaryMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Equivalence test for the Viterbi trellis decoder against the legacy 1/2 and 3/4 rate trellis decoders.
+ *
+ * Runs both decoders over a corpus of trellis encoded blocks built from a fixed random seed, with 0 to N bit errors
+ * per block, plus a corpus of random (uncoded) blocks and a captured 3/4 rate PDU block.  For each bit error count
+ * the test reports the number of blocks that each decoder recovered correctly, the number of blocks where both
+ * decoders produced identical output and the decode time.
+ *
+ * The legacy decoders are not maximum likelihood decoders, so the two decoders can legitimately produce different
+ * outputs for errored blocks.  The test fails (exit status 1) if the decoders disagree on any error-free block, or if
+ * the Viterbi decoder output is ever further (hamming distance) from the received block than the legacy decoder
+ * output, or if the Viterbi decoder rejects a block that the legacy decoder recovered.
+ *
+ * Usage: TrellisDecoderEquivalence [blocks per error count] [maximum bit errors] [seed]
+ */
+public class TrellisDecoderEquivalence
+{
+    private final static Logger mLog = LoggerFactory.getLogger(TrellisDecoderEquivalence.class);
+
+    private static final int CONSTELLATION_COUNT = ViterbiTrellisDecoder.CONSTELLATION_COUNT;
+    private static final int BLOCK_LENGTH = ViterbiTrellisDecoder.BLOCK_LENGTH;
+
+    /* 3/4 rate PDU block captured off the air (see Trellis_3_4_Rate test harness) */
+    private static final String CAPTURED_THREE_QUARTER_RATE_BLOCK = "00100110000011001010010101111101000101010" +
+        "1101001111111001010110001110110110001100000000000000000000001111111010110000010000011110001100000000000" +
+        "1010101111011001000000000101101100000001010001111011000100001010010001";
+
+    private int mBlockCount;
+    private int mMaxBitErrors;
+    private long mSeed;
+    private boolean mFailed;
+
+    public TrellisDecoderEquivalence(int blockCount, int maxBitErrors, long seed)
+    {
+        mBlockCount = blockCount;
+        mMaxBitErrors = maxBitErrors;
+        mSeed = seed;
+    }
+
+    /**
+     * Trellis encodes the input symbols starting from state 0
+     *
+     * @param inputs symbol values, with the final symbol set to 0 (flush)
+     * @param inputBits per input symbol
+     * @param encoder table indexed by (state << inputBits | input)
+     * @return encoded block
+     */
+    public static BinaryMessage encode(int[] inputs, int inputBits, int[] encoder)
+    {
+        BinaryMessage encoded = new BinaryMessage(BLOCK_LENGTH);
+
+        int state = 0;
+
+        for(int x = 0; x < CONSTELLATION_COUNT; x++)
+        {
+            encoded.load(x * 4, 4, encoder[(state << inputBits) | inputs[x]]);
+            state = inputs[x];
+        }
+
+        return encoded;
+    }
+
+    /**
+     * Packs the input symbols into the expected decoder output bits
+     */
+    private static BinaryMessage getExpected(int[] inputs, int inputBits)
+    {
+        BinaryMessage expected = new BinaryMessage(BLOCK_LENGTH);
+
+        for(int x = 0; x < CONSTELLATION_COUNT; x++)
+        {
+            expected.load(x * inputBits, inputBits, inputs[x]);
+        }
+
+        return expected;
+    }
+
+    /**
+     * Legacy encoder table for the rate, built from the legacy decoder constellation definitions
+     */
+    private static int[] getEncoder(boolean halfRate)
+    {
+        if(halfRate)
+        {
+            int[] encoder = new int[16];
+
+            for(Trellis_1_2_Rate.Constellation constellation: Trellis_1_2_Rate.Constellation.values())
+            {
+                encoder[(constellation.getState().getLowValue() << 2) | constellation.getInput().getLowValue()] =
+                    constellation.getTransmittedValue();
+            }
+
+            return encoder;
+        }
+
+        //The legacy constructor populates the static constellation to input tribit map
+        new Trellis_3_4_Rate();
+
+        int[] encoder = new int[64];
+
+        for(Trellis_3_4_Rate.Con constellation: Trellis_3_4_Rate.Con.values())
+        {
+            Trellis_3_4_Rate.Tribit[] inputs = Trellis_3_4_Rate.INPUT_FROM_CONSTELLATION_MAP.get(constellation);
+
+            for(int state = 0; state < 8; state++)
+            {
+                if(inputs[state] != null)
+                {
+                    encoder[(state << 3) | inputs[state].getValue()] = constellation.getTransmittedValue();
+                }
+            }
+        }
+
+        return encoder;
+    }
+
+    /**
+     * Runs the corpus for the 1/2 or 3/4 rate decoders
+     */
+    private void run(boolean halfRate)
+    {
+        String label = halfRate ? "1/2 Rate" : "3/4 Rate";
+        int inputBits = halfRate ? 2 : 3;
+        int[] encoder = getEncoder(halfRate);
+
+        ITrellisDecoder legacy = halfRate ? new Trellis_1_2_Rate() : new Trellis_3_4_Rate();
+        ITrellisDecoder viterbi = halfRate ? ViterbiTrellisDecoder.createHalfRateDecoder() :
+            ViterbiTrellisDecoder.createThreeQuarterRateDecoder();
+
+        Random random = new Random(mSeed);
+        int[] inputs = new int[CONSTELLATION_COUNT];
+
+        for(int errors = 0; errors <= mMaxBitErrors; errors++)
+        {
+            Result result = new Result(inputBits, encoder);
+
+            for(int block = 0; block < mBlockCount; block++)
+            {
+                for(int x = 0; x < CONSTELLATION_COUNT - 1; x++)
+                {
+                    inputs[x] = random.nextInt(1 << inputBits);
+                }
+
+                inputs[CONSTELLATION_COUNT - 1] = 0;
+
+                BinaryMessage encoded = encode(inputs, inputBits, encoder);
+
+                BitSet flipped = new BitSet(BLOCK_LENGTH);
+
+                //Flip distinct bit positions
+                while(flipped.cardinality() < errors)
+                {
+                    flipped.set(random.nextInt(BLOCK_LENGTH));
+                }
+
+                encoded.xor(flipped);
+
+                result.add(encoded, getExpected(inputs, inputBits), legacy, viterbi);
+            }
+
+            log(label, errors + " bit errors", result);
+
+            if(errors == 0 && result.mIdentical != mBlockCount)
+            {
+                mFailed = true;
+            }
+        }
+
+        //Random blocks that are not trellis encoded
+        Result noise = new Result(inputBits, encoder);
+
+        for(int block = 0; block < mBlockCount; block++)
+        {
+            BinaryMessage encoded = new BinaryMessage(BLOCK_LENGTH);
+
+            for(int x = 0; x < BLOCK_LENGTH; x++)
+            {
+                if(random.nextBoolean())
+                {
+                    encoded.set(x);
+                }
+            }
+
+            noise.add(encoded, null, legacy, viterbi);
+        }
+
+        log(label, "random noise", noise);
+
+        if(!halfRate)
+        {
+            Result captured = new Result(inputBits, encoder);
+            captured.add(BinaryMessage.load(CAPTURED_THREE_QUARTER_RATE_BLOCK), null, legacy, viterbi);
+            log(label, "captured PDU block", captured);
+        }
+    }
+
+    private void log(String label, String corpus, Result result)
+    {
+        mLog.info(label + " [" + corpus + "] blocks [" + result.mCount + "]" +
+            " accepted legacy/viterbi [" + result.mLegacyAccepted + "/" + result.mViterbiAccepted + "]" +
+            " correct legacy/viterbi [" + result.mLegacyCorrect + "/" + result.mViterbiCorrect + "]" +
+            " identical [" + result.mIdentical + "]" +
+            " equal distance [" + result.mEqualDistance + "]" +
+            " regressions [" + result.mRegressions + "]" +
+            " legacy/viterbi ns per block [" + result.getLegacyNanos() + "/" + result.getViterbiNanos() + "]");
+
+        if(result.mRegressions > 0)
+        {
+            mFailed = true;
+        }
+    }
+
+    public boolean run()
+    {
+        run(true);
+        run(false);
+
+        mLog.info(mFailed ? "FAILED" : "PASSED");
+
+        return !mFailed;
+    }
+
+    /**
+     * Decode results for a corpus.
+     *
+     * Blocks where both decoders produce different outputs that are each the same hamming distance from the received
+     * block are counted as equal distance outcomes (ie equally likely decodes).  A regression is a block where the
+     * legacy decoder's output is closer to the received block than the Viterbi decoder's output, or where the
+     * legacy decoder recovered the block correctly and the Viterbi decoder rejected the block.
+     */
+    private static class Result
+    {
+        private int mInputBits;
+        private int[] mEncoder;
+        private int mCount;
+        private int mLegacyAccepted;
+        private int mViterbiAccepted;
+        private int mLegacyCorrect;
+        private int mViterbiCorrect;
+        private int mIdentical;
+        private int mEqualDistance;
+        private int mRegressions;
+        private long mLegacyNanos;
+        private long mViterbiNanos;
+
+        public Result(int inputBits, int[] encoder)
+        {
+            mInputBits = inputBits;
+            mEncoder = encoder;
+        }
+
+        /**
+         * Decodes the encoded block with both decoders and compares the decoded outputs to each other and to the
+         * expected output, when specified.
+         */
+        public void add(BinaryMessage encoded, BinaryMessage expected, ITrellisDecoder legacy, ITrellisDecoder viterbi)
+        {
+            mCount++;
+
+            int decodedLength = CONSTELLATION_COUNT * mInputBits;
+
+            BinaryMessage legacyMessage = encoded.copy();
+            BinaryMessage viterbiMessage = encoded.copy();
+
+            long start = System.nanoTime();
+            boolean legacyAccepted = legacy.decode(legacyMessage, 0, BLOCK_LENGTH);
+            mLegacyNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            boolean viterbiAccepted = viterbi.decode(viterbiMessage, 0, BLOCK_LENGTH);
+            mViterbiNanos += System.nanoTime() - start;
+
+            boolean legacyCorrect = legacyAccepted && expected != null &&
+                matches(legacyMessage, expected, decodedLength);
+            boolean viterbiCorrect = viterbiAccepted && expected != null &&
+                matches(viterbiMessage, expected, decodedLength);
+
+            if(legacyAccepted)
+            {
+                mLegacyAccepted++;
+            }
+
+            if(viterbiAccepted)
+            {
+                mViterbiAccepted++;
+            }
+
+            if(legacyCorrect)
+            {
+                mLegacyCorrect++;
+            }
+
+            if(viterbiCorrect)
+            {
+                mViterbiCorrect++;
+            }
+
+            if(legacyAccepted == viterbiAccepted &&
+                (!legacyAccepted || matches(legacyMessage, viterbiMessage, decodedLength)))
+            {
+                mIdentical++;
+            }
+            else if(legacyAccepted && viterbiAccepted)
+            {
+                int legacyDistance = getDistance(legacyMessage, encoded);
+                int viterbiDistance = getDistance(viterbiMessage, encoded);
+
+                if(legacyDistance == viterbiDistance)
+                {
+                    mEqualDistance++;
+                }
+                else if(legacyDistance < viterbiDistance)
+                {
+                    mRegressions++;
+                }
+            }
+            else if(legacyCorrect)
+            {
+                mRegressions++;
+            }
+        }
+
+        /**
+         * Hamming distance between the received block and the re-encoded decoder output
+         */
+        private int getDistance(BinaryMessage decoded, BinaryMessage received)
+        {
+            int[] inputs = new int[CONSTELLATION_COUNT];
+
+            for(int x = 0; x < CONSTELLATION_COUNT; x++)
+            {
+                inputs[x] = decoded.getInt(x * mInputBits, (x + 1) * mInputBits - 1);
+            }
+
+            BinaryMessage reencoded = encode(inputs, mInputBits, mEncoder);
+            reencoded.xor(received);
+
+            return reencoded.get(0, BLOCK_LENGTH).cardinality();
+        }
+
+        private static boolean matches(BinaryMessage a, BinaryMessage b, int length)
+        {
+            for(int x = 0; x < length; x++)
+            {
+                if(a.get(x) != b.get(x))
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        public long getLegacyNanos()
+        {
+            return mCount > 0 ? mLegacyNanos / mCount : 0;
+        }
+
+        public long getViterbiNanos()
+        {
+            return mCount > 0 ? mViterbiNanos / mCount : 0;
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        int blockCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int maxBitErrors = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        boolean passed = new TrellisDecoderEquivalence(blockCount, maxBitErrors, seed).run();
+
+        System.exit(passed ? 0 : 1);
+    }
+}
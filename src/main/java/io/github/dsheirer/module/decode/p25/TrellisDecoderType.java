@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.p25;
+
+/**
+ * P25 trellis decoder implementations that can be selected for use by the P25 message framer.
+ */
+public enum TrellisDecoderType
+{
+    LEGACY("Legacy"),
+    VITERBI("Viterbi");
+
+    private String mLabel;
+
+    TrellisDecoderType(String label)
+    {
+        mLabel = label;
+    }
+
+    /**
+     * Creates a 1/2 rate trellis decoder of this type
+     */
+    public ITrellisDecoder createHalfRateDecoder()
+    {
+        if(this == LEGACY)
+        {
+            return new Trellis_1_2_Rate();
+        }
+
+        return ViterbiTrellisDecoder.createHalfRateDecoder();
+    }
+
+    /**
+     * Creates a 3/4 rate trellis decoder of this type
+     */
+    public ITrellisDecoder createThreeQuarterRateDecoder()
+    {
+        if(this == LEGACY)
+        {
+            return new Trellis_3_4_Rate();
+        }
+
+        return ViterbiTrellisDecoder.createThreeQuarterRateDecoder();
+    }
+
+    @Override
+    public String toString()
+    {
+        return mLabel;
+    }
+
+    /**
+     * Parses the trellis decoder type from the enum name, or returns the default value if the name is not recognized.
+     *
+     * @param name of the trellis decoder type
+     * @param defaultType to return if the name can't be parsed
+     * @return parsed type or the default type
+     */
+    public static TrellisDecoderType fromName(String name, TrellisDecoderType defaultType)
+    {
+        if(name != null)
+        {
+            for(TrellisDecoderType type: values())
+            {
+                if(type.name().equalsIgnoreCase(name))
+                {
+                    return type;
+                }
+            }
+        }
+
+        return defaultType;
+    }
+}
@@ -8,7 +8,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Random;
 
-public class Trellis_1_2_Rate
+public class Trellis_1_2_Rate implements ITrellisDecoder
 {
 	public final static int MAX_ERROR_THRESHOLD = 7;
 	
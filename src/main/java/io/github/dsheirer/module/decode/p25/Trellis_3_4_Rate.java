@@ -10,7 +10,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
-public class Trellis_3_4_Rate
+public class Trellis_3_4_Rate implements ITrellisDecoder
 {
 	private final static Logger mLog = 
 			LoggerFactory.getLogger( Trellis_3_4_Rate.class );
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.decode.p25;
+
+import io.github.dsheirer.bits.BinaryMessage;
+
+import java.util.Arrays;
+
+/**
+ * Table-driven Viterbi decoder for P25 1/2 rate (dibit) and 3/4 rate (tribit) trellis coded 196-bit data blocks.
+ *
+ * Each block contains 49 transmitted 4-bit constellations.  The encoder state is the previous input symbol, starting
+ * from state 0, so the trellis has 4 (1/2 rate) or 8 (3/4 rate) states.  The decoder unpacks the block into an array
+ * of constellation values and runs a hard decision Viterbi search using a precomputed hamming distance branch metric
+ * table and a state/input to constellation encoder table.  Survivor predecessor states are stored in a flat array and
+ * all working storage is allocated once per decoder instance, so decoding does not allocate any objects.
+ *
+ * The decoder produces the maximum likelihood input symbol sequence for a path that terminates in state 0 (ie the
+ * flushing dibit or tribit).  Ties between equal cost paths are resolved in favor of the lowest predecessor state.
+ * The 1/2 rate decoder rejects blocks where the path requires more than a maximum number of bit corrections.
+ *
+ * This decoder is not thread safe.
+ */
+public class ViterbiTrellisDecoder implements ITrellisDecoder
+{
+    public static final int CONSTELLATION_COUNT = 49;
+    public static final int BLOCK_LENGTH = CONSTELLATION_COUNT * 4;
+
+    /* Maximum bit corrections for an accepted 1/2 rate block */
+    public static final int HALF_RATE_MAX_BIT_ERRORS = 12;
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 2;
+
+    /* Hamming distance between each received (row) and expected (column) constellation value */
+    private static final int[][] BRANCH_METRICS = new int[16][16];
+
+    static
+    {
+        for(int received = 0; received < 16; received++)
+        {
+            for(int expected = 0; expected < 16; expected++)
+            {
+                BRANCH_METRICS[received][expected] = Integer.bitCount(received ^ expected);
+            }
+        }
+    }
+
+    /* 1/2 rate transmitted constellation values indexed by (state dibit << 2 | input dibit) */
+    private static final int[] HALF_RATE_ENCODER =
+        {  2, 12,  1, 15,
+          14,  0, 13,  3,
+           9,  7, 10,  4,
+           5, 11,  6,  8 };
+
+    /* 3/4 rate transmitted constellation values indexed by (state tribit << 3 | input tribit) */
+    private static final int[] THREE_QUARTER_RATE_ENCODER =
+        {  2, 13, 14,  1,  7,  8, 11,  4,
+          14,  1,  7,  8, 11,  4,  2, 13,
+          10,  5,  6,  9, 15,  0,  3, 12,
+           6,  9, 15,  0,  3, 12, 10,  5,
+          15,  0,  3, 12, 10,  5,  6,  9,
+           3, 12, 10,  5,  6,  9, 15,  0,
+           7,  8, 11,  4,  2, 13, 14,  1,
+          11,  4,  2, 13, 14,  1,  7,  8 };
+
+    private final int mInputBits;
+    private final int mStateCount;
+    private final int[] mEncoder;
+    private final int[] mInputLookup;
+    private final int mMaxBitErrors;
+
+    private final int[] mConstellations = new int[CONSTELLATION_COUNT];
+    private final int[] mDecoded = new int[CONSTELLATION_COUNT];
+    private final byte[] mSurvivors;
+    private int[] mPathMetrics;
+    private int[] mNextPathMetrics;
+    private int mBitErrorCount;
+
+    /**
+     * Constructs an instance.
+     *
+     * @param inputBits per input symbol (2 for 1/2 rate or 3 for 3/4 rate)
+     * @param encoder table of transmitted constellation values indexed by (state << inputBits | input)
+     * @param maxBitErrors maximum number of bit corrections for a block to be decoded successfully
+     */
+    private ViterbiTrellisDecoder(int inputBits, int[] encoder, int maxBitErrors)
+    {
+        mInputBits = inputBits;
+        mStateCount = 1 << inputBits;
+        mEncoder = encoder;
+        mMaxBitErrors = maxBitErrors;
+
+        //Reverse of the encoder table: input symbol indexed by (state << 4 | constellation), or -1 for no transition
+        mInputLookup = new int[mStateCount << 4];
+        Arrays.fill(mInputLookup, -1);
+
+        for(int state = 0; state < mStateCount; state++)
+        {
+            for(int input = 0; input < mStateCount; input++)
+            {
+                mInputLookup[state << 4 | encoder[state << inputBits | input]] = input;
+            }
+        }
+
+        mSurvivors = new byte[CONSTELLATION_COUNT * mStateCount];
+        mPathMetrics = new int[mStateCount];
+        mNextPathMetrics = new int[mStateCount];
+    }
+
+    /**
+     * Creates a 1/2 rate decoder for TSBK and confirmed/unconfirmed PDU header and data blocks
+     */
+    public static ViterbiTrellisDecoder createHalfRateDecoder()
+    {
+        return new ViterbiTrellisDecoder(2, HALF_RATE_ENCODER, HALF_RATE_MAX_BIT_ERRORS);
+    }
+
+    /**
+     * Creates a 3/4 rate decoder for confirmed PDU data blocks
+     */
+    public static ViterbiTrellisDecoder createThreeQuarterRateDecoder()
+    {
+        return new ViterbiTrellisDecoder(3, THREE_QUARTER_RATE_ENCODER, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Number of bit corrections applied to the most recently decoded block
+     */
+    public int getBitErrorCount()
+    {
+        return mBitErrorCount;
+    }
+
+    @Override
+    public boolean decode(BinaryMessage message, int start, int end)
+    {
+        unpack(message, start);
+
+        if(followErrorFreePath())
+        {
+            mBitErrorCount = 0;
+        }
+        else
+        {
+            search();
+
+            //The encoder is flushed back to state 0 at the end of the block
+            mBitErrorCount = mPathMetrics[0];
+
+            if(mBitErrorCount > mMaxBitErrors)
+            {
+                return false;
+            }
+
+            traceback(0);
+        }
+
+        message.clear(start, end);
+
+        int mask = 1 << (mInputBits - 1);
+        int pointer = start;
+
+        for(int x = 0; x < CONSTELLATION_COUNT; x++)
+        {
+            int input = mDecoded[x];
+
+            for(int bit = 0; bit < mInputBits; bit++)
+            {
+                if((input & (mask >> bit)) != 0)
+                {
+                    message.set(pointer);
+                }
+
+                pointer++;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Unpacks the 196 block bits into 49 4-bit constellation values, visiting only the set bits
+     */
+    private void unpack(BinaryMessage message, int start)
+    {
+        Arrays.fill(mConstellations, 0);
+
+        int end = start + BLOCK_LENGTH;
+
+        for(int index = message.nextSetBit(start); index >= 0 && index < end; index = message.nextSetBit(index + 1))
+        {
+            int offset = index - start;
+            mConstellations[offset >> 2] |= 8 >> (offset & 3);
+        }
+    }
+
+    /**
+     * Fast path for error-free blocks: follows the trellis from state 0 using the received constellations.  When every
+     * constellation is a valid transition and the path ends in state 0, it is the only zero cost path and the decoded
+     * symbols are identical to the full search.
+     *
+     * @return true if the block is error-free and the decoded symbols were recovered
+     */
+    private boolean followErrorFreePath()
+    {
+        int state = 0;
+
+        for(int x = 0; x < CONSTELLATION_COUNT; x++)
+        {
+            int input = mInputLookup[state << 4 | mConstellations[x]];
+
+            if(input < 0)
+            {
+                return false;
+            }
+
+            mDecoded[x] = input;
+            state = input;
+        }
+
+        return state == 0;
+    }
+
+    /**
+     * Runs the add-compare-select search across all constellations.  Path metrics for the final constellation are
+     * left in the path metrics array.
+     */
+    private void search()
+    {
+        int[] pathMetrics = mPathMetrics;
+        int[] nextPathMetrics = mNextPathMetrics;
+
+        Arrays.fill(pathMetrics, UNREACHABLE);
+        pathMetrics[0] = 0;
+
+        for(int x = 0; x < CONSTELLATION_COUNT; x++)
+        {
+            int[] branchMetrics = BRANCH_METRICS[mConstellations[x]];
+            int survivorOffset = x * mStateCount;
+
+            Arrays.fill(nextPathMetrics, UNREACHABLE);
+
+            for(int state = 0; state < mStateCount; state++)
+            {
+                int pathMetric = pathMetrics[state];
+
+                if(pathMetric < UNREACHABLE)
+                {
+                    int encoderOffset = state << mInputBits;
+
+                    //The next state is the input symbol
+                    for(int input = 0; input < mStateCount; input++)
+                    {
+                        int metric = pathMetric + branchMetrics[mEncoder[encoderOffset + input]];
+
+                        if(metric < nextPathMetrics[input])
+                        {
+                            nextPathMetrics[input] = metric;
+                            mSurvivors[survivorOffset + input] = (byte)state;
+                        }
+                    }
+                }
+            }
+
+            int[] swap = pathMetrics;
+            pathMetrics = nextPathMetrics;
+            nextPathMetrics = swap;
+        }
+
+        mPathMetrics = pathMetrics;
+        mNextPathMetrics = nextPathMetrics;
+    }
+
+    /**
+     * Recovers the decoded input symbols by walking the survivor predecessor states back from the final state
+     */
+    private void traceback(int finalState)
+    {
+        int state = finalState;
+
+        for(int x = CONSTELLATION_COUNT - 1; x >= 0; x--)
+        {
+            mDecoded[x] = state;
+            state = mSurvivors[x * mStateCount + state];
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        //No resources to release
+    }
+}
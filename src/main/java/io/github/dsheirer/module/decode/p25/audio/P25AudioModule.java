@@ -160,7 +160,7 @@ public class P25AudioModule extends Module implements Listener<Message>, IAudioP
                 audio = mGain.apply(audio);
 
                 ReusableAudioPacket audioPacket = mAudioPacketQueue.getBuffer(audio.length);
-                audioPacket.setMetadata(mMetadata.copyOf());
+                audioPacket.setMetadata(mMetadata.getSnapshot());
                 audioPacket.loadAudioFrom(audio);
 
                 mAudioPacketListener.receive(audioPacket);
@@ -277,7 +277,7 @@ public class P25AudioModule extends Module implements Listener<Message>, IAudioP
                 if(mAudioPacketListener != null)
                 {
                     ReusableAudioPacket endAudioPacket = mAudioPacketQueue.getEndAudioBuffer();
-                    endAudioPacket.setMetadata(mMetadata.copyOf());
+                    endAudioPacket.setMetadata(mMetadata.getSnapshot());
                     endAudioPacket.incrementUserCount();
                     mAudioPacketListener.receive(endAudioPacket);
                 }
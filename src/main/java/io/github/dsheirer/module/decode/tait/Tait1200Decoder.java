@@ -21,6 +21,7 @@ import io.github.dsheirer.bits.MessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.module.decode.DecoderType;
+import io.github.dsheirer.module.decode.afsk.AFSK1200DemodulatorModule;
 import io.github.dsheirer.module.decode.afsk.AbstractAFSKDecoder;
 
 /**
@@ -48,9 +49,20 @@ public class Tait1200Decoder extends AbstractAFSKDecoder implements IBinarySymbo
         init(aliasList);
     }
 
+    /**
+     * Constructs a decoder that receives decoded symbols from the processing chain's shared AFSK 1200 demodulator
+     * @param demodulator shared AFSK 1200 demodulator
+     * @param aliasList to assign aliases to decoded values
+     */
+    public Tait1200Decoder(AFSK1200DemodulatorModule demodulator, AliasList aliasList)
+    {
+        super(demodulator, AFSK1200Decoder.Output.NORMAL);
+        init(aliasList);
+    }
+
     private void init(AliasList aliasList)
     {
-        getDecoder().setSymbolProcessor(this);
+        setSymbolProcessor(this);
 
         mMessageFramerGPS = new MessageFramer(SyncPattern.TAIT_CCDI_GPS_MESSAGE.getPattern(), MESSAGE_LENGTH);
         mMessageFramerANI = new MessageFramer(SyncPattern.TAIT_SELCAL_MESSAGE.getPattern(), MESSAGE_LENGTH);
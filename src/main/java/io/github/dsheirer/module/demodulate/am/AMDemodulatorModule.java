@@ -21,8 +21,8 @@ import io.github.dsheirer.dsp.filter.Window;
 import io.github.dsheirer.dsp.filter.Window.WindowType;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
-import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexRingFIRFilter;
+import io.github.dsheirer.dsp.filter.fir.real.RealRingFIRFilter;
 import io.github.dsheirer.dsp.filter.resample.RealResampler;
 import io.github.dsheirer.dsp.gain.AutomaticGainControl;
 import io.github.dsheirer.module.Module;
@@ -48,9 +48,9 @@ public class AMDemodulatorModule extends Module implements ISourceEventListener,
 {
     private final static Logger mLog = LoggerFactory.getLogger(AMDemodulatorModule.class);
     private static float[] mLowPassFilterTaps;
-    private ComplexFIRFilter2 mIQFilter;
+    private ComplexRingFIRFilter mIQFilter;
     private AMDemodulator mDemodulator;
-    private RealFIRFilter2 mLowPassFilter;
+    private RealRingFIRFilter mLowPassFilter;
     private AutomaticGainControl mAGC = new AutomaticGainControl();
     private double mChannelBandwidth;
     private double mOutputSampleRate;
@@ -102,7 +102,7 @@ public class AMDemodulatorModule extends Module implements ISourceEventListener,
             }
         }
 
-        mLowPassFilter = new RealFIRFilter2(mLowPassFilterTaps);
+        mLowPassFilter = new RealRingFIRFilter(mLowPassFilterTaps);
     }
 
     @Override
@@ -249,7 +249,7 @@ public class AMDemodulatorModule extends Module implements ISourceEventListener,
                         Window.WindowType.HAMMING, true);
                 }
 
-                mIQFilter = new ComplexFIRFilter2(filterTaps);
+                mIQFilter = new ComplexRingFIRFilter(filterTaps);
 
                 mResampler = new RealResampler(sampleRate, mOutputSampleRate, 2000, 1000);
 
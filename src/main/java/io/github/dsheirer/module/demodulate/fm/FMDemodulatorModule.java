@@ -19,7 +19,7 @@ import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.Window;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexRingFIRFilter;
 import io.github.dsheirer.dsp.filter.resample.RealResampler;
 import io.github.dsheirer.dsp.fm.FMDemodulator;
 import io.github.dsheirer.module.Module;
@@ -43,7 +43,7 @@ public class FMDemodulatorModule extends Module implements ISourceEventListener,
 {
     private final static Logger mLog = LoggerFactory.getLogger(FMDemodulatorModule.class);
 
-    private ComplexFIRFilter2 mIQFilter;
+    private ComplexRingFIRFilter mIQFilter;
     private FMDemodulator mDemodulator = new FMDemodulator();
     private RealResampler mResampler;
     private SourceEventProcessor mSourceEventProcessor = new SourceEventProcessor();
@@ -200,7 +200,7 @@ public class FMDemodulatorModule extends Module implements ISourceEventListener,
                         Window.WindowType.HAMMING, true);
                 }
 
-                mIQFilter = new ComplexFIRFilter2(filterTaps);
+                mIQFilter = new ComplexRingFIRFilter(filterTaps);
 
                 mResampler = new RealResampler(sampleRate, mOutputSampleRate, 2000, 1000);
 
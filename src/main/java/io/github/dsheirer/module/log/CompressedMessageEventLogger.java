@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.message.IMessageListener;
+import io.github.dsheirer.message.Message;
+import io.github.dsheirer.module.log.binary.MessageLogBlockEncoder;
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.sample.Listener;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Binary message event logger that writes messages to a compressed, time-indexed binary log file instead of a text
+ * file.  Messages are packed into blocks with delta-encoded timestamps and each block is compressed when it reaches
+ * the block size threshold or when the block interval elapses.  A block index is written when the file is closed so
+ * that the MessageLogReader can read a time range without scanning the whole file.  Use the MessageLogConverter to
+ * convert a log file to the text binary message log format.
+ *
+ * Configuration (system properties):
+ *   event.log.binary.block.interval.seconds - maximum age of a partially filled block before it is written (default 30)
+ */
+public class CompressedMessageEventLogger extends EventLogger implements IMessageListener, Listener<Message>
+{
+    public static final String BLOCK_INTERVAL_PROPERTY = "event.log.binary.block.interval.seconds";
+    private static final int DEFAULT_BLOCK_INTERVAL_SECONDS = 30;
+
+    private MessageLogBlockEncoder mEncoder = new MessageLogBlockEncoder();
+    private String mChannelName;
+    private long mBlockInterval;
+    private long mBlockStarted;
+
+    /**
+     * Constructs an instance.
+     *
+     * @param logDirectory for log files
+     * @param fileNameSuffix for log files
+     * @param channelName to record in the log file header and message records
+     */
+    public CompressedMessageEventLogger(Path logDirectory, String fileNameSuffix, String channelName)
+    {
+        super(logDirectory, fileNameSuffix);
+
+        mChannelName = channelName;
+        mBlockInterval = SystemProperties.getInstance().get(BLOCK_INTERVAL_PROPERTY,
+            DEFAULT_BLOCK_INTERVAL_SECONDS) * 1000L;
+    }
+
+    @Override
+    public Listener<Message> getMessageListener()
+    {
+        return this;
+    }
+
+    @Override
+    public void dispose()
+    {
+        super.stop();
+    }
+
+    @Override
+    public void reset()
+    {
+    }
+
+    @Override
+    public void receive(Message message)
+    {
+        enqueue(message);
+    }
+
+    @Override
+    public String getHeader()
+    {
+        return "BINARY Compressed Message Logger";
+    }
+
+    @Override
+    protected void writeHeader(FileChannel channel) throws IOException
+    {
+        mEncoder.writeFileHeader(channel, mChannelName, System.currentTimeMillis());
+    }
+
+    @Override
+    protected void writeQueued(EventLogWriter writer, FileChannel channel) throws IOException
+    {
+        Object entry = poll();
+
+        while(entry != null)
+        {
+            if(entry instanceof Message)
+            {
+                Message message = (Message)entry;
+
+                if(mEncoder.getRecordCount() == 0)
+                {
+                    mBlockStarted = System.currentTimeMillis();
+                }
+
+                mEncoder.add(message.getTimeReceived(), mChannelName, message.isValid(), message.getBinaryMessage());
+
+                if(mEncoder.isFull())
+                {
+                    mEncoder.writeBlock(channel);
+                }
+            }
+
+            entry = poll();
+        }
+
+        if(mEncoder.getRecordCount() > 0 && System.currentTimeMillis() - mBlockStarted >= mBlockInterval)
+        {
+            mEncoder.writeBlock(channel);
+        }
+    }
+
+    @Override
+    protected void writeTrailer(FileChannel channel) throws IOException
+    {
+        mEncoder.writeIndex(channel);
+    }
+}
@@ -32,6 +32,7 @@ public class EventLogConfigurationEditor extends Editor<Channel>
     private static final long serialVersionUID = 1L;
     
     private JCheckBox mBinaryLogger;
+    private JCheckBox mCompressedBinaryLogger;
     private JCheckBox mDecodedLogger;
     private JCheckBox mCallEventLogger;
 
@@ -55,6 +56,18 @@ public class EventLogConfigurationEditor extends Editor<Channel>
 			}
 		} );
 		add( mBinaryLogger );
+
+		mCompressedBinaryLogger = new JCheckBox( "Compressed Binary Messages" );
+		mCompressedBinaryLogger.setEnabled( false );
+		mCompressedBinaryLogger.addActionListener( new ActionListener()
+		{
+			@Override
+			public void actionPerformed( ActionEvent e )
+			{
+				setModified( true );
+			}
+		} );
+		add( mCompressedBinaryLogger );
 		
 	    mDecodedLogger = new JCheckBox( "Decoded Messages" );
 	    mDecodedLogger.setEnabled( false );
@@ -97,6 +110,10 @@ public class EventLogConfigurationEditor extends Editor<Channel>
 			{
 				config.addLogger( EventLogType.BINARY_MESSAGE );
 			}
+			if( mCompressedBinaryLogger.isSelected() )
+			{
+				config.addLogger( EventLogType.BINARY_MESSAGE_COMPRESSED );
+			}
 			if( mDecodedLogger.isSelected() )
 			{
 				config.addLogger( EventLogType.DECODED_MESSAGE );
@@ -121,6 +138,7 @@ public class EventLogConfigurationEditor extends Editor<Channel>
 
 			List<EventLogType> loggers = getItem().getEventLogConfiguration().getLoggers();
     		mBinaryLogger.setSelected( loggers.contains( EventLogType.BINARY_MESSAGE ) );
+    		mCompressedBinaryLogger.setSelected( loggers.contains( EventLogType.BINARY_MESSAGE_COMPRESSED ) );
     		mDecodedLogger.setSelected(	loggers.contains( EventLogType.DECODED_MESSAGE ) );
     		mCallEventLogger.setSelected( loggers.contains( EventLogType.CALL_EVENT ) );
 		}
@@ -136,6 +154,11 @@ public class EventLogConfigurationEditor extends Editor<Channel>
 		{
 			mBinaryLogger.setEnabled( enabled );
 		}
+
+		if( mCompressedBinaryLogger.isEnabled() != enabled )
+		{
+			mCompressedBinaryLogger.setEnabled( enabled );
+		}
 		
 		if( mDecodedLogger.isEnabled() != enabled )
 		{
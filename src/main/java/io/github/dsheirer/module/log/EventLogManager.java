@@ -58,12 +58,14 @@ public class EventLogManager
 
 		sb.append( prefix );
 		sb.append( eventLogType.getFileSuffix() );
-		sb.append( ".log" );
+		sb.append( eventLogType.getFileExtension() );
 
 		switch( eventLogType )
 		{
 			case BINARY_MESSAGE:
 				return new MessageEventLogger( mDirectory, sb.toString(), MessageEventLogger.Type.BINARY );
+			case BINARY_MESSAGE_COMPRESSED:
+				return new CompressedMessageEventLogger( mDirectory, sb.toString(), prefix );
 			case DECODED_MESSAGE:
 				return new MessageEventLogger( mDirectory, sb.toString(), MessageEventLogger.Type.DECODED );
 			case CALL_EVENT:
@@ -17,20 +17,29 @@
  ******************************************************************************/
 package io.github.dsheirer.module.log;
 
+import io.github.dsheirer.module.log.binary.MessageLogFormat;
 
 public enum EventLogType
 {
     BINARY_MESSAGE( "Binary Messages", "_binary_messages" ),
+    BINARY_MESSAGE_COMPRESSED( "Compressed Binary Messages", "_binary_messages", MessageLogFormat.FILE_EXTENSION ),
     DECODED_MESSAGE( "Decoded Messages", "_decoded_messages" ),
     CALL_EVENT( "Call Events", "_call_events" );
     
     private String mDisplayString;
     private String mFileSuffix;
+    private String mFileExtension;
     
-    EventLogType( String displayString, String fileSuffix )
+    EventLogType( String displayString, String fileSuffix, String fileExtension )
     {
         mDisplayString = displayString;
         mFileSuffix = fileSuffix;
+        mFileExtension = fileExtension;
+    }
+
+    EventLogType( String displayString, String fileSuffix )
+    {
+        this( displayString, fileSuffix, ".log" );
     }
     
     public String getDisplayString()
@@ -43,6 +52,14 @@ public enum EventLogType
     	return mFileSuffix;
     }
 
+    /**
+     * File name extension for log files of this type
+     */
+    public String getFileExtension()
+    {
+        return mFileExtension;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single background writer for all event loggers.
+ *
+ * Event loggers queue formatted log lines on the calling (decoder) thread without blocking.  This writer periodically
+ * drains the queue of each registered logger, encodes the lines into a reusable buffer and writes each batch to the
+ * logger's file channel.  All file writes, rotations and closes are serialized through this writer.
+ *
+ * Configuration (system properties):
+ *   event.log.flush.interval.ms - interval between queue drains in milliseconds (default 250)
+ */
+public class EventLogWriter
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EventLogWriter.class);
+
+    public static final String FLUSH_INTERVAL_PROPERTY = "event.log.flush.interval.ms";
+    private static final int DEFAULT_FLUSH_INTERVAL_MS = 250;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static EventLogWriter sInstance;
+
+    private List<EventLogger> mLoggers = new CopyOnWriteArrayList<>();
+    private ByteBuffer mBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private CharsetEncoder mEncoder = StandardCharsets.UTF_8.newEncoder();
+    private CharBuffer mLineSeparator = CharBuffer.wrap("\n");
+
+    /**
+     * Singleton instance of the event log writer
+     */
+    public static synchronized EventLogWriter getInstance()
+    {
+        if(sInstance == null)
+        {
+            final EventLogWriter writer = new EventLogWriter();
+
+            int interval = SystemProperties.getInstance().get(FLUSH_INTERVAL_PROPERTY, DEFAULT_FLUSH_INTERVAL_MS);
+
+            ThreadPool.SCHEDULED.scheduleWithFixedDelay(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    writer.process();
+                }
+            }, interval, Math.max(interval, 1), TimeUnit.MILLISECONDS);
+
+            sInstance = writer;
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Registers the logger so that its queued lines are written periodically
+     */
+    public void register(EventLogger logger)
+    {
+        if(!mLoggers.contains(logger))
+        {
+            mLoggers.add(logger);
+        }
+    }
+
+    /**
+     * Deregisters the logger and writes any lines remaining in its queue
+     */
+    public void unregister(EventLogger logger)
+    {
+        mLoggers.remove(logger);
+        flush(logger);
+    }
+
+    /**
+     * Drains the queues of all registered loggers
+     */
+    private void process()
+    {
+        for(EventLogger logger : mLoggers)
+        {
+            try
+            {
+                flush(logger);
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error while writing event log [" + logger + "]", t);
+            }
+        }
+    }
+
+    /**
+     * Writes all lines currently queued by the logger to its log file in one or more batches and then rotates the
+     * log file if the logger's rotation limits have been reached.
+     */
+    public synchronized void flush(EventLogger logger)
+    {
+        FileChannel channel = logger.getChannel();
+
+        if(channel == null)
+        {
+            return;
+        }
+
+        long dropped = logger.getUnreportedDroppedLineCount();
+
+        if(dropped > 0)
+        {
+            mLog.warn("Event log [" + logger + "] queue full - dropped [" + dropped + "] lines");
+        }
+
+        try
+        {
+            mBuffer.clear();
+
+            logger.writeQueued(this, channel);
+
+            if(logger.isRotationRequired())
+            {
+                logger.rotate();
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error writing to event log [" + logger + "]", ioe);
+        }
+    }
+
+    /**
+     * Encodes the line and a line separator into the batch buffer, writing the buffer to the channel each time it
+     * fills.  Invoke flushBuffer() after the final line of the batch.
+     */
+    void writeLine(FileChannel channel, String line) throws IOException
+    {
+        encode(CharBuffer.wrap(line), channel);
+
+        mLineSeparator.rewind();
+        encode(mLineSeparator, channel);
+    }
+
+    private void encode(CharBuffer characters, FileChannel channel) throws IOException
+    {
+        mEncoder.reset();
+
+        while(true)
+        {
+            CoderResult result = mEncoder.encode(characters, mBuffer, true);
+
+            if(result.isOverflow())
+            {
+                flushBuffer(channel);
+            }
+            else
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes the contents of the batch buffer to the channel and clears the buffer
+     */
+    void flushBuffer(FileChannel channel) throws IOException
+    {
+        mBuffer.flip();
+
+        while(mBuffer.hasRemaining())
+        {
+            channel.write(mBuffer);
+        }
+
+        mBuffer.clear();
+    }
+
+    /**
+     * Total number of lines currently queued across all registered loggers
+     */
+    public int getQueueDepth()
+    {
+        int depth = 0;
+
+        for(EventLogger logger : mLoggers)
+        {
+            depth += logger.getQueueDepth();
+        }
+
+        return depth;
+    }
+
+    /**
+     * Total number of lines dropped across all registered loggers
+     */
+    public long getDroppedLineCount()
+    {
+        long dropped = 0;
+
+        for(EventLogger logger : mLoggers)
+        {
+            dropped += logger.getDroppedLineCount();
+        }
+
+        return dropped;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Event Log Writer - Loggers [").append(mLoggers.size()).append("]");
+        sb.append(" Queued Lines [").append(getQueueDepth()).append("]");
+        sb.append(" Dropped Lines [").append(getDroppedLineCount()).append("]");
+        return sb.toString();
+    }
+}
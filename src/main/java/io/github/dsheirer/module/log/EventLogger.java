@@ -19,34 +19,75 @@
 package io.github.dsheirer.module.log;
 
 import io.github.dsheirer.module.Module;
+import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.util.TimeStamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Base event logger.  Log entries are queued on a lock-free queue by the calling thread and written to the log file
+ * in batches by the shared EventLogWriter.  Entries are dropped (and counted) when the queue is full.
+ *
+ * The log file is rotated to a new time-stamped file when it exceeds a maximum size or has been open longer than the
+ * rotation interval.
+ *
+ * Configuration (system properties):
+ *   event.log.queue.max.lines - maximum lines queued per logger before lines are dropped (default 10000)
+ *   event.log.rotate.size.mb - maximum log file size in megabytes (default 100, 0 to disable)
+ *   event.log.rotate.interval.hours - maximum log file age in hours (default 24, 0 to disable)
+ */
 public abstract class EventLogger extends Module
 {
     private final static Logger mLog = LoggerFactory.getLogger(EventLogger.class);
 
+    public static final String QUEUE_MAX_LINES_PROPERTY = "event.log.queue.max.lines";
+    public static final String ROTATE_SIZE_PROPERTY = "event.log.rotate.size.mb";
+    public static final String ROTATE_INTERVAL_PROPERTY = "event.log.rotate.interval.hours";
+    private static final int DEFAULT_QUEUE_MAX_LINES = 10000;
+    private static final int DEFAULT_ROTATE_SIZE_MB = 100;
+    private static final int DEFAULT_ROTATE_INTERVAL_HOURS = 24;
+
     private static final String[] ILLEGAL_FILENAME_CHARACTERS = {"#", "%", "&", "{", "}", "\\", "<", ">",
         "*", "?", "/", " ", "$", "!", "'", "\"", ":", "@", "+", "`", "|", "="};
 
     private Path mLogDirectory;
     private String mFileNameSuffix;
     private String mLogFileName;
-    protected Writer mLogFile;
+    private FileChannel mChannel;
+
+    private Queue<Object> mQueue = new ConcurrentLinkedQueue<>();
+    private AtomicInteger mQueueDepth = new AtomicInteger();
+    private AtomicLong mDroppedLineCount = new AtomicLong();
+    private long mReportedDroppedLineCount;
+    private int mMaxQueueDepth;
+
+    private long mMaxFileSize;
+    private long mMaxFileAge;
+    private long mFileCreated;
 
     public EventLogger(Path logDirectory, String fileNameSuffix)
     {
         mLogDirectory = logDirectory;
         mFileNameSuffix = fileNameSuffix;
+
+        SystemProperties properties = SystemProperties.getInstance();
+        mMaxQueueDepth = properties.get(QUEUE_MAX_LINES_PROPERTY, DEFAULT_QUEUE_MAX_LINES);
+        mMaxFileSize = properties.get(ROTATE_SIZE_PROPERTY, DEFAULT_ROTATE_SIZE_MB) * 1024L * 1024L;
+        mMaxFileAge = properties.get(ROTATE_INTERVAL_PROPERTY, DEFAULT_ROTATE_INTERVAL_HOURS) * 3600000L;
     }
 
     public String toString()
@@ -66,32 +107,104 @@ public abstract class EventLogger extends Module
     @Override
     public void start()
     {
-        if(mLogFile == null)
+        EventLogWriter writer = EventLogWriter.getInstance();
+
+        synchronized(writer)
         {
-            try
+            if(mChannel == null)
             {
-                StringBuilder sb = new StringBuilder();
-                sb.append(mLogDirectory);
-                sb.append(File.separator);
-                sb.append(TimeStamp.getTimeStamp("_"));
-                sb.append("_");
-                sb.append(replaceIllegalCharacters(mFileNameSuffix));
+                open();
+            }
+        }
 
-                mLogFileName = sb.toString();
+        if(mChannel != null)
+        {
+            writer.register(this);
+        }
+    }
 
-                mLog.info("Creating log file:" + mLogFileName);
+    /**
+     * Creates a new time-stamped log file and writes the log header.  Invoked while holding the event log writer lock.
+     */
+    private void open()
+    {
+        try
+        {
+            StringBuilder sb = new StringBuilder();
+            sb.append(mLogDirectory);
+            sb.append(File.separator);
+            TimeStamp.appendTimeStamp(sb, System.currentTimeMillis(), "_");
+            sb.append("_");
+            sb.append(replaceIllegalCharacters(mFileNameSuffix));
 
-                mLogFile = new OutputStreamWriter(new FileOutputStream(mLogFileName));
+            String fileName = sb.toString();
+            int rotation = 0;
 
-                write(getHeader());
-            }
-            catch(FileNotFoundException e)
+            //Avoid overwriting a log file that was rotated within the same second
+            while(Files.exists(Paths.get(fileName)))
             {
-                mLog.error("Couldn't create log file in directory:" + mLogDirectory);
+                rotation++;
+                fileName = sb.toString() + "." + rotation;
             }
+
+            mLogFileName = fileName;
+
+            mLog.info("Creating log file:" + mLogFileName);
+
+            mChannel = FileChannel.open(Paths.get(mLogFileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            mFileCreated = System.currentTimeMillis();
+
+            writeHeader(mChannel);
+        }
+        catch(IOException e)
+        {
+            mLog.error("Couldn't create log file in directory:" + mLogDirectory);
         }
     }
 
+    /**
+     * Writes the log file header to a newly created log file.  The default implementation writes the text header
+     * followed by a blank line.
+     */
+    protected void writeHeader(FileChannel channel) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.wrap((getHeader() + "\n").getBytes(StandardCharsets.UTF_8));
+
+        while(header.hasRemaining())
+        {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Writes any remaining content to the log file before the file is closed for rotation or shutdown.  The default
+     * implementation does nothing.
+     */
+    protected void writeTrailer(FileChannel channel) throws IOException
+    {
+    }
+
+    /**
+     * Writes all currently queued entries to the log file.  Invoked by the event log writer while holding the writer
+     * lock.  The default implementation writes each entry as a line of text.
+     *
+     * @param writer providing the shared encoding buffer
+     * @param channel for the log file
+     */
+    protected void writeQueued(EventLogWriter writer, FileChannel channel) throws IOException
+    {
+        Object entry = poll();
+
+        while(entry != null)
+        {
+            writer.writeLine(channel, entry.toString());
+            entry = poll();
+        }
+
+        writer.flushBuffer(channel);
+    }
+
     /**
      * Replaces any illegal filename characters in the proposed filename
      */
@@ -107,31 +220,127 @@ public abstract class EventLogger extends Module
 
     public void stop()
     {
-        if(mLogFile != null)
+        EventLogWriter writer = EventLogWriter.getInstance();
+
+        //Write any remaining queued lines before closing the file
+        writer.unregister(this);
+
+        synchronized(writer)
+        {
+            close();
+        }
+    }
+
+    private void close()
+    {
+        if(mChannel != null)
         {
             try
             {
-                mLogFile.flush();
-                mLogFile.close();
-                mLogFile = null;
+                writeTrailer(mChannel);
+                mChannel.close();
             }
             catch(Exception e)
             {
                 mLog.error("Couldn't close log file:" + mFileNameSuffix);
             }
+
+            mChannel = null;
         }
     }
 
+    /**
+     * Queues the event log entry for writing.  The entry is dropped if the queue is full.
+     */
     protected void write(String eventLogEntry)
     {
-        try
+        enqueue(eventLogEntry);
+    }
+
+    /**
+     * Queues the entry for writing by the writeQueued() method.  The entry is dropped if the queue is full.
+     */
+    protected void enqueue(Object eventLogEntry)
+    {
+        if(mQueueDepth.incrementAndGet() > mMaxQueueDepth)
         {
-            mLogFile.write(eventLogEntry + "\n");
-            mLogFile.flush();
+            mQueueDepth.decrementAndGet();
+            mDroppedLineCount.incrementAndGet();
         }
-        catch(IOException e)
+        else
         {
-            mLog.error("Error writing entry to event log file", e);
+            mQueue.offer(eventLogEntry);
         }
     }
+
+    /**
+     * Removes the next queued entry
+     *
+     * @return entry or null if the queue is empty
+     */
+    protected Object poll()
+    {
+        Object entry = mQueue.poll();
+
+        if(entry != null)
+        {
+            mQueueDepth.decrementAndGet();
+        }
+
+        return entry;
+    }
+
+    /**
+     * Log file channel or null if the log file is not open
+     */
+    FileChannel getChannel()
+    {
+        return mChannel;
+    }
+
+    /**
+     * Indicates if the log file has exceeded the maximum size or age
+     */
+    boolean isRotationRequired() throws IOException
+    {
+        return (mMaxFileSize > 0 && mChannel.position() >= mMaxFileSize) ||
+               (mMaxFileAge > 0 && System.currentTimeMillis() - mFileCreated >= mMaxFileAge);
+    }
+
+    /**
+     * Closes the current log file and opens a new log file.  Invoked by the event log writer.
+     */
+    void rotate()
+    {
+        mLog.info("Rotating log file:" + mLogFileName);
+        close();
+        open();
+    }
+
+    /**
+     * Number of entries waiting to be written
+     */
+    public int getQueueDepth()
+    {
+        return mQueueDepth.get();
+    }
+
+    /**
+     * Number of entries dropped because the queue was full
+     */
+    public long getDroppedLineCount()
+    {
+        return mDroppedLineCount.get();
+    }
+
+    /**
+     * Number of entries dropped since the previous invocation of this method
+     */
+    long getUnreportedDroppedLineCount()
+    {
+        long dropped = mDroppedLineCount.get();
+        long unreported = dropped - mReportedDroppedLineCount;
+        mReportedDroppedLineCount = dropped;
+        return unreported;
+    }
 }
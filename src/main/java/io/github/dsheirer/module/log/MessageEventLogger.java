@@ -64,7 +64,7 @@ public class MessageEventLogger extends EventLogger implements
 	public void receive( Message message )
 	{
 		StringBuilder sb = new StringBuilder();
-		sb.append( TimeStamp.getTimeStamp( " " ) );
+		TimeStamp.appendTimeStamp( sb, System.currentTimeMillis(), " " );
 		sb.append( "," );
 		sb.append( ( message.isValid() ? "PASSED" : "FAILED" ) );
 		sb.append( "," );
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log.binary;
+
+/**
+ * Index entry for a compressed block in a binary message log file
+ */
+public class MessageLogBlock
+{
+    private long mOffset;
+    private long mFirstTimestamp;
+    private long mLastTimestamp;
+    private int mRecordCount;
+
+    public MessageLogBlock(long offset, long firstTimestamp, long lastTimestamp, int recordCount)
+    {
+        mOffset = offset;
+        mFirstTimestamp = firstTimestamp;
+        mLastTimestamp = lastTimestamp;
+        mRecordCount = recordCount;
+    }
+
+    /**
+     * File offset of the block header
+     */
+    public long getOffset()
+    {
+        return mOffset;
+    }
+
+    /**
+     * Timestamp of the first record in the block
+     */
+    public long getFirstTimestamp()
+    {
+        return mFirstTimestamp;
+    }
+
+    /**
+     * Timestamp of the last record in the block
+     */
+    public long getLastTimestamp()
+    {
+        return mLastTimestamp;
+    }
+
+    /**
+     * Number of message records in the block
+     */
+    public int getRecordCount()
+    {
+        return mRecordCount;
+    }
+
+    /**
+     * Indicates if any of the block's records could fall within the time range.  Block timestamps are the minimum and
+     * maximum record timestamps in the block.
+     *
+     * @param start timestamp inclusive
+     * @param end timestamp inclusive
+     */
+    public boolean overlaps(long start, long end)
+    {
+        return mFirstTimestamp <= end && mLastTimestamp >= start;
+    }
+}
@@ -0,0 +1,353 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes binary message log files.  Message records are accumulated into an uncompressed block buffer and each block
+ * is deflate-compressed and written to the file channel when it is full or when the caller decides to write it.  The
+ * block index is retained so that it can be appended to the file when the file is closed.
+ *
+ * All buffers are reused across blocks.  This class is not thread safe.
+ *
+ * @see MessageLogFormat
+ */
+public class MessageLogBlockEncoder
+{
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private int mBlockSize;
+    private byte[] mRecords;
+    private int mLength;
+    private byte[] mCompressed = new byte[1024];
+    private Deflater mDeflater = new Deflater(Deflater.BEST_SPEED);
+    private Map<String,Integer> mChannelIds = new HashMap<>();
+    private long mFirstTimestamp;
+    private long mLastTimestamp;
+    private long mPreviousTimestamp;
+    private int mRecordCount;
+    private List<MessageLogBlock> mBlocks = new ArrayList<>();
+    private ByteBuffer mHeader = ByteBuffer.allocate(Math.max(MessageLogFormat.BLOCK_HEADER_LENGTH,
+        MessageLogFormat.INDEX_ENTRY_LENGTH));
+
+    /**
+     * Constructs an instance.
+     *
+     * @param blockSize uncompressed block size threshold in bytes
+     */
+    public MessageLogBlockEncoder(int blockSize)
+    {
+        mBlockSize = blockSize;
+        mRecords = new byte[blockSize + 1024];
+    }
+
+    public MessageLogBlockEncoder()
+    {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Writes the file header to a new file and clears the block index from any previous file
+     *
+     * @param channel for the new file, positioned at the start of the file
+     * @param channelName of the channel that is logged to the file
+     * @param created timestamp for the file
+     */
+    public void writeFileHeader(FileChannel channel, String channelName, long created) throws IOException
+    {
+        mBlocks.clear();
+        clearBlock();
+
+        byte[] name = channelName.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(16 + name.length);
+        header.putInt(MessageLogFormat.FILE_MAGIC);
+        header.putShort(MessageLogFormat.VERSION);
+        header.putLong(created);
+        header.putShort((short)name.length);
+        header.put(name);
+        header.flip();
+        write(channel, header);
+    }
+
+    /**
+     * Adds a message record to the current block.
+     *
+     * @param timestamp of the message
+     * @param channelName that produced the message
+     * @param valid indicates if the message passed error detection
+     * @param binaryMessage string of ones and zeros, or arbitrary text
+     */
+    public void add(long timestamp, String channelName, boolean valid, String binaryMessage)
+    {
+        if(binaryMessage == null)
+        {
+            binaryMessage = "";
+        }
+
+        int channelId = getChannelId(channelName);
+
+        if(mRecordCount == 0)
+        {
+            mFirstTimestamp = timestamp;
+            mLastTimestamp = timestamp;
+
+            //The first record in each block carries the absolute timestamp
+            mPreviousTimestamp = 0;
+        }
+
+        boolean binary = isBinary(binaryMessage);
+
+        ensureCapacity(32 + (binary ? binaryMessage.length() / 8 : binaryMessage.length() * 3));
+
+        mRecords[mLength++] = binary ? MessageLogFormat.RECORD_BITS : MessageLogFormat.RECORD_TEXT;
+        putVarLong(zigZag(timestamp - mPreviousTimestamp));
+        putVarLong(channelId);
+        mRecords[mLength++] = valid ? MessageLogFormat.STATUS_PASSED : MessageLogFormat.STATUS_FAILED;
+
+        if(binary)
+        {
+            int bitLength = binaryMessage.length();
+            putVarLong(bitLength);
+
+            int value = 0;
+
+            for(int x = 0; x < bitLength; x++)
+            {
+                value = (value << 1) | (binaryMessage.charAt(x) == '1' ? 1 : 0);
+
+                if((x & 7) == 7)
+                {
+                    mRecords[mLength++] = (byte)value;
+                    value = 0;
+                }
+            }
+
+            int remainder = bitLength & 7;
+
+            if(remainder != 0)
+            {
+                mRecords[mLength++] = (byte)(value << (8 - remainder));
+            }
+        }
+        else
+        {
+            putString(binaryMessage);
+        }
+
+        mPreviousTimestamp = timestamp;
+        mFirstTimestamp = Math.min(mFirstTimestamp, timestamp);
+        mLastTimestamp = Math.max(mLastTimestamp, timestamp);
+        mRecordCount++;
+    }
+
+    /**
+     * Indicates if the current block has reached the block size threshold
+     */
+    public boolean isFull()
+    {
+        return mLength >= mBlockSize;
+    }
+
+    /**
+     * Number of records in the current (unwritten) block
+     */
+    public int getRecordCount()
+    {
+        return mRecordCount;
+    }
+
+    /**
+     * Compresses and writes the current block, if it contains any records, and adds the block to the index.
+     *
+     * @param channel positioned at the end of the file
+     */
+    public void writeBlock(FileChannel channel) throws IOException
+    {
+        if(mRecordCount == 0)
+        {
+            return;
+        }
+
+        mDeflater.reset();
+        mDeflater.setInput(mRecords, 0, mLength);
+        mDeflater.finish();
+
+        int compressedLength = 0;
+
+        while(!mDeflater.finished())
+        {
+            if(compressedLength == mCompressed.length)
+            {
+                mCompressed = Arrays.copyOf(mCompressed, mCompressed.length * 2);
+            }
+
+            compressedLength += mDeflater.deflate(mCompressed, compressedLength, mCompressed.length - compressedLength);
+        }
+
+        long offset = channel.position();
+
+        mHeader.clear();
+        mHeader.putInt(MessageLogFormat.BLOCK_MAGIC);
+        mHeader.putLong(mFirstTimestamp);
+        mHeader.putLong(mLastTimestamp);
+        mHeader.putInt(mRecordCount);
+        mHeader.putInt(mLength);
+        mHeader.putInt(compressedLength);
+        mHeader.flip();
+        write(channel, mHeader);
+        write(channel, ByteBuffer.wrap(mCompressed, 0, compressedLength));
+
+        mBlocks.add(new MessageLogBlock(offset, mFirstTimestamp, mLastTimestamp, mRecordCount));
+
+        clearBlock();
+    }
+
+    /**
+     * Writes any pending block followed by the block index and the file trailer
+     *
+     * @param channel positioned at the end of the file
+     */
+    public void writeIndex(FileChannel channel) throws IOException
+    {
+        writeBlock(channel);
+
+        long indexOffset = channel.position();
+
+        mHeader.clear();
+        mHeader.putInt(MessageLogFormat.INDEX_MAGIC);
+        mHeader.putInt(mBlocks.size());
+        mHeader.flip();
+        write(channel, mHeader);
+
+        for(MessageLogBlock block : mBlocks)
+        {
+            mHeader.clear();
+            mHeader.putLong(block.getOffset());
+            mHeader.putLong(block.getFirstTimestamp());
+            mHeader.putLong(block.getLastTimestamp());
+            mHeader.putInt(block.getRecordCount());
+            mHeader.flip();
+            write(channel, mHeader);
+        }
+
+        mHeader.clear();
+        mHeader.putLong(indexOffset);
+        mHeader.putInt(MessageLogFormat.TRAILER_MAGIC);
+        mHeader.flip();
+        write(channel, mHeader);
+
+        mBlocks.clear();
+    }
+
+    private void clearBlock()
+    {
+        mLength = 0;
+        mRecordCount = 0;
+        mChannelIds.clear();
+    }
+
+    /**
+     * Returns the block scoped id for the channel name, writing a channel definition record the first time the channel
+     * name is used in the block.
+     */
+    private int getChannelId(String channelName)
+    {
+        if(channelName == null)
+        {
+            channelName = "";
+        }
+
+        Integer id = mChannelIds.get(channelName);
+
+        if(id == null)
+        {
+            id = mChannelIds.size();
+            mChannelIds.put(channelName, id);
+
+            ensureCapacity(16 + channelName.length() * 3);
+            mRecords[mLength++] = MessageLogFormat.RECORD_CHANNEL;
+            putVarLong(id);
+            putString(channelName);
+        }
+
+        return id;
+    }
+
+    private static boolean isBinary(String value)
+    {
+        for(int x = 0; x < value.length(); x++)
+        {
+            char c = value.charAt(x);
+
+            if(c != '0' && c != '1')
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void putString(String value)
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarLong(bytes.length);
+        System.arraycopy(bytes, 0, mRecords, mLength, bytes.length);
+        mLength += bytes.length;
+    }
+
+    private void putVarLong(long value)
+    {
+        while((value & ~0x7FL) != 0)
+        {
+            mRecords[mLength++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        mRecords[mLength++] = (byte)value;
+    }
+
+    private static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensureCapacity(int additional)
+    {
+        if(mLength + additional > mRecords.length)
+        {
+            mRecords = Arrays.copyOf(mRecords, Math.max(mRecords.length * 2, mLength + additional));
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        while(buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log.binary;
+
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.TimeStamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts a binary message log file to the text format produced by the binary message event logger, so that
+ * existing text tooling can process binary message logs.  An optional time range limits the conversion to the blocks
+ * that overlap the range.
+ *
+ * Usage: MessageLogConverter input.bml [output.log] [start epoch ms] [end epoch ms]
+ *
+ * Output is written to standard out when the output file is omitted or specified as '-'.
+ */
+public class MessageLogConverter
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MessageLogConverter.class);
+
+    /* Matches the header written by the text binary message event logger */
+    public static final String TEXT_HEADER = "BINARY Message Logger\n";
+
+    /**
+     * Converts the records within the time range to text lines
+     *
+     * @param reader for the binary message log
+     * @param start timestamp inclusive
+     * @param end timestamp inclusive
+     * @param writer to receive the text header and lines
+     * @return number of records converted
+     */
+    public static long convert(MessageLogReader reader, long start, long end, final Writer writer) throws IOException
+    {
+        writer.write(TEXT_HEADER);
+        writer.write("\n");
+
+        final long[] count = new long[1];
+        final IOException[] error = new IOException[1];
+        final StringBuilder sb = new StringBuilder();
+
+        reader.read(start, end, new Listener<MessageLogRecord>()
+        {
+            @Override
+            public void receive(MessageLogRecord record)
+            {
+                if(error[0] != null)
+                {
+                    return;
+                }
+
+                sb.setLength(0);
+                TimeStamp.appendTimeStamp(sb, record.getTimestamp(), " ");
+                sb.append(",");
+                sb.append(record.isValid() ? "PASSED" : "FAILED");
+                sb.append(",");
+                sb.append(record.getBinaryMessage());
+                sb.append("\n");
+
+                try
+                {
+                    writer.write(sb.toString());
+                    count[0]++;
+                }
+                catch(IOException ioe)
+                {
+                    error[0] = ioe;
+                }
+            }
+        });
+
+        if(error[0] != null)
+        {
+            throw error[0];
+        }
+
+        writer.flush();
+
+        return count[0];
+    }
+
+    public static void main(String[] args)
+    {
+        if(args.length < 1)
+        {
+            System.out.println("Usage: MessageLogConverter input" + MessageLogFormat.FILE_EXTENSION +
+                " [output.log] [start epoch ms] [end epoch ms]");
+            System.exit(1);
+        }
+
+        Path input = Paths.get(args[0]);
+        boolean console = args.length < 2 || args[1].equals("-");
+        long start = args.length > 2 ? Long.parseLong(args[2]) : Long.MIN_VALUE;
+        long end = args.length > 3 ? Long.parseLong(args[3]) : Long.MAX_VALUE;
+
+        try(MessageLogReader reader = new MessageLogReader(input);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(console ? System.out :
+                Files.newOutputStream(Paths.get(args[1])), StandardCharsets.UTF_8)))
+        {
+            long count = convert(reader, start, end, writer);
+
+            if(!console)
+            {
+                mLog.info("Converted [" + count + "] messages from [" + reader.getBlocks().size() + "] blocks of [" +
+                    input + "] for channel [" + reader.getChannelName() + "]");
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error converting binary message log [" + input + "]", ioe);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log.binary;
+
+/**
+ * Compressed binary message log file format.
+ *
+ * File layout:
+ *   File header: magic (int), version (short), creation timestamp (long), channel name length (short), UTF-8
+ *                channel name bytes
+ *   Blocks: block header followed by the deflate-compressed block records
+ *   Index: index magic (int), block count (int), then per block: file offset (long), first timestamp (long), last
+ *          timestamp (long), record count (int)
+ *   Trailer: index offset (long), trailer magic (int)
+ *
+ * Block header: block magic (int), first timestamp (long), last timestamp (long), record count (int), uncompressed
+ * length (int), compressed length (int).  Block headers carry their own lengths so that the index can be rebuilt by
+ * walking the block headers when a file was not closed cleanly and has no index.
+ *
+ * Records within a block start with a record type byte:
+ *   CHANNEL: channel id (varint), name length (varint), UTF-8 name bytes.  Defines a channel id for the block.
+ *   BITS: timestamp delta (zig-zag varint), channel id (varint), status (byte), bit length (varint), packed bits
+ *         (MSB first, padded to a whole byte)
+ *   TEXT: timestamp delta (zig-zag varint), channel id (varint), status (byte), length (varint), UTF-8 bytes.  Used
+ *         for message payloads that are not a string of binary digits.
+ *
+ * Timestamp deltas are relative to the previous record in the block.  The first record in a block has a delta from zero
+ * (ie the absolute timestamp).  Block header timestamps are the minimum and maximum record timestamps in the block.
+ * Channel ids are scoped to the block so that each block can be decoded independently.
+ */
+public class MessageLogFormat
+{
+    public static final String FILE_EXTENSION = ".bml";
+
+    public static final int FILE_MAGIC = 0x53424D4C; //SBML
+    public static final short VERSION = 1;
+    public static final int BLOCK_MAGIC = 0x424C4B31; //BLK1
+    public static final int INDEX_MAGIC = 0x53424D49; //SBMI
+    public static final int TRAILER_MAGIC = 0x53424D54; //SBMT
+
+    public static final int BLOCK_HEADER_LENGTH = 32;
+    public static final int INDEX_ENTRY_LENGTH = 28;
+    public static final int TRAILER_LENGTH = 12;
+
+    public static final byte RECORD_CHANNEL = 1;
+    public static final byte RECORD_BITS = 2;
+    public static final byte RECORD_TEXT = 3;
+
+    public static final byte STATUS_FAILED = 0;
+    public static final byte STATUS_PASSED = 1;
+}
@@ -0,0 +1,404 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log.binary;
+
+import io.github.dsheirer.sample.Listener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads binary message log files.  The block index is loaded from the end of the file, or rebuilt by walking the block
+ * headers when the file was not closed cleanly, so that a time range can be read by decompressing only the blocks
+ * that overlap the range.
+ *
+ * @see MessageLogFormat
+ */
+public class MessageLogReader implements AutoCloseable
+{
+    private final static Logger mLog = LoggerFactory.getLogger(MessageLogReader.class);
+
+    private FileChannel mChannel;
+    private long mCreated;
+    private String mChannelName;
+    private List<MessageLogBlock> mBlocks = new ArrayList<>();
+    private Inflater mInflater = new Inflater();
+
+    /**
+     * Opens the log file and loads the block index.
+     *
+     * @param path to the binary message log file
+     * @throws IOException if the file can't be read or is not a binary message log file
+     */
+    public MessageLogReader(Path path) throws IOException
+    {
+        mChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try
+        {
+            long blocksStart = readFileHeader();
+
+            if(!readIndex())
+            {
+                scanBlocks(blocksStart);
+            }
+        }
+        catch(IOException ioe)
+        {
+            mChannel.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Creation timestamp of the log file
+     */
+    public long getCreated()
+    {
+        return mCreated;
+    }
+
+    /**
+     * Name of the channel that created the log file
+     */
+    public String getChannelName()
+    {
+        return mChannelName;
+    }
+
+    /**
+     * Index of the compressed blocks in the file, in file order
+     */
+    public List<MessageLogBlock> getBlocks()
+    {
+        return Collections.unmodifiableList(mBlocks);
+    }
+
+    /**
+     * Reads all message records from the file
+     */
+    public void read(Listener<MessageLogRecord> listener) throws IOException
+    {
+        read(Long.MIN_VALUE, Long.MAX_VALUE, listener);
+    }
+
+    /**
+     * Reads the message records with a timestamp within the time range.  Only the blocks that overlap the time range
+     * are read and decompressed.
+     *
+     * @param start timestamp inclusive
+     * @param end timestamp inclusive
+     * @param listener to receive the records in file order
+     */
+    public void read(long start, long end, Listener<MessageLogRecord> listener) throws IOException
+    {
+        for(MessageLogBlock block : mBlocks)
+        {
+            if(block.overlaps(start, end))
+            {
+                readBlock(block, start, end, listener);
+            }
+        }
+    }
+
+    private long readFileHeader() throws IOException
+    {
+        ByteBuffer header = read(0, 16);
+
+        if(header.getInt() != MessageLogFormat.FILE_MAGIC)
+        {
+            throw new IOException("Not a binary message log file");
+        }
+
+        short version = header.getShort();
+
+        if(version != MessageLogFormat.VERSION)
+        {
+            throw new IOException("Unsupported binary message log version [" + version + "]");
+        }
+
+        mCreated = header.getLong();
+        int nameLength = header.getShort() & 0xFFFF;
+
+        ByteBuffer name = read(16, nameLength);
+        mChannelName = new String(name.array(), 0, nameLength, StandardCharsets.UTF_8);
+
+        return 16 + nameLength;
+    }
+
+    /**
+     * Loads the block index from the end of the file
+     *
+     * @return true if the index was loaded or false if the file does not have a valid index
+     */
+    private boolean readIndex() throws IOException
+    {
+        long size = mChannel.size();
+
+        if(size < MessageLogFormat.TRAILER_LENGTH)
+        {
+            return false;
+        }
+
+        ByteBuffer trailer = read(size - MessageLogFormat.TRAILER_LENGTH, MessageLogFormat.TRAILER_LENGTH);
+        long indexOffset = trailer.getLong();
+
+        if(trailer.getInt() != MessageLogFormat.TRAILER_MAGIC || indexOffset < 0 || indexOffset + 8 > size)
+        {
+            return false;
+        }
+
+        ByteBuffer indexHeader = read(indexOffset, 8);
+
+        if(indexHeader.getInt() != MessageLogFormat.INDEX_MAGIC)
+        {
+            return false;
+        }
+
+        int count = indexHeader.getInt();
+
+        if(count < 0 || indexOffset + 8 + (long)count * MessageLogFormat.INDEX_ENTRY_LENGTH > size)
+        {
+            return false;
+        }
+
+        ByteBuffer index = read(indexOffset + 8, count * MessageLogFormat.INDEX_ENTRY_LENGTH);
+
+        for(int x = 0; x < count; x++)
+        {
+            mBlocks.add(new MessageLogBlock(index.getLong(), index.getLong(), index.getLong(), index.getInt()));
+        }
+
+        return true;
+    }
+
+    /**
+     * Rebuilds the block index by walking the block headers from the start of the blocks until the end of the file
+     * or the first incomplete block.
+     */
+    private void scanBlocks(long offset) throws IOException
+    {
+        long size = mChannel.size();
+
+        while(offset + MessageLogFormat.BLOCK_HEADER_LENGTH <= size)
+        {
+            ByteBuffer header = read(offset, MessageLogFormat.BLOCK_HEADER_LENGTH);
+
+            if(header.getInt() != MessageLogFormat.BLOCK_MAGIC)
+            {
+                break;
+            }
+
+            long first = header.getLong();
+            long last = header.getLong();
+            int count = header.getInt();
+            header.getInt();
+            int compressedLength = header.getInt();
+
+            long next = offset + MessageLogFormat.BLOCK_HEADER_LENGTH + compressedLength;
+
+            if(compressedLength < 0 || next > size)
+            {
+                mLog.warn("Ignoring incomplete block at offset [" + offset + "]");
+                break;
+            }
+
+            mBlocks.add(new MessageLogBlock(offset, first, last, count));
+            offset = next;
+        }
+    }
+
+    private void readBlock(MessageLogBlock block, long start, long end, Listener<MessageLogRecord> listener)
+        throws IOException
+    {
+        ByteBuffer header = read(block.getOffset(), MessageLogFormat.BLOCK_HEADER_LENGTH);
+
+        if(header.getInt() != MessageLogFormat.BLOCK_MAGIC)
+        {
+            throw new IOException("Invalid block header at offset [" + block.getOffset() + "]");
+        }
+
+        header.getLong();
+        header.getLong();
+        header.getInt();
+        int length = header.getInt();
+        int compressedLength = header.getInt();
+
+        ByteBuffer compressed = read(block.getOffset() + MessageLogFormat.BLOCK_HEADER_LENGTH, compressedLength);
+        byte[] records = new byte[length];
+
+        mInflater.reset();
+        mInflater.setInput(compressed.array(), 0, compressedLength);
+
+        try
+        {
+            int inflated = 0;
+
+            while(inflated < length && !mInflater.finished())
+            {
+                int read = mInflater.inflate(records, inflated, length - inflated);
+
+                if(read == 0 && (mInflater.needsInput() || mInflater.needsDictionary()))
+                {
+                    break;
+                }
+
+                inflated += read;
+            }
+
+            if(inflated != length)
+            {
+                throw new IOException("Truncated block at offset [" + block.getOffset() + "]");
+            }
+        }
+        catch(DataFormatException dfe)
+        {
+            throw new IOException("Corrupt block at offset [" + block.getOffset() + "]", dfe);
+        }
+
+        parseRecords(ByteBuffer.wrap(records), start, end, listener);
+    }
+
+    private void parseRecords(ByteBuffer buffer, long start, long end, Listener<MessageLogRecord> listener)
+        throws IOException
+    {
+        List<String> channels = new ArrayList<>();
+        long timestamp = 0;
+        StringBuilder sb = new StringBuilder();
+
+        while(buffer.hasRemaining())
+        {
+            byte type = buffer.get();
+
+            if(type == MessageLogFormat.RECORD_CHANNEL)
+            {
+                int id = (int)getVarLong(buffer);
+                String name = getString(buffer);
+
+                while(channels.size() <= id)
+                {
+                    channels.add(null);
+                }
+
+                channels.set(id, name);
+                continue;
+            }
+
+            if(type != MessageLogFormat.RECORD_BITS && type != MessageLogFormat.RECORD_TEXT)
+            {
+                throw new IOException("Unrecognized record type [" + type + "]");
+            }
+
+            long delta = getVarLong(buffer);
+            timestamp += (delta >>> 1) ^ -(delta & 1);
+            int channelId = (int)getVarLong(buffer);
+            boolean valid = buffer.get() == MessageLogFormat.STATUS_PASSED;
+            String payload;
+
+            if(type == MessageLogFormat.RECORD_BITS)
+            {
+                int bitLength = (int)getVarLong(buffer);
+                sb.setLength(0);
+
+                int value = 0;
+
+                for(int x = 0; x < bitLength; x++)
+                {
+                    if((x & 7) == 0)
+                    {
+                        value = buffer.get();
+                    }
+
+                    sb.append((value & (0x80 >> (x & 7))) != 0 ? '1' : '0');
+                }
+
+                payload = sb.toString();
+            }
+            else
+            {
+                payload = getString(buffer);
+            }
+
+            if(start <= timestamp && timestamp <= end)
+            {
+                String channel = channelId < channels.size() ? channels.get(channelId) : null;
+                listener.receive(new MessageLogRecord(timestamp, channel, valid, payload));
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer buffer)
+    {
+        int length = (int)getVarLong(buffer);
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static long getVarLong(ByteBuffer buffer)
+    {
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do
+        {
+            b = buffer.get();
+            value |= (long)(b & 0x7F) << shift;
+            shift += 7;
+        }
+        while((b & 0x80) != 0);
+
+        return value;
+    }
+
+    /**
+     * Reads length bytes from the file at the offset
+     */
+    private ByteBuffer read(long offset, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while(buffer.hasRemaining())
+        {
+            if(mChannel.read(buffer, offset + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected end of file at offset [" + (offset + buffer.position()) + "]");
+            }
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        mInflater.end();
+        mChannel.close();
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.module.log.binary;
+
+/**
+ * Message record read from a binary message log
+ */
+public class MessageLogRecord
+{
+    private long mTimestamp;
+    private String mChannel;
+    private boolean mValid;
+    private String mBinaryMessage;
+
+    public MessageLogRecord(long timestamp, String channel, boolean valid, String binaryMessage)
+    {
+        mTimestamp = timestamp;
+        mChannel = channel;
+        mValid = valid;
+        mBinaryMessage = binaryMessage;
+    }
+
+    /**
+     * Time the message was received
+     */
+    public long getTimestamp()
+    {
+        return mTimestamp;
+    }
+
+    /**
+     * Channel that produced the message
+     */
+    public String getChannel()
+    {
+        return mChannel;
+    }
+
+    /**
+     * Indicates if the message passed error detection
+     */
+    public boolean isValid()
+    {
+        return mValid;
+    }
+
+    /**
+     * Message bits as a string of ones and zeros
+     */
+    public String getBinaryMessage()
+    {
+        return mBinaryMessage;
+    }
+}
@@ -19,6 +19,7 @@ import io.github.dsheirer.channel.metadata.Metadata;
 import io.github.dsheirer.properties.SystemProperties;
 import io.github.dsheirer.record.wave.AudioPacketWaveRecorder;
 import io.github.dsheirer.record.wave.ComplexBufferWaveRecorder;
+import io.github.dsheirer.record.wave.WaveRecordingEngine;
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.OverflowableTransferQueue;
@@ -89,6 +90,8 @@ public class RecorderManager implements Listener<ReusableAudioPacket>
         {
             mBufferProcessorFuture.cancel(true);
         }
+
+        WaveRecordingEngine.shutdown();
     }
 
     /**
@@ -191,7 +194,7 @@ public class RecorderManager implements Listener<ReusableAudioPacket>
 
             if(entry.getValue().getLastBufferReceived() + IDLE_RECORDER_REMOVAL_THRESHOLD < System.currentTimeMillis())
             {
-                mLog.info("Removing idle recorder [" + entry.getKey() + "]");
+                mLog.info("Removing idle recorder [" + entry.getValue().getFile() + "]");
                 it.remove();
                 entry.getValue().stop();
             }
@@ -18,6 +18,7 @@
  ******************************************************************************/
 package io.github.dsheirer.record.mp3;
 
+import io.github.dsheirer.audio.broadcast.AudioFrameRing;
 import io.github.dsheirer.audio.convert.MP3AudioConverter;
 import io.github.dsheirer.record.AudioRecorder;
 import io.github.dsheirer.sample.buffer.ReusableAudioPacket;
@@ -40,6 +41,7 @@ public class MP3Recorder extends AudioRecorder
     public static final boolean CONSTANT_BIT_RATE = false;
 
     private MP3AudioConverter mMP3Converter;
+    private AudioFrameRing mFrameRing;
 
     /**
      * MP3 audio recorder module for converting audio packets to 16 kHz constant bit rate MP3 format and
@@ -54,6 +56,21 @@ public class MP3Recorder extends AudioRecorder
         mMP3Converter = new MP3AudioConverter(MP3_BIT_RATE, CONSTANT_BIT_RATE);
     }
 
+    /**
+     * MP3 audio recorder module for live streaming.  Audio packets are incrementally encoded and written to the file,
+     * and a copy of the encoded audio is appended to the frame ring where it is available to live audio broadcasters.
+     * The file is always complete, even if the frame ring is overrun.
+     *
+     * @param path to the output file.  File name should include the .mp3 file extension.
+     * @param frameRing to receive the encoded audio
+     */
+    public MP3Recorder(Path path, AudioFrameRing frameRing)
+    {
+        this(path);
+
+        mFrameRing = frameRing;
+    }
+
     @Override
     protected void record(List<ReusableAudioPacket> audioPackets) throws IOException
     {
@@ -63,28 +80,50 @@ public class MP3Recorder extends AudioRecorder
         {
             processMetadata(audioPackets);
 
-            byte[] mp3Audio = mMP3Converter.convert(audioPackets);
+            if(mFrameRing != null)
+            {
+                mFrameRing.setMetadata(getMetadata());
+                mMP3Converter.convert(audioPackets, outputStream, mFrameRing);
+            }
+            else
+            {
+                byte[] mp3Audio = mMP3Converter.convert(audioPackets);
 
-            outputStream.write(mp3Audio);
+                outputStream.write(mp3Audio);
+            }
         }
     }
 
     @Override
     protected void flush()
     {
-        byte[] partialFrame = mMP3Converter.flush();
-
-        if(partialFrame != null && partialFrame.length > 0)
+        if(mFrameRing != null)
         {
             try
             {
-                getOutputStream().write(partialFrame);
+                mMP3Converter.flush(getOutputStream(), mFrameRing);
             }
             catch(IOException ioe)
             {
                 mLog.error("Error writing final audio frame data to file", ioe);
             }
         }
+        else
+        {
+            byte[] partialFrame = mMP3Converter.flush();
+
+            if(partialFrame != null && partialFrame.length > 0)
+            {
+                try
+                {
+                    getOutputStream().write(partialFrame);
+                }
+                catch(IOException ioe)
+                {
+                    mLog.error("Error writing final audio frame data to file", ioe);
+                }
+            }
+        }
     }
 
     /**
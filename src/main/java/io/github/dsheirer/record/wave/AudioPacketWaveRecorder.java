@@ -23,23 +23,23 @@ import io.github.dsheirer.sample.ConversionUtils;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
 import io.github.dsheirer.sample.buffer.ReusableAudioPacket;
-import io.github.dsheirer.util.ThreadPool;
 import io.github.dsheirer.util.TimeStamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sound.sampled.AudioFormat;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * WAVE audio recorder module for recording audio buffers to a wave file
+ * WAVE audio recorder module for recording audio buffers to a wave file.
+ *
+ * Audio packets are queued by this recorder and written to the file by the WaveRecordingEngine writer thread.
  */
 public class AudioPacketWaveRecorder extends Module implements Listener<ReusableAudioPacket>
 {
@@ -52,8 +52,6 @@ public class AudioPacketWaveRecorder extends Module implements Listener<Reusable
 
     private OverflowableReusableBufferTransferQueue<ReusableAudioPacket> mTransferQueue =
         new OverflowableReusableBufferTransferQueue<>(500, 100);
-    private BufferProcessor mBufferProcessor;
-    private ScheduledFuture<?> mProcessorHandle;
     private Metadata mMetadata;
     private long mLastBufferReceived;
     private List<ReusableAudioPacket> mAudioPacketsToProcess = new ArrayList<>();
@@ -97,60 +95,26 @@ public class AudioPacketWaveRecorder extends Module implements Listener<Reusable
     {
         if(mRunning.compareAndSet(false, true))
         {
-            if(mBufferProcessor == null)
-            {
-                mBufferProcessor = new BufferProcessor();
-            }
-
-            try
-            {
-                StringBuilder sb = new StringBuilder();
-                sb.append(mFilePrefix);
-                sb.append("_");
-                sb.append(TimeStamp.getLongTimeStamp("_"));
-                sb.append(".tmp");
+            StringBuilder sb = new StringBuilder();
+            sb.append(mFilePrefix);
+            sb.append("_");
+            sb.append(TimeStamp.getLongTimeStamp("_"));
+            sb.append(".tmp");
 
-                mFile = Paths.get(sb.toString());
+            mFile = Paths.get(sb.toString());
 
-                mWriter = new WaveWriter(mAudioFormat, mFile);
-
-				/* Schedule the processor to run every 500 milliseconds */
-                mProcessorHandle = ThreadPool.SCHEDULED.scheduleAtFixedRate(mBufferProcessor, 0, 500, TimeUnit.MILLISECONDS);
-            }
-            catch(IOException io)
-            {
-                mLog.error("Error starting real buffer recorder", io);
-            }
+            /* The recording engine opens the file and writes the audio on its writer thread */
+            WaveRecordingEngine.register(this);
         }
     }
 
+    /**
+     * Stops the recorder.  Any queued audio and the audio metadata are written and the file is closed by the recording
+     * engine on its next flush cycle.
+     */
     public void stop()
     {
-        if(mRunning.compareAndSet(true, false))
-        {
-            try
-            {
-                //Finish writing any residual audio buffers
-                write();
-
-                //Append the LIST and ID3 metadata to the end
-                if(mMetadata != null)
-                {
-                    mWriter.writeMetadata(WaveMetadata.createFrom(mMetadata));
-                    mMetadata = null;
-                }
-
-                if(mWriter != null)
-                {
-                    mWriter.close();
-                    mWriter = null;
-                }
-            }
-            catch(IOException ioe)
-            {
-                mLog.error("Error writing final audio buffers to recording during shutdown", ioe);
-            }
-        }
+        mRunning.set(false);
     }
 
     /**
@@ -182,52 +146,155 @@ public class AudioPacketWaveRecorder extends Module implements Listener<Reusable
     }
 
     /**
-     * Writes all audio currently in the queue to the file.  Captures any audio metadata from the packet and retains a
-     * copy of the latest metadata to append to the end of the recording when stop() is invoked.
+     * Indicates if the wave file has been opened by the recording engine
+     */
+    boolean isOpen()
+    {
+        return mWriter != null;
+    }
+
+    /**
+     * Opens the wave file.  Invoked by the recording engine writer thread.
      *
+     * @param force true to force the file content to the storage device when the file is closed
+     * @param preallocationSize in bytes for file extent preallocation or 0 for no preallocation
+     * @throws IOException if the file cannot be created
+     */
+    void open(boolean force, long preallocationSize) throws IOException
+    {
+        mWriter = new WaveWriter(mAudioFormat, mFile);
+        mWriter.setDeferHeaderUpdates(true);
+        mWriter.setForceOnClose(force);
+        mWriter.setPreallocationSize(preallocationSize);
+    }
+
+    /**
+     * Writes all audio currently in the queue to the file, using the buffer to coalesce the audio packets into as few
+     * writes as possible.  Captures any audio metadata from the packet and retains a copy of the latest metadata to
+     * append to the end of the recording when the recording is finished.  Invoked by the recording engine writer
+     * thread.
+     *
+     * @param buffer to use for converting and coalescing audio samples
      * @throws IOException if there are any errors writing the audio
      */
-    private void write() throws IOException
+    void write(ByteBuffer buffer) throws IOException
     {
         mTransferQueue.drainTo(mAudioPacketsToProcess);
 
-        for(ReusableAudioPacket audioPacket: mAudioPacketsToProcess)
+        buffer.clear();
+
+        try
         {
-            if(audioPacket.getType() == ReusableAudioPacket.Type.AUDIO)
+            for(ReusableAudioPacket audioPacket: mAudioPacketsToProcess)
             {
-                if(audioPacket.hasMetadata())
+                if(audioPacket.getType() == ReusableAudioPacket.Type.AUDIO)
                 {
-                    mMetadata = audioPacket.getMetadata();
+                    if(audioPacket.hasMetadata())
+                    {
+                        mMetadata = audioPacket.getMetadata();
+                    }
+
+                    float[] samples = audioPacket.getAudioSamples();
+
+                    if(samples.length * 2 > buffer.capacity())
+                    {
+                        flush(buffer);
+                        mWriter.writeData(ConversionUtils.convertToSigned16BitSamples(samples));
+                    }
+                    else
+                    {
+                        if(samples.length * 2 > buffer.remaining())
+                        {
+                            flush(buffer);
+                        }
+
+                        for(float sample: samples)
+                        {
+                            buffer.putShort((short)(sample * Short.MAX_VALUE));
+                        }
+                    }
                 }
+            }
 
-                mWriter.writeData(ConversionUtils.convertToSigned16BitSamples(audioPacket.getAudioSamples()));
+            flush(buffer);
+        }
+        finally
+        {
+            for(ReusableAudioPacket audioPacket: mAudioPacketsToProcess)
+            {
+                audioPacket.decrementUserCount();
             }
 
-            audioPacket.decrementUserCount();
+            mAudioPacketsToProcess.clear();
         }
+    }
 
-        mAudioPacketsToProcess.clear();
+    /**
+     * Writes the converted audio samples from the buffer to the file and clears the buffer
+     */
+    private void flush(ByteBuffer buffer) throws IOException
+    {
+        if(buffer.position() > 0)
+        {
+            buffer.flip();
+            mWriter.writeData(buffer);
+            buffer.clear();
+        }
     }
 
     /**
-     * Scheduled runnable to periodically write the enqueued audio packets to the file
+     * Updates the wave header sizes to reflect the audio written so far.  Invoked by the recording engine writer
+     * thread.
      */
-    public class BufferProcessor implements Runnable
+    void checkpoint() throws IOException
     {
-        public void run()
+        mWriter.updateHeader();
+    }
+
+    /**
+     * Writes any residual audio and appends the LIST and ID3 metadata to the end of the recording.  Invoked by the
+     * recording engine writer thread.
+     */
+    void finish(ByteBuffer buffer) throws IOException
+    {
+        write(buffer);
+
+        if(mMetadata != null)
         {
-            try
-            {
-                write();
-            }
-            catch(IOException ioe)
-            {
-				/* Stop this module if/when we get an IO exception */
-                mTransferQueue.clear();
-                stop();
+            mWriter.writeMetadata(WaveMetadata.createFrom(mMetadata));
+            mMetadata = null;
+        }
+    }
 
-                mLog.error("IO Exception while trying to write to the wave writer", ioe);
-            }
+    /**
+     * Closes the file.  Invoked by the recording engine writer thread.
+     */
+    void close() throws IOException
+    {
+        //Release any audio packets that were enqueued while this recorder was being stopped
+        mTransferQueue.clear();
+
+        if(mWriter != null)
+        {
+            mWriter.close();
+            mWriter = null;
+        }
+    }
+
+    /**
+     * Stops this recorder after an error, discarding any queued audio.  Invoked by the recording engine writer thread.
+     */
+    void abort()
+    {
+        mRunning.set(false);
+
+        try
+        {
+            close();
+        }
+        catch(Throwable t)
+        {
+            mLog.error("Error closing wave recording after error [" + mFile + "]", t);
         }
     }
 }
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.record.wave;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.properties.SystemProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer thread recording engine for audio packet wave recorders.
+ *
+ * All file IO for all active recorders is performed on one dedicated thread.  On each flush cycle, the audio packets
+ * queued for each recorder are converted into a shared direct buffer and written to the recorder's file with a single
+ * positional write.  Wave header (RIFF and data chunk) sizes are only updated at periodic checkpoints and when the
+ * recording is closed, instead of after every write.
+ *
+ * Configuration (system properties):
+ *   wave.recorder.flush.interval.ms - interval for writing queued audio to the files (default 500)
+ *   wave.recorder.checkpoint.interval.ms - interval for updating the wave headers of open files (default 5000)
+ *   wave.recorder.fsync - NONE (no fsync), CLOSE (fsync each file when closed) or BATCH (fsync and close completed
+ *     files together at each checkpoint - default)
+ *   wave.recorder.preallocation.kb - size of file extents to preallocate ahead of the write position (default 0)
+ */
+public class WaveRecordingEngine
+{
+    private final static Logger mLog = LoggerFactory.getLogger(WaveRecordingEngine.class);
+
+    public static final String FLUSH_INTERVAL_PROPERTY = "wave.recorder.flush.interval.ms";
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = "wave.recorder.checkpoint.interval.ms";
+    public static final String FSYNC_PROPERTY = "wave.recorder.fsync";
+    public static final String PREALLOCATION_PROPERTY = "wave.recorder.preallocation.kb";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum SyncMode
+    {
+        NONE,
+        CLOSE,
+        BATCH
+    }
+
+    private static WaveRecordingEngine sInstance;
+
+    private List<AudioPacketWaveRecorder> mRecorders = new CopyOnWriteArrayList<>();
+    private List<AudioPacketWaveRecorder> mCompletedRecorders = new ArrayList<>();
+    private ByteBuffer mBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private ScheduledExecutorService mExecutor;
+    private long mCheckpointInterval;
+    private long mPreallocationSize;
+    private SyncMode mSyncMode;
+    private long mLastCheckpoint = System.currentTimeMillis();
+
+    /**
+     * Constructs an instance
+     *
+     * @param flushInterval in milliseconds for writing queued audio to files
+     * @param checkpointInterval in milliseconds for updating wave headers and batch closing completed files
+     * @param syncMode for forcing file contents to the storage device
+     * @param preallocationSize in bytes for file extent preallocation, or 0 for no preallocation
+     */
+    public WaveRecordingEngine(long flushInterval, long checkpointInterval, SyncMode syncMode, long preallocationSize)
+    {
+        mCheckpointInterval = checkpointInterval;
+        mSyncMode = syncMode;
+        mPreallocationSize = preallocationSize;
+
+        mExecutor = Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory("sdrtrunk wave recorder"));
+        mExecutor.scheduleWithFixedDelay(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                process();
+            }
+        }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Singleton instance of the recording engine
+     */
+    public static synchronized WaveRecordingEngine getInstance()
+    {
+        if(sInstance == null)
+        {
+            SystemProperties properties = SystemProperties.getInstance();
+
+            SyncMode syncMode = SyncMode.BATCH;
+
+            String mode = properties.get(FSYNC_PROPERTY, SyncMode.BATCH.name());
+
+            try
+            {
+                syncMode = SyncMode.valueOf(mode.trim().toUpperCase());
+            }
+            catch(IllegalArgumentException iae)
+            {
+                mLog.warn("Unrecognized wave recorder fsync mode [" + mode + "] - using " + syncMode);
+            }
+
+            sInstance = new WaveRecordingEngine(properties.get(FLUSH_INTERVAL_PROPERTY, 500),
+                properties.get(CHECKPOINT_INTERVAL_PROPERTY, 5000), syncMode,
+                properties.get(PREALLOCATION_PROPERTY, 0) * 1024l);
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Adds the recorder to be serviced by the singleton engine, creating the engine if it isn't running.  The
+     * recorder's file is opened on the next flush cycle and the recorder is finalized and removed on the first flush
+     * cycle after the recorder has been stopped.
+     */
+    public static synchronized void register(AudioPacketWaveRecorder recorder)
+    {
+        getInstance().mRecorders.add(recorder);
+    }
+
+    /**
+     * Stops the singleton engine, if it is running, after finalizing all recorders and closing all completed files.
+     * A recorder that is registered after shutdown is serviced by a new engine instance.
+     */
+    public static synchronized void shutdown()
+    {
+        if(sInstance != null)
+        {
+            sInstance.dispose();
+            sInstance = null;
+        }
+    }
+
+    /**
+     * Number of recorders currently serviced by this engine
+     */
+    public int getRecorderCount()
+    {
+        return mRecorders.size();
+    }
+
+    /**
+     * Stops the writer thread after finalizing all recorders and closing all completed files.  The final flush cycle
+     * runs on the writer thread so that it never runs concurrently with a scheduled flush cycle.
+     */
+    private void dispose()
+    {
+        mExecutor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for(AudioPacketWaveRecorder recorder : mRecorders)
+                {
+                    recorder.stop();
+                }
+
+                process();
+                closeCompletedRecorders();
+            }
+        });
+
+        mExecutor.shutdown();
+
+        try
+        {
+            if(!mExecutor.awaitTermination(10, TimeUnit.SECONDS))
+            {
+                mLog.warn("Timeout while waiting for the wave recorder thread to finalize recordings - recordings " +
+                    "will be finalized when the thread completes");
+            }
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Flush cycle.  Writes the queued audio for each recorder, finalizes stopped recorders and performs a checkpoint
+     * when the checkpoint interval has elapsed.
+     */
+    private void process()
+    {
+        for(AudioPacketWaveRecorder recorder : mRecorders)
+        {
+            try
+            {
+                if(!recorder.isOpen())
+                {
+                    recorder.open(mSyncMode != SyncMode.NONE, mPreallocationSize);
+                }
+
+                recorder.write(mBuffer);
+
+                if(!recorder.isRunning())
+                {
+                    mRecorders.remove(recorder);
+                    recorder.finish(mBuffer);
+
+                    if(mSyncMode == SyncMode.BATCH)
+                    {
+                        mCompletedRecorders.add(recorder);
+                    }
+                    else
+                    {
+                        recorder.close();
+                    }
+                }
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error writing wave recording [" + recorder.getFile() + "] - stopping recorder", t);
+                mRecorders.remove(recorder);
+                recorder.abort();
+            }
+        }
+
+        long now = System.currentTimeMillis();
+
+        if(now - mLastCheckpoint >= mCheckpointInterval)
+        {
+            mLastCheckpoint = now;
+
+            for(AudioPacketWaveRecorder recorder : mRecorders)
+            {
+                try
+                {
+                    recorder.checkpoint();
+                }
+                catch(Throwable t)
+                {
+                    mLog.error("Error updating wave recording header [" + recorder.getFile() + "]", t);
+                }
+            }
+
+            closeCompletedRecorders();
+        }
+    }
+
+    /**
+     * Closes (forces and renames) the files of recorders that completed since the last checkpoint
+     */
+    private void closeCompletedRecorders()
+    {
+        for(AudioPacketWaveRecorder recorder : mCompletedRecorders)
+        {
+            try
+            {
+                recorder.close();
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error closing wave recording [" + recorder.getFile() + "]", t);
+            }
+        }
+
+        mCompletedRecorders.clear();
+    }
+}
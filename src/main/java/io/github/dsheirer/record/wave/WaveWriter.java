@@ -29,7 +29,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -56,6 +55,11 @@ public class WaveWriter implements AutoCloseable
     private boolean mDataChunkOpen = false;
     private long mDataChunkSizeOffset = 0;
     private int mDataChunkSize = 0;
+    private long mPosition = 0;
+    private long mAllocatedSize = 0;
+    private long mPreallocationSize = 0;
+    private boolean mDeferHeaderUpdates = false;
+    private boolean mForceOnClose = true;
 
     /**
      * Constructs a new wave writer that is open with a complete header, ready
@@ -103,6 +107,56 @@ public class WaveWriter implements AutoCloseable
         this(format, file, Integer.MAX_VALUE * 2);
     }
 
+    /**
+     * Defers updates to the RIFF and data chunk size fields in the wave header.  By default, the header sizes are
+     * updated after each data write so that the file is always a valid wave file.  When deferred, the header sizes are
+     * only updated when updateHeader() is invoked, when a data chunk is closed and when the file is closed.
+     *
+     * @param defer true to defer header updates
+     */
+    public void setDeferHeaderUpdates(boolean defer)
+    {
+        mDeferHeaderUpdates = defer;
+    }
+
+    /**
+     * Sets the force (fsync) behavior when the file is closed.  Default is true.
+     *
+     * @param force true to force file content to the storage device when the file is closed
+     */
+    public void setForceOnClose(boolean force)
+    {
+        mForceOnClose = force;
+    }
+
+    /**
+     * Sets the size of file extents that are preallocated ahead of the current write position, so that the file grows
+     * in large contiguous extents rather than in small appends.  Extents are preallocated by writing zeros and any
+     * unused preallocated space is truncated when the file is closed.  Default is 0 (no preallocation).
+     *
+     * @param size in bytes of each preallocated extent, or 0 to disable preallocation
+     */
+    public void setPreallocationSize(long size)
+    {
+        mPreallocationSize = Math.max(size, 0);
+    }
+
+    /**
+     * Current size of the wave file content, excluding any preallocated space
+     */
+    public long getSize()
+    {
+        return mPosition;
+    }
+
+    /**
+     * Current wave file.  The file name changes when the file is rolled over.
+     */
+    public Path getFile()
+    {
+        return mFile;
+    }
+
     /**
      * Opens the file and writes a wave header.
      */
@@ -117,12 +171,63 @@ public class WaveWriter implements AutoCloseable
         }
 
         mFileChannel = (FileChannel.open(mFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW));
+        mPosition = 0;
+        mAllocatedSize = 0;
 
-        ByteBuffer header = getWaveHeader(mAudioFormat);
+        write(getWaveHeader(mAudioFormat));
+    }
+
+    /**
+     * Writes the buffer contents at the current write position, preallocating file space as needed.
+     *
+     * @return number of bytes written
+     */
+    private int write(ByteBuffer buffer) throws IOException
+    {
+        int length = buffer.remaining();
+
+        if(mPreallocationSize > 0)
+        {
+            while(mPosition + length > mAllocatedSize)
+            {
+                preallocate();
+            }
+        }
 
-        while(header.hasRemaining())
+        while(buffer.hasRemaining())
         {
-            mFileChannel.write(header);
+            mPosition += mFileChannel.write(buffer, mPosition);
+        }
+
+        return length;
+    }
+
+    /**
+     * Extends the file by one preallocated extent of zeros
+     */
+    private void preallocate() throws IOException
+    {
+        ByteBuffer extent = ByteBuffer.allocate((int)Math.min(mPreallocationSize, Integer.MAX_VALUE));
+        long position = Math.max(mAllocatedSize, mPosition);
+
+        while(extent.hasRemaining())
+        {
+            position += mFileChannel.write(extent, position);
+        }
+
+        mAllocatedSize = position;
+    }
+
+    /**
+     * Updates the RIFF and (open) data chunk size fields in the wave header to reflect the current file content.
+     */
+    public void updateHeader() throws IOException
+    {
+        updateTotalSize();
+
+        if(mDataChunkOpen)
+        {
+            updateDataChunkSize();
         }
     }
 
@@ -131,7 +236,23 @@ public class WaveWriter implements AutoCloseable
      */
     public void close() throws IOException
     {
-        mFileChannel.force(true);
+        closeDataChunk();
+
+        if(mDeferHeaderUpdates)
+        {
+            updateTotalSize();
+        }
+
+        if(mAllocatedSize > mPosition)
+        {
+            mFileChannel.truncate(mPosition);
+        }
+
+        if(mForceOnClose)
+        {
+            mFileChannel.force(true);
+        }
+
         mFileChannel.close();
 
         rename();
@@ -173,8 +294,8 @@ public class WaveWriter implements AutoCloseable
     }
 
     /**
-     * Writes the buffer contents to the file.  Assumes that the buffer is full
-     * and the first byte of data is at position 0.
+     * Writes the buffer contents to the file.  Assumes that the first byte of data is at position 0 and the last byte
+     * of data is at the buffer limit.
      */
     public void writeData(ByteBuffer buffer) throws IOException
     {
@@ -183,49 +304,48 @@ public class WaveWriter implements AutoCloseable
         openDataChunk();
 
         /* Write the full buffer if there is room, respecting the max file size */
-        if(mFileChannel.size() + buffer.capacity() < mMaxSize)
+        if(mPosition + buffer.limit() < mMaxSize)
         {
-            while(buffer.hasRemaining())
-            {
-                mDataChunkSize += mFileChannel.write(buffer);
-            }
+            mDataChunkSize += write(buffer);
 
-            updateTotalSize();
-            updateDataChunkSize();
+            updateSizes();
         }
         else
         {
             /* Split the buffer to finish filling the current file and then put
              * the leftover into a new file */
-            int remaining = (int)(mMaxSize - mFileChannel.size());
+            int remaining = (int)(mMaxSize - mPosition);
 
             /* Ensure we write full frames to fill up the remaining size */
             remaining -= (int)(remaining % mAudioFormat.getFrameSize());
 
-            byte[] bytes = buffer.array();
+            ByteBuffer current = buffer.duplicate();
+            current.limit(remaining);
 
-            ByteBuffer current = ByteBuffer.wrap(Arrays.copyOf(bytes, remaining));
+            ByteBuffer next = buffer.duplicate();
+            next.position(remaining);
 
-            ByteBuffer next = ByteBuffer.wrap(Arrays.copyOfRange(bytes,
-                remaining, bytes.length));
+            mDataChunkSize += write(current);
 
-            while(current.hasRemaining())
-            {
-                mDataChunkSize += mFileChannel.write(current);
-            }
-
-            updateTotalSize();
-            updateDataChunkSize();
+            updateSizes();
 
             rollover();
 
             openDataChunk();
 
-            while(next.hasRemaining())
-            {
-                mDataChunkSize += mFileChannel.write(next);
-            }
+            mDataChunkSize += write(next);
+
+            updateSizes();
+        }
+    }
 
+    /**
+     * Updates the header size fields after a data write, unless header updates are deferred
+     */
+    private void updateSizes() throws IOException
+    {
+        if(!mDeferHeaderUpdates)
+        {
             updateTotalSize();
             updateDataChunkSize();
         }
@@ -234,8 +354,13 @@ public class WaveWriter implements AutoCloseable
     /**
      * Closes the current data chunk
      */
-    private void closeDataChunk()
+    private void closeDataChunk() throws IOException
     {
+        if(mDataChunkOpen && mDeferHeaderUpdates)
+        {
+            updateDataChunkSize();
+        }
+
         mDataChunkOpen = false;
     }
 
@@ -249,32 +374,27 @@ public class WaveWriter implements AutoCloseable
     {
         if(!mDataChunkOpen)
         {
-            if(mFileChannel.size() + 32 >= mMaxSize)
+            if(mPosition + 32 >= mMaxSize)
             {
                 rollover();
             }
 
             ByteBuffer formatChunk = getFormatChunk(mAudioFormat);
             formatChunk.position(0);
-
-            while(formatChunk.hasRemaining())
-            {
-                mFileChannel.write(formatChunk);
-            }
+            write(formatChunk);
 
             ByteBuffer dataHeader = getDataHeader();
             dataHeader.position(0);
+            write(dataHeader);
 
-            while(dataHeader.hasRemaining())
-            {
-                mFileChannel.write(dataHeader);
-            }
-
-            mDataChunkSizeOffset = mFileChannel.size() - 4;
+            mDataChunkSizeOffset = mPosition - 4;
             mDataChunkSize = 0;
             mDataChunkOpen = true;
 
-            updateTotalSize();
+            if(!mDeferHeaderUpdates)
+            {
+                updateTotalSize();
+            }
         }
     }
 
@@ -286,7 +406,7 @@ public class WaveWriter implements AutoCloseable
     {
         ByteBuffer listChunk = metadata.getLISTChunk();
 
-        if(mFileChannel.size() + listChunk.capacity() >= mMaxSize)
+        if(mPosition + listChunk.capacity() >= mMaxSize)
         {
             throw new IOException("Cannot write LIST metadata chunk - insufficient file space remaining");
         }
@@ -294,29 +414,27 @@ public class WaveWriter implements AutoCloseable
         closeDataChunk();
 
         listChunk.position(0);
+        write(listChunk);
 
-        while(listChunk.hasRemaining())
+        if(!mDeferHeaderUpdates)
         {
-            mFileChannel.write(listChunk);
+            updateTotalSize();
         }
 
-        updateTotalSize();
-
         ByteBuffer id3Chunk = metadata.getID3Chunk();
 
-        if(mFileChannel.size() + id3Chunk.capacity() >= mMaxSize)
+        if(mPosition + id3Chunk.capacity() >= mMaxSize)
         {
             throw new IOException("Cannot write ID3 metadata chunk - insufficient file space remaining");
         }
 
         id3Chunk.position(0);
+        write(id3Chunk);
 
-        while(id3Chunk.hasRemaining())
+        if(!mDeferHeaderUpdates)
         {
-            mFileChannel.write(id3Chunk);
+            updateTotalSize();
         }
-
-        updateTotalSize();
     }
 
     /**
@@ -341,7 +459,7 @@ public class WaveWriter implements AutoCloseable
     private void updateTotalSize() throws IOException
     {
         /* Update overall wave size (total size - 8 bytes) */
-        ByteBuffer buffer = getUnsignedIntegerBuffer(mFileChannel.size() - 8);
+        ByteBuffer buffer = getUnsignedIntegerBuffer(mPosition - 8);
         mFileChannel.write(buffer, 4);
     }
 
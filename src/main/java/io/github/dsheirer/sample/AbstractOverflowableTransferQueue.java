@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+import io.github.dsheirer.source.Source;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base overflowable transfer queue.  When the queue size exceeds maximum size (overflow), all inbound elements are
+ * ignored until the queue size is reduced to or below the reset threshold.  Overflow state changes are broadcast to
+ * the registered overflow listener and source.
+ *
+ * Sub-class implementations provide the element storage.
+ */
+public abstract class AbstractOverflowableTransferQueue<E>
+{
+    private IOverflowListener mOverflowListener;
+    private Source mSourceOverflowListener;
+
+    protected AtomicBoolean mOverflow = new AtomicBoolean();
+    protected int mMaximumSize;
+    protected int mResetThreshold;
+
+    /**
+     * Constructs an instance
+     *
+     * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
+     * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
+     */
+    public AbstractOverflowableTransferQueue(int maximumSize, int resetThreshold)
+    {
+        mMaximumSize = maximumSize;
+        mResetThreshold = resetThreshold;
+    }
+
+    public void dispose()
+    {
+        clear();
+        mOverflowListener = null;
+        mSourceOverflowListener = null;
+    }
+
+    /**
+     * Adds the element to the queue if able to do so without exceeding maximum queue size.  Otherwise, ignores
+     * the element.
+     */
+    public abstract void offer(E e);
+
+    /**
+     * Removes and returns a single element from the head of the queue or null if the queue is empty
+     */
+    public abstract E poll();
+
+    /**
+     * Retrieves elements from the queue into the collection up to the maximum number of elements specified
+     */
+    public abstract int drainTo(Collection<? super E> collection, int maxElements);
+
+    /**
+     * Retrieves all elements from the queue into the collection
+     */
+    public abstract int drainTo(Collection<? super E> collection);
+
+    /**
+     * Retrieves elements from the queue into the array, up to the length of the array.
+     *
+     * @param elements reusable array to receive the elements
+     * @return number of elements transferred to the array, starting at index 0
+     */
+    public abstract int drainTo(E[] elements);
+
+    /**
+     * Current number of elements in the queue
+     */
+    public abstract int size();
+
+    /**
+     * Clears all elements from the queue and resets the overflow state
+     */
+    public abstract void clear();
+
+    /**
+     * Invoked when the buffer is in an overflow state.  The element argument is thrown away.  Override this method
+     * in subclasses to perform any necessary cleanup action(s).
+     *
+     * @param e element that is being thrown away due to an overflow condition
+     */
+    protected void overflow(E e)
+    {
+        //No-op.  Override in subclass to perform any cleanup actions during overflow
+    }
+
+    /**
+     * Sets a listener to receive overflow state change events.
+     */
+    public void setOverflowListener(IOverflowListener listener)
+    {
+        mOverflowListener = listener;
+    }
+
+    /**
+     * Sets the source to receive overflow state change events (in addition to an IOverflow listener)
+     */
+    public void setSourceOverflowListener(Source source)
+    {
+        mSourceOverflowListener = source;
+    }
+
+    /**
+     * Toggles the overflow state and broadcast state change to listener
+     */
+    protected void setOverflow(boolean overflow)
+    {
+        if(mOverflow.compareAndSet(!overflow, overflow))
+        {
+            if(mOverflowListener != null)
+            {
+                mOverflowListener.sourceOverflow(overflow);
+            }
+
+            if(mSourceOverflowListener != null)
+            {
+                mSourceOverflowListener.broadcastOverflowState(overflow);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer, single-consumer (SPSC) overflowable transfer queue backed by a pre-sized array ring buffer.
+ *
+ * This queue has the same overflow and reset threshold behavior as the OverflowableTransferQueue: when the queue size
+ * exceeds maximum size (overflow), all inbound elements are ignored until the queue size is reduced to or below the
+ * reset threshold, and overflow state changes are broadcast to the registered overflow listener and source.
+ *
+ * The producer side (offer) is lock-free and allocation-free: each element is stored in the ring and published with
+ * a single ordered write of the tail index.  The consumer side (poll/drainTo) is also allocation-free and supports
+ * batch drain into a reusable array.  Consumer methods share an uncontended monitor so that clear() can be safely
+ * invoked from a control thread while the consumer thread is still draining.
+ *
+ * Note: only one thread at a time may invoke offer().  Use the OverflowableTransferQueue for multiple producers.
+ */
+public class OverflowableRingTransferQueue<E> extends AbstractOverflowableTransferQueue<E>
+{
+    private final Object[] mRing;
+    private final int mMask;
+    private final AtomicLong mHead = new AtomicLong();
+    private final AtomicLong mTail = new AtomicLong();
+    private final Object mConsumerLock = new Object();
+
+    //Producer's cached copy of the head index to avoid a volatile read on each offer
+    private long mProducerHeadCache;
+
+    /**
+     * Constructs an instance with a ring buffer sized to the next power of two that can hold one more element than
+     * the maximum size.
+     *
+     * @param maximumSize of the queue.  Overflow state will occur once queue size exceeds this value.
+     * @param resetThreshold for resetting overflow state to normal, once queue size is at or below this value.
+     */
+    public OverflowableRingTransferQueue(int maximumSize, int resetThreshold)
+    {
+        super(maximumSize, resetThreshold);
+
+        if(maximumSize < 1 || maximumSize >= (1 << 30))
+        {
+            throw new IllegalArgumentException("Maximum size must be in the range 1 to 2^30 - 1");
+        }
+
+        int capacity = Integer.highestOneBit(maximumSize + 1);
+
+        if(capacity < maximumSize + 1)
+        {
+            capacity <<= 1;
+        }
+
+        mRing = new Object[capacity];
+        mMask = capacity - 1;
+    }
+
+    /**
+     * Capacity of the ring buffer
+     */
+    public int getCapacity()
+    {
+        return mRing.length;
+    }
+
+    /**
+     * Adds the element to the queue if able to do so without exceeding maximum queue size.  Otherwise, ignores
+     * the element.  This method must only be invoked by a single producer thread.
+     */
+    @Override
+    public void offer(E e)
+    {
+        if(mOverflow.get())
+        {
+            overflow(e);
+            return;
+        }
+
+        long tail = mTail.get();
+
+        if(tail - mProducerHeadCache >= mRing.length)
+        {
+            mProducerHeadCache = mHead.get();
+
+            if(tail - mProducerHeadCache >= mRing.length)
+            {
+                setOverflow(true);
+                overflow(e);
+                return;
+            }
+        }
+
+        mRing[(int)(tail & mMask)] = e;
+        mTail.lazySet(tail + 1);
+
+        if(tail + 1 - mProducerHeadCache > mMaximumSize)
+        {
+            mProducerHeadCache = mHead.get();
+
+            if(tail + 1 - mProducerHeadCache > mMaximumSize)
+            {
+                setOverflow(true);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns a single element from the head of the queue or null if the queue is empty
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll()
+    {
+        synchronized(mConsumerLock)
+        {
+            long head = mHead.get();
+
+            if(head >= mTail.get())
+            {
+                return null;
+            }
+
+            int index = (int)(head & mMask);
+            E element = (E)mRing[index];
+            mRing[index] = null;
+            mHead.lazySet(head + 1);
+
+            return element;
+        }
+    }
+
+    /**
+     * Retrieves elements from the queue into the array, up to the length of the array, without allocating.
+     *
+     * @param elements reusable array to receive the elements
+     * @return number of elements transferred to the array, starting at index 0
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(E[] elements)
+    {
+        synchronized(mConsumerLock)
+        {
+            long head = mHead.get();
+            int count = (int)Math.min(mTail.get() - head, elements.length);
+
+            for(int x = 0; x < count; x++)
+            {
+                int index = (int)((head + x) & mMask);
+                elements[x] = (E)mRing[index];
+                mRing[index] = null;
+            }
+
+            mHead.lazySet(head + count);
+            checkReset(head + count);
+
+            return count;
+        }
+    }
+
+    /**
+     * Retrieves elements from the queue into the collection up to the maximum number of elements specified
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super E> collection, int maxElements)
+    {
+        synchronized(mConsumerLock)
+        {
+            long head = mHead.get();
+            int count = (int)Math.min(mTail.get() - head, maxElements);
+
+            for(int x = 0; x < count; x++)
+            {
+                int index = (int)((head + x) & mMask);
+                collection.add((E)mRing[index]);
+                mRing[index] = null;
+            }
+
+            mHead.lazySet(head + count);
+            checkReset(head + count);
+
+            return count;
+        }
+    }
+
+    /**
+     * Retrieves all elements from the queue into the collection
+     */
+    @Override
+    public int drainTo(Collection<? super E> collection)
+    {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Resets the overflow state once the queue size is at or below the reset threshold
+     *
+     * @param head index after draining
+     */
+    private void checkReset(long head)
+    {
+        if(mOverflow.get() && (mTail.get() - head) <= mResetThreshold)
+        {
+            setOverflow(false);
+        }
+    }
+
+    /**
+     * Current number of elements in the queue
+     */
+    @Override
+    public int size()
+    {
+        return (int)(mTail.get() - mHead.get());
+    }
+
+    /**
+     * Clears all elements from the queue and resets the overflow state
+     */
+    @Override
+    public void clear()
+    {
+        synchronized(mConsumerLock)
+        {
+            long head = mHead.get();
+            long tail = mTail.get();
+
+            for(long x = head; x < tail; x++)
+            {
+                mRing[(int)(x & mMask)] = null;
+            }
+
+            mHead.lazySet(tail);
+            mOverflow.set(false);
+        }
+    }
+}
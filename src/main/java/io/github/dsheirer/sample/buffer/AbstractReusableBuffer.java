@@ -29,6 +29,9 @@ public abstract class AbstractReusableBuffer
     protected AtomicInteger mUserCount = new AtomicInteger();
     private String mDebugName;
 
+    //Leak detection reference to this buffer while acquired from a queue and buffer tracking is enabled
+    volatile ReusableBufferTracker.TrackingReference mTrackingReference;
+
     public AbstractReusableBuffer(IReusableBufferDisposedListener bufferDisposedListener, long timestamp)
     {
         mBufferDisposedListener = bufferDisposedListener;
@@ -15,6 +15,7 @@
  ******************************************************************************/
 package io.github.dsheirer.sample.buffer;
 
+import io.github.dsheirer.properties.SystemProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,9 +27,28 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
 {
     private final static Logger mLog = LoggerFactory.getLogger(AbstractReusableBufferQueue.class);
 
+    public static final String IDLE_MAX_PROPERTY = "buffer.queue.idle.max";
+    public static final String IDLE_TRIM_INTERVAL_PROPERTY = "buffer.queue.idle.trim.interval";
+    public static final int DEFAULT_IDLE_MAX = 16;
+    public static final int DEFAULT_IDLE_TRIM_INTERVAL_SECONDS = 30;
+
+    //Number of buffer requests between checks of the idle trim interval
+    private static final int TRIM_CHECK_REQUEST_COUNT = 256;
+
+    private static final ReusableBufferTracker sTracker = ReusableBufferTracker.getInstance();
+
+    private static final int sIdleMax = Math.max(1, SystemProperties.getInstance()
+        .get(IDLE_MAX_PROPERTY, DEFAULT_IDLE_MAX));
+    private static final long sIdleTrimInterval = Math.max(1, SystemProperties.getInstance()
+        .get(IDLE_TRIM_INTERVAL_PROPERTY, DEFAULT_IDLE_TRIM_INTERVAL_SECONDS)) * 1000L;
+
     private Queue<T> mReusableBufferQueue = new LinkedTransferQueue<>();
     private int mBufferCount = 0;
+    private int mTrimCheckCounter = 0;
+    private int mIdleLowWaterMark = Integer.MAX_VALUE;
+    private long mLastTrimTimestamp = System.currentTimeMillis();
     private String mDebugName;
+    private ReusableBufferQueueMetrics mMetrics;
 
     //Set to true to log when reusable buffers are created to monitor proper user count management
     protected boolean mBufferCreationLoggingEnabled = false;
@@ -41,6 +61,8 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
     public AbstractReusableBufferQueue(String debugName)
     {
         mDebugName = debugName;
+        mMetrics = new ReusableBufferQueueMetrics(debugName != null ? debugName : getClass().getSimpleName());
+        sTracker.register(mMetrics);
     }
 
     /**
@@ -48,6 +70,7 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
      */
     public AbstractReusableBufferQueue()
     {
+        this(null);
     }
 
     /**
@@ -64,34 +87,116 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
         }
 
         mBufferCount = 0;
+        mMetrics.cleared();
     }
 
     /**
      * Implements buffer disposed listener interface.  Disposed (ie user count = 0) buffers will automatically callback
      * to this method to indicate when they are disposed.
      *
+     * When the queue already holds the maximum number of idle buffers, the buffer is discarded instead of being
+     * retained so that a temporary burst of buffers doesn't stay resident for the life of the queue.
+     *
      * @param reusableBuffer that has been disposed
      */
     @Override
     public void disposed(T reusableBuffer)
     {
-        mReusableBufferQueue.offer(reusableBuffer);
+        if(reusableBuffer.mTrackingReference != null)
+        {
+            sTracker.released(reusableBuffer);
+        }
+
+        if(mMetrics.getPooledCount() >= sIdleMax)
+        {
+            mMetrics.discarded(false);
+            reusableBuffer.dispose();
+        }
+        else
+        {
+            mMetrics.released();
+            mReusableBufferQueue.offer(reusableBuffer);
+        }
     }
 
     /**
-     * Get a recycled buffer from the queue
+     * Get a recycled buffer from the queue.
+     *
+     * Tracks the smallest number of idle buffers seen since the last trim and, once each trim interval, discards
+     * that many idle buffers since the queue didn't need them during the interval.
      */
     protected T getRecycledBuffer()
     {
-        return mReusableBufferQueue.poll();
+        int idle = mMetrics.getPooledCount();
+
+        if(idle < mIdleLowWaterMark)
+        {
+            mIdleLowWaterMark = idle;
+        }
+
+        if(++mTrimCheckCounter >= TRIM_CHECK_REQUEST_COUNT)
+        {
+            mTrimCheckCounter = 0;
+            long now = System.currentTimeMillis();
+
+            if(now - mLastTrimTimestamp >= sIdleTrimInterval)
+            {
+                trim(mIdleLowWaterMark);
+                mIdleLowWaterMark = Integer.MAX_VALUE;
+                mLastTrimTimestamp = now;
+            }
+        }
+
+        T buffer = mReusableBufferQueue.poll();
+
+        if(buffer != null)
+        {
+            mMetrics.acquired(true);
+
+            if(sTracker.isTrackingEnabled())
+            {
+                sTracker.acquired(buffer, mMetrics);
+            }
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Discards up to the specified number of idle buffers, releasing their sample arrays to the float array pool.
+     */
+    private void trim(int count)
+    {
+        for(int x = 0; x < count; x++)
+        {
+            T buffer = mReusableBufferQueue.poll();
+
+            if(buffer == null)
+            {
+                return;
+            }
+
+            mMetrics.discarded(true);
+            buffer.dispose();
+        }
     }
 
     /**
-     * Increments the count of buffers managed by this queue.  Note: this method is NOT thread safe
+     * Increments the count of buffers managed by this queue and records the acquisition of the newly created
+     * buffer.  Note: this method is NOT thread safe
+     *
+     * @param buffer that was created
      */
-    protected void incrementBufferCount()
+    protected void incrementBufferCount(T buffer)
     {
         mBufferCount++;
+        mMetrics.created();
+        mMetrics.acquired(false);
+
+        if(sTracker.isTrackingEnabled())
+        {
+            sTracker.acquired(buffer, mMetrics);
+        }
 
         if(mBufferCreationLoggingEnabled)
         {
@@ -108,6 +213,14 @@ public abstract class AbstractReusableBufferQueue<T extends AbstractReusableBuff
         return mBufferCount;
     }
 
+    /**
+     * Allocation metrics for this queue
+     */
+    public ReusableBufferQueueMetrics getMetrics()
+    {
+        return mMetrics;
+    }
+
     /**
      * Debug name for this queue instance
      */
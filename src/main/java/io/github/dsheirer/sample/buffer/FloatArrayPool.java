@@ -0,0 +1,373 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.buffer;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global pool of orphaned float sample arrays.
+ *
+ * Buffer queues retain a small, bounded number of idle buffers (see AbstractReusableBufferQueue) and release the
+ * sample arrays of any buffers that they discard, resize or dispose to this pool, so that the arrays can be reused
+ * by buffers of any queue instead of being garbage collected.
+ *
+ * Arrays are grouped into power-of-two size classes (e.g. lengths 1025 - 2048) and the total bytes retained by each
+ * size class is capped.  Since consumers rely on getSamples().length, an array is only handed out for a request with
+ * exactly its length, so each size class holds a lock-free stack per array length.  Arrays released to a full size
+ * class are discarded.  Idle arrays are trimmed at a fixed interval: any size class that wasn't used during the trim
+ * interval is emptied.
+ *
+ * Configuration (system properties):
+ *   buffer.pool.size.class.max.bytes - maximum bytes retained per size class (default 4 MB)
+ *   buffer.pool.trim.interval - idle array trim interval in seconds (default 30, 0 to disable)
+ */
+public class FloatArrayPool
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FloatArrayPool.class);
+
+    public static final String SIZE_CLASS_MAX_BYTES_PROPERTY = "buffer.pool.size.class.max.bytes";
+    public static final String TRIM_INTERVAL_PROPERTY = "buffer.pool.trim.interval";
+    private static final int DEFAULT_SIZE_CLASS_MAX_BYTES = 4 * 1024 * 1024;
+    private static final int DEFAULT_TRIM_INTERVAL_SECONDS = 30;
+    public static final float[] EMPTY = new float[0];
+
+    private static final FloatArrayPool sInstance = createInstance();
+
+    private SizeClass[] mSizeClasses = new SizeClass[32];
+    private AtomicLong mHitCount = new AtomicLong();
+    private AtomicLong mMissCount = new AtomicLong();
+    private AtomicLong mDiscardCount = new AtomicLong();
+    private AtomicLong mTrimCount = new AtomicLong();
+
+    /**
+     * Constructs an instance.
+     *
+     * @param sizeClassMaxBytes maximum number of bytes to retain per power-of-two size class
+     */
+    public FloatArrayPool(long sizeClassMaxBytes)
+    {
+        for(int x = 0; x < mSizeClasses.length; x++)
+        {
+            mSizeClasses[x] = new SizeClass(sizeClassMaxBytes);
+        }
+    }
+
+    /**
+     * Singleton instance of the global pool
+     */
+    public static FloatArrayPool getInstance()
+    {
+        return sInstance;
+    }
+
+    /**
+     * Creates the singleton instance and schedules the idle array trim
+     */
+    private static FloatArrayPool createInstance()
+    {
+        final FloatArrayPool pool = new FloatArrayPool(SystemProperties.getInstance()
+            .get(SIZE_CLASS_MAX_BYTES_PROPERTY, DEFAULT_SIZE_CLASS_MAX_BYTES));
+
+        int trimInterval = SystemProperties.getInstance().get(TRIM_INTERVAL_PROPERTY, DEFAULT_TRIM_INTERVAL_SECONDS);
+
+        if(trimInterval > 0)
+        {
+            ThreadPool.SCHEDULED.scheduleAtFixedRate(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    pool.trim();
+                }
+            }, trimInterval, trimInterval, TimeUnit.SECONDS);
+        }
+
+        return pool;
+    }
+
+    /**
+     * Index of the power-of-two size class for the array length, where size class N holds lengths in the range
+     * (2^(N-1), 2^N].
+     *
+     * @param length of the array, greater than zero
+     */
+    static int getSizeClass(int length)
+    {
+        return 32 - Integer.numberOfLeadingZeros(length - 1);
+    }
+
+    /**
+     * Returns a float array of the requested length from the pool, or a newly allocated array if the pool does not
+     * currently contain an array of that length.  Array contents are not cleared.
+     *
+     * @param length of the array
+     * @return array with the requested length
+     */
+    public float[] get(int length)
+    {
+        if(length == 0)
+        {
+            return EMPTY;
+        }
+
+        float[] array = mSizeClasses[getSizeClass(length)].pop(length);
+
+        if(array != null)
+        {
+            mHitCount.incrementAndGet();
+            return array;
+        }
+
+        mMissCount.incrementAndGet();
+        return new float[length];
+    }
+
+    /**
+     * Returns an orphaned array to the pool for reuse.  The array is discarded if its size class is full.
+     *
+     * The caller must not retain any reference to the array after releasing it.
+     *
+     * @param array to release
+     */
+    public void release(float[] array)
+    {
+        if(array != null && array.length > 0)
+        {
+            if(!mSizeClasses[getSizeClass(array.length)].push(array))
+            {
+                mDiscardCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Empties any size classes that were not used since the previous trim.
+     *
+     * @return number of arrays discarded
+     */
+    public int trim()
+    {
+        int trimmed = 0;
+
+        for(SizeClass sizeClass: mSizeClasses)
+        {
+            trimmed += sizeClass.trim();
+        }
+
+        mTrimCount.addAndGet(trimmed);
+
+        if(trimmed > 0)
+        {
+            mLog.debug("Trimmed [" + trimmed + "] idle arrays - " + toString());
+        }
+
+        return trimmed;
+    }
+
+    /**
+     * Total number of bytes currently retained by the pool
+     */
+    public long getRetainedBytes()
+    {
+        long bytes = 0;
+
+        for(SizeClass sizeClass: mSizeClasses)
+        {
+            bytes += sizeClass.getRetainedBytes();
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Total number of arrays currently retained by the pool
+     */
+    public int getRetainedCount()
+    {
+        int count = 0;
+
+        for(SizeClass sizeClass: mSizeClasses)
+        {
+            count += sizeClass.getRetainedCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Number of requests served with a pooled array
+     */
+    public long getHitCount()
+    {
+        return mHitCount.get();
+    }
+
+    /**
+     * Number of requests served with a newly allocated array
+     */
+    public long getMissCount()
+    {
+        return mMissCount.get();
+    }
+
+    /**
+     * Number of released arrays discarded because their size class was full
+     */
+    public long getDiscardCount()
+    {
+        return mDiscardCount.get();
+    }
+
+    /**
+     * Number of idle arrays discarded by trimming
+     */
+    public long getTrimCount()
+    {
+        return mTrimCount.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Float Array Pool - Retained Arrays [").append(getRetainedCount()).append("]");
+        sb.append(" Bytes [").append(getRetainedBytes()).append("]");
+        sb.append(" Hits [").append(getHitCount()).append("]");
+        sb.append(" Misses [").append(getMissCount()).append("]");
+        sb.append(" Discarded [").append(getDiscardCount()).append("]");
+        sb.append(" Trimmed [").append(getTrimCount()).append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Power-of-two size class with a lock-free stack of pooled arrays per array length.  The retained byte count for
+     * the size class is reserved before an array is pushed, so that concurrent pushes can't exceed the maximum
+     * retained bytes.
+     */
+    private static class SizeClass
+    {
+        private Map<Integer,ConcurrentLinkedDeque<float[]>> mStacks = new ConcurrentHashMap<>();
+        private AtomicLong mRetainedBytes = new AtomicLong();
+        private AtomicInteger mRetainedCount = new AtomicInteger();
+        private long mMaxBytes;
+        private volatile boolean mUsed;
+
+        public SizeClass(long maxBytes)
+        {
+            mMaxBytes = maxBytes;
+        }
+
+        public float[] pop(int length)
+        {
+            ConcurrentLinkedDeque<float[]> stack = mStacks.get(length);
+
+            if(stack != null)
+            {
+                float[] array = stack.pollFirst();
+
+                if(array != null)
+                {
+                    removed(array);
+                    mUsed = true;
+                    return array;
+                }
+            }
+
+            return null;
+        }
+
+        public boolean push(float[] array)
+        {
+            long bytes = getBytes(array);
+
+            while(true)
+            {
+                long retained = mRetainedBytes.get();
+
+                if(retained + bytes > mMaxBytes)
+                {
+                    return false;
+                }
+
+                if(mRetainedBytes.compareAndSet(retained, retained + bytes))
+                {
+                    break;
+                }
+            }
+
+            mRetainedCount.incrementAndGet();
+            mStacks.computeIfAbsent(array.length, length -> new ConcurrentLinkedDeque<>()).offerFirst(array);
+            mUsed = true;
+
+            return true;
+        }
+
+        public int trim()
+        {
+            int trimmed = 0;
+
+            if(!mUsed)
+            {
+                for(ConcurrentLinkedDeque<float[]> stack: mStacks.values())
+                {
+                    float[] array = stack.pollFirst();
+
+                    while(array != null)
+                    {
+                        removed(array);
+                        trimmed++;
+                        array = stack.pollFirst();
+                    }
+                }
+            }
+
+            mUsed = false;
+
+            return trimmed;
+        }
+
+        public long getRetainedBytes()
+        {
+            return mRetainedBytes.get();
+        }
+
+        public int getRetainedCount()
+        {
+            return mRetainedCount.get();
+        }
+
+        private void removed(float[] array)
+        {
+            mRetainedBytes.addAndGet(-getBytes(array));
+            mRetainedCount.decrementAndGet();
+        }
+
+        private static long getBytes(float[] array)
+        {
+            return (long)array.length * 4L;
+        }
+    }
+}
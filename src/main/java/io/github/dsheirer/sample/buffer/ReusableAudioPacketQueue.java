@@ -45,7 +45,7 @@ public class ReusableAudioPacketQueue extends AbstractReusableBufferQueue<Reusab
         {
             buffer = new ReusableAudioPacket(this, size);
             buffer.setDebugName("Owner:" + getDebugName());
-            incrementBufferCount();
+            incrementBufferCount(buffer);
         }
 
         buffer.setType(ReusableAudioPacket.Type.AUDIO);
@@ -66,7 +66,7 @@ public class ReusableAudioPacketQueue extends AbstractReusableBufferQueue<Reusab
         {
             buffer = new ReusableAudioPacket(this, 0);
             buffer.setDebugName("Owner:" + getDebugName());
-            incrementBufferCount();
+            incrementBufferCount(buffer);
         }
 
         buffer.setType(ReusableAudioPacket.Type.END);
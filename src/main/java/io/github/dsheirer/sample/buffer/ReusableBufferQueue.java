@@ -41,9 +41,9 @@ public class ReusableBufferQueue extends AbstractReusableBufferQueue<ReusableFlo
 
         if(buffer == null)
         {
-            buffer = new ReusableFloatBuffer(this, new float[size]);
+            buffer = new ReusableFloatBuffer(this, FloatArrayPool.getInstance().get(size));
             buffer.setDebugName("Owner:" + getDebugName());
-            incrementBufferCount();
+            incrementBufferCount(buffer);
         }
 
         buffer.resize(size);
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.buffer;
+
+import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocation telemetry for a reusable buffer queue.
+ *
+ * Created is the number of buffers that the queue has allocated.  Pooled is the number of buffers currently waiting
+ * in the queue for reuse.  Live is the number of buffers that have been handed out by the queue and not yet
+ * recycled, which includes any leaked buffers.  Discarded is the number of idle buffers that the queue released to
+ * the float array pool instead of retaining them.  Leaked is the number of buffers that were garbage collected without
+ * being recycled, which is only detected while buffer tracking is enabled (see ReusableBufferTracker).
+ */
+public class ReusableBufferQueueMetrics
+{
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.0");
+
+    private String mName;
+    private AtomicLong mCreated = new AtomicLong();
+    private AtomicLong mAcquired = new AtomicLong();
+    private AtomicLong mReleased = new AtomicLong();
+    private AtomicLong mLeaked = new AtomicLong();
+    private AtomicLong mDiscarded = new AtomicLong();
+    private AtomicInteger mPooled = new AtomicInteger();
+    private long mRateSampleCreated;
+    private long mRateSampleTimestamp = System.currentTimeMillis();
+    private volatile double mAllocationRate;
+
+    /**
+     * Constructs an instance
+     * @param name of the reusable buffer queue
+     */
+    public ReusableBufferQueueMetrics(String name)
+    {
+        mName = name;
+    }
+
+    /**
+     * Name of the reusable buffer queue
+     */
+    public String getName()
+    {
+        return mName;
+    }
+
+    void created()
+    {
+        mCreated.incrementAndGet();
+    }
+
+    void acquired(boolean recycled)
+    {
+        mAcquired.incrementAndGet();
+
+        if(recycled)
+        {
+            mPooled.decrementAndGet();
+        }
+    }
+
+    void released()
+    {
+        mReleased.incrementAndGet();
+        mPooled.incrementAndGet();
+    }
+
+    void discarded(boolean pooled)
+    {
+        mDiscarded.incrementAndGet();
+
+        if(pooled)
+        {
+            mPooled.decrementAndGet();
+        }
+        else
+        {
+            mReleased.incrementAndGet();
+        }
+    }
+
+    void leaked()
+    {
+        mLeaked.incrementAndGet();
+    }
+
+    void cleared()
+    {
+        mPooled.set(0);
+    }
+
+    /**
+     * Number of buffers allocated by the queue
+     */
+    public long getCreatedCount()
+    {
+        return mCreated.get();
+    }
+
+    /**
+     * Number of buffers handed out by the queue, including reused buffers
+     */
+    public long getAcquiredCount()
+    {
+        return mAcquired.get();
+    }
+
+    /**
+     * Number of buffers currently handed out by the queue and not yet recycled, including any leaked buffers
+     */
+    public long getLiveCount()
+    {
+        return mAcquired.get() - mReleased.get();
+    }
+
+    /**
+     * Number of buffers currently waiting in the queue for reuse
+     */
+    public int getPooledCount()
+    {
+        return mPooled.get();
+    }
+
+    /**
+     * Number of idle buffers that were discarded, instead of being retained for reuse, because the queue already held
+     * the maximum number of idle buffers or because they remained idle for a whole trim interval
+     */
+    public long getDiscardedCount()
+    {
+        return mDiscarded.get();
+    }
+
+    /**
+     * Number of buffers that were garbage collected without being recycled while tracking was enabled
+     */
+    public long getLeakedCount()
+    {
+        return mLeaked.get();
+    }
+
+    /**
+     * Buffer allocation rate in buffers per second as calculated at the most recent rate update
+     */
+    public double getAllocationRate()
+    {
+        return mAllocationRate;
+    }
+
+    /**
+     * Updates the allocation rate using the buffers created since the previous update.
+     */
+    public synchronized void updateAllocationRate()
+    {
+        long now = System.currentTimeMillis();
+        long created = mCreated.get();
+        long elapsed = now - mRateSampleTimestamp;
+
+        if(elapsed > 0)
+        {
+            mAllocationRate = (double)(created - mRateSampleCreated) * 1000.0 / (double)elapsed;
+        }
+
+        mRateSampleCreated = created;
+        mRateSampleTimestamp = now;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Queue [").append(mName).append("]");
+        sb.append(" Created [").append(getCreatedCount()).append("]");
+        sb.append(" Live [").append(getLiveCount()).append("]");
+        sb.append(" Pooled [").append(getPooledCount()).append("]");
+        sb.append(" Discarded [").append(getDiscardedCount()).append("]");
+        sb.append(" Leaked [").append(getLeakedCount()).append("]");
+
+        synchronized(DECIMAL_FORMAT)
+        {
+            sb.append(" Allocation Rate [").append(DECIMAL_FORMAT.format(getAllocationRate())).append("/sec]");
+        }
+
+        return sb.toString();
+    }
+}
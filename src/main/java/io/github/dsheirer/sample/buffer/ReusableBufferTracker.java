@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.buffer;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable buffer leak detector and allocation telemetry registry.
+ *
+ * Each reusable buffer queue registers with this tracker to expose its allocation metrics (see getMetrics()).
+ *
+ * When tracking is enabled, the call site that acquires each buffer from a queue is recorded along with a phantom
+ * reference to the buffer.  The reference is cleared when the buffer is recycled back to its queue.  A buffer that
+ * becomes unreachable without having been recycled (ie a user count that was never decremented) is enqueued by the
+ * garbage collector and counted as a leak against the acquiring call site and the owning queue.  A report of the
+ * top-N leaking call sites, the top-N call sites with outstanding buffers and the per-queue metrics is logged
+ * periodically while tracking is enabled.
+ *
+ * Tracking captures a stack trace for each buffer acquisition and is intended for diagnostic use only.  It is
+ * disabled by default and can be enabled with the 'buffer.tracking.enabled' system property or at runtime.
+ */
+public class ReusableBufferTracker
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ReusableBufferTracker.class);
+
+    public static final String TRACKING_ENABLED_PROPERTY = "buffer.tracking.enabled";
+    public static final String REPORT_INTERVAL_PROPERTY = "buffer.tracking.report.interval";
+    public static final String REPORT_SIZE_PROPERTY = "buffer.tracking.report.size";
+    private static final int DEFAULT_REPORT_INTERVAL_SECONDS = 60;
+    private static final int DEFAULT_REPORT_SIZE = 10;
+    private static final String BUFFER_PACKAGE = ReusableBufferTracker.class.getPackage().getName() + ".";
+
+    private static final ReusableBufferTracker sInstance = createInstance();
+
+    private Map<ReusableBufferQueueMetrics,Boolean> mQueueMetrics =
+        Collections.synchronizedMap(new WeakHashMap<ReusableBufferQueueMetrics,Boolean>());
+    private ReferenceQueue<AbstractReusableBuffer> mReferenceQueue = new ReferenceQueue<>();
+    private Set<TrackingReference> mOutstandingReferences =
+        Collections.newSetFromMap(new ConcurrentHashMap<TrackingReference,Boolean>());
+    private ConcurrentHashMap<String,AtomicLong> mLeaksByCallSite = new ConcurrentHashMap<>();
+    private volatile boolean mTrackingEnabled;
+    private ScheduledFuture<?> mReportFuture;
+    private int mReportInterval;
+    private int mReportSize;
+
+    /**
+     * Private constructor for singleton access
+     */
+    private ReusableBufferTracker()
+    {
+        mReportInterval = SystemProperties.getInstance().get(REPORT_INTERVAL_PROPERTY,
+            DEFAULT_REPORT_INTERVAL_SECONDS);
+        mReportSize = SystemProperties.getInstance().get(REPORT_SIZE_PROPERTY, DEFAULT_REPORT_SIZE);
+    }
+
+    /**
+     * Singleton instance of the tracker
+     */
+    public static ReusableBufferTracker getInstance()
+    {
+        return sInstance;
+    }
+
+    /**
+     * Creates the singleton instance with tracking enabled or disabled per the system property
+     */
+    private static ReusableBufferTracker createInstance()
+    {
+        ReusableBufferTracker tracker = new ReusableBufferTracker();
+        tracker.setTrackingEnabled(SystemProperties.getInstance().get(TRACKING_ENABLED_PROPERTY, false));
+        return tracker;
+    }
+
+    /**
+     * Indicates if buffer acquisition tracking and leak detection is enabled
+     */
+    public boolean isTrackingEnabled()
+    {
+        return mTrackingEnabled;
+    }
+
+    /**
+     * Enables or disables buffer acquisition tracking and leak detection along with the periodic report.  Buffers
+     * acquired while tracking is disabled are not tracked.
+     */
+    public synchronized void setTrackingEnabled(boolean enabled)
+    {
+        mTrackingEnabled = enabled;
+
+        if(enabled && mReportFuture == null && mReportInterval > 0)
+        {
+            mReportFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        logReport();
+                    }
+                    catch(Throwable t)
+                    {
+                        mLog.error("Error while logging reusable buffer tracking report", t);
+                    }
+                }
+            }, mReportInterval, mReportInterval, TimeUnit.SECONDS);
+        }
+        else if(!enabled && mReportFuture != null)
+        {
+            mReportFuture.cancel(false);
+            mReportFuture = null;
+        }
+    }
+
+    /**
+     * Registers the queue metrics for telemetry reporting.  Queues are weakly referenced and automatically removed
+     * once they are garbage collected.
+     */
+    void register(ReusableBufferQueueMetrics metrics)
+    {
+        mQueueMetrics.put(metrics, Boolean.TRUE);
+    }
+
+    /**
+     * Records the acquisition of the buffer when tracking is enabled
+     *
+     * @param buffer that was acquired from a queue
+     * @param metrics for the owning queue
+     */
+    void acquired(AbstractReusableBuffer buffer, ReusableBufferQueueMetrics metrics)
+    {
+        if(mTrackingEnabled)
+        {
+            TrackingReference reference = new TrackingReference(buffer, getCallSite(), metrics, mReferenceQueue);
+            buffer.mTrackingReference = reference;
+            mOutstandingReferences.add(reference);
+        }
+    }
+
+    /**
+     * Clears acquisition tracking for the buffer when it is recycled to its queue
+     *
+     * @param buffer that was recycled
+     */
+    void released(AbstractReusableBuffer buffer)
+    {
+        TrackingReference reference = buffer.mTrackingReference;
+
+        if(reference != null)
+        {
+            buffer.mTrackingReference = null;
+            mOutstandingReferences.remove(reference);
+            reference.clear();
+        }
+    }
+
+    /**
+     * Processes any buffers that were garbage collected without being recycled and records them as leaks.
+     *
+     * @return number of leaks detected
+     */
+    public int processLeaks()
+    {
+        int leaks = 0;
+
+        Reference<? extends AbstractReusableBuffer> reference = mReferenceQueue.poll();
+
+        while(reference != null)
+        {
+            if(reference instanceof TrackingReference && mOutstandingReferences.remove(reference))
+            {
+                TrackingReference trackingReference = (TrackingReference)reference;
+                trackingReference.getMetrics().leaked();
+
+                AtomicLong count = mLeaksByCallSite.get(trackingReference.getCallSite());
+
+                if(count == null)
+                {
+                    count = new AtomicLong();
+                    AtomicLong existing = mLeaksByCallSite.putIfAbsent(trackingReference.getCallSite(), count);
+
+                    if(existing != null)
+                    {
+                        count = existing;
+                    }
+                }
+
+                count.incrementAndGet();
+                leaks++;
+            }
+
+            reference = mReferenceQueue.poll();
+        }
+
+        return leaks;
+    }
+
+    /**
+     * Metrics for each of the registered reusable buffer queues
+     */
+    public List<ReusableBufferQueueMetrics> getMetrics()
+    {
+        synchronized(mQueueMetrics)
+        {
+            return new ArrayList<>(mQueueMetrics.keySet());
+        }
+    }
+
+    /**
+     * Number of tracked buffers that are currently outstanding (acquired and not yet recycled or leaked)
+     */
+    public int getOutstandingCount()
+    {
+        return mOutstandingReferences.size();
+    }
+
+    /**
+     * Call sites with the largest number of leaked buffers, ordered by descending leak count.
+     *
+     * @param count of call sites to return
+     * @return map of call site to leak count
+     */
+    public List<Map.Entry<String,Long>> getTopLeakingCallSites(int count)
+    {
+        Map<String,Long> leaks = new HashMap<>();
+
+        for(Map.Entry<String,AtomicLong> entry: mLeaksByCallSite.entrySet())
+        {
+            leaks.put(entry.getKey(), entry.getValue().get());
+        }
+
+        return getTop(leaks, count);
+    }
+
+    /**
+     * Call sites with the largest number of outstanding buffers, ordered by descending buffer count.
+     *
+     * @param count of call sites to return
+     * @return map of call site to outstanding buffer count
+     */
+    public List<Map.Entry<String,Long>> getTopOutstandingCallSites(int count)
+    {
+        Map<String,Long> outstanding = new HashMap<>();
+
+        for(TrackingReference reference: mOutstandingReferences)
+        {
+            Long current = outstanding.get(reference.getCallSite());
+            outstanding.put(reference.getCallSite(), current == null ? 1L : current + 1L);
+        }
+
+        return getTop(outstanding, count);
+    }
+
+    /**
+     * Sorts the map entries by descending value and returns the top count entries
+     */
+    private static List<Map.Entry<String,Long>> getTop(Map<String,Long> map, int count)
+    {
+        List<Map.Entry<String,Long>> entries = new ArrayList<>(map.entrySet());
+
+        Collections.sort(entries, new Comparator<Map.Entry<String,Long>>()
+        {
+            @Override
+            public int compare(Map.Entry<String,Long> o1, Map.Entry<String,Long> o2)
+            {
+                return Long.compare(o2.getValue(), o1.getValue());
+            }
+        });
+
+        return entries.size() > count ? new ArrayList<>(entries.subList(0, count)) : entries;
+    }
+
+    /**
+     * Processes any leaked buffers, updates queue allocation rates and logs the top-N leaking call sites, the top-N
+     * call sites with outstanding buffers and the metrics for each active queue.
+     */
+    public void logReport()
+    {
+        int leaks = processLeaks();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Reusable Buffer Report - New Leaks [").append(leaks).append("] Outstanding Tracked Buffers [")
+            .append(getOutstandingCount()).append("]");
+
+        List<Map.Entry<String,Long>> leakingCallSites = getTopLeakingCallSites(mReportSize);
+
+        if(!leakingCallSites.isEmpty())
+        {
+            sb.append("\n  Top Leaking Call Sites:");
+
+            for(Map.Entry<String,Long> entry: leakingCallSites)
+            {
+                sb.append("\n\t").append(entry.getValue()).append(" - ").append(entry.getKey());
+            }
+        }
+
+        List<Map.Entry<String,Long>> outstandingCallSites = getTopOutstandingCallSites(mReportSize);
+
+        if(!outstandingCallSites.isEmpty())
+        {
+            sb.append("\n  Top Outstanding Call Sites:");
+
+            for(Map.Entry<String,Long> entry: outstandingCallSites)
+            {
+                sb.append("\n\t").append(entry.getValue()).append(" - ").append(entry.getKey());
+            }
+        }
+
+        sb.append("\n  Queues:");
+
+        for(ReusableBufferQueueMetrics metrics: getMetrics())
+        {
+            metrics.updateAllocationRate();
+
+            if(metrics.getCreatedCount() > 0)
+            {
+                sb.append("\n\t").append(metrics.toString());
+            }
+        }
+
+        mLog.info(sb.toString());
+    }
+
+    /**
+     * Identifies the first stack frame outside of the reusable buffer package as the acquiring call site
+     */
+    private static String getCallSite()
+    {
+        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
+
+        for(StackTraceElement element: stackTrace)
+        {
+            if(!element.getClassName().startsWith(BUFFER_PACKAGE))
+            {
+                return element.toString();
+            }
+        }
+
+        return "(unknown)";
+    }
+
+    /**
+     * Phantom reference to a tracked buffer that records the acquiring call site and the owning queue metrics
+     */
+    public static class TrackingReference extends PhantomReference<AbstractReusableBuffer>
+    {
+        private String mCallSite;
+        private ReusableBufferQueueMetrics mMetrics;
+
+        public TrackingReference(AbstractReusableBuffer buffer, String callSite, ReusableBufferQueueMetrics metrics,
+                                 ReferenceQueue<AbstractReusableBuffer> referenceQueue)
+        {
+            super(buffer, referenceQueue);
+            mCallSite = callSite;
+            mMetrics = metrics;
+        }
+
+        public String getCallSite()
+        {
+            return mCallSite;
+        }
+
+        public ReusableBufferQueueMetrics getMetrics()
+        {
+            return mMetrics;
+        }
+    }
+}
@@ -45,7 +45,7 @@ public class ReusableChannelResultsBufferQueue extends AbstractReusableBufferQue
         {
             buffer = new ReusableChannelResultsBuffer(this);
             buffer.setDebugName("Owner:" + getDebugName());
-            incrementBufferCount();
+            incrementBufferCount(buffer);
         }
 
         buffer.incrementUserCount();
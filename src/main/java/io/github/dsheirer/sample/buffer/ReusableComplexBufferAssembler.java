@@ -57,6 +57,15 @@ public class ReusableComplexBufferAssembler
         }
     }
 
+    /**
+     * Updates the sample rate used to calculate the timestamp for each assembled buffer.
+     * @param sampleRate in hertz
+     */
+    public void setSampleRate(double sampleRate)
+    {
+        mTimestampManager.setSampleRate(sampleRate);
+    }
+
     public void dispose()
     {
         mReusableComplexBufferQueue.dispose();
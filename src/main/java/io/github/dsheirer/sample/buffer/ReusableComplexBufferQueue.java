@@ -51,9 +51,9 @@ public class ReusableComplexBufferQueue extends AbstractReusableBufferQueue<Reus
 
         if(buffer == null)
         {
-            buffer = new ReusableComplexBuffer(this, new float[size]);
+            buffer = new ReusableComplexBuffer(this, FloatArrayPool.getInstance().get(size));
             buffer.setDebugName("Owner:" + getDebugName());
-            incrementBufferCount();
+            incrementBufferCount(buffer);
         }
 
         buffer.resize(size);
@@ -126,15 +126,29 @@ public class ReusableFloatBuffer extends AbstractReusableBuffer
     }
 
     /**
-     * Resizes the internal array to the size argument
+     * Resizes the internal array to the size argument.  The previous array is released to the global float array
+     * pool and the replacement array is obtained from the pool.
      * @param size for the internal array
      */
     protected void resize(int size)
     {
         if(mSamples.length != size)
         {
-            mSamples = new float[size];
+            FloatArrayPool.getInstance().release(mSamples);
+            mSamples = FloatArrayPool.getInstance().get(size);
         }
     }
 
+    /**
+     * Disposes this buffer once it is discarded or its owning queue is disposed, releasing the internal array to the
+     * global float array pool for reuse by other queues.
+     */
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+        FloatArrayPool.getInstance().release(mSamples);
+        mSamples = FloatArrayPool.EMPTY;
+    }
+
 }
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.pipeline;
+
+import io.github.dsheirer.properties.SystemProperties;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the active sample pipeline stages for reporting per-stage queue depth and latency metrics.
+ *
+ * Metrics for all active stages are periodically logged when the system property 'pipeline.metrics.log.interval'
+ * is set to a logging interval in seconds.  Logging is disabled by default (0).
+ */
+public class PipelineMonitor
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PipelineMonitor.class);
+
+    public static final String METRICS_LOG_INTERVAL_PROPERTY = "pipeline.metrics.log.interval";
+
+    private static PipelineMonitor sInstance;
+
+    private List<PipelineStage> mStages = new CopyOnWriteArrayList<>();
+    private ScheduledFuture<?> mLoggingFuture;
+
+    /**
+     * Private constructor for singleton access
+     */
+    private PipelineMonitor()
+    {
+        int interval = SystemProperties.getInstance().get(METRICS_LOG_INTERVAL_PROPERTY, 0);
+
+        if(interval > 0)
+        {
+            mLoggingFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    logMetrics();
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Singleton instance of the pipeline monitor
+     */
+    public static synchronized PipelineMonitor getInstance()
+    {
+        if(sInstance == null)
+        {
+            sInstance = new PipelineMonitor();
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Registers the stage for metrics reporting
+     */
+    void register(PipelineStage stage)
+    {
+        mStages.add(stage);
+    }
+
+    /**
+     * Removes the stage from metrics reporting
+     */
+    void unregister(PipelineStage stage)
+    {
+        mStages.remove(stage);
+    }
+
+    /**
+     * Metrics for each of the active pipeline stages
+     */
+    public List<PipelineStageMetrics> getMetrics()
+    {
+        List<PipelineStageMetrics> metrics = new ArrayList<>();
+
+        for(PipelineStage stage: mStages)
+        {
+            metrics.add(stage.getMetrics());
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Logs the metrics for each of the active pipeline stages and resets the maximum values
+     */
+    public void logMetrics()
+    {
+        List<PipelineStageMetrics> metrics = getMetrics();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Sample Pipeline Metrics - Active Stages [").append(metrics.size()).append("]");
+
+        for(PipelineStageMetrics stageMetrics: metrics)
+        {
+            sb.append("\n\t").append(stageMetrics.toString());
+            stageMetrics.resetMaximums();
+        }
+
+        mLog.info(sb.toString());
+    }
+}
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.pipeline;
+
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event-driven sample pipeline stage.  Producers invoke signal() each time they enqueue data for the stage and the
+ * stage wakes up on the pipeline executor to run the processor, instead of polling the stage's queue on a fixed rate
+ * timer.
+ *
+ * Signals are coalesced: the processor is never run by more than one thread at a time and at most one execution of
+ * the stage is pending on the executor, so the executor queue is bounded by the number of active stages.  Signals
+ * that arrive while the processor is running cause the stage to be re-submitted once the current run completes.
+ * Backpressure is provided by the (overflowable) queue that the producer enqueues data into.
+ *
+ * Stages that must also run when no data arrives (e.g. to send a heartbeat) can specify an idle interval and the
+ * stage will be woken at that interval in addition to any data arrival signals.
+ */
+public class PipelineStage implements Runnable
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PipelineStage.class);
+
+    private Runnable mProcessor;
+    private Executor mExecutor;
+    private long mIdleInterval;
+    private ScheduledFuture<?> mIdleFuture;
+    private PipelineStageMetrics mMetrics;
+    private AtomicBoolean mRunning = new AtomicBoolean();
+    private AtomicBoolean mScheduled = new AtomicBoolean();
+    private AtomicInteger mPendingSignals = new AtomicInteger();
+    private volatile long mFirstSignalTimestamp;
+
+    /**
+     * Constructs a pipeline stage that runs on the shared pipeline thread pool without an idle interval.
+     *
+     * @param name of the stage for metrics reporting
+     * @param processor to run each time the stage is signalled
+     */
+    public PipelineStage(String name, Runnable processor)
+    {
+        this(name, processor, ThreadPool.PIPELINE, 0);
+    }
+
+    /**
+     * Constructs a pipeline stage.
+     *
+     * @param name of the stage for metrics reporting
+     * @param processor to run each time the stage is signalled
+     * @param executor to run the processor
+     * @param idleInterval in milliseconds for waking the stage when no data arrives, or 0 to disable
+     */
+    public PipelineStage(String name, Runnable processor, Executor executor, long idleInterval)
+    {
+        mProcessor = processor;
+        mExecutor = executor;
+        mIdleInterval = idleInterval;
+        mMetrics = new PipelineStageMetrics(name);
+    }
+
+    /**
+     * Queue depth and latency metrics for this stage
+     */
+    public PipelineStageMetrics getMetrics()
+    {
+        return mMetrics;
+    }
+
+    /**
+     * Indicates if this stage is started
+     */
+    public boolean isRunning()
+    {
+        return mRunning.get();
+    }
+
+    /**
+     * Starts this stage so that it wakes up in response to data arrival signals and registers the stage with the
+     * pipeline monitor.
+     */
+    public void start()
+    {
+        if(mRunning.compareAndSet(false, true))
+        {
+            PipelineMonitor.getInstance().register(this);
+
+            if(mIdleInterval > 0)
+            {
+                mIdleFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(new IdleWakeup(), mIdleInterval, mIdleInterval,
+                    TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stops this stage.  Any signals received after stopping are ignored.  A processor run that is already in
+     * progress is allowed to complete.
+     */
+    public void stop()
+    {
+        if(mRunning.compareAndSet(true, false))
+        {
+            if(mIdleFuture != null)
+            {
+                mIdleFuture.cancel(false);
+                mIdleFuture = null;
+            }
+
+            mPendingSignals.set(0);
+
+            PipelineMonitor.getInstance().unregister(this);
+        }
+    }
+
+    /**
+     * Signals that data has arrived for this stage.  This method is thread-safe and returns immediately.
+     */
+    public void signal()
+    {
+        if(mRunning.get())
+        {
+            if(mPendingSignals.getAndIncrement() == 0)
+            {
+                mFirstSignalTimestamp = System.nanoTime();
+            }
+
+            schedule();
+        }
+    }
+
+    /**
+     * Wakes this stage without signalling a data arrival.
+     */
+    public void wakeup()
+    {
+        if(mRunning.get())
+        {
+            schedule();
+        }
+    }
+
+    /**
+     * Submits this stage to the executor unless it is already pending or running.
+     */
+    private void schedule()
+    {
+        if(mScheduled.compareAndSet(false, true))
+        {
+            try
+            {
+                mExecutor.execute(this);
+            }
+            catch(Exception e)
+            {
+                mScheduled.set(false);
+                mLog.error("Unable to schedule pipeline stage [" + mMetrics.getName() + "]", e);
+            }
+        }
+    }
+
+    /**
+     * Runs the processor on the executor thread and updates the stage metrics.
+     */
+    @Override
+    public void run()
+    {
+        long start = System.nanoTime();
+        long firstSignal = mFirstSignalTimestamp;
+        int queueDepth = mPendingSignals.getAndSet(0);
+
+        try
+        {
+            mProcessor.run();
+        }
+        catch(Throwable throwable)
+        {
+            mLog.error("Error while processing pipeline stage [" + mMetrics.getName() + "]", throwable);
+        }
+
+        if(queueDepth > 0)
+        {
+            mMetrics.update(queueDepth, start - firstSignal, System.nanoTime() - start);
+        }
+
+        mScheduled.set(false);
+
+        //Re-submit if signals arrived while we were processing
+        if(mPendingSignals.get() > 0 && mRunning.get())
+        {
+            schedule();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return mMetrics.toString();
+    }
+
+    /**
+     * Wakes the stage at the idle interval
+     */
+    public class IdleWakeup implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            wakeup();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.sample.pipeline;
+
+import java.text.DecimalFormat;
+
+/**
+ * Queue depth and latency metrics for a single pipeline stage.
+ *
+ * Metrics are updated by the pipeline stage processing thread, which is never more than one thread at a time for a
+ * stage, and can be read from any thread.
+ *
+ * Queue depth is the number of data arrival signals that were pending when the stage woke up to process.  Wake
+ * latency is the time between the first pending data arrival signal and the start of stage processing.  Processing
+ * time is the time spent processing each time the stage woke up.
+ */
+public class PipelineStageMetrics
+{
+    private static final double SMOOTHING = 0.05;
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.000");
+
+    private String mName;
+    private volatile long mWakeCount;
+    private volatile long mSignalCount;
+    private volatile int mQueueDepth;
+    private volatile int mMaxQueueDepth;
+    private volatile double mAverageQueueDepth;
+    private volatile long mWakeLatency;
+    private volatile long mMaxWakeLatency;
+    private volatile double mAverageWakeLatency;
+    private volatile long mProcessingTime;
+    private volatile long mMaxProcessingTime;
+    private volatile double mAverageProcessingTime;
+
+    /**
+     * Constructs an instance
+     * @param name of the pipeline stage
+     */
+    public PipelineStageMetrics(String name)
+    {
+        mName = name;
+    }
+
+    /**
+     * Name of the pipeline stage
+     */
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * Updates the metrics for a stage wake-up
+     *
+     * @param queueDepth number of data arrival signals pending at wake-up
+     * @param wakeLatency in nanoseconds from the first pending signal until wake-up
+     * @param processingTime in nanoseconds
+     */
+    void update(int queueDepth, long wakeLatency, long processingTime)
+    {
+        if(mWakeCount == 0)
+        {
+            mAverageQueueDepth = queueDepth;
+            mAverageWakeLatency = wakeLatency;
+            mAverageProcessingTime = processingTime;
+        }
+        else
+        {
+            mAverageQueueDepth += (queueDepth - mAverageQueueDepth) * SMOOTHING;
+            mAverageWakeLatency += (wakeLatency - mAverageWakeLatency) * SMOOTHING;
+            mAverageProcessingTime += (processingTime - mAverageProcessingTime) * SMOOTHING;
+        }
+
+        mWakeCount++;
+        mSignalCount += queueDepth;
+        mQueueDepth = queueDepth;
+        mWakeLatency = wakeLatency;
+        mProcessingTime = processingTime;
+
+        if(queueDepth > mMaxQueueDepth)
+        {
+            mMaxQueueDepth = queueDepth;
+        }
+
+        if(wakeLatency > mMaxWakeLatency)
+        {
+            mMaxWakeLatency = wakeLatency;
+        }
+
+        if(processingTime > mMaxProcessingTime)
+        {
+            mMaxProcessingTime = processingTime;
+        }
+    }
+
+    /**
+     * Resets the maximum values
+     */
+    public void resetMaximums()
+    {
+        mMaxQueueDepth = 0;
+        mMaxWakeLatency = 0;
+        mMaxProcessingTime = 0;
+    }
+
+    /**
+     * Number of times the stage has woken up to process
+     */
+    public long getWakeCount()
+    {
+        return mWakeCount;
+    }
+
+    /**
+     * Number of data arrival signals processed by the stage
+     */
+    public long getSignalCount()
+    {
+        return mSignalCount;
+    }
+
+    /**
+     * Queue depth at the most recent wake-up
+     */
+    public int getQueueDepth()
+    {
+        return mQueueDepth;
+    }
+
+    /**
+     * Maximum queue depth since the last reset
+     */
+    public int getMaxQueueDepth()
+    {
+        return mMaxQueueDepth;
+    }
+
+    /**
+     * Smoothed average queue depth
+     */
+    public double getAverageQueueDepth()
+    {
+        return mAverageQueueDepth;
+    }
+
+    /**
+     * Wake latency at the most recent wake-up in nanoseconds
+     */
+    public long getWakeLatency()
+    {
+        return mWakeLatency;
+    }
+
+    /**
+     * Maximum wake latency in nanoseconds since the last reset
+     */
+    public long getMaxWakeLatency()
+    {
+        return mMaxWakeLatency;
+    }
+
+    /**
+     * Smoothed average wake latency in nanoseconds
+     */
+    public double getAverageWakeLatency()
+    {
+        return mAverageWakeLatency;
+    }
+
+    /**
+     * Processing time at the most recent wake-up in nanoseconds
+     */
+    public long getProcessingTime()
+    {
+        return mProcessingTime;
+    }
+
+    /**
+     * Maximum processing time in nanoseconds since the last reset
+     */
+    public long getMaxProcessingTime()
+    {
+        return mMaxProcessingTime;
+    }
+
+    /**
+     * Smoothed average processing time in nanoseconds
+     */
+    public double getAverageProcessingTime()
+    {
+        return mAverageProcessingTime;
+    }
+
+    /**
+     * Formats the value to three decimal places
+     */
+    private static String format(double value)
+    {
+        synchronized(DECIMAL_FORMAT)
+        {
+            return DECIMAL_FORMAT.format(value);
+        }
+    }
+
+    /**
+     * Converts nanoseconds to a milliseconds string value
+     */
+    private static String toMillis(double nanoseconds)
+    {
+        return format(nanoseconds / 1E6d);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Stage [").append(mName).append("]");
+        sb.append(" Wakes [").append(mWakeCount).append("]");
+        sb.append(" Signals [").append(mSignalCount).append("]");
+        sb.append(" Queue Depth Avg/Max [").append(format(mAverageQueueDepth)).append("/")
+            .append(mMaxQueueDepth).append("]");
+        sb.append(" Wake Latency ms Avg/Max [").append(toMillis(mAverageWakeLatency)).append("/")
+            .append(toMillis(mMaxWakeLatency)).append("]");
+        sb.append(" Processing ms Avg/Max [").append(toMillis(mAverageProcessingTime)).append("/")
+            .append(toMillis(mMaxProcessingTime)).append("]");
+        return sb.toString();
+    }
+}
@@ -21,6 +21,8 @@ import io.github.dsheirer.source.Source;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.config.SourceConfigTuner;
 import io.github.dsheirer.source.tuner.TunerEvent.Event;
+import io.github.dsheirer.source.tuner.allocation.TunerAllocationStrategy;
+import io.github.dsheirer.source.tuner.allocation.TunerAllocationType;
 import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
@@ -44,6 +46,8 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
 
     private final static Logger mLog = LoggerFactory.getLogger(TunerModel.class);
 
+    public static final String TUNER_ALLOCATION_STRATEGY_PROPERTY = "tuner.allocation.strategy";
+
     public static final int TUNER_TYPE = 0;
     public static final int TUNER_ID = 1;
     public static final int SAMPLE_RATE = 2;
@@ -64,10 +68,16 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
     private DecimalFormat mFrequencyErrorPPMFormat = new DecimalFormat("0.0");
 
     private TunerConfigurationModel mTunerConfigurationModel;
+    private TunerAllocationStrategy mTunerAllocationStrategy;
 
     public TunerModel(TunerConfigurationModel tunerConfigurationModel)
     {
         mTunerConfigurationModel = tunerConfigurationModel;
+
+        TunerAllocationType allocationType = TunerAllocationType.fromName(SystemProperties.getInstance()
+            .get(TUNER_ALLOCATION_STRATEGY_PROPERTY, TunerAllocationType.LOAD_BALANCED.name()),
+            TunerAllocationType.LOAD_BALANCED);
+        mTunerAllocationStrategy = allocationType.createStrategy();
     }
 
     public TunerConfigurationModel getTunerConfigurationModel()
@@ -75,6 +85,46 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
         return mTunerConfigurationModel;
     }
 
+    /**
+     * Strategy used to select the tuner that will source each requested tuner channel
+     */
+    public TunerAllocationStrategy getTunerAllocationStrategy()
+    {
+        return mTunerAllocationStrategy;
+    }
+
+    /**
+     * Sets the strategy used to select the tuner that will source each requested tuner channel
+     */
+    public void setTunerAllocationStrategy(TunerAllocationStrategy strategy)
+    {
+        if(strategy == null)
+        {
+            throw new IllegalArgumentException("Tuner allocation strategy cannot be null");
+        }
+
+        mTunerAllocationStrategy = strategy;
+    }
+
+    /**
+     * Plans tuner allocations for a set of tuner channels that will be requested as a group (ie auto-start channels)
+     * using the current tuner allocation strategy.
+     *
+     * @param tunerChannels that will be requested
+     */
+    public void planAllocation(List<TunerChannel> tunerChannels)
+    {
+        mTunerAllocationStrategy.plan(new ArrayList<>(mTuners), tunerChannels);
+    }
+
+    /**
+     * Discards any remaining tuner allocation plan once the planned group of tuner channels has been requested
+     */
+    public void clearAllocationPlan()
+    {
+        mTunerAllocationStrategy.clearPlan();
+    }
+
     /**
      * List of Tuners currently in the model
      */
@@ -335,8 +385,9 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
     }
 
     /**
-     * Iterates current tuners to get a tuner channel source for the frequency
-     * specified in the channel config's source config object.
+     * Gets a tuner channel source for the frequency specified in the channel config's source config object from the
+     * preferred tuner, if specified, or else from the first tuner that can source the channel, in the order that the
+     * tuners are ranked by the tuner allocation strategy.
      *
      * Returns null if no tuner can source the channel
      */
@@ -348,8 +399,6 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
 
         tunerChannel.setBandwidth(channelSpecification.getBandwidth());
 
-        Iterator<Tuner> it = mTuners.iterator();
-
         Tuner tuner;
 
         if(config.hasPreferredTuner())
@@ -377,6 +426,8 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
                 config.getPreferredTuner() + "] - searching for another tuner");
         }
 
+        Iterator<Tuner> it = mTunerAllocationStrategy.getCandidates(new ArrayList<>(mTuners), tunerChannel).iterator();
+
         while(it.hasNext() && retVal == null)
         {
             tuner = it.next();
@@ -19,10 +19,6 @@ import io.github.dsheirer.dsp.filter.dc.DCRemovalFilter;
 import io.github.dsheirer.dsp.filter.hilbert.HilbertTransform;
 import io.github.dsheirer.source.tuner.usb.converter.NativeBufferConverter;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-
 public class AirspySampleConverter extends NativeBufferConverter
 {
     private static final float SCALE_SIGNED_12_BIT_TO_FLOAT = 1.0f / 2048.0f;
@@ -30,8 +26,6 @@ public class AirspySampleConverter extends NativeBufferConverter
     private DCRemovalFilter mDCFilter = new DCRemovalFilter(0.01f);
     private HilbertTransform mHilbertTransform = new HilbertTransform();
     private boolean mSamplePacking = false;
-    private FloatBuffer mFloatBuffer;
-    private float[] mConvertedSamples;
 
     /**
      * Adapter to translate byte buffers received from the airspy tuner into
@@ -41,72 +35,67 @@ public class AirspySampleConverter extends NativeBufferConverter
     {
     }
 
+    /**
+     * Each pair of 12-bit real samples (4 bytes unpacked, or 3 bytes packed) produces one complex sample (2 floats)
+     * after the hilbert transform.
+     */
     @Override
-    protected FloatBuffer convertSamples(ByteBuffer buffer, int length)
+    protected int getSampleCount(int length)
     {
-        float[] samples = convert(buffer);
-
-        if(mFloatBuffer == null || mFloatBuffer.capacity() != samples.length)
+        if(mSamplePacking)
         {
-            mFloatBuffer = FloatBuffer.allocate(samples.length);
+            return length / 3 * 2;
         }
 
-        mFloatBuffer.rewind();
-        mFloatBuffer.put(samples);
-
-        return mFloatBuffer;
+        return (length / 2) & ~1;
     }
 
     /**
-     * Sample packing places two 12-bit samples into 3 bytes when enabled or
-     * places two 12-bit samples into 4 bytes when disabled.
-     *
-     * @param enabled
+     * Converts the real 12-bit samples directly into the sample array and then applies DC removal and the hilbert
+     * transform in place to produce complex samples.
      */
-    public void setSamplePacking(boolean enabled)
-    {
-        mSamplePacking = enabled;
-    }
-
-    private float[] convert(ByteBuffer samples)
+    @Override
+    protected void convertSamples(byte[] bytes, float[] samples)
     {
         if(mSamplePacking)
         {
-            convertPacked(samples.order(ByteOrder.LITTLE_ENDIAN));
+            convertPacked(bytes, samples);
         }
         else
         {
-            convertUnpacked(samples);
+            convertUnpacked(bytes, samples);
         }
 
-        mDCFilter.filter(mConvertedSamples);
+        mDCFilter.filter(samples);
+        mHilbertTransform.filter(samples);
+    }
 
-        return mHilbertTransform.filter(mConvertedSamples);
+    /**
+     * Sample packing places two 12-bit samples into 3 bytes when enabled or
+     * places two 12-bit samples into 4 bytes when disabled.
+     *
+     * @param enabled
+     */
+    public void setSamplePacking(boolean enabled)
+    {
+        mSamplePacking = enabled;
     }
 
     /**
-     * Converts the byte array containing unsigned 12-bit short values into
+     * Converts the byte array containing little-endian unsigned 12-bit short values into
      * signed float values in the range -1 to 1;
      *
-     * @param buffer - native byte buffer containing unsigned 16-bit values
+     * @param bytes containing unsigned 16-bit values
+     * @param samples to receive the converted values
      */
-    private void convertUnpacked(ByteBuffer buffer)
+    private static void convertUnpacked(byte[] bytes, float[] samples)
     {
-        buffer.rewind();
-
-        if(mConvertedSamples == null || mConvertedSamples.length != buffer.capacity() / 2)
-        {
-            mConvertedSamples = new float[buffer.capacity() / 2];
-        }
-
-        int pointer = 0;
-
+        int offset = 0;
 
-        while(buffer.remaining() >= 2)
+        for(int x = 0; x < samples.length; x++)
         {
-            byte lsb = buffer.get();
-            byte msb = buffer.get();
-            mConvertedSamples[pointer++] = scale((lsb & 0xFF) | (msb << 8));
+            samples[x] = scale((bytes[offset] & 0xFF) | (bytes[offset + 1] << 8));
+            offset += 2;
         }
     }
 
@@ -114,38 +103,25 @@ public class AirspySampleConverter extends NativeBufferConverter
      * Converts every 3 bytes containing a pair of 12-bit unsigned values into
      * a pair of float values in the range -1 to 1;
      *
-     * @param buffer - native byte buffer containing packet 12-bit unsigned samples
+     * @param bytes containing packed 12-bit unsigned samples
+     * @param samples to receive the converted values
      */
-    private void convertPacked(ByteBuffer buffer)
+    private static void convertPacked(byte[] bytes, float[] samples)
     {
-        buffer.rewind();
-
-        int sampleCount = buffer.capacity() / 3 * 2;
-
-        if(mConvertedSamples == null || mConvertedSamples.length != sampleCount)
-        {
-            mConvertedSamples = new float[sampleCount];
-        }
-
-        int pointer = 0;
+        int offset = 0;
 
         byte b1;
         byte b2;
         byte b3;
-        int first;
-        int second;
 
-        while(buffer.remaining() >= 3)
+        for(int x = 0; x < samples.length; x += 2)
         {
-            b1 = buffer.get();
-            b2 = buffer.get();
-            b3 = buffer.get();
-
-            first = ((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF);
-            mConvertedSamples[pointer++] = scale(first);
+            b1 = bytes[offset++];
+            b2 = bytes[offset++];
+            b3 = bytes[offset++];
 
-            second = ((b2 << 8) & 0xF00) | (b3 & 0xFF);
-            mConvertedSamples[pointer++] = scale(second);
+            samples[x] = scale(((b1 << 4) & 0xFF0) | ((b2 >> 4) & 0xF));
+            samples[x + 1] = scale(((b2 << 8) & 0xF00) | (b3 & 0xFF));
         }
     }
 
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.allocation;
+
+import io.github.dsheirer.source.SourceException;
+import io.github.dsheirer.source.tuner.Tuner;
+import io.github.dsheirer.source.tuner.TunerController;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+import io.github.dsheirer.source.tuner.manager.CenterFrequencyCalculator;
+import io.github.dsheirer.source.tuner.manager.ChannelSourceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Plans tuner assignments and tuner center frequencies for a whole set of tuner channels, such as the auto-start
+ * channels, before the channels are requested.
+ *
+ * Planning sorts the channels by frequency and repeatedly selects the tuner and the run of frequency-adjacent
+ * channels that covers the most unplanned channels, where a run fits a tuner when the channels (together with any
+ * channels the tuner is already sourcing) are within the tuner's frequency range and a valid center frequency can be
+ * calculated for them.  Ties are resolved in favor of the tuner with the lowest processing load.  Each tuner receives
+ * at most one run and idle tuners are tuned to the planned center frequency.
+ *
+ * Planned channels are offered to their planned tuner first.  Unplanned channels, and planned channels that the
+ * planned tuner can't source, are allocated using the load balanced strategy.  Each planned channel is removed from
+ * the plan when the channel is requested, and any remaining plan is discarded once the group of channels has been
+ * requested, so that the plan doesn't influence channels that are requested later.
+ */
+public class BinPackingAllocationStrategy extends LoadBalancedAllocationStrategy
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BinPackingAllocationStrategy.class);
+
+    private Map<Long,Tuner> mPlannedTuners = new HashMap<>();
+
+    @Override
+    public synchronized List<Tuner> getCandidates(List<Tuner> tuners, TunerChannel tunerChannel)
+    {
+        List<Tuner> candidates = super.getCandidates(tuners, tunerChannel);
+
+        Tuner plannedTuner = mPlannedTuners.remove(tunerChannel.getFrequency());
+
+        if(plannedTuner != null && candidates.remove(plannedTuner))
+        {
+            candidates.add(0, plannedTuner);
+        }
+
+        return candidates;
+    }
+
+    @Override
+    public synchronized void plan(List<Tuner> tuners, List<TunerChannel> tunerChannels)
+    {
+        mPlannedTuners.clear();
+
+        List<TunerChannel> unplanned = new ArrayList<>(tunerChannels);
+        Collections.sort(unplanned);
+
+        List<Tuner> available = new ArrayList<>(tuners);
+
+        while(!unplanned.isEmpty() && !available.isEmpty())
+        {
+            Tuner bestTuner = null;
+            int bestStart = 0;
+            int bestCount = 0;
+            double bestLoad = Double.MAX_VALUE;
+
+            for(Tuner tuner: available)
+            {
+                for(int start = 0; start < unplanned.size(); start++)
+                {
+                    int count = getFitCount(tuner, unplanned, start);
+
+                    if(count > 0)
+                    {
+                        double load = tuner.getChannelSourceManager().getProcessingLoad(count);
+
+                        if(count > bestCount || (count == bestCount && load < bestLoad))
+                        {
+                            bestTuner = tuner;
+                            bestStart = start;
+                            bestCount = count;
+                            bestLoad = load;
+                        }
+
+                        //No later run on this tuner can be longer than one that reaches the last channel
+                        if(start + count == unplanned.size())
+                        {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if(bestTuner == null)
+            {
+                break;
+            }
+
+            List<TunerChannel> run = unplanned.subList(bestStart, bestStart + bestCount);
+
+            for(TunerChannel tunerChannel: run)
+            {
+                mPlannedTuners.put(tunerChannel.getFrequency(), bestTuner);
+            }
+
+            tune(bestTuner, run);
+
+            run.clear();
+            available.remove(bestTuner);
+        }
+
+        mLog.info("Tuner allocation plan - planned [" + mPlannedTuners.size() + "] of [" + tunerChannels.size() +
+            "] channels across [" + (tuners.size() - available.size()) + "] tuners");
+    }
+
+    @Override
+    public synchronized void clearPlan()
+    {
+        mPlannedTuners.clear();
+    }
+
+    /**
+     * Determines the number of consecutive channels, beginning at the start index, that fit the tuner along with any
+     * channels that the tuner is currently sourcing.
+     */
+    private int getFitCount(Tuner tuner, List<TunerChannel> channels, int start)
+    {
+        TunerController tunerController = tuner.getTunerController();
+        SortedSet<TunerChannel> candidateChannels = new TreeSet<>(tuner.getChannelSourceManager().getTunerChannels());
+
+        int count = 0;
+
+        for(int x = start; x < channels.size(); x++)
+        {
+            TunerChannel tunerChannel = channels.get(x);
+
+            if(!CenterFrequencyCalculator.canTune(tunerChannel, tunerController, candidateChannels))
+            {
+                break;
+            }
+
+            candidateChannels.add(tunerChannel);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Tunes an idle tuner to the planned center frequency for the channels
+     */
+    private void tune(Tuner tuner, List<TunerChannel> channels)
+    {
+        ChannelSourceManager channelSourceManager = tuner.getChannelSourceManager();
+        TunerController tunerController = tuner.getTunerController();
+
+        SortedSet<TunerChannel> plannedChannels = new TreeSet<>(channelSourceManager.getTunerChannels());
+        plannedChannels.addAll(channels);
+
+        long centerFrequency = CenterFrequencyCalculator.getCenterFrequency(tunerController, plannedChannels);
+
+        mLog.info("Tuner allocation plan - tuner [" + tuner.getName() + "] channels [" + channels.size() +
+            "] center frequency [" + centerFrequency + "]");
+
+        if(centerFrequency != CenterFrequencyCalculator.INVALID_FREQUENCY &&
+            channelSourceManager.getTunerChannelCount() == 0 && !tunerController.isLocked())
+        {
+            try
+            {
+                tunerController.setFrequency(centerFrequency);
+            }
+            catch(SourceException se)
+            {
+                mLog.error("Couldn't tune [" + tuner.getName() + "] to planned center frequency [" +
+                    centerFrequency + "]", se);
+            }
+        }
+    }
+
+    @Override
+    public TunerAllocationType getType()
+    {
+        return TunerAllocationType.BIN_PACKING;
+    }
+}
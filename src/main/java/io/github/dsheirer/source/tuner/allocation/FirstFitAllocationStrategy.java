@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.allocation;
+
+import io.github.dsheirer.source.tuner.Tuner;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offers the tuner channel to each tuner in the order that the tuners were discovered.
+ */
+public class FirstFitAllocationStrategy extends TunerAllocationStrategy
+{
+    @Override
+    public List<Tuner> getCandidates(List<Tuner> tuners, TunerChannel tunerChannel)
+    {
+        return new ArrayList<>(tuners);
+    }
+
+    @Override
+    public TunerAllocationType getType()
+    {
+        return TunerAllocationType.FIRST_FIT;
+    }
+}
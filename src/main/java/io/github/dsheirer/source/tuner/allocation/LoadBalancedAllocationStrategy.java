@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.allocation;
+
+import io.github.dsheirer.source.tuner.Tuner;
+import io.github.dsheirer.source.tuner.TunerController;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+import io.github.dsheirer.source.tuner.manager.CenterFrequencyCalculator;
+import io.github.dsheirer.source.tuner.manager.ChannelSourceManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Orders candidate tuners by a load score so that channels are spread across the available tuners instead of being
+ * piled onto the first tuner that can source the channel.  The score for each tuner (lower is better) combines:
+ *
+ * - estimated sample processing load after adding the channel, which accounts for the provisioning method (polyphase
+ *   channelizer versus per-channel heterodyne) and the tuner sample rate
+ * - tuner channel count after adding the channel
+ * - fraction of the tuner's usable bandwidth that would be consumed by the channel set after adding the channel
+ * - a penalty when the tuner's inbound sample buffer is currently in overflow, or has recently overflowed
+ *
+ * Tuners that can't source the channel alongside their current channels are ordered last, in discovery order.  Tuners
+ * with equal scores retain their discovery order.
+ */
+public class LoadBalancedAllocationStrategy extends TunerAllocationStrategy
+{
+    public static final double UNABLE_TO_SOURCE = Double.MAX_VALUE;
+
+    //Score per million complex samples per second of processing load
+    private static final double PROCESSING_LOAD_WEIGHT = 1.0;
+    private static final double CHANNEL_COUNT_WEIGHT = 0.5;
+    private static final double BANDWIDTH_WEIGHT = 2.0;
+    private static final double OVERFLOW_WEIGHT = 20.0;
+    private static final double RECENT_OVERFLOW_WEIGHT = 5.0;
+    private static final long RECENT_OVERFLOW_PERIOD_MS = 60000;
+
+    @Override
+    public List<Tuner> getCandidates(List<Tuner> tuners, TunerChannel tunerChannel)
+    {
+        List<ScoredTuner> scoredTuners = new ArrayList<>();
+        List<Tuner> unableTuners = new ArrayList<>();
+
+        for(Tuner tuner: tuners)
+        {
+            double score = getScore(tuner, tunerChannel);
+
+            if(score == UNABLE_TO_SOURCE)
+            {
+                unableTuners.add(tuner);
+            }
+            else
+            {
+                scoredTuners.add(new ScoredTuner(tuner, score));
+            }
+        }
+
+        //Collections.sort is stable so that equally scored tuners remain in discovery order
+        Collections.sort(scoredTuners);
+
+        List<Tuner> candidates = new ArrayList<>();
+
+        for(ScoredTuner scoredTuner: scoredTuners)
+        {
+            candidates.add(scoredTuner.getTuner());
+        }
+
+        candidates.addAll(unableTuners);
+
+        return candidates;
+    }
+
+    /**
+     * Calculates the allocation score for adding the tuner channel to the tuner.
+     *
+     * @param tuner to score
+     * @param tunerChannel to add
+     * @return score where lower is better, or UNABLE_TO_SOURCE if the tuner can't source the channel alongside the
+     * channels that it is currently sourcing.
+     */
+    public double getScore(Tuner tuner, TunerChannel tunerChannel)
+    {
+        ChannelSourceManager channelSourceManager = tuner.getChannelSourceManager();
+        TunerController tunerController = tuner.getTunerController();
+        SortedSet<TunerChannel> tunerChannels = channelSourceManager.getTunerChannels();
+
+        if(!CenterFrequencyCalculator.canTune(tunerChannel, tunerController, tunerChannels))
+        {
+            return UNABLE_TO_SOURCE;
+        }
+
+        int channelCount = tunerChannels.size() + 1;
+
+        SortedSet<TunerChannel> proposedChannels = new TreeSet<>(tunerChannels);
+        proposedChannels.add(tunerChannel);
+
+        double usableBandwidth = tunerController.getUsableBandwidth();
+        double remainingBandwidth = CenterFrequencyCalculator.getRemainingBandwidth(tunerController, proposedChannels);
+        double consumedBandwidth = usableBandwidth > 0 ? 1.0 - (remainingBandwidth / usableBandwidth) : 1.0;
+
+        double score = PROCESSING_LOAD_WEIGHT * channelSourceManager.getProcessingLoad(channelCount) / 1E6;
+        score += CHANNEL_COUNT_WEIGHT * channelCount;
+        score += BANDWIDTH_WEIGHT * Math.min(Math.max(consumedBandwidth, 0.0), 1.0);
+
+        if(channelSourceManager.isOverflow())
+        {
+            score += OVERFLOW_WEIGHT;
+        }
+        else if(System.currentTimeMillis() - channelSourceManager.getLastOverflowTimestamp() < RECENT_OVERFLOW_PERIOD_MS)
+        {
+            score += RECENT_OVERFLOW_WEIGHT;
+        }
+
+        return score;
+    }
+
+    @Override
+    public TunerAllocationType getType()
+    {
+        return TunerAllocationType.LOAD_BALANCED;
+    }
+
+    /**
+     * Tuner and allocation score
+     */
+    private static class ScoredTuner implements Comparable<ScoredTuner>
+    {
+        private Tuner mTuner;
+        private double mScore;
+
+        public ScoredTuner(Tuner tuner, double score)
+        {
+            mTuner = tuner;
+            mScore = score;
+        }
+
+        public Tuner getTuner()
+        {
+            return mTuner;
+        }
+
+        @Override
+        public int compareTo(ScoredTuner other)
+        {
+            return Double.compare(mScore, other.mScore);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.allocation;
+
+import io.github.dsheirer.source.tuner.Tuner;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+
+import java.util.List;
+
+/**
+ * Strategy for selecting the tuner that will source a requested tuner channel.
+ *
+ * The tuner model offers the channel to each of the candidate tuners, in the order produced by the strategy, until
+ * one of the tuner channel source managers accepts the channel.
+ */
+public abstract class TunerAllocationStrategy
+{
+    /**
+     * Orders the tuners according to their suitability for sourcing the tuner channel, most suitable first.  The
+     * returned list is a new list and always contains all of the tuners, so that tuners that are less suitable, or
+     * that don't appear able to source the channel, are still offered the channel as a last resort.
+     *
+     * @param tuners that are available
+     * @param tunerChannel requested
+     * @return new list containing all of the tuners in allocation order
+     */
+    public abstract List<Tuner> getCandidates(List<Tuner> tuners, TunerChannel tunerChannel);
+
+    /**
+     * Plans tuner allocations for a set of tuner channels that will be requested as a group, for example when the
+     * auto-start channels are started.  The default implementation does nothing.
+     *
+     * @param tuners that are available
+     * @param tunerChannels that will be requested
+     */
+    public void plan(List<Tuner> tuners, List<TunerChannel> tunerChannels)
+    {
+    }
+
+    /**
+     * Discards any remaining tuner allocation plan once the planned group of tuner channels has been requested.  The
+     * default implementation does nothing.
+     */
+    public void clearPlan()
+    {
+    }
+
+    /**
+     * Allocation type for this strategy
+     */
+    public abstract TunerAllocationType getType();
+}
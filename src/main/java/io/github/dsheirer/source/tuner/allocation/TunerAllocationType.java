@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.allocation;
+
+/**
+ * Tuner allocation strategies that can be selected for use by the tuner model.
+ */
+public enum TunerAllocationType
+{
+    FIRST_FIT("First Fit"),
+    LOAD_BALANCED("Load Balanced"),
+    BIN_PACKING("Bin Packing");
+
+    private String mLabel;
+
+    TunerAllocationType(String label)
+    {
+        mLabel = label;
+    }
+
+    /**
+     * Creates a new allocation strategy instance for this type
+     */
+    public TunerAllocationStrategy createStrategy()
+    {
+        switch(this)
+        {
+            case FIRST_FIT:
+                return new FirstFitAllocationStrategy();
+            case BIN_PACKING:
+                return new BinPackingAllocationStrategy();
+            case LOAD_BALANCED:
+            default:
+                return new LoadBalancedAllocationStrategy();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return mLabel;
+    }
+
+    /**
+     * Parses the allocation type from the enum name, or returns the default value if the name is not recognized.
+     *
+     * @param name of the allocation type
+     * @param defaultType to return if the name can't be parsed
+     * @return parsed type or the default type
+     */
+    public static TunerAllocationType fromName(String name, TunerAllocationType defaultType)
+    {
+        if(name != null)
+        {
+            for(TunerAllocationType type: values())
+            {
+                if(type.name().equalsIgnoreCase(name))
+                {
+                    return type;
+                }
+            }
+        }
+
+        return defaultType;
+    }
+}
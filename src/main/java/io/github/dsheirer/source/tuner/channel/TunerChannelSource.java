@@ -20,6 +20,8 @@ package io.github.dsheirer.source.tuner.channel;
 
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.pipeline.PipelineStage;
+import io.github.dsheirer.sample.pipeline.PipelineStageMetrics;
 import io.github.dsheirer.source.ComplexSource;
 import io.github.dsheirer.source.ISourceEventProcessor;
 import io.github.dsheirer.source.SourceEvent;
@@ -29,18 +31,17 @@ import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class TunerChannelSource extends ComplexSource implements ISourceEventProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(TunerChannelSource.class);
-    private static final long BUFFER_PROCESSOR_RUN_INTERVAL_MILLISECONDS = 50;
+    private static final long HEARTBEAT_INTERVAL_MILLISECONDS = 50;
     private SourceEventListenerToProcessorAdapter mConsumerSourceEventListenerAdapter;
     private TunerChannel mTunerChannel;
     private Listener<SourceEvent> mProducerSourceEventListener;
     private Listener<SourceEvent> mConsumerSourceEventListener;
-    private ScheduledIntervalProcessor mScheduledIntervalProcessor = new ScheduledIntervalProcessor();
+    private PipelineProcessor mPipelineProcessor = new PipelineProcessor();
 
     /**
      * Tuner Channel Source is a Digital Drop Channel (DDC) abstract class that defines the minimum functionality
@@ -93,10 +94,28 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
 
     /**
      * Commands sub-class to process queued samples and distribute them to the consumer.  This method will be invoked
-     * by an interval timer.
+     * on a pipeline thread after the sub-class signals that samples are available and at the heartbeat interval.
      */
     protected abstract void processSamples();
 
+    /**
+     * Signals that samples have been queued by the sub-class and are ready to be processed.  Sub-classes should
+     * invoke this method after enqueuing each incoming buffer.
+     */
+    protected void signalSamplesAvailable()
+    {
+        mPipelineProcessor.signal();
+    }
+
+    /**
+     * Queue depth and latency metrics for the sample processing pipeline stage of this source, or null if this
+     * source is not started.
+     */
+    public PipelineStageMetrics getPipelineMetrics()
+    {
+        return mPipelineProcessor.getMetrics();
+    }
+
     /**
      * Tuner channel for this tuner channel source
      */
@@ -119,7 +138,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         //Broadcast current frequency and sample rate so consumer can configure correctly
         broadcastConsumerSourceEvent(SourceEvent.frequencyChange(getFrequency()));
         broadcastProducerSourceEvent(SourceEvent.startSampleStreamRequest(this));
-        mScheduledIntervalProcessor.start();
+        mPipelineProcessor.start();
     }
 
     /**
@@ -130,7 +149,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     {
         broadcastProducerSourceEvent(SourceEvent.stopSampleStreamRequest(this));
         broadcastProducerSourceEvent(SourceEvent.sourceDisposeRequest(this));
-        mScheduledIntervalProcessor.stop();
+        mPipelineProcessor.stop();
     }
 
     @Override
@@ -248,14 +267,17 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     }
 
     /**
-     * Processor to periodically invoke buffer sample processing on an interval timer.  At each interval this processor
-     * sends a heartbeat to the registered consumer and then commands the sub-class implementation to process any
-     * queued buffers and distribute complex buffer sample(s) to the registered consumer.
+     * Event-driven processor that invokes buffer sample processing when the sub-class signals that samples are
+     * available.  This processor also sends a heartbeat to the registered consumer at the heartbeat interval, whether
+     * or not samples arrive, and then commands the sub-class implementation to process any queued buffers and
+     * distribute complex buffer sample(s) to the registered consumer.
      */
-    public class ScheduledIntervalProcessor implements Runnable
+    public class PipelineProcessor implements Runnable
     {
-        private ScheduledFuture<?> mScheduledFuture;
-        private boolean mStopped = false;
+        private PipelineStage mPipelineStage;
+        private volatile boolean mStopped = false;
+        private AtomicBoolean mDisposed = new AtomicBoolean();
+        private long mLastHeartbeat;
 
         /**
          * Commands this processor to do a shutdown at the end of this or the next iteration.  Once successfully
@@ -264,35 +286,68 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         public void stop()
         {
             mStopped = true;
+
+            if(mPipelineStage != null)
+            {
+                mPipelineStage.wakeup();
+            }
         }
 
         /**
-         * Starts buffer processing on a fixed interval using a scheduled thread pool
+         * Starts event-driven buffer processing on the pipeline thread pool
          */
         public void start()
         {
-            if(mScheduledFuture == null)
+            if(mPipelineStage == null)
             {
-                mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this, 0,
-                    BUFFER_PROCESSOR_RUN_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
+                mPipelineStage = new PipelineStage("Tuner Channel Source " + getTunerChannel().getFrequency(), this,
+                    ThreadPool.PIPELINE, HEARTBEAT_INTERVAL_MILLISECONDS);
+                mPipelineStage.start();
             }
         }
 
         /**
-         * Implementation of the Runnable interface to periodically send a heartbeat and then process buffer samples.
+         * Signals that samples are available for processing
+         */
+        public void signal()
+        {
+            if(mPipelineStage != null)
+            {
+                mPipelineStage.signal();
+            }
+        }
+
+        /**
+         * Queue depth and latency metrics for this processor or null if the processor is not started
+         */
+        public PipelineStageMetrics getMetrics()
+        {
+            return mPipelineStage != null ? mPipelineStage.getMetrics() : null;
+        }
+
+        /**
+         * Implementation of the Runnable interface to send a heartbeat at the heartbeat interval and then process
+         * buffer samples.
          */
         @Override
         public void run()
         {
             if(!mStopped)
             {
-                try
-                {
-                    getHeartbeatManager().broadcast();
-                }
-                catch(Throwable t)
+                long now = System.currentTimeMillis();
+
+                if(now - mLastHeartbeat >= HEARTBEAT_INTERVAL_MILLISECONDS)
                 {
-                    mLog.error("Error while sending heartbeat", t);
+                    mLastHeartbeat = now;
+
+                    try
+                    {
+                        getHeartbeatManager().broadcast();
+                    }
+                    catch(Throwable t)
+                    {
+                        mLog.error("Error while sending heartbeat", t);
+                    }
                 }
             }
 
@@ -308,15 +363,9 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
                 }
             }
 
-            if(mStopped)
+            if(mStopped && mDisposed.compareAndSet(false, true))
             {
-                if(mScheduledFuture != null)
-                {
-                    //Set may-interrupt to false so that we can complete this iteration
-                    mScheduledFuture.cancel(false);
-                }
-
-                mScheduledFuture = null;
+                mPipelineStage.stop();
 
                 try
                 {
@@ -115,6 +115,25 @@ public class CenterFrequencyCalculator
         return INVALID_FREQUENCY;
     }
 
+    /**
+     * Calculates the usable bandwidth that remains available to the tuner after sourcing the set of channels, which
+     * is the tuner's usable bandwidth minus the frequency span of the channel set.
+     *
+     * @param tunerController that is providing tuner channels
+     * @param channels currently sourced (or proposed to be sourced) by the tuner
+     * @return remaining usable bandwidth in hertz, or a negative value if the channel set exceeds the usable bandwidth
+     */
+    public static long getRemainingBandwidth(TunerController tunerController, SortedSet<TunerChannel> channels)
+    {
+        if(channels.isEmpty())
+        {
+            return tunerController.getUsableBandwidth();
+        }
+
+        return tunerController.getUsableBandwidth() - (channels.last().getMaxFrequency() -
+            channels.first().getMinFrequency());
+    }
+
     /**
      * Indicates if channel along with all of the other currently sourced
      * channels can fit within the tunable bandwidth.
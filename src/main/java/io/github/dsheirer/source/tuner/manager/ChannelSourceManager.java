@@ -16,6 +16,7 @@
 package io.github.dsheirer.source.tuner.manager;
 
 import io.github.dsheirer.sample.Broadcaster;
+import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.source.ISourceEventProcessor;
 import io.github.dsheirer.source.SourceEvent;
@@ -24,14 +25,22 @@ import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 
 import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Interface to define the functionality of a channel source manager for handling tuner channel management and source
  * event listeners.
+ *
+ * The channel source manager also tracks the overflow state of the tuner sample stream that it is processing, as
+ * reported by the implementation's inbound sample buffer, so that tuner allocation strategies can avoid tuners that
+ * can't keep up with their current processing load.
  */
-public abstract class ChannelSourceManager implements ISourceEventProcessor
+public abstract class ChannelSourceManager implements ISourceEventProcessor, IOverflowListener
 {
     private Broadcaster<SourceEvent> mSourceEventBroadcaster = new Broadcaster<>();
+    private AtomicInteger mOverflowCount = new AtomicInteger();
+    private volatile boolean mOverflow;
+    private volatile long mLastOverflowTimestamp;
 
     /**
      * Sorted set of tuner channels being sourced by this source manager.  Set is ordered by frequency lowest to highest
@@ -56,6 +65,56 @@ public abstract class ChannelSourceManager implements ISourceEventProcessor
      */
     public abstract TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification);
 
+    /**
+     * Estimated sample processing load for sourcing the specified number of tuner channels, in complex samples per
+     * second.  This is a relative measure used to compare the cost of channel provisioning methods across tuners.
+     *
+     * @param channelCount number of tuner channels
+     * @return estimated processing load in complex samples per second
+     */
+    public abstract double getProcessingLoad(int channelCount);
+
+    /**
+     * Receives overflow state changes from the inbound tuner sample buffer
+     *
+     * @param overflow true to indicate an overflow state
+     */
+    @Override
+    public void sourceOverflow(boolean overflow)
+    {
+        mOverflow = overflow;
+
+        if(overflow)
+        {
+            mOverflowCount.incrementAndGet();
+            mLastOverflowTimestamp = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Indicates if the inbound tuner sample buffer is currently in an overflow state
+     */
+    public boolean isOverflow()
+    {
+        return mOverflow;
+    }
+
+    /**
+     * Number of times that the inbound tuner sample buffer has entered an overflow state
+     */
+    public int getOverflowCount()
+    {
+        return mOverflowCount.get();
+    }
+
+    /**
+     * Timestamp of the most recent overflow of the inbound tuner sample buffer, or 0 if it has never overflowed
+     */
+    public long getLastOverflowTimestamp()
+    {
+        return mLastOverflowTimestamp;
+    }
+
     /**
      * Adds a listener to receive source events
      */
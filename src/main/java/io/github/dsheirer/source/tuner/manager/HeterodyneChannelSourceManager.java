@@ -66,6 +66,15 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
         return mTunerChannels.size();
     }
 
+    /**
+     * Estimated processing load.  Each heterodyne channel source mixes and decimates the full tuner sample rate.
+     */
+    @Override
+    public double getProcessingLoad(int channelCount)
+    {
+        return Math.max(channelCount, 0) * mTunerController.getSampleRate();
+    }
+
     @Override
     public TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
     {
@@ -47,6 +47,8 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         mPolyphaseChannelManager = new PolyphaseChannelManager(tunerController);
         //Register to receive channel count change notifications for rebroadcasting
         mPolyphaseChannelManager.addSourceEventListener(this::process);
+        //Register to receive overflow state changes for the inbound tuner sample buffer
+        mPolyphaseChannelManager.setOverflowListener(this);
         mTunerController.addListener(mPolyphaseChannelManager);
     }
 
@@ -384,6 +386,21 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         return mPolyphaseChannelManager.getTunerChannelCount();
     }
 
+    /**
+     * Estimated processing load.  The polyphase channelizer processes the full tuner sample rate once any channel is
+     * sourced and each channel adds a comparatively small output processing load at the channel sample rate.
+     */
+    @Override
+    public double getProcessingLoad(int channelCount)
+    {
+        if(channelCount <= 0)
+        {
+            return 0.0;
+        }
+
+        return mTunerController.getSampleRate() + (channelCount * mPolyphaseChannelManager.getChannelSampleRate());
+    }
+
     /**
      * Allocates a tuner channel source for the tuner channel.
      *
@@ -17,6 +17,7 @@ package io.github.dsheirer.source.tuner.usb;
 
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.pipeline.PipelineStage;
 import io.github.dsheirer.source.tuner.TunerManager;
 import io.github.dsheirer.source.tuner.usb.converter.NativeBufferConverter;
 import io.github.dsheirer.util.ThreadPool;
@@ -62,8 +63,7 @@ public class USBTransferProcessor implements TransferCallback
     private DeviceHandle mUsbBulkTransferDeviceHandle;
     private AtomicBoolean mRunning = new AtomicBoolean();
     private ByteBuffer mLibUsbHandlerStatus = ByteBuffer.allocateDirect(4);
-    private CompletedTransferProcessor mCompletedTransferProcessor = new CompletedTransferProcessor();
-    private ScheduledFuture mBufferDispatcherFuture;
+    private PipelineStage mBufferDispatcher;
     private ScheduledFuture mRestartFuture;
     private String mDeviceName;
 
@@ -84,6 +84,7 @@ public class USBTransferProcessor implements TransferCallback
         mUsbBulkTransferDeviceHandle = usbBulkTransferDeviceHandle;
         mNativeBufferConverter = nativeBufferConverter;
         mBufferSize = bufferSize;
+        mBufferDispatcher = new PipelineStage(deviceName + " USB Transfer Processor", new CompletedTransferProcessor());
     }
 
     /**
@@ -125,8 +126,7 @@ public class USBTransferProcessor implements TransferCallback
             submitTransfers();
 
             //Start transferred buffer dispatcher
-            mBufferDispatcherFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(mCompletedTransferProcessor,
-                0, 6, TimeUnit.MILLISECONDS);
+            mBufferDispatcher.start();
 
             //Register with LibUSB processor so that it auto-starts LibUSB processing
             TunerManager.LIBUSB_TRANSFER_PROCESSOR.registerTransferProcessor(this);
@@ -140,7 +140,7 @@ public class USBTransferProcessor implements TransferCallback
     {
         if(mRunning.compareAndSet(true, false))
         {
-            mBufferDispatcherFuture.cancel(true);
+            mBufferDispatcher.stop();
 
             //Cancel all buffers that are currently in progress
             for(Transfer transfer : mInProgressTransfers)
@@ -332,8 +332,8 @@ public class USBTransferProcessor implements TransferCallback
     /**
      * Process a filled transfer buffer received back from the USB device.  Note: this method is invoked on the USB
      * bus processing thread, so we try to keep processing to a minimum and place transfers in the completed
-     * transfer queue so that the scheduled processor thread handles any conversion and additional downstream
-     * processing workload.
+     * transfer queue and signal the buffer dispatcher so that the pipeline processor thread handles any conversion
+     * and additional downstream processing workload.
      */
     @Override
     public void processTransfer(Transfer transfer)
@@ -348,6 +348,7 @@ public class USBTransferProcessor implements TransferCallback
                 if(transfer.actualLength() > 0)
                 {
                     mCompletedTransfers.add(transfer);
+                    mBufferDispatcher.signal();
                 }
                 else
                 {
@@ -15,9 +15,6 @@
  ******************************************************************************/
 package io.github.dsheirer.source.tuner.usb.converter;
 
-import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
-
 public class ByteSampleConverter extends NativeBufferConverter
 {
     private final static float[] LOOKUP_VALUES;
@@ -34,8 +31,6 @@ public class ByteSampleConverter extends NativeBufferConverter
         }
     }
 
-    private FloatBuffer mFloatBuffer;
-
     /**
      * Converts native byte buffers containing 8-bit complex samples into complex float samples loaded into a tracked,
      * reusable complex sample buffer.  Internally tracks the reusable buffer until all downstream consumers have finished
@@ -46,35 +41,38 @@ public class ByteSampleConverter extends NativeBufferConverter
     }
 
     /**
-     * Converts the 8-bit complex samples contained in the native buffer into floats that are loaded into a float
-     * buffer and subsequently transferred to a reusable complex buffer by the parent class.
-     *
-     * @param nativeBuffer containing 8-bit complex samples
-     * @param length of bytes to read from the native buffer
-     * @return float buffer loaded with converted samples
+     * Each unsigned 8-bit sample byte produces one float value
      */
     @Override
-    protected FloatBuffer convertSamples(ByteBuffer nativeBuffer, int length)
+    protected int getSampleCount(int length)
     {
-        nativeBuffer.rewind();
-
-        if(mFloatBuffer == null || mFloatBuffer.capacity() != nativeBuffer.capacity())
-        {
-            mFloatBuffer = FloatBuffer.allocate(nativeBuffer.capacity());
-        }
-
-        mFloatBuffer.rewind();
+        return length & ~1;
+    }
 
-        int count = 0;
+    /**
+     * Converts the unsigned 8-bit complex samples into floats using a lookup table.
+     *
+     * @param bytes containing 8-bit complex samples
+     * @param samples to receive the converted samples
+     */
+    @Override
+    protected void convertSamples(byte[] bytes, float[] samples)
+    {
+        convert(bytes, samples, LOOKUP_VALUES);
+    }
 
-        while(nativeBuffer.hasRemaining() && count < length)
+    /**
+     * Converts 8-bit sample bytes to float values using the 256 entry lookup table, indexed by the unsigned byte value.
+     *
+     * @param bytes to convert
+     * @param samples to receive the converted values, one per byte, for the length of this array
+     * @param lookup table of float values
+     */
+    static void convert(byte[] bytes, float[] samples, float[] lookup)
+    {
+        for(int x = 0; x < samples.length; x++)
         {
-            byte sample = nativeBuffer.get();
-            count++;
-
-            mFloatBuffer.put(LOOKUP_VALUES[(sample & 0xFF)]);
+            samples[x] = lookup[bytes[x] & 0xFF];
         }
-
-        return mFloatBuffer;
     }
 }
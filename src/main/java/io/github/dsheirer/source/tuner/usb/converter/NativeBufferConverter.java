@@ -19,15 +19,18 @@ import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
 
 import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
 
 public abstract class NativeBufferConverter
 {
     private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("NativeBufferConverter");
+    private byte[] mBytes = new byte[0];
 
     /**
      * Converts native byte buffers into complex float samples and produces reusable complex sample buffers.  Tracks
      * each reusable buffer until the downstream consumer(s) are finished with the buffer and then reuses the buffer.
+     *
+     * Note: conversion reuses an internal byte array and is not thread safe.  Each converter instance must only be
+     * used by one thread at a time.
      */
     public NativeBufferConverter()
     {
@@ -38,27 +41,61 @@ public abstract class NativeBufferConverter
      * tracks each reusable buffer until all consumers indicate they are finished processing the buffer and then reuses
      * the buffer.
      *
+     * The native buffer contents are transferred with a single bulk read and converted in one pass directly into the
+     * reusable buffer's sample array.
+     *
      * @param byteBuffer containing native memory byte samples
+     * @param length of bytes to convert from the native buffer
      * @return native buffer samples converted to complex floats loaded into a reusable buffer
      */
     public ReusableComplexBuffer convert(ByteBuffer byteBuffer, int length)
     {
-        FloatBuffer floatBuffer = convertSamples(byteBuffer, length);
+        length = Math.min(length, byteBuffer.capacity());
 
-        ReusableComplexBuffer reusableComplexBuffer = mReusableComplexBufferQueue.getBuffer(floatBuffer.capacity());
+        ReusableComplexBuffer reusableComplexBuffer = mReusableComplexBufferQueue.getBuffer(getSampleCount(length));
+        reusableComplexBuffer.setTimestamp(System.currentTimeMillis());
 
-        //The reusable buffer will rewind the float buffer to the beginning
-        reusableComplexBuffer.reloadFrom(floatBuffer, System.currentTimeMillis());
+        convertSamples(getBytes(byteBuffer, length), reusableComplexBuffer.getSamples());
 
         return reusableComplexBuffer;
     }
 
     /**
-     * Converts the native byte buffer bytes into complex float samples.
+     * Transfers the bytes from the native buffer into a reusable byte array using a single bulk read.
+     *
+     * @param byteBuffer containing native memory byte samples
+     * @param length of bytes to transfer
+     * @return reusable byte array containing the transferred bytes, starting at index 0
+     */
+    private byte[] getBytes(ByteBuffer byteBuffer, int length)
+    {
+        if(mBytes.length < length)
+        {
+            mBytes = new byte[length];
+        }
+
+        byteBuffer.rewind();
+        byteBuffer.get(mBytes, 0, length);
+
+        return mBytes;
+    }
+
+    /**
+     * Number of float values (ie 2 x complex sample count) produced when converting the number of native bytes.  The
+     * returned value must be even.
+     *
+     * @param length of native bytes to convert
+     * @return number of float values
+     */
+    protected abstract int getSampleCount(int length);
+
+    /**
+     * Converts the native sample bytes into complex float samples.
      *
-     * @param buffer containing native byte buffer samples
-     * @return a buffer with complex float samples.  This float buffer will not be modified, therefore sub-class
-     * implementations can reuse the float buffer.
+     * @param bytes containing native sample bytes, starting at index 0.  The array may be longer than the number of
+     * bytes to convert.
+     * @param samples array to receive the converted interleaved complex float samples.  The number of bytes to
+     * convert corresponds to the length of this array (see getSampleCount()).
      */
-    protected abstract FloatBuffer convertSamples(ByteBuffer buffer, int length);
+    protected abstract void convertSamples(byte[] bytes, float[] samples);
 }
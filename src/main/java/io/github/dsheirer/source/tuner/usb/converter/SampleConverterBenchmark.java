@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.usb.converter;
+
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import io.github.dsheirer.source.tuner.airspy.AirspySampleConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+/**
+ * Microbenchmark for the native buffer sample converters.  Measures the per-sample conversion cost of each of the
+ * tuner sample formats (unsigned 8-bit RTL-SDR, signed 8-bit HackRF and packed/unpacked 12-bit Airspy) and compares
+ * the 8-bit conversion against the original per-byte ByteBuffer.get()/FloatBuffer.put() conversion followed by a
+ * copy into the reusable buffer.
+ *
+ * Usage: SampleConverterBenchmark [transfer buffer size bytes] [iterations]
+ */
+public class SampleConverterBenchmark
+{
+    private final static Logger mLog = LoggerFactory.getLogger(SampleConverterBenchmark.class);
+
+    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.00");
+    private static final int WARMUP_ITERATIONS = 2000;
+
+    private ByteBuffer mNativeBuffer;
+    private int mIterations;
+
+    public SampleConverterBenchmark(int bufferSize, int iterations)
+    {
+        mIterations = iterations;
+        mNativeBuffer = ByteBuffer.allocateDirect(bufferSize);
+
+        Random random = new Random(0);
+        byte[] bytes = new byte[bufferSize];
+        random.nextBytes(bytes);
+        mNativeBuffer.put(bytes);
+        mNativeBuffer.rewind();
+    }
+
+    /**
+     * Runs the conversion repeatedly and logs the average cost per converted byte
+     */
+    private void benchmark(String label, NativeBufferConverter converter)
+    {
+        for(int x = 0; x < WARMUP_ITERATIONS; x++)
+        {
+            converter.convert(mNativeBuffer, mNativeBuffer.capacity()).decrementUserCount();
+        }
+
+        long start = System.nanoTime();
+
+        for(int x = 0; x < mIterations; x++)
+        {
+            converter.convert(mNativeBuffer, mNativeBuffer.capacity()).decrementUserCount();
+        }
+
+        log(label, System.nanoTime() - start);
+    }
+
+    private void log(String label, long elapsed)
+    {
+        double nanosPerByte = (double)elapsed / ((double)mIterations * mNativeBuffer.capacity());
+        mLog.info(label + " " + DECIMAL_FORMAT.format(nanosPerByte) + " ns/byte");
+    }
+
+    /**
+     * Verifies that the 8-bit conversion matches the original conversion and benchmarks the original conversion
+     */
+    private void benchmarkOriginal()
+    {
+        OriginalByteSampleConverter original = new OriginalByteSampleConverter();
+
+        ReusableComplexBuffer expected = original.convert(mNativeBuffer, mNativeBuffer.capacity());
+        ReusableComplexBuffer actual = new ByteSampleConverter().convert(mNativeBuffer, mNativeBuffer.capacity());
+
+        float[] expectedSamples = expected.getSamples();
+        float[] actualSamples = actual.getSamples();
+
+        for(int x = 0; x < expectedSamples.length; x++)
+        {
+            if(expectedSamples[x] != actualSamples[x])
+            {
+                throw new IllegalStateException("Converted sample mismatch at index " + x);
+            }
+        }
+
+        expected.decrementUserCount();
+        actual.decrementUserCount();
+
+        for(int x = 0; x < WARMUP_ITERATIONS; x++)
+        {
+            original.convert(mNativeBuffer, mNativeBuffer.capacity()).decrementUserCount();
+        }
+
+        long start = System.nanoTime();
+
+        for(int x = 0; x < mIterations; x++)
+        {
+            original.convert(mNativeBuffer, mNativeBuffer.capacity()).decrementUserCount();
+        }
+
+        log("Unsigned 8-bit (original per-byte get + copy)", System.nanoTime() - start);
+    }
+
+    public void run()
+    {
+        mLog.info("Benchmarking sample converters - buffer size [" + mNativeBuffer.capacity() +
+            "] iterations [" + mIterations + "]");
+
+        benchmarkOriginal();
+        benchmark("Unsigned 8-bit (RTL-SDR)", new ByteSampleConverter());
+        benchmark("Signed 8-bit (HackRF)", new SignedByteSampleConverter());
+
+        AirspySampleConverter airspy = new AirspySampleConverter();
+        benchmark("Unpacked 12-bit (Airspy) incl. DC filter and hilbert", airspy);
+        airspy.setSamplePacking(true);
+        benchmark("Packed 12-bit (Airspy) incl. DC filter and hilbert", airspy);
+    }
+
+    /**
+     * Original 8-bit conversion: per-byte reads from the native buffer into a float buffer followed by a copy into
+     * the reusable buffer.
+     */
+    public static class OriginalByteSampleConverter
+    {
+        private static final float[] LOOKUP_VALUES = new float[256];
+
+        static
+        {
+            for(int x = 0; x < 256; x++)
+            {
+                LOOKUP_VALUES[x] = (float)(x - 127) / 128.0f;
+            }
+        }
+
+        private ReusableComplexBufferQueue mQueue = new ReusableComplexBufferQueue("OriginalByteSampleConverter");
+        private FloatBuffer mFloatBuffer;
+
+        public ReusableComplexBuffer convert(ByteBuffer nativeBuffer, int length)
+        {
+            nativeBuffer.rewind();
+
+            if(mFloatBuffer == null || mFloatBuffer.capacity() != nativeBuffer.capacity())
+            {
+                mFloatBuffer = FloatBuffer.allocate(nativeBuffer.capacity());
+            }
+
+            mFloatBuffer.rewind();
+
+            int count = 0;
+
+            while(nativeBuffer.hasRemaining() && count < length)
+            {
+                byte sample = nativeBuffer.get();
+                count++;
+
+                mFloatBuffer.put(LOOKUP_VALUES[(sample & 0xFF)]);
+            }
+
+            ReusableComplexBuffer buffer = mQueue.getBuffer(mFloatBuffer.capacity());
+            buffer.reloadFrom(mFloatBuffer, System.currentTimeMillis());
+            return buffer;
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        int bufferSize = args.length > 0 ? Integer.parseInt(args[0]) : 131072;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+
+        new SampleConverterBenchmark(bufferSize, iterations).run();
+
+        //Buffer pools schedule timers on the shared thread pool which would otherwise keep the JVM running
+        System.exit(0);
+    }
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * sdr-trunk
+ * Copyright (C) 2014-2018 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by  the Free Software Foundation, either version 3 of the License, or  (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful,  but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License  along with this program.
+ * If not, see <http://www.gnu.org/licenses/>
+ *
+ ******************************************************************************/
+package io.github.dsheirer.source.tuner.usb.converter;
+
+public class SignedByteSampleConverter extends NativeBufferConverter
+{
+    private final static float[] LOOKUP_VALUES;
+
+    //Creates a static lookup table, indexed by the unsigned byte value, that converts the signed 8-bit value range
+    //of -128 to 127 into scaled float values of -1.0 to 0 to 1.0
+    static
+    {
+        LOOKUP_VALUES = new float[256];
+
+        for(int x = 0; x < 256; x++)
+        {
+            LOOKUP_VALUES[x] = (float)((byte)x) / 128.0f;
+        }
+    }
+
+    /**
+     * Converts native byte buffers containing signed 8-bit complex samples (e.g. HackRF) into complex float samples
+     * loaded into a tracked, reusable complex sample buffer.
+     */
+    public SignedByteSampleConverter()
+    {
+    }
+
+    /**
+     * Each signed 8-bit sample byte produces one float value
+     */
+    @Override
+    protected int getSampleCount(int length)
+    {
+        return length & ~1;
+    }
+
+    /**
+     * Converts the signed 8-bit complex samples into floats using a lookup table.
+     *
+     * @param bytes containing 8-bit complex samples
+     * @param samples to receive the converted samples
+     */
+    @Override
+    protected void convertSamples(byte[] bytes, float[] samples)
+    {
+        ByteSampleConverter.convert(bytes, samples, LOOKUP_VALUES);
+    }
+}
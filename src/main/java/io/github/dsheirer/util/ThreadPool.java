@@ -22,6 +22,7 @@ import io.github.dsheirer.controller.NamingThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -31,6 +32,8 @@ public class ThreadPool
 
     private static int CORES = Runtime.getRuntime().availableProcessors();
     public static ScheduledExecutorService SCHEDULED;
+    public static ExecutorService CHANNELIZER;
+    public static ExecutorService PIPELINE;
 
     static
     {
@@ -38,6 +41,20 @@ public class ThreadPool
         CORES = (CORES < 2 ? 2 : CORES);
 
         SCHEDULED = Executors.newScheduledThreadPool(CORES, new NamingThreadFactory("sdrtrunk"));
+
+        //Worker pool for splitting polyphase channelizer workload across the available processors/cores
+        CHANNELIZER = Executors.newFixedThreadPool(CORES, new NamingThreadFactory("sdrtrunk channelizer"));
+
+        //Worker pool for event-driven sample pipeline stages that are woken by data arrival
+        PIPELINE = Executors.newFixedThreadPool(CORES, new NamingThreadFactory("sdrtrunk pipeline"));
+    }
+
+    /**
+     * Number of threads in the application thread pools
+     */
+    public static int getCoreCount()
+    {
+        return CORES;
     }
 
     /**
@@ -17,17 +17,26 @@
  ******************************************************************************/
 package io.github.dsheirer.util;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 
+/**
+ * Thread-safe timestamp formatting in the local time zone.
+ *
+ * The formatted date and hour are cached for the current hour of the day so that formatting a timestamp only requires
+ * appending the cached date and calculating the minutes, seconds and milliseconds from the start of the hour.  The
+ * cache is an immutable object that is replaced when a timestamp falls outside of the cached hour.
+ */
 public class TimeStamp
 {
-	private static SimpleDateFormat mSDFDate = new SimpleDateFormat( "yyyyMMdd" );
-	private static SimpleDateFormat mSDFTime = new SimpleDateFormat( "HHmmss" );
-	private static SimpleDateFormat mSDFTimeWithMilliseconds = new SimpleDateFormat( "HHmmss.SSS" );
+	private static final long MILLISECONDS_PER_HOUR = 3600000;
+
+	private static volatile HourCache sHourCache;
 
 	/**
-	 * Returns the current system date formatted as yyyy-MM-dd
+	 * Returns the current system date formatted as yyyyMMdd
 	 */
 	public static String getFormattedDate()
 	{
@@ -35,15 +44,15 @@ public class TimeStamp
 	}
 
 	/**
-	 * Returns the timestamp formatted as a date of yyyy-MM-dd
+	 * Returns the timestamp formatted as a date of yyyyMMdd
 	 */
 	public static String getFormattedDate( long timestamp )
 	{
-		return mSDFDate.format( new Date( timestamp ) );
+		return getHourCache( timestamp ).mDate;
 	}
 	
 	/**
-	 * Returns the current system time formatted as HH:mm:ss
+	 * Returns the current system time formatted as HHmmss
 	 */
 	public static String getFormattedTime()
 	{
@@ -51,23 +60,27 @@ public class TimeStamp
 	}
 
 	/**
-	 * Returns the timestamp formatted as a time of HH:mm:ss
+	 * Returns the timestamp formatted as a time of HHmmss
 	 */
 	public static String getFormattedTime( long timestamp )
 	{
-		return mSDFTime.format( new Date( timestamp ) );
+		StringBuilder sb = new StringBuilder( 6 );
+		appendTime( sb, timestamp, false );
+		return sb.toString();
 	}
 
 	/**
-	 * Returns the timestamp formatted as a time of HH:mm:ss
+	 * Returns the timestamp formatted as a time of HHmmss.SSS
 	 */
 	public static String getFormattedTimeWithMilliseconds( long timestamp )
 	{
-		return mSDFTimeWithMilliseconds.format( new Date( timestamp ) );
+		StringBuilder sb = new StringBuilder( 10 );
+		appendTime( sb, timestamp, true );
+		return sb.toString();
 	}
 
 	/**
-	 * Returns current system time formatted as yyyy-MM-dd*HH:mm:ss
+	 * Returns current system time formatted as yyyyMMdd*HHmmss
 	 * with the * representing the separator attribute
 	 */
 	public static String getTimeStamp( String separator )
@@ -76,22 +89,18 @@ public class TimeStamp
 	}
 	
 	/**
-	 * Returns timestamp formatted as yyyy-MM-dd*HH:mm:ss
+	 * Returns timestamp formatted as yyyyMMdd*HHmmss
 	 * with the * representing the separator attribute
 	 */
 	public static String getTimeStamp( long timestamp, String separator )
 	{
-		StringBuilder sb = new StringBuilder();
-		
-		sb.append( getFormattedDate( timestamp ) );
-		sb.append( separator );
-		sb.append( getFormattedTime( timestamp ) );
-
+		StringBuilder sb = new StringBuilder( 16 );
+		appendTimeStamp( sb, timestamp, separator );
 		return sb.toString();
 	}
 	
 	/**
-	 * Returns current system time formatted as yyyy-MM-dd*HH:mm:ss.SSS
+	 * Returns current system time formatted as yyyyMMdd*HHmmss.SSS
 	 * with the * representing the separator attribute
 	 */
 	public static String getLongTimeStamp( String separator )
@@ -100,19 +109,108 @@ public class TimeStamp
 	}
 	
 	/**
-	 * Returns timestamp formatted as yyyy-MM-dd*HH:mm:ss.SSS
+	 * Returns timestamp formatted as yyyyMMdd*HHmmss.SSS
 	 * with the * representing the separator attribute
 	 */
 	public static String getLongTimeStamp( long timestamp, String separator )
 	{
-		StringBuilder sb = new StringBuilder();
-		
-		sb.append( getFormattedDate( timestamp ) );
+		StringBuilder sb = new StringBuilder( 20 );
+		appendLongTimeStamp( sb, timestamp, separator );
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the timestamp formatted as yyyyMMdd*HHmmss to the string
+	 * builder, with the * representing the separator attribute
+	 */
+	public static void appendTimeStamp( StringBuilder sb, long timestamp, String separator )
+	{
+		sb.append( getHourCache( timestamp ).mDate );
 		sb.append( separator );
-		sb.append( getFormattedTimeWithMilliseconds( timestamp ) );
+		appendTime( sb, timestamp, false );
+	}
 
-		return sb.toString();
+	/**
+	 * Appends the timestamp formatted as yyyyMMdd*HHmmss.SSS to the string
+	 * builder, with the * representing the separator attribute
+	 */
+	public static void appendLongTimeStamp( StringBuilder sb, long timestamp, String separator )
+	{
+		sb.append( getHourCache( timestamp ).mDate );
+		sb.append( separator );
+		appendTime( sb, timestamp, true );
 	}
-	
-}
 
+	/**
+	 * Appends the time formatted as HHmmss or HHmmss.SSS
+	 */
+	private static void appendTime( StringBuilder sb, long timestamp, boolean milliseconds )
+	{
+		HourCache cache = getHourCache( timestamp );
+
+		int elapsed = (int)( timestamp - cache.mStart );
+
+		appendTwoDigits( sb, cache.mHour );
+		appendTwoDigits( sb, elapsed / 60000 );
+		appendTwoDigits( sb, ( elapsed / 1000 ) % 60 );
+
+		if( milliseconds )
+		{
+			int millis = elapsed % 1000;
+
+			sb.append( '.' );
+			sb.append( (char)( '0' + millis / 100 ) );
+			appendTwoDigits( sb, millis % 100 );
+		}
+	}
+
+	private static void appendTwoDigits( StringBuilder sb, int value )
+	{
+		sb.append( (char)( '0' + value / 10 ) );
+		sb.append( (char)( '0' + value % 10 ) );
+	}
+
+	/**
+	 * Returns the cached date and hour for the timestamp, updating the cache
+	 * when the timestamp is outside of the currently cached hour.
+	 */
+	private static HourCache getHourCache( long timestamp )
+	{
+		HourCache cache = sHourCache;
+
+		if( cache == null || timestamp < cache.mStart || timestamp >= cache.mEnd )
+		{
+			cache = new HourCache( timestamp );
+			sHourCache = cache;
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Immutable formatted date and hour of day for a one hour interval
+	 */
+	private static class HourCache
+	{
+		private final long mStart;
+		private final long mEnd;
+		private final String mDate;
+		private final int mHour;
+
+		public HourCache( long timestamp )
+		{
+			ZonedDateTime hour = Instant.ofEpochMilli( timestamp )
+				.atZone( ZoneId.systemDefault() ).truncatedTo( ChronoUnit.HOURS );
+
+			mStart = hour.toInstant().toEpochMilli();
+			mEnd = mStart + MILLISECONDS_PER_HOUR;
+			mHour = hour.getHour();
+
+			StringBuilder sb = new StringBuilder( 8 );
+			sb.append( hour.getYear() );
+			appendTwoDigits( sb, hour.getMonthValue() );
+			appendTwoDigits( sb, hour.getDayOfMonth() );
+			mDate = sb.toString();
+		}
+	}
+}